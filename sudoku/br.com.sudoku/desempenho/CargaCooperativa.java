@@ -0,0 +1,181 @@
+package desempenho;
+
+import enums.ResultadoJogadaCooperativa;
+import matriz.Celula;
+import matriz.Regras;
+import matriz.Sudoku;
+import matriz.TabuleiroCooperativo;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mede a vazão do {@link TabuleiroCooperativo} com várias threads jogando no mesmo tabuleiro.
+ * <p>
+ * Cada thread sorteia uma célula e um valor: se a célula está vazia, joga; senão, apaga. Todas
+ * disputam as mesmas 81 células e as mesmas 9 palavras de ocupação, o pior caso de contenção.
+ * Para cada número de threads mede o tabuleiro cooperativo e, como referência, um
+ * {@link Sudoku} comum com todas as jogadas sincronizadas nele (a trava global). No fim de cada
+ * medição confere que nenhuma unidade ficou com valor repetido.
+ *
+ * <pre>
+ *     java desempenho.CargaCooperativa threads=1,2,4,8 duracao=3
+ * </pre>
+ */
+public class CargaCooperativa {
+    private static final int TAMANHO = 9;
+    private static final Duration AQUECIMENTO = Duration.ofSeconds(1);
+
+    private final Duration duracao;
+    private volatile boolean parar;
+    private volatile boolean medindo;
+
+    public CargaCooperativa(Duration duracao) {
+        this.duracao = duracao;
+    }
+
+    /**
+     * Mede o tabuleiro cooperativo com um número de threads.
+     *
+     * @return As operações (jogadas e apagamentos tentados) por segundo.
+     */
+    public double medirCooperativo(int threads) throws InterruptedException {
+        TabuleiroCooperativo tabuleiro = new TabuleiroCooperativo(Regras.classico(TAMANHO));
+        double vazao = medir(threads, (jogador, random) -> {
+            int linha = random.nextInt(TAMANHO);
+            int coluna = random.nextInt(TAMANHO);
+            ResultadoJogadaCooperativa resultado = tabuleiro.getValor(linha, coluna) == 0
+                    ? tabuleiro.jogar(jogador, linha, coluna, random.nextInt(TAMANHO) + 1)
+                    : tabuleiro.apagar(linha, coluna);
+            return resultado == ResultadoJogadaCooperativa.ACEITA;
+        });
+        conferir(tabuleiro.paraVetor(), tabuleiro.getPreenchidas());
+        return vazao;
+    }
+
+    /**
+     * Mede um {@link Sudoku} com as jogadas sincronizadas nele, com um número de threads.
+     */
+    public double medirTravaGlobal(int threads) throws InterruptedException {
+        Sudoku sudoku = new Sudoku(Regras.classico(TAMANHO));
+        double vazao = medir(threads, (jogador, random) -> {
+            int linha = random.nextInt(TAMANHO);
+            int coluna = random.nextInt(TAMANHO);
+            int valor = random.nextInt(TAMANHO) + 1;
+            synchronized (sudoku) {
+                Celula celula = sudoku.getTabuleiro().getCelula(linha, coluna);
+                if (celula.isEmpty()) {
+                    return sudoku.fazerJogada(linha, coluna, valor);
+                }
+                celula.reset();
+                return true;
+            }
+        });
+        int[] valores = sudoku.getTabuleiro().paraVetor();
+        int preenchidas = 0;
+        for (int valor : valores) {
+            preenchidas += valor != 0 ? 1 : 0;
+        }
+        conferir(valores, preenchidas);
+        return vazao;
+    }
+
+    private double medir(int threads, Operacao operacao) throws InterruptedException {
+        LongAdder operacoes = new LongAdder();
+        parar = false;
+        medindo = false;
+
+        List<Thread> jogadores = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            int jogador = i;
+            jogadores.add(Thread.ofPlatform().name("jogador-" + i).start(() -> {
+                SplittableRandom random = new SplittableRandom(jogador);
+                long contagem = 0;
+                while (!parar) {
+                    operacao.executar(jogador, random);
+                    if (medindo) {
+                        contagem++;
+                    }
+                }
+                operacoes.add(contagem);
+            }));
+        }
+
+        Thread.sleep(AQUECIMENTO.toMillis());
+        medindo = true;
+        long inicio = System.nanoTime();
+        Thread.sleep(duracao.toMillis());
+        medindo = false;
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        parar = true;
+        for (Thread jogador : jogadores) {
+            jogador.join();
+        }
+        return operacoes.sum() / segundos;
+    }
+
+    /**
+     * Confere que nenhuma unidade tem valor repetido e que a contagem de preenchidas bate.
+     *
+     * @throws IllegalStateException se o tabuleiro ficou inconsistente.
+     */
+    private static void conferir(int[] valores, int preenchidas) {
+        Regras regras = Regras.classico(TAMANHO);
+        int contadas = 0;
+        for (int valor : valores) {
+            contadas += valor != 0 ? 1 : 0;
+        }
+        if (contadas != preenchidas) {
+            throw new IllegalStateException("Preenchidas: " + preenchidas + ", contadas: " + contadas);
+        }
+        for (int u = 0; u < regras.getQuantidadeUnidades(); u++) {
+            int vistos = 0;
+            for (int c : regras.getUnidade(u)) {
+                int bit = valores[c] == 0 ? 0 : 1 << valores[c];
+                if ((vistos & bit) != 0) {
+                    throw new IllegalStateException("Valor " + valores[c] + " repetido na unidade " + u);
+                }
+                vistos |= bit;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Operacao {
+        boolean executar(int jogador, SplittableRandom random);
+    }
+
+    /**
+     * Mede pela linha de comando. Argumentos no formato chave=valor: threads (lista separada por
+     * vírgulas) e duracao (segundos por medição).
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int processadores = Runtime.getRuntime().availableProcessors();
+        String threads = "1," + processadores + "," + 2 * processadores;
+        Duration duracao = Duration.ofSeconds(3);
+        for (String argumento : args) {
+            int separador = argumento.indexOf('=');
+            if (separador < 0) {
+                throw new IllegalArgumentException("Argumento sem valor: " + argumento);
+            }
+            String chave = argumento.substring(0, separador);
+            String valor = argumento.substring(separador + 1);
+            switch (chave) {
+                case "threads" -> threads = valor;
+                case "duracao" -> duracao = Duration.ofMillis((long) (Double.parseDouble(valor) * 1000));
+                default -> throw new IllegalArgumentException("Argumento desconhecido: " + chave);
+            }
+        }
+
+        CargaCooperativa carga = new CargaCooperativa(duracao);
+        System.out.printf("%d processadores, %d s por medição%n", processadores, duracao.toSeconds());
+        System.out.printf("%8s %16s %16s%n", "threads", "cooperativo op/s", "trava global op/s");
+        for (String quantidade : threads.split(",")) {
+            int n = Integer.parseInt(quantidade.trim());
+            System.out.printf("%8d %16.0f %16.0f%n", n, carga.medirCooperativo(n), carga.medirTravaGlobal(n));
+        }
+    }
+}
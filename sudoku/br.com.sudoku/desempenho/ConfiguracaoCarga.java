@@ -0,0 +1,177 @@
+package desempenho;
+
+import enums.Dificuldade;
+import enums.OperacaoCarga;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Parâmetros de um teste de carga do {@link SimuladorCarga}.
+ * <p>
+ * As instâncias são imutáveis: os métodos {@code com...} devolvem uma nova cópia.
+ *
+ * <pre>
+ *     ConfiguracaoCarga configuracao = ConfiguracaoCarga.padrao()
+ *             .comJogadores(5000)
+ *             .comDuracao(Duration.ofMinutes(1))
+ *             .comTaxaPorJogador(2.0)
+ *             .comPeso(OperacaoCarga.DICA, 20);
+ * </pre>
+ */
+public final class ConfiguracaoCarga {
+    private static final ConfiguracaoCarga PADRAO = new ConfiguracaoCarga(
+            1000, Duration.ofSeconds(30), Duration.ofSeconds(5), 1.0, 32, Dificuldade.MEDIO, pesosPadrao());
+
+    private final int jogadores;
+    private final Duration duracao;
+    private final Duration aquecimento;
+    private final double taxaPorJogador;
+    private final int puzzlesIniciais;
+    private final Dificuldade dificuldade;
+    private final EnumMap<OperacaoCarga, Integer> pesos;
+
+    private ConfiguracaoCarga(int jogadores, Duration duracao, Duration aquecimento, double taxaPorJogador,
+                              int puzzlesIniciais, Dificuldade dificuldade, EnumMap<OperacaoCarga, Integer> pesos) {
+        this.jogadores = jogadores;
+        this.duracao = duracao;
+        this.aquecimento = aquecimento;
+        this.taxaPorJogador = taxaPorJogador;
+        this.puzzlesIniciais = puzzlesIniciais;
+        this.dificuldade = dificuldade;
+        this.pesos = pesos;
+    }
+
+    /**
+     * Mil jogadores por 30 segundos (após 5 de aquecimento), cada um fazendo uma operação por
+     * segundo, com uma mistura parecida com a de uma sessão real: muitas jogadas, algumas
+     * verificações e desfazer, poucas dicas e jogos novos.
+     */
+    public static ConfiguracaoCarga padrao() {
+        return PADRAO;
+    }
+
+    private static EnumMap<OperacaoCarga, Integer> pesosPadrao() {
+        EnumMap<OperacaoCarga, Integer> pesos = new EnumMap<>(OperacaoCarga.class);
+        pesos.put(OperacaoCarga.JOGADA, 60);
+        pesos.put(OperacaoCarga.DESFAZER, 10);
+        pesos.put(OperacaoCarga.VERIFICAR_COMPLETO, 10);
+        pesos.put(OperacaoCarga.SALVAR, 8);
+        pesos.put(OperacaoCarga.CARREGAR, 5);
+        pesos.put(OperacaoCarga.DICA, 5);
+        pesos.put(OperacaoCarga.NOVO_JOGO, 2);
+        return pesos;
+    }
+
+    /**
+     * @param jogadores O número de jogadores simulados, cada um em uma thread virtual.
+     */
+    public ConfiguracaoCarga comJogadores(int jogadores) {
+        if (jogadores <= 0) {
+            throw new IllegalArgumentException("O número de jogadores deve ser positivo: " + jogadores);
+        }
+        return new ConfiguracaoCarga(jogadores, duracao, aquecimento, taxaPorJogador, puzzlesIniciais, dificuldade, pesos);
+    }
+
+    /**
+     * @param duracao O tempo de medição, sem contar o aquecimento.
+     */
+    public ConfiguracaoCarga comDuracao(Duration duracao) {
+        if (duracao.isNegative() || duracao.isZero()) {
+            throw new IllegalArgumentException("A duração deve ser positiva: " + duracao);
+        }
+        return new ConfiguracaoCarga(jogadores, duracao, aquecimento, taxaPorJogador, puzzlesIniciais, dificuldade, pesos);
+    }
+
+    /**
+     * @param aquecimento O tempo inicial em que a carga roda sem ser medida (JIT, caches).
+     */
+    public ConfiguracaoCarga comAquecimento(Duration aquecimento) {
+        if (aquecimento.isNegative()) {
+            throw new IllegalArgumentException("O aquecimento não pode ser negativo: " + aquecimento);
+        }
+        return new ConfiguracaoCarga(jogadores, duracao, aquecimento, taxaPorJogador, puzzlesIniciais, dificuldade, pesos);
+    }
+
+    /**
+     * @param taxaPorJogador Operações por segundo de cada jogador, ou 0 para não limitar
+     *                       (cada jogador faz a próxima operação assim que a anterior termina).
+     */
+    public ConfiguracaoCarga comTaxaPorJogador(double taxaPorJogador) {
+        if (taxaPorJogador < 0 || Double.isNaN(taxaPorJogador)) {
+            throw new IllegalArgumentException("Taxa inválida: " + taxaPorJogador);
+        }
+        return new ConfiguracaoCarga(jogadores, duracao, aquecimento, taxaPorJogador, puzzlesIniciais, dificuldade, pesos);
+    }
+
+    /**
+     * @param puzzlesIniciais Quantos puzzles gerar antes do teste; os jogadores começam carregando
+     *                        um deles, para que a geração não domine o início da carga.
+     */
+    public ConfiguracaoCarga comPuzzlesIniciais(int puzzlesIniciais) {
+        if (puzzlesIniciais <= 0) {
+            throw new IllegalArgumentException("O número de puzzles deve ser positivo: " + puzzlesIniciais);
+        }
+        return new ConfiguracaoCarga(jogadores, duracao, aquecimento, taxaPorJogador, puzzlesIniciais, dificuldade, pesos);
+    }
+
+    public ConfiguracaoCarga comDificuldade(Dificuldade dificuldade) {
+        return new ConfiguracaoCarga(jogadores, duracao, aquecimento, taxaPorJogador, puzzlesIniciais, dificuldade, pesos);
+    }
+
+    /**
+     * @param operacao A operação.
+     * @param peso     O peso relativo da operação na mistura (0 a remove).
+     */
+    public ConfiguracaoCarga comPeso(OperacaoCarga operacao, int peso) {
+        if (peso < 0) {
+            throw new IllegalArgumentException("O peso não pode ser negativo: " + peso);
+        }
+        EnumMap<OperacaoCarga, Integer> novos = new EnumMap<>(pesos);
+        if (peso == 0) {
+            novos.remove(operacao);
+        } else {
+            novos.put(operacao, peso);
+        }
+        if (novos.isEmpty()) {
+            throw new IllegalArgumentException("A mistura precisa de ao menos uma operação");
+        }
+        return new ConfiguracaoCarga(jogadores, duracao, aquecimento, taxaPorJogador, puzzlesIniciais, dificuldade, novos);
+    }
+
+    public int getJogadores() {
+        return jogadores;
+    }
+
+    public Duration getDuracao() {
+        return duracao;
+    }
+
+    public Duration getAquecimento() {
+        return aquecimento;
+    }
+
+    public double getTaxaPorJogador() {
+        return taxaPorJogador;
+    }
+
+    public int getPuzzlesIniciais() {
+        return puzzlesIniciais;
+    }
+
+    public Dificuldade getDificuldade() {
+        return dificuldade;
+    }
+
+    public Map<OperacaoCarga, Integer> getPesos() {
+        return Collections.unmodifiableMap(pesos);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ConfiguracaoCarga[jogadores=%d, duracao=%s, aquecimento=%s, taxa=%.2f/s, dificuldade=%s, pesos=%s]",
+                jogadores, duracao, aquecimento, taxaPorJogador, dificuldade, pesos);
+    }
+}
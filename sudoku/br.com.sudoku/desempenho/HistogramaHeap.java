@@ -0,0 +1,120 @@
+package desempenho;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Histograma de classes do heap: quantas instâncias e quantos bytes vivos cada classe ocupa.
+ * <p>
+ * Vem do comando de diagnóstico {@code GC.class_histogram} da JVM (o mesmo do
+ * {@code jcmd <pid> GC.class_histogram}), que faz uma coleta completa antes de contar:
+ * só objetos alcançáveis entram. A diferença entre dois histogramas, tirados antes e depois
+ * de criar objetos que continuam referenciados, é o tamanho retido por eles; o próprio
+ * histograma anterior, vivo durante a segunda captura, também entra na diferença.
+ */
+public final class HistogramaHeap {
+    private static final String COMANDO_DIAGNOSTICO = "com.sun.management:type=DiagnosticCommand";
+    // "   1:          5120         403376  [B (java.base@21)"
+    private static final Pattern LINHA = Pattern.compile("^\\s*\\d+:\\s+(\\d+)\\s+(\\d+)\\s+(\\S+).*$");
+    // objetos de preenchimento do G1 nas sobras dos TLABs: não são objetos da aplicação
+    private static final String PREENCHIMENTO = "jdk.internal.vm.Filler";
+
+    private final Map<String, long[]> classes;
+    private final long instancias;
+    private final long bytes;
+
+    private HistogramaHeap(Map<String, long[]> classes) {
+        this.classes = classes;
+        long totalInstancias = 0;
+        long totalBytes = 0;
+        for (long[] contagem : classes.values()) {
+            totalInstancias += contagem[0];
+            totalBytes += contagem[1];
+        }
+        this.instancias = totalInstancias;
+        this.bytes = totalBytes;
+    }
+
+    /**
+     * Coleta o lixo e captura o histograma dos objetos vivos.
+     *
+     * @return O histograma, ou Optional.empty() se a JVM não oferece o comando de diagnóstico
+     *         (JVMs que não são HotSpot, ou com o MBean desativado).
+     */
+    public static Optional<HistogramaHeap> capturar() {
+        String saida;
+        try {
+            saida = (String) ManagementFactory.getPlatformMBeanServer().invoke(
+                    new ObjectName(COMANDO_DIAGNOSTICO), "gcClassHistogram",
+                    new Object[]{null}, new String[]{String[].class.getName()});
+        } catch (JMException e) {
+            return Optional.empty();
+        }
+        return Optional.of(ler(saida));
+    }
+
+    /**
+     * Lê a saída textual do {@code GC.class_histogram}.
+     */
+    static HistogramaHeap ler(String saida) {
+        Map<String, long[]> classes = new HashMap<>();
+        for (String linha : saida.split("\\R")) {
+            Matcher m = LINHA.matcher(linha);
+            if (m.matches() && !m.group(3).contains(PREENCHIMENTO)) {
+                classes.merge(m.group(3), new long[]{Long.parseLong(m.group(1)), Long.parseLong(m.group(2))},
+                        (a, b) -> new long[]{a[0] + b[0], a[1] + b[1]});
+            }
+        }
+        return new HistogramaHeap(classes);
+    }
+
+    /**
+     * Calcula o que mudou desde um histograma anterior (valores negativos para o que foi liberado).
+     */
+    public HistogramaHeap menos(HistogramaHeap anterior) {
+        Map<String, long[]> diferenca = new HashMap<>();
+        for (Map.Entry<String, long[]> entrada : classes.entrySet()) {
+            long[] antes = anterior.classes.getOrDefault(entrada.getKey(), new long[2]);
+            diferenca.put(entrada.getKey(), new long[]{entrada.getValue()[0] - antes[0], entrada.getValue()[1] - antes[1]});
+        }
+        for (Map.Entry<String, long[]> entrada : anterior.classes.entrySet()) {
+            diferenca.putIfAbsent(entrada.getKey(), new long[]{-entrada.getValue()[0], -entrada.getValue()[1]});
+        }
+        diferenca.values().removeIf(contagem -> contagem[0] == 0 && contagem[1] == 0);
+        return new HistogramaHeap(diferenca);
+    }
+
+    public long getInstancias() {
+        return instancias;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getBytes(String classe) {
+        return classes.getOrDefault(classe, new long[2])[1];
+    }
+
+    public long getInstancias(String classe) {
+        return classes.getOrDefault(classe, new long[2])[0];
+    }
+
+    /**
+     * @return Os nomes das classes que mais ocupam bytes, da maior para a menor.
+     */
+    public List<String> maiores(int quantidade) {
+        return classes.entrySet().stream()
+                .sorted(Map.Entry.<String, long[]>comparingByValue((a, b) -> Long.compare(b[1], a[1])))
+                .limit(quantidade)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+}
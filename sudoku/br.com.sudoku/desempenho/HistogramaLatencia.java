@@ -0,0 +1,95 @@
+package desempenho;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latências em nanossegundos, seguro para várias threads.
+ * <p>
+ * Usa faixas log-lineares: cada potência de 2 é dividida em {@value #SUBFAIXAS} faixas iguais,
+ * então qualquer percentil tem erro relativo de no máximo 1/{@value #SUBFAIXAS} (cerca de 3%),
+ * com memória fixa e sem guardar as amostras.
+ */
+public final class HistogramaLatencia {
+    private static final int BITS_SUBFAIXA = 5;
+    private static final int SUBFAIXAS = 1 << BITS_SUBFAIXA;
+    private static final int EXPOENTES = 64 - BITS_SUBFAIXA + 1;
+
+    private final AtomicLongArray contagens = new AtomicLongArray(EXPOENTES * SUBFAIXAS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder soma = new LongAdder();
+    private final LongAccumulator maximo = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Registra uma amostra.
+     *
+     * @param nanos A latência em nanossegundos (valores negativos contam como zero).
+     */
+    public void registrar(long nanos) {
+        long valor = Math.max(0, nanos);
+        contagens.incrementAndGet(indice(valor));
+        total.increment();
+        soma.add(valor);
+        maximo.accumulate(valor);
+    }
+
+    /**
+     * Calcula um percentil.
+     *
+     * @param fracao O percentil entre 0 e 1 (ex: 0.99 para o p99).
+     * @return O limite superior da faixa que contém o percentil, em nanossegundos.
+     */
+    public long percentil(double fracao) {
+        long quantidade = getQuantidade();
+        if (quantidade == 0) {
+            return 0;
+        }
+
+        long alvo = Math.max(1, (long) Math.ceil(fracao * quantidade));
+        long acumulado = 0;
+        for (int i = 0; i < contagens.length(); i++) {
+            acumulado += contagens.get(i);
+            if (acumulado >= alvo) {
+                return Math.min(limiteSuperior(i), getMaximo());
+            }
+        }
+        return getMaximo();
+    }
+
+    public long getQuantidade() {
+        return total.sum();
+    }
+
+    public long getMaximo() {
+        return maximo.get();
+    }
+
+    public double getMedia() {
+        long quantidade = getQuantidade();
+        return quantidade == 0 ? 0 : (double) soma.sum() / quantidade;
+    }
+
+    /**
+     * Faixa do valor: valores menores que {@value #SUBFAIXAS} têm faixa própria; os demais
+     * usam o expoente e os {@value #BITS_SUBFAIXA} bits seguintes ao mais significativo.
+     */
+    private static int indice(long valor) {
+        if (valor < SUBFAIXAS) {
+            return (int) valor;
+        }
+        int expoente = 63 - Long.numberOfLeadingZeros(valor);
+        int deslocamento = expoente - BITS_SUBFAIXA;
+        int subfaixa = (int) (valor >>> deslocamento) & (SUBFAIXAS - 1);
+        return (deslocamento + 1) * SUBFAIXAS + subfaixa;
+    }
+
+    private static long limiteSuperior(int indice) {
+        if (indice < SUBFAIXAS) {
+            return indice;
+        }
+        int deslocamento = indice / SUBFAIXAS - 1;
+        long subfaixa = indice % SUBFAIXAS;
+        return ((SUBFAIXAS + subfaixa + 1) << deslocamento) - 1;
+    }
+}
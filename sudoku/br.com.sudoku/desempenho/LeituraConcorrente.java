@@ -0,0 +1,233 @@
+package desempenho;
+
+import enums.Dificuldade;
+import enums.ModoLeitura;
+import helpers.ResolvedorHelper;
+import jogo.InstantaneoTabuleiro;
+import jogo.Jogo;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Mede a vazão de um jogador e de vários leitores do mesmo {@link Jogo} ao mesmo tempo.
+ * <p>
+ * O jogador faz e desfaz uma jogada sem parar; cada leitor (uma thread de plataforma, como
+ * um espectador ou a gravação automática) lê o tabuleiro inteiro, sem parar ou com uma pausa
+ * entre as leituras. Sem pausa, com mais leitores que processadores, a vazão do jogador mede
+ * mais a divisão do processador que a disputa pela trava; a pausa simula espectadores que
+ * atualizam a tela de tempos em tempos. Compara três
+ * modos ({@link ModoLeitura}): o jogador sozinho; leitores e jogador sincronizados no jogo
+ * (a trava global que seria necessária sem os instantâneos); e leitores com
+ * {@link Jogo#capturarInstantaneo()}, que não travam o jogador. Para cada modo, informa as
+ * jogadas e leituras por segundo e a latência das jogadas (percentis e máximo), em que
+ * aparecem as esperas pela trava.
+ *
+ * <pre>
+ *     java desempenho.LeituraConcorrente leitores=64 duracao=5 pausa=100
+ * </pre>
+ */
+public class LeituraConcorrente {
+    private static final int LEITORES_PADRAO = 64;
+    private static final Duration DURACAO_PADRAO = Duration.ofSeconds(5);
+    private static final Duration AQUECIMENTO = Duration.ofSeconds(1);
+
+    private final int leitores;
+    private final Duration duracao;
+    private final long pausaNanos;
+    private final String puzzle;
+    private final int linha;
+    private final int coluna;
+    private final int valor;
+
+    private volatile boolean parar;
+    private volatile boolean medindo;
+    // recebe a soma das leituras de cada leitor, para o compilador não descartá-las
+    private volatile int sumidouro;
+
+    /**
+     * @param leitores Quantas threads leem o tabuleiro.
+     * @param duracao  A duração da medição de cada modo.
+     * @param pausa    A pausa de cada leitor entre duas leituras (zero para ler sem parar).
+     */
+    public LeituraConcorrente(int leitores, Duration duracao, Duration pausa) {
+        if (leitores <= 0) {
+            throw new IllegalArgumentException("O número de leitores deve ser positivo: " + leitores);
+        }
+        this.leitores = leitores;
+        this.duracao = duracao;
+        this.pausaNanos = pausa.toNanos();
+
+        Jogo modelo = new Jogo(Dificuldade.MEDIO);
+        modelo.novoJogo();
+        this.puzzle = modelo.salvarJogo();
+
+        // uma célula vazia e um candidato dela: a jogada sempre é aceita
+        int[] candidatos = new ResolvedorHelper().calcularCandidatos(modelo.getTabuleiro());
+        int tamanho = modelo.getTabuleiro().getTamanho();
+        int celula = 0;
+        while (candidatos[celula] == 0) {
+            celula++;
+        }
+        this.linha = celula / tamanho;
+        this.coluna = celula % tamanho;
+        this.valor = Integer.numberOfTrailingZeros(candidatos[celula]) + 1;
+    }
+
+    /**
+     * Mede um modo, bloqueando a thread chamadora durante o aquecimento e a medição.
+     */
+    public Medida medir(ModoLeitura modo) throws InterruptedException {
+        Jogo jogo = new Jogo(Dificuldade.MEDIO);
+        jogo.carregarJogo(puzzle);
+        boolean travaGlobal = modo == ModoLeitura.TRAVA_GLOBAL;
+
+        HistogramaLatencia latencias = new HistogramaLatencia();
+        LongAdder leituras = new LongAdder();
+        long[] jogadas = new long[1];
+        parar = false;
+        medindo = false;
+
+        List<Thread> threads = new ArrayList<>();
+        threads.add(Thread.ofPlatform().name("jogador").start(() -> jogar(jogo, travaGlobal, latencias, jogadas)));
+        if (modo != ModoLeitura.SEM_LEITORES) {
+            for (int i = 0; i < leitores; i++) {
+                threads.add(Thread.ofPlatform().name("leitor-" + i).start(() -> ler(jogo, travaGlobal, leituras)));
+            }
+        }
+
+        Thread.sleep(AQUECIMENTO.toMillis());
+        medindo = true;
+        long inicio = System.nanoTime();
+        Thread.sleep(duracao.toMillis());
+        medindo = false;
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        parar = true;
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return new Medida(modo, jogadas[0] / segundos, leituras.sum() / segundos, latencias);
+    }
+
+    private void jogar(Jogo jogo, boolean travaGlobal, HistogramaLatencia latencias, long[] jogadas) {
+        long contagem = 0;
+        while (!parar) {
+            long inicio = System.nanoTime();
+            if (travaGlobal) {
+                synchronized (jogo) {
+                    jogo.fazerJogada(linha, coluna, valor);
+                }
+                synchronized (jogo) {
+                    jogo.desfazerJogada();
+                }
+            } else {
+                jogo.fazerJogada(linha, coluna, valor);
+                jogo.desfazerJogada();
+            }
+            if (medindo) {
+                latencias.registrar((System.nanoTime() - inicio) / 2);
+                contagem += 2;
+            }
+        }
+        jogadas[0] = contagem;
+    }
+
+    private void ler(Jogo jogo, boolean travaGlobal, LongAdder leituras) {
+        long contagem = 0;
+        int soma = 0;
+        while (!parar) {
+            if (travaGlobal) {
+                synchronized (jogo) {
+                    soma += jogo.getTabuleiro().paraVetor()[0];
+                }
+            } else {
+                InstantaneoTabuleiro instantaneo = jogo.capturarInstantaneo();
+                soma += instantaneo.getValor(linha, coluna);
+            }
+            if (medindo) {
+                contagem++;
+            }
+            if (pausaNanos > 0) {
+                LockSupport.parkNanos(pausaNanos);
+            }
+        }
+        leituras.add(contagem);
+        sumidouro = soma;
+    }
+
+    /**
+     * Vazão de jogadas e leituras de um modo, com a latência das jogadas.
+     */
+    public static final class Medida {
+        private final ModoLeitura modo;
+        private final double jogadasPorSegundo;
+        private final double leiturasPorSegundo;
+        private final HistogramaLatencia latencias;
+
+        Medida(ModoLeitura modo, double jogadasPorSegundo, double leiturasPorSegundo, HistogramaLatencia latencias) {
+            this.modo = modo;
+            this.jogadasPorSegundo = jogadasPorSegundo;
+            this.leiturasPorSegundo = leiturasPorSegundo;
+            this.latencias = latencias;
+        }
+
+        public ModoLeitura getModo() {
+            return modo;
+        }
+
+        public double getJogadasPorSegundo() {
+            return jogadasPorSegundo;
+        }
+
+        public double getLeiturasPorSegundo() {
+            return leiturasPorSegundo;
+        }
+
+        public HistogramaLatencia getLatencias() {
+            return latencias;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-13s %12.0f %14.0f %9.2f %9.2f %9.2f %11.2f", modo, jogadasPorSegundo,
+                    leiturasPorSegundo, latencias.percentil(0.50) / 1e3, latencias.percentil(0.99) / 1e3,
+                    latencias.percentil(0.999) / 1e3, latencias.getMaximo() / 1e3);
+        }
+    }
+
+    /**
+     * Mede os três modos pela linha de comando. Argumentos no formato chave=valor: leitores,
+     * duracao (segundos por modo) e pausa (microssegundos entre as leituras de cada leitor).
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int leitores = LEITORES_PADRAO;
+        Duration duracao = DURACAO_PADRAO;
+        Duration pausa = Duration.ZERO;
+        for (String argumento : args) {
+            int separador = argumento.indexOf('=');
+            if (separador < 0) {
+                throw new IllegalArgumentException("Argumento sem valor: " + argumento);
+            }
+            String chave = argumento.substring(0, separador);
+            String valor = argumento.substring(separador + 1);
+            switch (chave) {
+                case "leitores" -> leitores = Integer.parseInt(valor);
+                case "duracao" -> duracao = Duration.ofMillis((long) (Double.parseDouble(valor) * 1000));
+                case "pausa" -> pausa = Duration.ofNanos((long) (Double.parseDouble(valor) * 1000));
+                default -> throw new IllegalArgumentException("Argumento desconhecido: " + chave);
+            }
+        }
+
+        LeituraConcorrente teste = new LeituraConcorrente(leitores, duracao, pausa);
+        System.out.printf("1 jogador, %d leitores, %d s por modo, pausa de %d µs, %d processadores%n", leitores,
+                duracao.toSeconds(), pausa.toNanos() / 1000, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-13s %12s %14s %9s %9s %9s %11s%n", "modo", "jogadas/s", "leituras/s",
+                "p50 µs", "p99 µs", "p99.9 µs", "máximo µs");
+        for (ModoLeitura modo : ModoLeitura.values()) {
+            System.out.println(teste.medir(modo));
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package desempenho;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mede a alocação de memória e as pausas do coletor de lixo durante um intervalo.
+ * <p>
+ * As pausas vêm das notificações de cada coletor (uma por coleta). Ciclos concorrentes,
+ * que não param a aplicação, são ignorados. A alocação é o total de bytes alocados por
+ * todas as threads, quando a JVM oferece essa medida; threads virtuais são contadas
+ * nas threads da plataforma que as executam.
+ */
+public final class MonitorJvm implements AutoCloseable {
+    private final HistogramaLatencia pausas = new HistogramaLatencia();
+    private final LongAdder coletas = new LongAdder();
+    private final List<NotificationEmitter> emissores = new ArrayList<>();
+    private final NotificationListener ouvinte = this::receber;
+    private final long alocadosInicio;
+
+    public MonitorJvm() {
+        for (GarbageCollectorMXBean coletor : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (coletor instanceof NotificationEmitter emissor) {
+                emissor.addNotificationListener(ouvinte, null, null);
+                emissores.add(emissor);
+            }
+        }
+        this.alocadosInicio = totalAlocado();
+    }
+
+    private void receber(Notification notificacao, Object contexto) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notificacao.getType())) {
+            return;
+        }
+        GarbageCollectionNotificationInfo info =
+                GarbageCollectionNotificationInfo.from((CompositeData) notificacao.getUserData());
+
+        coletas.increment();
+        if (isPausa(info.getGcAction())) {
+            pausas.registrar(info.getGcInfo().getDuration() * 1_000_000L);
+        }
+    }
+
+    /**
+     * Coletas de geração jovem e completas param a aplicação nos coletores clássicos;
+     * nos coletores concorrentes só as ações marcadas como pausa contam.
+     */
+    private static boolean isPausa(String acao) {
+        return acao.contains("pause") || acao.equals("end of minor GC") || acao.equals("end of major GC");
+    }
+
+    /**
+     * @return Os bytes alocados desde a criação do monitor, ou -1 se a JVM não oferece a medida.
+     */
+    public long getBytesAlocados() {
+        long atual = totalAlocado();
+        return atual < 0 || alocadosInicio < 0 ? -1 : atual - alocadosInicio;
+    }
+
+    public HistogramaLatencia getPausas() {
+        return pausas;
+    }
+
+    public long getColetas() {
+        return coletas.sum();
+    }
+
+    private static long totalAlocado() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean medidor && medidor.isThreadAllocatedMemorySupported()) {
+            if (!medidor.isThreadAllocatedMemoryEnabled()) {
+                medidor.setThreadAllocatedMemoryEnabled(true);
+            }
+            return medidor.getTotalThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    @Override
+    public void close() {
+        for (NotificationEmitter emissor : emissores) {
+            try {
+                emissor.removeNotificationListener(ouvinte);
+            } catch (ListenerNotFoundException e) {
+                // já removido
+            }
+        }
+    }
+}
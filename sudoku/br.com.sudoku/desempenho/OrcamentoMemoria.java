@@ -0,0 +1,310 @@
+package desempenho;
+
+import enums.Dificuldade;
+import helpers.ResolvedorHelper;
+import jogo.HistoricoJogadas;
+import jogo.Jogo;
+import matriz.Celula;
+import matriz.Sudoku;
+import matriz.Tabuleiro;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Mede quantos bytes cada objeto do modelo retém no heap e compara com um orçamento.
+ * <p>
+ * Jogos ociosos ficam na memória, então os bytes por {@link Jogo} limitam quantas sessões
+ * cabem em um nó. Para cada cenário (célula, tabuleiro com 0%, 50% e 100% preenchido,
+ * sudoku, histórico e jogo com 0, 100 e 1000 jogadas) cria várias instâncias, mantém todas
+ * referenciadas e divide pelo número de instâncias a diferença entre os histogramas do heap
+ * de antes e de depois ({@link HistogramaHeap}). Uma instância é criada antes da medição para
+ * que caches compartilhados (regras clássicas, executores, cache de soluções) não entrem na conta.
+ * Em JVMs sem o histograma, a medida cai para a diferença do heap usado depois de coletas
+ * completas: mais ruidosa e sem as classes que mais contribuíram.
+ * <p>
+ * Pela linha de comando, termina com código 1 se algum cenário passar do orçamento, para
+ * barrar na integração contínua as mudanças que aumentam o consumo sem ninguém perceber.
+ *
+ * <pre>
+ *     java desempenho.OrcamentoMemoria instancias=1000 orcamento.jogo=4000
+ * </pre>
+ */
+public class OrcamentoMemoria {
+    private static final int INSTANCIAS_PADRAO = 500;
+    private static final int TAMANHO = 9;
+    // coletas seguidas até o heap usado parar de cair, na medida sem histograma
+    private static final int MAXIMO_COLETAS = 5;
+
+    private final Map<String, Cenario> cenarios = new LinkedHashMap<>();
+    private final int instancias;
+
+    /**
+     * @param instancias Quantas instâncias de cada cenário criar; mais instâncias diluem o ruído.
+     */
+    public OrcamentoMemoria(int instancias) {
+        if (instancias <= 0) {
+            throw new IllegalArgumentException("O número de instâncias deve ser positivo: " + instancias);
+        }
+        this.instancias = instancias;
+
+        Jogo modelo = new Jogo(Dificuldade.MEDIO);
+        modelo.novoJogo();
+        String puzzle = modelo.salvarJogo();
+        int[] pistas = modelo.getTabuleiro().paraVetor();
+        int[] solucao = new ResolvedorHelper().solucoes(modelo.getTabuleiro()).findFirst().orElseThrow();
+
+        // orçamentos em bytes por instância, com folga sobre o medido no Java 21 (64 bits, oops comprimidos)
+        adicionar("celula", 40, Celula::new);
+        adicionar("tabuleiro.vazio", 3_800, () -> new Tabuleiro(TAMANHO));
+        adicionar("tabuleiro.50", 3_800, () -> tabuleiro(solucao, solucao.length / 2));
+        adicionar("tabuleiro.100", 3_800, () -> tabuleiro(solucao, solucao.length));
+        adicionar("sudoku", 3_800, () -> sudoku(pistas));
+        adicionar("historico.1000", 9_000, () -> historico(1000));
+        adicionar("jogo", 5_000, () -> jogo(puzzle, 0));
+        adicionar("jogo.100", 5_600, () -> jogo(puzzle, 100));
+        adicionar("jogo.1000", 13_000, () -> jogo(puzzle, 1000));
+    }
+
+    private void adicionar(String nome, long orcamento, Supplier<Object> fabrica) {
+        cenarios.put(nome, new Cenario(nome, orcamento, fabrica));
+    }
+
+    /**
+     * Altera o orçamento de um cenário.
+     *
+     * @param nome      O nome do cenário (ex: "jogo.1000").
+     * @param orcamento Os bytes permitidos por instância.
+     */
+    public void setOrcamento(String nome, long orcamento) {
+        Cenario cenario = cenarios.get(nome);
+        if (cenario == null) {
+            throw new IllegalArgumentException("Cenário desconhecido: " + nome + " (use " + cenarios.keySet() + ")");
+        }
+        cenarios.put(nome, new Cenario(nome, orcamento, cenario.fabrica));
+    }
+
+    /**
+     * Mede todos os cenários, um de cada vez.
+     */
+    public List<Medida> medir() {
+        List<Medida> medidas = new ArrayList<>();
+        for (Cenario cenario : cenarios.values()) {
+            medidas.add(medir(cenario));
+        }
+        return medidas;
+    }
+
+    private Medida medir(Cenario cenario) {
+        // aquece classes e caches compartilhados, e aloca o vetor antes da primeira captura
+        Object primeira = cenario.fabrica.get();
+        Object[] vivos = new Object[instancias];
+
+        // o histograma "antes" está vivo na última captura; "referencia", do mesmo tamanho, fica
+        // viva na captura de "antes", e assim o custo dos próprios histogramas se cancela
+        Optional<HistogramaHeap> referencia = HistogramaHeap.capturar();
+        if (referencia.isEmpty()) {
+            return medirPeloHeapUsado(cenario, primeira, vivos);
+        }
+        HistogramaHeap antes = HistogramaHeap.capturar().orElseThrow();
+        Reference.reachabilityFence(referencia);
+        referencia = null;
+        for (int i = 0; i < instancias; i++) {
+            vivos[i] = cenario.fabrica.get();
+        }
+        HistogramaHeap diferenca = HistogramaHeap.capturar().orElseThrow().menos(antes);
+        Reference.reachabilityFence(vivos);
+        Reference.reachabilityFence(primeira);
+
+        Map<String, Long> maiores = new LinkedHashMap<>();
+        for (String classe : diferenca.maiores(3)) {
+            long bytes = diferenca.getBytes(classe) / instancias;
+            if (bytes > 0) {
+                maiores.put(classe, bytes);
+            }
+        }
+        return new Medida(cenario.nome, diferenca.getBytes() / instancias, cenario.orcamento, maiores);
+    }
+
+    /**
+     * Mede pela diferença do heap usado, para JVMs sem o histograma de classes.
+     */
+    private Medida medirPeloHeapUsado(Cenario cenario, Object primeira, Object[] vivos) {
+        long antes = heapUsadoAposColeta();
+        for (int i = 0; i < instancias; i++) {
+            vivos[i] = cenario.fabrica.get();
+        }
+        long depois = heapUsadoAposColeta();
+        Reference.reachabilityFence(vivos);
+        Reference.reachabilityFence(primeira);
+        return new Medida(cenario.nome, Math.max(0, depois - antes) / instancias, cenario.orcamento, Map.of());
+    }
+
+    /**
+     * Pede coletas completas até o heap usado parar de cair (uma coleta é só um pedido à JVM).
+     */
+    private static long heapUsadoAposColeta() {
+        MemoryMXBean memoria = ManagementFactory.getMemoryMXBean();
+        long usado = Long.MAX_VALUE;
+        for (int i = 0; i < MAXIMO_COLETAS; i++) {
+            memoria.gc();
+            long atual = memoria.getHeapMemoryUsage().getUsed();
+            if (atual >= usado) {
+                break;
+            }
+            usado = atual;
+        }
+        return usado;
+    }
+
+    private static Tabuleiro tabuleiro(int[] valores, int preenchidas) {
+        Tabuleiro tabuleiro = new Tabuleiro(TAMANHO);
+        for (int c = 0; c < preenchidas; c++) {
+            tabuleiro.getCelula(c / TAMANHO, c % TAMANHO).setValor(valores[c]);
+        }
+        return tabuleiro;
+    }
+
+    private static Sudoku sudoku(int[] pistas) {
+        int[][] matriz = new int[TAMANHO][TAMANHO];
+        for (int c = 0; c < pistas.length; c++) {
+            matriz[c / TAMANHO][c % TAMANHO] = pistas[c];
+        }
+        Sudoku sudoku = new Sudoku();
+        sudoku.carregarJogo(matriz);
+        return sudoku;
+    }
+
+    private static HistoricoJogadas historico(int jogadas) {
+        HistoricoJogadas historico = new HistoricoJogadas();
+        for (int i = 0; i < jogadas; i++) {
+            historico.registrar(i % (TAMANHO * TAMANHO), i % TAMANHO, (i + 1) % TAMANHO);
+        }
+        return historico;
+    }
+
+    /**
+     * Carrega o puzzle e faz as jogadas alternando dois candidatos em uma célula vazia.
+     */
+    private static Jogo jogo(String puzzle, int jogadas) {
+        Jogo jogo = new Jogo(Dificuldade.MEDIO);
+        jogo.carregarJogo(puzzle);
+        if (jogadas == 0) {
+            return jogo;
+        }
+
+        int[] candidatos = new ResolvedorHelper().calcularCandidatos(jogo.getTabuleiro());
+        for (int c = 0; c < candidatos.length; c++) {
+            if (Integer.bitCount(candidatos[c]) < 2) {
+                continue;
+            }
+            int primeiro = Integer.numberOfTrailingZeros(candidatos[c]) + 1;
+            int segundo = Integer.numberOfTrailingZeros(candidatos[c] & (candidatos[c] - 1)) + 1;
+            for (int i = 0; i < jogadas; i++) {
+                jogo.fazerJogada(c / TAMANHO, c % TAMANHO, i % 2 == 0 ? primeiro : segundo);
+            }
+            return jogo;
+        }
+        throw new IllegalStateException("Nenhuma célula com dois candidatos no puzzle");
+    }
+
+    private static final class Cenario {
+        private final String nome;
+        private final long orcamento;
+        private final Supplier<Object> fabrica;
+
+        Cenario(String nome, long orcamento, Supplier<Object> fabrica) {
+            this.nome = nome;
+            this.orcamento = orcamento;
+            this.fabrica = fabrica;
+        }
+    }
+
+    /**
+     * Bytes retidos por instância de um cenário, com as classes que mais contribuíram.
+     */
+    public static final class Medida {
+        private final String cenario;
+        private final long bytes;
+        private final long orcamento;
+        private final Map<String, Long> maiores;
+
+        Medida(String cenario, long bytes, long orcamento, Map<String, Long> maiores) {
+            this.cenario = cenario;
+            this.bytes = bytes;
+            this.orcamento = orcamento;
+            this.maiores = maiores;
+        }
+
+        public String getCenario() {
+            return cenario;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public long getOrcamento() {
+            return orcamento;
+        }
+
+        public boolean isDentroDoOrcamento() {
+            return bytes <= orcamento;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(String.format("%-16s %8d %8d  %-7s",
+                    cenario, bytes, orcamento, isDentroDoOrcamento() ? "ok" : "EXCEDIDO"));
+            maiores.forEach((classe, bytesClasse) -> sb.append(' ').append(classe).append('=').append(bytesClasse));
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Mede os cenários pela linha de comando e termina com código 1 se algum passar do orçamento.
+     * Argumentos no formato chave=valor: instancias e orcamento.CENARIO (bytes por instância,
+     * ex: orcamento.jogo=4000).
+     */
+    public static void main(String[] args) {
+        int instancias = INSTANCIAS_PADRAO;
+        Map<String, Long> orcamentos = new LinkedHashMap<>();
+        for (String argumento : args) {
+            int separador = argumento.indexOf('=');
+            if (separador < 0) {
+                throw new IllegalArgumentException("Argumento sem valor: " + argumento);
+            }
+            String chave = argumento.substring(0, separador);
+            String valor = argumento.substring(separador + 1);
+
+            if (chave.startsWith("orcamento.")) {
+                orcamentos.put(chave.substring(10), Long.parseLong(valor));
+            } else if (chave.equals("instancias")) {
+                instancias = Integer.parseInt(valor);
+            } else {
+                throw new IllegalArgumentException("Argumento desconhecido: " + chave);
+            }
+        }
+
+        OrcamentoMemoria orcamento = new OrcamentoMemoria(instancias);
+        orcamentos.forEach(orcamento::setOrcamento);
+
+        System.out.printf("%-16s %8s %8s  %-7s %s%n", "cenário", "bytes", "orçam.", "", "maiores classes (bytes)");
+        boolean excedido = false;
+        for (Medida medida : orcamento.medir()) {
+            System.out.println(medida);
+            excedido |= !medida.isDentroDoOrcamento();
+        }
+        if (excedido) {
+            System.err.println("Orçamento de memória excedido");
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package desempenho;
+
+import enums.OperacaoCarga;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Resultado de um teste de carga: vazão e latências por operação, taxa de alocação
+ * e pausas do coletor de lixo durante a medição.
+ */
+public final class RelatorioCarga {
+    private static final double NANOS_POR_MS = 1_000_000.0;
+
+    private final Duration duracao;
+    private final int jogadores;
+    private final EnumMap<OperacaoCarga, HistogramaLatencia> latencias;
+    private final EnumMap<OperacaoCarga, Long> erros;
+    private final long bytesAlocados;
+    private final long coletas;
+    private final HistogramaLatencia pausas;
+
+    RelatorioCarga(Duration duracao, int jogadores, EnumMap<OperacaoCarga, HistogramaLatencia> latencias,
+                   EnumMap<OperacaoCarga, Long> erros, long bytesAlocados, long coletas, HistogramaLatencia pausas) {
+        this.duracao = duracao;
+        this.jogadores = jogadores;
+        this.latencias = latencias;
+        this.erros = erros;
+        this.bytesAlocados = bytesAlocados;
+        this.coletas = coletas;
+        this.pausas = pausas;
+    }
+
+    public Duration getDuracao() {
+        return duracao;
+    }
+
+    public int getJogadores() {
+        return jogadores;
+    }
+
+    /**
+     * @return As latências medidas de cada operação executada, em nanossegundos.
+     */
+    public Map<OperacaoCarga, HistogramaLatencia> getLatencias() {
+        return Collections.unmodifiableMap(latencias);
+    }
+
+    /**
+     * @return Quantas execuções de cada operação lançaram exceção.
+     */
+    public Map<OperacaoCarga, Long> getErros() {
+        return Collections.unmodifiableMap(erros);
+    }
+
+    public long getTotalOperacoes() {
+        return latencias.values().stream().mapToLong(HistogramaLatencia::getQuantidade).sum();
+    }
+
+    /**
+     * @return Operações concluídas por segundo, somando todos os jogadores.
+     */
+    public double getVazao() {
+        return getTotalOperacoes() / segundos();
+    }
+
+    /**
+     * @return Operações de um tipo concluídas por segundo.
+     */
+    public double getVazao(OperacaoCarga operacao) {
+        HistogramaLatencia histograma = latencias.get(operacao);
+        return histograma == null ? 0 : histograma.getQuantidade() / segundos();
+    }
+
+    /**
+     * @return Os bytes alocados durante a medição, ou -1 se a JVM não oferece a medida.
+     */
+    public long getBytesAlocados() {
+        return bytesAlocados;
+    }
+
+    /**
+     * @return A taxa de alocação em MB/s, ou -1 se a JVM não oferece a medida.
+     */
+    public double getTaxaAlocacao() {
+        return bytesAlocados < 0 ? -1 : bytesAlocados / (1024.0 * 1024.0) / segundos();
+    }
+
+    public long getColetas() {
+        return coletas;
+    }
+
+    /**
+     * @return As pausas do coletor de lixo durante a medição, em nanossegundos.
+     */
+    public HistogramaLatencia getPausas() {
+        return pausas;
+    }
+
+    private double segundos() {
+        return Math.max(1, duracao.toNanos()) / 1e9;
+    }
+
+    private static String ms(long nanos) {
+        return String.format("%.3f", nanos / NANOS_POR_MS);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Jogadores: %d, duração: %.1fs, operações: %d (%.1f/s)%n",
+                jogadores, segundos(), getTotalOperacoes(), getVazao()));
+        sb.append(String.format("%-20s %10s %10s %10s %10s %10s %10s %8s%n",
+                "operação", "total", "ops/s", "p50 ms", "p99 ms", "p99.9 ms", "máx ms", "erros"));
+        for (Map.Entry<OperacaoCarga, HistogramaLatencia> entrada : latencias.entrySet()) {
+            HistogramaLatencia h = entrada.getValue();
+            sb.append(String.format("%-20s %10d %10.1f %10s %10s %10s %10s %8d%n",
+                    entrada.getKey(), h.getQuantidade(), getVazao(entrada.getKey()),
+                    ms(h.percentil(0.50)), ms(h.percentil(0.99)), ms(h.percentil(0.999)), ms(h.getMaximo()),
+                    erros.getOrDefault(entrada.getKey(), 0L)));
+        }
+        if (bytesAlocados >= 0) {
+            sb.append(String.format("Alocação: %.1f MB/s (%.1f MB)%n",
+                    getTaxaAlocacao(), bytesAlocados / (1024.0 * 1024.0)));
+        } else {
+            sb.append("Alocação: indisponível nesta JVM\n");
+        }
+        sb.append(String.format("GC: %d coletas, %d pausas, total %s ms, máx %s ms, p99 %s ms%n",
+                coletas, pausas.getQuantidade(), ms((long) (pausas.getMedia() * pausas.getQuantidade())),
+                ms(pausas.getMaximo()), ms(pausas.percentil(0.99))));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,247 @@
+package desempenho;
+
+import enums.Dificuldade;
+import enums.OperacaoCarga;
+import jogo.Jogo;
+import matriz.Tabuleiro;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Teste de carga que simula milhares de jogadores usando a API do {@link Jogo} ao mesmo tempo.
+ * <p>
+ * Cada jogador roda em uma thread virtual com o seu próprio jogo e escolhe a próxima operação
+ * sorteando pela mistura de pesos da {@link ConfiguracaoCarga}. Com uma taxa por jogador,
+ * as operações seguem uma agenda (chegadas de Poisson) e a latência é contada a partir do
+ * instante agendado, não do instante em que a operação começou de fato: se o sistema atrasa,
+ * a espera na fila entra na medida, em vez de sumir dos percentis (omissão coordenada).
+ * <p>
+ * Nada é medido durante o aquecimento. O relatório traz vazão e percentis por operação,
+ * a taxa de alocação e as pausas do coletor de lixo da janela de medição.
+ *
+ * <pre>
+ *     java desempenho.SimuladorCarga jogadores=5000 duracao=60 taxa=2 peso.DICA=20
+ * </pre>
+ */
+public class SimuladorCarga {
+    private static final double NANOS_POR_SEGUNDO = 1e9;
+
+    private final ConfiguracaoCarga configuracao;
+    private final OperacaoCarga[] operacoes;
+    private final int[] pesosAcumulados;
+
+    private final EnumMap<OperacaoCarga, HistogramaLatencia> latencias = new EnumMap<>(OperacaoCarga.class);
+    private final EnumMap<OperacaoCarga, LongAdder> erros = new EnumMap<>(OperacaoCarga.class);
+    private volatile boolean parar;
+    private long inicioMedicao;
+
+    public SimuladorCarga(ConfiguracaoCarga configuracao) {
+        this.configuracao = configuracao;
+
+        Map<OperacaoCarga, Integer> pesos = configuracao.getPesos();
+        this.operacoes = pesos.keySet().toArray(new OperacaoCarga[0]);
+        this.pesosAcumulados = new int[operacoes.length];
+        int acumulado = 0;
+        for (int i = 0; i < operacoes.length; i++) {
+            acumulado += pesos.get(operacoes[i]);
+            pesosAcumulados[i] = acumulado;
+        }
+
+        for (OperacaoCarga operacao : operacoes) {
+            latencias.put(operacao, new HistogramaLatencia());
+            erros.put(operacao, new LongAdder());
+        }
+    }
+
+    /**
+     * Executa o teste de carga, bloqueando a thread chamadora até o fim da medição
+     * e de todos os jogadores.
+     *
+     * @return O relatório da janela de medição.
+     */
+    public RelatorioCarga executar() {
+        List<String> puzzles = gerarPuzzlesIniciais();
+
+        long inicio = System.nanoTime();
+        inicioMedicao = inicio + configuracao.getAquecimento().toNanos();
+        parar = false;
+
+        MonitorJvm monitor;
+        long bytesAlocados;
+        long fimMedicao;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < configuracao.getJogadores(); i++) {
+                String puzzle = puzzles.get(i % puzzles.size());
+                long semente = inicio + i;
+                executor.execute(() -> jogar(puzzle, puzzles, semente));
+            }
+
+            dormirAte(inicioMedicao);
+            monitor = new MonitorJvm();
+            dormirAte(inicioMedicao + configuracao.getDuracao().toNanos());
+            fimMedicao = System.nanoTime();
+            bytesAlocados = monitor.getBytesAlocados();
+            parar = true;
+        }
+        monitor.close();
+
+        EnumMap<OperacaoCarga, Long> totalErros = new EnumMap<>(OperacaoCarga.class);
+        erros.forEach((operacao, contador) -> totalErros.put(operacao, contador.sum()));
+        return new RelatorioCarga(Duration.ofNanos(fimMedicao - inicioMedicao), configuracao.getJogadores(),
+                latencias, totalErros, bytesAlocados, monitor.getColetas(), monitor.getPausas());
+    }
+
+    /**
+     * Gera os puzzles que os jogadores carregam ao começar, para que milhares de gerações
+     * simultâneas não sejam o único trabalho medido no início do teste.
+     */
+    private List<String> gerarPuzzlesIniciais() {
+        List<String> puzzles = new ArrayList<>();
+        for (int i = 0; i < configuracao.getPuzzlesIniciais(); i++) {
+            Jogo jogo = new Jogo(configuracao.getDificuldade());
+            jogo.novoJogo();
+            puzzles.add(jogo.salvarJogo());
+        }
+        return puzzles;
+    }
+
+    private void jogar(String puzzle, List<String> puzzles, long semente) {
+        SplittableRandom random = new SplittableRandom(semente);
+        Jogador jogador = new Jogador(configuracao.getDificuldade(), puzzle);
+        double taxa = configuracao.getTaxaPorJogador();
+
+        // começa em um instante aleatório do primeiro intervalo, para não sincronizar os jogadores
+        long agendado = System.nanoTime() + (taxa > 0 ? proximoIntervalo(random, taxa) : 0);
+        while (!parar) {
+            if (taxa > 0) {
+                dormirAte(agendado);
+                if (parar) {
+                    break;
+                }
+            } else {
+                agendado = System.nanoTime();
+            }
+
+            OperacaoCarga operacao = sortear(random);
+            boolean sucesso = true;
+            try {
+                jogador.executar(operacao, random, puzzles);
+            } catch (RuntimeException e) {
+                sucesso = false;
+            }
+            long fim = System.nanoTime();
+
+            if (agendado >= inicioMedicao) {
+                latencias.get(operacao).registrar(fim - agendado);
+                if (!sucesso) {
+                    erros.get(operacao).increment();
+                }
+            }
+            if (taxa > 0) {
+                agendado += proximoIntervalo(random, taxa);
+            }
+        }
+    }
+
+    private OperacaoCarga sortear(SplittableRandom random) {
+        int sorteio = random.nextInt(pesosAcumulados[pesosAcumulados.length - 1]);
+        for (int i = 0; i < pesosAcumulados.length; i++) {
+            if (sorteio < pesosAcumulados[i]) {
+                return operacoes[i];
+            }
+        }
+        return operacoes[operacoes.length - 1];
+    }
+
+    /**
+     * Intervalo exponencial entre chegadas, com média 1/taxa.
+     */
+    private static long proximoIntervalo(SplittableRandom random, double taxa) {
+        return (long) (-Math.log(1.0 - random.nextDouble()) / taxa * NANOS_POR_SEGUNDO);
+    }
+
+    private static void dormirAte(long instante) {
+        long restante;
+        while ((restante = instante - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(restante);
+        }
+    }
+
+    /**
+     * Estado de um jogador simulado.
+     */
+    private static final class Jogador {
+        private final Jogo jogo;
+        private String ultimoSalvo;
+
+        Jogador(Dificuldade dificuldade, String puzzle) {
+            this.jogo = new Jogo(dificuldade);
+            this.jogo.carregarJogo(puzzle);
+            this.ultimoSalvo = puzzle;
+        }
+
+        void executar(OperacaoCarga operacao, SplittableRandom random, List<String> puzzles) {
+            switch (operacao) {
+                case NOVO_JOGO -> jogo.novoJogo();
+                case JOGADA -> jogar(random);
+                case DESFAZER -> jogo.desfazerJogada();
+                case DICA -> jogo.obterDica();
+                case SALVAR -> ultimoSalvo = jogo.salvarJogo();
+                // às vezes retoma o próprio jogo, às vezes abre um puzzle compartilhado
+                case CARREGAR -> jogo.carregarJogo(random.nextBoolean()
+                        ? ultimoSalvo : puzzles.get(random.nextInt(puzzles.size())));
+                case VERIFICAR_COMPLETO -> jogo.isJogoCompleto();
+            }
+        }
+
+        private void jogar(SplittableRandom random) {
+            Tabuleiro tabuleiro = jogo.getTabuleiro();
+            int tamanho = tabuleiro.getTamanho();
+            jogo.fazerJogada(random.nextInt(tamanho), random.nextInt(tamanho), 1 + random.nextInt(tamanho));
+        }
+    }
+
+    /**
+     * Executa um teste de carga pela linha de comando.
+     * Argumentos no formato chave=valor: jogadores, duracao e aquecimento (segundos), taxa
+     * (operações por segundo de cada jogador, 0 sem limite), puzzles, dificuldade
+     * e peso.OPERACAO (ex: peso.DICA=20).
+     */
+    public static void main(String[] args) {
+        ConfiguracaoCarga configuracao = ConfiguracaoCarga.padrao();
+        for (String argumento : args) {
+            int separador = argumento.indexOf('=');
+            if (separador < 0) {
+                throw new IllegalArgumentException("Argumento sem valor: " + argumento);
+            }
+            String chave = argumento.substring(0, separador);
+            String valor = argumento.substring(separador + 1);
+
+            if (chave.startsWith("peso.")) {
+                configuracao = configuracao.comPeso(OperacaoCarga.valueOf(chave.substring(5)), Integer.parseInt(valor));
+                continue;
+            }
+            configuracao = switch (chave) {
+                case "jogadores" -> configuracao.comJogadores(Integer.parseInt(valor));
+                case "duracao" -> configuracao.comDuracao(Duration.ofMillis((long) (Double.parseDouble(valor) * 1000)));
+                case "aquecimento" -> configuracao.comAquecimento(Duration.ofMillis((long) (Double.parseDouble(valor) * 1000)));
+                case "taxa" -> configuracao.comTaxaPorJogador(Double.parseDouble(valor));
+                case "puzzles" -> configuracao.comPuzzlesIniciais(Integer.parseInt(valor));
+                case "dificuldade" -> configuracao.comDificuldade(Dificuldade.valueOf(valor));
+                default -> throw new IllegalArgumentException("Argumento desconhecido: " + chave);
+            };
+        }
+
+        System.out.println(configuracao);
+        System.out.println(new SimuladorCarga(configuracao).executar());
+    }
+}
@@ -3,28 +3,50 @@ package enums;
 /**
  * Enumeração que representa os níveis de dificuldade do jogo Sudoku.
  * Cada nível de dificuldade tem um número associado que indica quantos números
- * devem ser removidos do tabuleiro para criar o quebra-cabeça.
+ * devem ser removidos do tabuleiro para criar o quebra-cabeça, e a faixa de técnicas
+ * de resolução (a mais difícil exigida pelo puzzle) que corresponde ao nível.
  */
 public enum Dificuldade {
-    FACIL(35),
-    MEDIO(45),
-    DIFICIL(55),
-    EXTREMO(65);
+    FACIL(35, TecnicaResolucao.SIMPLES_NU, TecnicaResolucao.SIMPLES_NU),
+    MEDIO(45, TecnicaResolucao.SIMPLES_OCULTO, TecnicaResolucao.SIMPLES_OCULTO),
+    DIFICIL(55, TecnicaResolucao.CANDIDATOS_TRAVADOS, TecnicaResolucao.PAR_NU),
+    EXTREMO(65, TecnicaResolucao.TENTATIVA, TecnicaResolucao.TENTATIVA);
 
     private final int numerosParaRemover;
+    private final TecnicaResolucao tecnicaMinima;
+    private final TecnicaResolucao tecnicaMaxima;
 
     /**
      * Construtor para a enumeração Dificuldade.
      *
      * @param numerosParaRemover O número de células a serem removidas do tabuleiro.
+     * @param tecnicaMinima      A técnica mais simples que o puzzle deve exigir.
+     * @param tecnicaMaxima      A técnica mais difícil que o puzzle pode exigir.
      */
-    Dificuldade(int numerosParaRemover) {
+    Dificuldade(int numerosParaRemover, TecnicaResolucao tecnicaMinima, TecnicaResolucao tecnicaMaxima) {
         // quanto mais numeros para resolver, mais dificil né?
         this.numerosParaRemover = numerosParaRemover;
+        this.tecnicaMinima = tecnicaMinima;
+        this.tecnicaMaxima = tecnicaMaxima;
     }
 
     public int getNumerosParaRemover() {
         return numerosParaRemover;
     }
+
+    public TecnicaResolucao getTecnicaMinima() {
+        return tecnicaMinima;
+    }
+
+    public TecnicaResolucao getTecnicaMaxima() {
+        return tecnicaMaxima;
+    }
+
+    /**
+     * @return true se um puzzle que exige no máximo a técnica informada pertence a este nível.
+     */
+    public boolean aceita(TecnicaResolucao tecnica) {
+        return tecnica.compareTo(tecnicaMinima) >= 0 && tecnica.compareTo(tecnicaMaxima) <= 0;
+    }
 }
 
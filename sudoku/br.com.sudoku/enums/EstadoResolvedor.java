@@ -0,0 +1,13 @@
+package enums;
+
+/**
+ * Enumeração que representa o estado de um resolvedor iterativo.
+ */
+public enum EstadoResolvedor {
+    // ainda há nós a explorar
+    EM_ANDAMENTO,
+    // parou em uma solução; continuar a busca procura a próxima
+    SOLUCAO_ENCONTRADA,
+    // a árvore de busca foi toda explorada
+    ESGOTADO
+}
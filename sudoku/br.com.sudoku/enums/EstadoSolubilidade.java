@@ -0,0 +1,13 @@
+package enums;
+
+/**
+ * Enumeração que indica se o tabuleiro atual ainda pode ser completado.
+ */
+public enum EstadoSolubilidade {
+    // existe ao menos uma forma de completar o tabuleiro
+    SOLUVEL,
+    // nenhuma forma de completar o tabuleiro respeita as regras
+    SEM_SOLUCAO,
+    // a verificação rápida não terminou dentro do orçamento
+    INDETERMINADO
+}
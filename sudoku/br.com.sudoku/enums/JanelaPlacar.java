@@ -0,0 +1,30 @@
+package enums;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Enumeração que representa as janelas de tempo do placar.
+ * Cada janela agrupa as pontuações por período: dia, semana (começando na segunda-feira)
+ * ou desde sempre.
+ */
+public enum JanelaPlacar {
+    DIARIA,
+    SEMANAL,
+    GERAL;
+
+    /**
+     * Obtém o primeiro dia do período que contém a data.
+     *
+     * @param data A data de referência.
+     * @return O início do período (para GERAL, sempre a mesma data).
+     */
+    public LocalDate inicioPeriodo(LocalDate data) {
+        return switch (this) {
+            case DIARIA -> data;
+            case SEMANAL -> data.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case GERAL -> LocalDate.EPOCH;
+        };
+    }
+}
@@ -0,0 +1,13 @@
+package enums;
+
+/**
+ * Enumeração das formas de ler o tabuleiro de outra thread no teste de leitura concorrente.
+ */
+public enum ModoLeitura {
+    // só o jogador, sem leitores: a referência de vazão
+    SEM_LEITORES,
+    // leitores e jogador disputam uma trava global sobre o jogo
+    TRAVA_GLOBAL,
+    // leitores capturam instantâneos com leitura otimista
+    INSTANTANEO
+}
@@ -0,0 +1,14 @@
+package enums;
+
+/**
+ * Enumeração das operações de um jogador simulado no teste de carga.
+ */
+public enum OperacaoCarga {
+    NOVO_JOGO,
+    JOGADA,
+    DESFAZER,
+    DICA,
+    SALVAR,
+    CARREGAR,
+    VERIFICAR_COMPLETO
+}
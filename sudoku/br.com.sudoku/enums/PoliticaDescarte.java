@@ -0,0 +1,14 @@
+package enums;
+
+/**
+ * Enumeração que define qual entrada a tabela de transposição descarta quando
+ * o grupo de posições de uma chave está cheio.
+ */
+public enum PoliticaDescarte {
+    // a entrada nova sempre ocupa a posição mais antiga do grupo
+    SUBSTITUIR_SEMPRE,
+    // descarta a entrada da menor subárvore (a que economiza menos trabalho)
+    MENOR_SUBARVORE,
+    // descarta a entrada usada há mais tempo
+    MENOS_RECENTE
+}
@@ -0,0 +1,20 @@
+package enums;
+
+/**
+ * Enumeração dos resultados de uma jogada no tabuleiro cooperativo.
+ */
+public enum ResultadoJogadaCooperativa {
+    // a jogada foi aplicada
+    ACEITA,
+    // posição ou valor fora do tabuleiro
+    INVALIDA,
+    // a célula é uma pista do puzzle
+    CELULA_FIXA,
+    // a célula já tem valor, ou uma jogada de id menor está em andamento nela
+    CELULA_OCUPADA,
+    // não há valor para apagar
+    CELULA_VAZIA,
+    // o valor já está em uma linha, coluna, região ou unidade extra da célula,
+    // ou uma jogada de id menor o está colocando em uma delas
+    CONFLITO
+}
@@ -0,0 +1,13 @@
+package enums;
+
+/**
+ * Enumeração que representa como terminou uma busca do resolvedor.
+ */
+public enum StatusResolucao {
+    // a busca foi até o fim (ou até o limite de soluções pedido)
+    CONCLUIDA,
+    // o prazo ou o número máximo de nós acabou antes do fim
+    ORCAMENTO_ESGOTADO,
+    // a thread foi interrompida durante a busca
+    INTERROMPIDA
+}
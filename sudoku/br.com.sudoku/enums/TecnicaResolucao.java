@@ -0,0 +1,28 @@
+package enums;
+
+/**
+ * Enumeração das técnicas de resolução lógica, da mais simples para a mais difícil.
+ * O peso de cada técnica entra na pontuação de dificuldade a cada vez que ela é aplicada.
+ */
+public enum TecnicaResolucao {
+    // célula com um único candidato
+    SIMPLES_NU(1),
+    // valor com um único lugar possível em uma unidade
+    SIMPLES_OCULTO(2),
+    // os candidatos de um valor em uma unidade estão todos em outra unidade
+    CANDIDATOS_TRAVADOS(5),
+    // duas células de uma unidade com os mesmos dois candidatos
+    PAR_NU(8),
+    // a lógica não basta: é preciso tentar valores
+    TENTATIVA(20);
+
+    private final int peso;
+
+    TecnicaResolucao(int peso) {
+        this.peso = peso;
+    }
+
+    public int getPeso() {
+        return peso;
+    }
+}
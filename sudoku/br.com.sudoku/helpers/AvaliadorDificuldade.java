@@ -0,0 +1,329 @@
+package helpers;
+
+import enums.TecnicaResolucao;
+import matriz.Regras;
+import matriz.Tabuleiro;
+
+import java.util.Arrays;
+
+/**
+ * Avalia a dificuldade de um puzzle resolvendo-o como uma pessoa resolveria.
+ * <p>
+ * A cada passo aplica a técnica mais simples que faz progresso (ver {@link TecnicaResolucao}):
+ * simples nu, simples oculto, candidatos travados e par nu. A dificuldade é a técnica mais
+ * difícil que foi necessária, e a pontuação soma os pesos de todos os passos. Se nenhuma
+ * técnica avança, o puzzle exige {@link TecnicaResolucao#TENTATIVA}.
+ * <p>
+ * Como cada técnica só faz deduções válidas, um puzzle resolvido até o fim tem solução única.
+ * Pistas a mais nunca tornam a lógica mais difícil, então a avaliação só cresce quando números
+ * são removidos; o {@link jogo.Gerador} usa isso para mirar uma faixa de dificuldade.
+ * As somas das gaiolas do Killer Sudoku não são usadas: nesses puzzles a avaliação é pessimista.
+ * <p>
+ * Não é seguro para várias threads: as tabelas das regras e o estado da resolução ficam na
+ * instância, para não serem recriados a cada avaliação.
+ */
+public class AvaliadorDificuldade {
+    private Regras regras;
+    private int tamanho;
+    private int todos;
+    // células de cada unidade, unidades de cada célula e vizinhos de cada célula
+    private int[][] unidades;
+    private int[][] unidadesDe;
+    private int[][] vizinhos;
+    // unidades com todos os valores (linhas, colunas, regiões e extras; gaiolas não)
+    private boolean[] completa;
+
+    private int[] grade;
+    private int[] candidatos;
+    private int[] colocados;
+    private int vazias;
+    private boolean contradicao;
+
+    public ResultadoAvaliacao avaliar(Tabuleiro tabuleiro) {
+        return avaliar(tabuleiro.paraVetor(), tabuleiro.getRegras());
+    }
+
+    /**
+     * Avalia um puzzle.
+     *
+     * @param valores Os valores das células, linha a linha (0 para vazias).
+     * @param regras  As restrições do tabuleiro.
+     * @return A técnica mais difícil necessária e a pontuação.
+     */
+    public ResultadoAvaliacao avaliar(int[] valores, Regras regras) {
+        return avaliar(valores, regras, null);
+    }
+
+    /**
+     * Avalia um puzzle, parando quando o orçamento acabar (cada passo de lógica conta um nó).
+     * Se parar antes do fim, o resultado é {@link TecnicaResolucao#TENTATIVA} sem contradição,
+     * e {@link #getGradePropagada()} tem as deduções feitas até ali.
+     *
+     * @param orcamento O orçamento, ou null para ir até o fim.
+     */
+    ResultadoAvaliacao avaliar(int[] valores, Regras regras, Orcamento orcamento) {
+        preparar(regras);
+        int celulas = tamanho * tamanho;
+        if (valores.length != celulas) {
+            throw new IllegalArgumentException("Quantidade de valores inválida: " + valores.length);
+        }
+
+        Arrays.fill(grade, 0);
+        Arrays.fill(candidatos, todos);
+        Arrays.fill(colocados, 0);
+        vazias = celulas;
+        contradicao = false;
+        for (int c = 0; c < celulas; c++) {
+            int valor = valores[c];
+            if (valor == 0) {
+                continue;
+            }
+            if (valor < 0 || valor > tamanho || (candidatos[c] & bit(valor)) == 0) {
+                // pista fora do intervalo ou repetida: não há o que resolver
+                return new ResultadoAvaliacao(TecnicaResolucao.TENTATIVA, 0, 0, true);
+            }
+            colocar(c, valor);
+        }
+
+        int vaziasIniciais = vazias;
+        int pontuacao = 0;
+        TecnicaResolucao maisDificil = TecnicaResolucao.SIMPLES_NU;
+        while (vazias > 0) {
+            TecnicaResolucao tecnica = orcamento == null || orcamento.visitarPasso() ? passo() : null;
+            if (tecnica == null) {
+                maisDificil = TecnicaResolucao.TENTATIVA;
+                pontuacao += TecnicaResolucao.TENTATIVA.getPeso();
+                break;
+            }
+            pontuacao += tecnica.getPeso();
+            if (tecnica.compareTo(maisDificil) > 0) {
+                maisDificil = tecnica;
+            }
+        }
+        return new ResultadoAvaliacao(maisDificil, pontuacao, vaziasIniciais - vazias, contradicao);
+    }
+
+    /**
+     * Obtém a grade deixada pela última avaliação: as pistas mais as células que a lógica preencheu.
+     */
+    int[] getGradePropagada() {
+        return grade.clone();
+    }
+
+    /**
+     * Aplica a técnica mais simples que faz progresso.
+     *
+     * @return A técnica aplicada, ou null se nenhuma avançou (ou se houve contradição).
+     */
+    private TecnicaResolucao passo() {
+        int celulas = tamanho * tamanho;
+
+        for (int c = 0; c < celulas; c++) {
+            if (grade[c] == 0) {
+                if (candidatos[c] == 0) {
+                    contradicao = true;
+                    return null;
+                }
+                if (Integer.bitCount(candidatos[c]) == 1) {
+                    colocar(c, Integer.numberOfTrailingZeros(candidatos[c]) + 1);
+                    return TecnicaResolucao.SIMPLES_NU;
+                }
+            }
+        }
+
+        for (int u = 0; u < unidades.length; u++) {
+            if (!completa[u]) {
+                continue;
+            }
+            int umaVez = 0;
+            int maisVezes = 0;
+            for (int c : unidades[u]) {
+                if (grade[c] == 0) {
+                    maisVezes |= umaVez & candidatos[c];
+                    umaVez |= candidatos[c];
+                }
+            }
+            if ((umaVez | colocados[u]) != todos) {
+                // um valor sem lugar na unidade
+                contradicao = true;
+                return null;
+            }
+            int unicos = umaVez & ~maisVezes;
+            if (unicos != 0) {
+                int valorBit = Integer.lowestOneBit(unicos);
+                for (int c : unidades[u]) {
+                    if (grade[c] == 0 && (candidatos[c] & valorBit) != 0) {
+                        colocar(c, Integer.numberOfTrailingZeros(valorBit) + 1);
+                        return TecnicaResolucao.SIMPLES_OCULTO;
+                    }
+                }
+            }
+        }
+
+        if (candidatosTravados()) {
+            return TecnicaResolucao.CANDIDATOS_TRAVADOS;
+        }
+        if (paresNus()) {
+            return TecnicaResolucao.PAR_NU;
+        }
+        return null;
+    }
+
+    /**
+     * Se todos os candidatos de um valor em uma unidade completa estão também em outra unidade,
+     * o valor sai das demais células da outra unidade.
+     */
+    private boolean candidatosTravados() {
+        for (int u = 0; u < unidades.length; u++) {
+            if (!completa[u]) {
+                continue;
+            }
+            for (int valorBit = 1; valorBit <= todos; valorBit <<= 1) {
+                if ((colocados[u] & valorBit) != 0) {
+                    continue;
+                }
+
+                int primeira = -1;
+                int quantidade = 0;
+                for (int c : unidades[u]) {
+                    if (grade[c] == 0 && (candidatos[c] & valorBit) != 0) {
+                        if (primeira < 0) {
+                            primeira = c;
+                        }
+                        quantidade++;
+                    }
+                }
+                if (quantidade < 2) {
+                    continue;
+                }
+
+                for (int outra : unidadesDe[primeira]) {
+                    if (outra == u || !contemTodas(outra, u, valorBit)) {
+                        continue;
+                    }
+                    boolean eliminou = false;
+                    for (int c : unidades[outra]) {
+                        if (grade[c] == 0 && (candidatos[c] & valorBit) != 0 && !pertence(c, u)) {
+                            candidatos[c] &= ~valorBit;
+                            eliminou = true;
+                        }
+                    }
+                    if (eliminou) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Duas células de uma unidade com os mesmos dois candidatos ficam com esses valores:
+     * eles saem das demais células da unidade.
+     */
+    private boolean paresNus() {
+        for (int[] unidade : unidades) {
+            for (int i = 0; i < unidade.length; i++) {
+                int a = unidade[i];
+                if (grade[a] != 0 || Integer.bitCount(candidatos[a]) != 2) {
+                    continue;
+                }
+                for (int j = i + 1; j < unidade.length; j++) {
+                    int b = unidade[j];
+                    if (grade[b] != 0 || candidatos[b] != candidatos[a]) {
+                        continue;
+                    }
+                    boolean eliminou = false;
+                    for (int c : unidade) {
+                        if (c != a && c != b && grade[c] == 0 && (candidatos[c] & candidatos[a]) != 0) {
+                            candidatos[c] &= ~candidatos[a];
+                            eliminou = true;
+                        }
+                    }
+                    if (eliminou) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true se todas as células vazias da unidade {@code origem} com o valor como
+     *         candidato pertencem à unidade {@code destino}.
+     */
+    private boolean contemTodas(int destino, int origem, int valorBit) {
+        for (int c : unidades[origem]) {
+            if (grade[c] == 0 && (candidatos[c] & valorBit) != 0 && !pertence(c, destino)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean pertence(int celula, int unidade) {
+        for (int u : unidadesDe[celula]) {
+            if (u == unidade) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void colocar(int celula, int valor) {
+        int valorBit = bit(valor);
+        grade[celula] = valor;
+        candidatos[celula] = 0;
+        vazias--;
+        for (int u : unidadesDe[celula]) {
+            colocados[u] |= valorBit;
+        }
+        for (int vizinho : vizinhos[celula]) {
+            candidatos[vizinho] &= ~valorBit;
+        }
+    }
+
+    private static int bit(int valor) {
+        return 1 << (valor - 1);
+    }
+
+    /**
+     * Compila as tabelas das regras, se forem diferentes das da avaliação anterior.
+     */
+    private void preparar(Regras novas) {
+        if (novas == regras) {
+            return;
+        }
+        this.regras = novas;
+        this.tamanho = novas.getTamanho();
+        this.todos = (1 << tamanho) - 1;
+
+        int celulas = tamanho * tamanho;
+        this.unidades = new int[novas.getQuantidadeUnidades()][];
+        this.completa = new boolean[unidades.length];
+        for (int u = 0; u < unidades.length; u++) {
+            unidades[u] = novas.getUnidade(u);
+            completa[u] = unidades[u].length == tamanho && (!novas.temGaiolas() || !isGaiola(novas, u));
+        }
+        this.unidadesDe = new int[celulas][];
+        this.vizinhos = new int[celulas][];
+        for (int c = 0; c < celulas; c++) {
+            unidadesDe[c] = novas.unidadesDaCelula(c);
+            vizinhos[c] = novas.getVizinhos(c);
+        }
+
+        this.grade = new int[celulas];
+        this.candidatos = new int[celulas];
+        this.colocados = new int[unidades.length];
+    }
+
+    private static boolean isGaiola(Regras regras, int unidade) {
+        for (int g = 0; g < regras.getQuantidadeGaiolas(); g++) {
+            if (regras.getUnidadeGaiola(g) == unidade) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
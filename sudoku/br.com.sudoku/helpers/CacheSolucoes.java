@@ -0,0 +1,294 @@
+package helpers;
+
+import enums.StatusResolucao;
+import matriz.Celula;
+import matriz.Regras;
+import matriz.Tabuleiro;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cache de soluções compartilhado pelo processo inteiro.
+ * <p>
+ * A chave é a impressão digital das pistas do tabuleiro (as células fixas) junto com as regras,
+ * e o valor é a grade resolvida. Assim jogos carregados, puzzles importados e o puzzle do dia
+ * são resolvidos uma única vez, não uma vez por sessão que pede uma dica.
+ * <p>
+ * As entradas ficam em segmentos LRU, cada um com a sua trava, então leituras de chaves
+ * diferentes não disputam uma trava global. Pedidos simultâneos de uma chave ausente são
+ * agrupados: só o primeiro resolve e os outros esperam o mesmo resultado. Se a busca do
+ * primeiro esgotar o orçamento, quem esperava tenta de novo com o seu próprio orçamento. A espera
+ * atende a interrupção da thread, como a busca.
+ * <p>
+ * Quebra-cabeças sem solução também são guardados, para que pistas impossíveis (um jogo
+ * salvo corrompido, por exemplo) não sejam resolvidas de novo a cada dica.
+ */
+public final class CacheSolucoes {
+    private static final int SEGMENTOS = 16;
+    private static final int CAPACIDADE_PADRAO = 4096;
+    private static final CacheSolucoes GLOBAL = new CacheSolucoes(CAPACIDADE_PADRAO);
+    // entrada de um quebra-cabeça sem solução (comparada por referência)
+    private static final int[] SEM_SOLUCAO = new int[0];
+
+    private final Segmento[] segmentos;
+    private final ConcurrentMap<Chave, CompletableFuture<int[]>> emResolucao = new ConcurrentHashMap<>();
+
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+    private final LongAdder agrupados = new LongAdder();
+    private final LongAdder descartes = new LongAdder();
+
+    /**
+     * @param capacidade A quantidade máxima de soluções guardadas.
+     */
+    public CacheSolucoes(int capacidade) {
+        if (capacidade < SEGMENTOS) {
+            throw new IllegalArgumentException("Capacidade mínima: " + SEGMENTOS);
+        }
+        this.segmentos = new Segmento[SEGMENTOS];
+        for (int i = 0; i < SEGMENTOS; i++) {
+            segmentos[i] = new Segmento(capacidade / SEGMENTOS);
+        }
+    }
+
+    /**
+     * Obtém o cache compartilhado pelo processo.
+     */
+    public static CacheSolucoes global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Obtém a solução do quebra-cabeça formado pelas células fixas do tabuleiro.
+     * Os valores colocados pelo jogador são ignorados.
+     *
+     * @param tabuleiro O tabuleiro (não é alterado).
+     * @param opcoes    Os limites da busca, se for preciso resolver.
+     * @return A grade resolvida, linha a linha, ou Optional.empty() se não houver solução
+     *         (o que também é guardado) ou a busca não terminar dentro dos limites
+     *         (nesse caso nada é guardado).
+     * @throws CancellationException se a thread for interrompida durante a busca ou a espera.
+     */
+    public Optional<int[]> obterSolucao(Tabuleiro tabuleiro, OpcoesResolucao opcoes) {
+        int[] pistas = extrairPistas(tabuleiro);
+        Chave chave = new Chave(ImpressaoDigital.de(pistas), tabuleiro.getRegras());
+
+        while (true) {
+            int[] solucao = buscar(chave);
+            if (solucao != null) {
+                acertos.increment();
+                return copiar(solucao);
+            }
+
+            CompletableFuture<int[]> novo = new CompletableFuture<>();
+            CompletableFuture<int[]> existente = emResolucao.putIfAbsent(chave, novo);
+            if (existente != null) {
+                // outra thread já está resolvendo: espera o mesmo resultado
+                agrupados.increment();
+                try {
+                    int[] resultado = existente.get();
+                    if (resultado != null) {
+                        return copiar(resultado);
+                    }
+                } catch (InterruptedException e) {
+                    // quem espera também pode ser cancelado, como quem resolve
+                    Thread.currentThread().interrupt();
+                    throw new CancellationException("Espera pela solução interrompida");
+                } catch (CancellationException | ExecutionException e) {
+                    // a resolução da outra thread foi interrompida: tenta de novo
+                }
+                // inconclusiva com o orçamento de outra thread: tenta de novo com o próprio
+                ExecutorHelper.verificarInterrupcao();
+                continue;
+            }
+
+            try {
+                // pode ter sido guardada entre a busca e o registro da resolução
+                solucao = buscar(chave);
+                if (solucao == null) {
+                    falhas.increment();
+                    solucao = resolver(tabuleiro, pistas, opcoes);
+                    if (solucao != null) {
+                        guardar(chave, solucao);
+                    }
+                }
+                novo.complete(solucao);
+                return solucao != null ? copiar(solucao) : Optional.empty();
+            } catch (RuntimeException e) {
+                novo.completeExceptionally(e);
+                throw e;
+            } finally {
+                emResolucao.remove(chave, novo);
+            }
+        }
+    }
+
+    private static Optional<int[]> copiar(int[] solucao) {
+        return solucao == SEM_SOLUCAO ? Optional.empty() : Optional.of(solucao.clone());
+    }
+
+    /**
+     * @return A grade resolvida, {@link #SEM_SOLUCAO} ou null se a busca não terminou.
+     */
+    private int[] resolver(Tabuleiro tabuleiro, int[] pistas, OpcoesResolucao opcoes) {
+        Tabuleiro somentePistas = new Tabuleiro(tabuleiro.getTamanho(), tabuleiro.getRegras());
+        int tamanho = tabuleiro.getTamanho();
+        for (int c = 0; c < pistas.length; c++) {
+            if (pistas[c] != 0) {
+                somentePistas.setCelula(c / tamanho, c % tamanho, new Celula(pistas[c], true));
+            }
+        }
+
+        ResultadoResolucao resultado = new ResolvedorHelper().resolver(somentePistas, opcoes);
+        if (resultado.getStatus() == StatusResolucao.INTERROMPIDA) {
+            throw new CancellationException("Resolução interrompida");
+        }
+        if (resultado.isResolvido()) {
+            return somentePistas.paraVetor();
+        }
+        return resultado.isConcluida() ? SEM_SOLUCAO : null;
+    }
+
+    private static int[] extrairPistas(Tabuleiro tabuleiro) {
+        int tamanho = tabuleiro.getTamanho();
+        int[] pistas = new int[tamanho * tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            for (int j = 0; j < tamanho; j++) {
+                Celula celula = tabuleiro.getCelula(i, j);
+                if (celula.isFixo()) {
+                    pistas[i * tamanho + j] = celula.getValor().orElse(0);
+                }
+            }
+        }
+        return pistas;
+    }
+
+    private int[] buscar(Chave chave) {
+        Segmento segmento = segmento(chave);
+        segmento.trava.lock();
+        try {
+            return segmento.entradas.get(chave);
+        } finally {
+            segmento.trava.unlock();
+        }
+    }
+
+    private void guardar(Chave chave, int[] solucao) {
+        Segmento segmento = segmento(chave);
+        segmento.trava.lock();
+        try {
+            segmento.entradas.put(chave, solucao);
+        } finally {
+            segmento.trava.unlock();
+        }
+    }
+
+    private Segmento segmento(Chave chave) {
+        return segmentos[(int) (chave.impressao.getAlto() >>> 60) & (SEGMENTOS - 1)];
+    }
+
+    public void limpar() {
+        for (Segmento segmento : segmentos) {
+            segmento.trava.lock();
+            try {
+                segmento.entradas.clear();
+            } finally {
+                segmento.trava.unlock();
+            }
+        }
+    }
+
+    public int getTamanho() {
+        int total = 0;
+        for (Segmento segmento : segmentos) {
+            segmento.trava.lock();
+            try {
+                total += segmento.entradas.size();
+            } finally {
+                segmento.trava.unlock();
+            }
+        }
+        return total;
+    }
+
+    public long getAcertos() {
+        return acertos.sum();
+    }
+
+    public long getFalhas() {
+        return falhas.sum();
+    }
+
+    /**
+     * Pedidos que chegaram enquanto a mesma chave estava sendo resolvida e esperaram o resultado.
+     */
+    public long getAgrupados() {
+        return agrupados.sum();
+    }
+
+    public long getDescartes() {
+        return descartes.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CacheSolucoes[tamanho=%d, acertos=%d, falhas=%d, agrupados=%d, descartes=%d]",
+                getTamanho(), getAcertos(), getFalhas(), getAgrupados(), getDescartes());
+    }
+
+    /**
+     * Pistas e regras de um quebra-cabeça.
+     */
+    private static final class Chave {
+        private final ImpressaoDigital impressao;
+        private final String regras;
+
+        Chave(ImpressaoDigital impressao, Regras regras) {
+            this.impressao = impressao;
+            this.regras = regras.getTamanho() + ":" + regras.paraTexto();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof Chave outra)) return false;
+            return impressao.equals(outra.impressao) && regras.equals(outra.regras);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(impressao, regras);
+        }
+    }
+
+    /**
+     * Parte do cache com a sua própria trava e ordem LRU.
+     */
+    private final class Segmento {
+        private final ReentrantLock trava = new ReentrantLock();
+        private final LinkedHashMap<Chave, int[]> entradas;
+
+        Segmento(int capacidade) {
+            this.entradas = new LinkedHashMap<>(capacidade * 4 / 3 + 1, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Chave, int[]> maisAntiga) {
+                    boolean cheio = size() > capacidade;
+                    if (cheio) {
+                        descartes.increment();
+                    }
+                    return cheio;
+                }
+            };
+        }
+    }
+}
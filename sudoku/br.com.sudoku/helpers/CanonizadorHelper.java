@@ -0,0 +1,191 @@
+package helpers;
+
+import matriz.Tabuleiro;
+
+/**
+ * Classe responsável por calcular a forma canônica de um Sudoku 9x9.
+ * <p>
+ * Dois tabuleiros são equivalentes quando um pode ser obtido do outro por transposição,
+ * permutação de bandas (grupos de 3 linhas), de linhas dentro de uma banda, de pilhas
+ * (grupos de 3 colunas), de colunas dentro de uma pilha e troca de rótulos dos dígitos.
+ * A forma canônica é o menor vetor, em ordem lexicográfica, entre todos os equivalentes.
+ * <p>
+ * Em vez de testar todas as transformações, a busca fixa a ordem das colunas (2 x 1296
+ * possibilidades), reatribui os rótulos dos dígitos pela ordem de aparição (o que já dá o
+ * menor rótulo possível) e escolhe as linhas em profundidade, podando qualquer prefixo
+ * maior que o melhor encontrado até agora.
+ */
+public class CanonizadorHelper {
+    private static final int TAMANHO = 9;
+    private static final int CELULAS = TAMANHO * TAMANHO;
+
+    private static final int[][] PERMUTACOES_3 = {
+            {0, 1, 2}, {0, 2, 1}, {1, 0, 2}, {1, 2, 0}, {2, 0, 1}, {2, 1, 0}
+    };
+
+    // todas as 1296 ordens de colunas que respeitam as pilhas
+    private static final int[][] ORDENS_COLUNAS = gerarOrdensColunas();
+
+    /**
+     * Calcula a forma canônica de um tabuleiro.
+     *
+     * @param tabuleiro O tabuleiro 9x9 a ser canonizado.
+     * @return O vetor de 81 valores na forma canônica (0 para células vazias).
+     */
+    public int[] canonizar(Tabuleiro tabuleiro) {
+        return canonizar(tabuleiro.paraVetor());
+    }
+
+    /**
+     * Calcula a forma canônica de um vetor de valores.
+     *
+     * @param valores Os 81 valores do tabuleiro, linha a linha (0 para células vazias).
+     * @return O vetor de 81 valores na forma canônica.
+     */
+    public int[] canonizar(int[] valores) {
+        if (valores.length != CELULAS) {
+            throw new IllegalArgumentException("A canonização só é suportada para tabuleiros 9x9");
+        }
+
+        Busca busca = new Busca();
+        busca.executar(valores);
+        busca.executar(transpor(valores));
+        return busca.melhor;
+    }
+
+    public ImpressaoDigital calcularImpressao(Tabuleiro tabuleiro) {
+        return ImpressaoDigital.de(canonizar(tabuleiro));
+    }
+
+    public ImpressaoDigital calcularImpressao(int[] valores) {
+        return ImpressaoDigital.de(canonizar(valores));
+    }
+
+    private static int[] transpor(int[] valores) {
+        int[] transposto = new int[CELULAS];
+        for (int i = 0; i < TAMANHO; i++) {
+            for (int j = 0; j < TAMANHO; j++) {
+                transposto[j * TAMANHO + i] = valores[i * TAMANHO + j];
+            }
+        }
+        return transposto;
+    }
+
+    private static int[][] gerarOrdensColunas() {
+        int[][] ordens = new int[6 * 6 * 6 * 6][];
+        int indice = 0;
+        for (int[] pilhas : PERMUTACOES_3) {
+            for (int[] p0 : PERMUTACOES_3) {
+                for (int[] p1 : PERMUTACOES_3) {
+                    for (int[] p2 : PERMUTACOES_3) {
+                        int[][] dentro = {p0, p1, p2};
+                        int[] ordem = new int[TAMANHO];
+                        for (int s = 0; s < 3; s++) {
+                            for (int c = 0; c < 3; c++) {
+                                ordem[s * 3 + c] = pilhas[s] * 3 + dentro[s][c];
+                            }
+                        }
+                        ordens[indice++] = ordem;
+                    }
+                }
+            }
+        }
+        return ordens;
+    }
+
+    /**
+     * Estado de uma canonização. Cada chamada usa a sua, então o helper pode ser
+     * compartilhado entre threads.
+     */
+    private static final class Busca {
+        private final int[] melhor = new int[CELULAS];
+        private final int[] atual = new int[CELULAS];
+        // mapas[k] é o mapeamento de dígitos antes de escolher a linha k
+        private final int[][] mapas = new int[TAMANHO + 1][TAMANHO + 1];
+        private final int[] proximoRotulo = new int[TAMANHO + 1];
+        private final int[] linhasEscolhidas = new int[TAMANHO];
+        private final boolean[] linhaUsada = new boolean[TAMANHO];
+        private int[] grade;
+        private int[] ordem;
+        private boolean temMelhor;
+        private long versao;
+
+        void executar(int[] valores) {
+            this.grade = valores;
+            for (int[] ordemColunas : ORDENS_COLUNAS) {
+                this.ordem = ordemColunas;
+                buscar(0, temMelhor);
+            }
+        }
+
+        /**
+         * Escolhe a linha da posição k.
+         *
+         * @param k     A posição (na forma transformada) sendo preenchida.
+         * @param igual true se o prefixo atual é igual ao do melhor; false se já é menor.
+         */
+        private void buscar(int k, boolean igual) {
+            if (k == TAMANHO) {
+                if (!igual) {
+                    System.arraycopy(atual, 0, melhor, 0, CELULAS);
+                    temMelhor = true;
+                    versao++;
+                }
+                return;
+            }
+
+            int bandaAtual = k % 3 == 0 ? -1 : linhasEscolhidas[k - 1] / 3;
+            int[] mapaAnterior = mapas[k];
+            int[] mapa = mapas[k + 1];
+            int base = k * TAMANHO;
+
+            for (int linha = 0; linha < TAMANHO; linha++) {
+                // no início de uma banda qualquer linha livre serve; senão, só as da mesma banda
+                if (linhaUsada[linha] || (bandaAtual >= 0 && linha / 3 != bandaAtual)) {
+                    continue;
+                }
+
+                System.arraycopy(mapaAnterior, 0, mapa, 0, mapa.length);
+                int rotulo = proximoRotulo[k];
+                int comparacao = 0;
+                int origem = linha * TAMANHO;
+
+                for (int j = 0; j < TAMANHO; j++) {
+                    int valor = grade[origem + ordem[j]];
+                    if (valor != 0) {
+                        if (mapa[valor] == 0) {
+                            mapa[valor] = ++rotulo;
+                        }
+                        valor = mapa[valor];
+                    }
+                    atual[base + j] = valor;
+
+                    if (igual && comparacao == 0 && valor != melhor[base + j]) {
+                        comparacao = valor < melhor[base + j] ? -1 : 1;
+                        if (comparacao > 0) {
+                            // poda: o prefixo já é maior que o melhor
+                            break;
+                        }
+                    }
+                }
+
+                if (comparacao > 0) {
+                    continue;
+                }
+
+                proximoRotulo[k + 1] = rotulo;
+                linhasEscolhidas[k] = linha;
+                linhaUsada[linha] = true;
+
+                long versaoAntes = versao;
+                buscar(k + 1, igual && comparacao == 0);
+                linhaUsada[linha] = false;
+
+                // se o melhor mudou lá embaixo, ele agora compartilha o nosso prefixo
+                if (versao != versaoAntes) {
+                    igual = true;
+                }
+            }
+        }
+    }
+}
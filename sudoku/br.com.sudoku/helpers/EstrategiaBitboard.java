@@ -0,0 +1,386 @@
+package helpers;
+
+import matriz.Regras;
+
+/**
+ * Estratégia para o Sudoku clássico 9x9 com o tabuleiro em bitboards: para cada valor, as
+ * células onde ele ainda é possível, em dois {@code long} (células 0 a 63 e 64 a 80).
+ * <p>
+ * Colocar um valor é apagar o bit da célula nos outros oito valores e os vizinhos dela no
+ * bitboard do próprio valor. A propagação trabalha em todas as células de uma vez:
+ * <ul>
+ *     <li>somando os nove bitboards em dois acumuladores ("ao menos um" e "ao menos dois"
+ *     candidatos), acha todas as células sem candidato e todas as de candidato único com
+ *     algumas dezenas de operações, sem laço por célula;</li>
+ *     <li>cruzando o bitboard de cada valor com as máscaras das 27 unidades, acha os valores
+ *     que só cabem em uma célula da unidade (ou em nenhuma).</li>
+ * </ul>
+ * Quando a propagação para, ramifica numa célula com dois candidatos (ou na de menos
+ * candidatos). O estado inteiro são 20 {@code long}, então cada nível da busca é uma cópia
+ * desse bloco numa pilha de vetor único, e voltar é só descer um nível.
+ */
+public class EstrategiaBitboard implements EstrategiaResolucao {
+    private static final int TAMANHO = 9;
+    private static final int CELULAS = TAMANHO * TAMANHO;
+    private static final int UNIDADES = 3 * TAMANHO;
+    // posição das duas palavras das células resolvidas, depois dos bitboards dos valores
+    private static final int RESOLVIDAS = 2 * TAMANHO;
+    private static final int PALAVRAS = RESOLVIDAS + 2;
+    private static final long TODAS_ALTA = (1L << (CELULAS - Long.SIZE)) - 1;
+    // duas palavras por célula: as outras células da linha, da coluna e do quadrante
+    private static final long[] VIZINHOS = new long[2 * CELULAS];
+    // duas palavras por unidade: linhas, colunas e quadrantes
+    private static final long[] MASCARAS_UNIDADES = new long[2 * UNIDADES];
+
+    static {
+        for (int c = 0; c < CELULAS; c++) {
+            int linha = c / TAMANHO;
+            int coluna = c % TAMANHO;
+            int quadrante = (linha / 3) * 3 + coluna / 3;
+            marcar(MASCARAS_UNIDADES, 2 * linha, c);
+            marcar(MASCARAS_UNIDADES, 2 * (TAMANHO + coluna), c);
+            marcar(MASCARAS_UNIDADES, 2 * (2 * TAMANHO + quadrante), c);
+        }
+        for (int c = 0; c < CELULAS; c++) {
+            for (int u = 0; u < UNIDADES; u++) {
+                if ((MASCARAS_UNIDADES[2 * u + (c >>> 6)] & (1L << c)) != 0) {
+                    VIZINHOS[2 * c] |= MASCARAS_UNIDADES[2 * u];
+                    VIZINHOS[2 * c + 1] |= MASCARAS_UNIDADES[2 * u + 1];
+                }
+            }
+            VIZINHOS[2 * c + (c >>> 6)] &= ~(1L << c);
+        }
+    }
+
+    @Override
+    public String getNome() {
+        return "bitboard";
+    }
+
+    @Override
+    public boolean suporta(Regras regras) {
+        return regras.isClassico() && regras.getTamanho() == TAMANHO;
+    }
+
+    @Override
+    public ResultadoResolucao resolver(int[] valores, Regras regras, int limite, OpcoesResolucao opcoes) {
+        if (!suporta(regras)) {
+            throw new IllegalArgumentException("A estratégia bitboard só trata o Sudoku clássico 9x9");
+        }
+        Orcamento orcamento = opcoes.iniciar();
+        Busca busca = new Busca();
+        if (!busca.carregar(valores)) {
+            return new ResultadoResolucao(orcamento.getStatus(), 0, 0);
+        }
+        int solucoes = busca.buscar(limite, orcamento);
+        if (solucoes > 0) {
+            busca.escreverPrimeira(valores);
+        }
+        return new ResultadoResolucao(orcamento.getStatus(), solucoes, orcamento.getNos());
+    }
+
+    private static void marcar(long[] mascaras, int inicio, int celula) {
+        mascaras[inicio + (celula >>> 6)] |= 1L << celula;
+    }
+
+    /**
+     * Estado de uma busca, reaproveitável entre puzzles (o {@link LoteTabuleiros} usa uma
+     * por intervalo). Não é seguro para várias threads.
+     */
+    static final class Busca {
+        // nível k da busca nas posições [k * PALAVRAS, (k + 1) * PALAVRAS)
+        private final long[] pilha = new long[(CELULAS + 1) * PALAVRAS];
+        // célula ramificada e valores ainda não tentados em cada nível
+        private final int[] celulaDe = new int[CELULAS + 1];
+        private final int[] restantes = new int[CELULAS + 1];
+        private final long[] primeira = new long[PALAVRAS];
+
+        /**
+         * Coloca as pistas no nível 0.
+         *
+         * @return false se alguma pista é inválida ou repete um valor numa unidade.
+         */
+        boolean carregar(int[] valores) {
+            if (valores.length != CELULAS) {
+                throw new IllegalArgumentException("Quantidade de valores inválida: " + valores.length);
+            }
+            iniciar();
+            for (int c = 0; c < CELULAS; c++) {
+                if (valores[c] != 0 && !colocarPista(c, valores[c])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Coloca as pistas no nível 0, lendo as células a partir de {@code inicio}.
+         */
+        boolean carregar(byte[] valores, int inicio) {
+            iniciar();
+            for (int c = 0; c < CELULAS; c++) {
+                int valor = valores[inicio + c];
+                if (valor != 0 && !colocarPista(c, valor)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void iniciar() {
+            for (int d = 0; d < TAMANHO; d++) {
+                pilha[2 * d] = -1L;
+                pilha[2 * d + 1] = TODAS_ALTA;
+            }
+            pilha[RESOLVIDAS] = 0;
+            pilha[RESOLVIDAS + 1] = 0;
+        }
+
+        private boolean colocarPista(int celula, int valor) {
+            if (valor < 1 || valor > TAMANHO || (pilha[2 * (valor - 1) + (celula >>> 6)] & (1L << celula)) == 0) {
+                return false;
+            }
+            colocar(pilha, 0, celula, valor - 1);
+            return true;
+        }
+
+        /**
+         * Procura soluções a partir do nível 0 até o limite ou o fim do orçamento.
+         * A primeira solução fica guardada para {@link #escreverPrimeira}.
+         *
+         * @return O número de soluções encontradas.
+         */
+        int buscar(int limite, Orcamento orcamento) {
+            int solucoes = 0;
+            int nivel = 0;
+            boolean novo = propagar(pilha, 0);
+            while (nivel >= 0) {
+                int o = nivel * PALAVRAS;
+                if (novo) {
+                    novo = false;
+                    if (resolvido(pilha, o)) {
+                        if (solucoes++ == 0) {
+                            System.arraycopy(pilha, o, primeira, 0, PALAVRAS);
+                        }
+                        if (solucoes >= limite) {
+                            break;
+                        }
+                        nivel--;
+                        continue;
+                    }
+                    int celula = escolherCelula(pilha, o);
+                    celulaDe[nivel] = celula;
+                    restantes[nivel] = candidatos(pilha, o, celula);
+                }
+
+                if (restantes[nivel] == 0) {
+                    nivel--;
+                    continue;
+                }
+                if (!orcamento.visitar()) {
+                    break;
+                }
+                int valor = Integer.numberOfTrailingZeros(restantes[nivel]);
+                restantes[nivel] &= restantes[nivel] - 1;
+                int proximo = o + PALAVRAS;
+                System.arraycopy(pilha, o, pilha, proximo, PALAVRAS);
+                colocar(pilha, proximo, celulaDe[nivel], valor);
+                if (propagar(pilha, proximo)) {
+                    nivel++;
+                    novo = true;
+                }
+            }
+            return solucoes;
+        }
+
+        void escreverPrimeira(int[] valores) {
+            for (int c = 0; c < CELULAS; c++) {
+                valores[c] = valorDe(primeira, 0, c);
+            }
+        }
+
+        void escreverPrimeira(byte[] valores, int inicio) {
+            for (int c = 0; c < CELULAS; c++) {
+                valores[inicio + c] = (byte) valorDe(primeira, 0, c);
+            }
+        }
+    }
+
+    /**
+     * Coloca o valor (0 a 8) na célula: tira a célula dos outros valores e os vizinhos dela
+     * do bitboard do valor.
+     */
+    private static void colocar(long[] p, int o, int celula, int valor) {
+        int w = o + (celula >>> 6);
+        long bit = 1L << celula;
+        for (int d = 0; d < TAMANHO; d++) {
+            p[w + 2 * d] &= ~bit;
+        }
+        p[w + 2 * valor] |= bit;
+        p[o + 2 * valor] &= ~VIZINHOS[2 * celula];
+        p[o + 2 * valor + 1] &= ~VIZINHOS[2 * celula + 1];
+        p[w + RESOLVIDAS] |= bit;
+    }
+
+    /**
+     * Aplica candidatos únicos e valores únicos na unidade até nada mudar.
+     *
+     * @return false se o estado não tem solução.
+     */
+    private static boolean propagar(long[] p, int o) {
+        while (true) {
+            long algum0 = 0;
+            long algum1 = 0;
+            long dois0 = 0;
+            long dois1 = 0;
+            for (int d = 0; d < TAMANHO; d++) {
+                long a = p[o + 2 * d];
+                long b = p[o + 2 * d + 1];
+                dois0 |= algum0 & a;
+                algum0 |= a;
+                dois1 |= algum1 & b;
+                algum1 |= b;
+            }
+            if (algum0 != -1L || algum1 != TODAS_ALTA) {
+                // alguma célula ficou sem candidatos
+                return false;
+            }
+
+            long unicos0 = algum0 & ~dois0 & ~p[o + RESOLVIDAS];
+            long unicos1 = algum1 & ~dois1 & ~p[o + RESOLVIDAS + 1];
+            if ((unicos0 | unicos1) != 0) {
+                if (!colocarUnicos(p, o, unicos0, 0) || !colocarUnicos(p, o, unicos1, Long.SIZE)) {
+                    return false;
+                }
+                continue;
+            }
+
+            int ocultos = colocarOcultos(p, o);
+            if (ocultos < 0) {
+                return false;
+            }
+            if (ocultos == 0) {
+                return true;
+            }
+        }
+    }
+
+    private static boolean colocarUnicos(long[] p, int o, long unicos, int base) {
+        while (unicos != 0) {
+            int celula = base + Long.numberOfTrailingZeros(unicos);
+            unicos &= unicos - 1;
+            int w = o + (celula >>> 6);
+            long bit = 1L << celula;
+            int valor = 0;
+            while (valor < TAMANHO && (p[w + 2 * valor] & bit) == 0) {
+                valor++;
+            }
+            if (valor == TAMANHO) {
+                // um único colocado antes tirou o último candidato desta célula
+                return false;
+            }
+            colocar(p, o, celula, valor);
+        }
+        return true;
+    }
+
+    /**
+     * Coloca os valores que só cabem em uma célula de alguma unidade.
+     *
+     * @return -1 se um valor não cabe em nenhuma célula de uma unidade, 0 se nada mudou,
+     *         1 se algum valor foi colocado.
+     */
+    private static int colocarOcultos(long[] p, int o) {
+        int resultado = 0;
+        for (int d = 0; d < TAMANHO; d++) {
+            int i = o + 2 * d;
+            if (Long.bitCount(p[i] & p[o + RESOLVIDAS]) + Long.bitCount(p[i + 1] & p[o + RESOLVIDAS + 1]) == TAMANHO) {
+                // o valor já está nas nove unidades de cada tipo
+                continue;
+            }
+            for (int u = 0; u < UNIDADES; u++) {
+                long m0 = p[i] & MASCARAS_UNIDADES[2 * u];
+                long m1 = p[i + 1] & MASCARAS_UNIDADES[2 * u + 1];
+                int quantidade = Long.bitCount(m0) + Long.bitCount(m1);
+                if (quantidade == 0) {
+                    return -1;
+                }
+                if (quantidade == 1) {
+                    int celula = m0 != 0 ? Long.numberOfTrailingZeros(m0) : Long.SIZE + Long.numberOfTrailingZeros(m1);
+                    if ((p[o + RESOLVIDAS + (celula >>> 6)] & (1L << celula)) == 0) {
+                        colocar(p, o, celula, d);
+                        resultado = 1;
+                    }
+                }
+            }
+        }
+        return resultado;
+    }
+
+    private static boolean resolvido(long[] p, int o) {
+        return p[o + RESOLVIDAS] == -1L && p[o + RESOLVIDAS + 1] == TODAS_ALTA;
+    }
+
+    /**
+     * Escolhe a célula da ramificação: a primeira com dois candidatos, achada com os mesmos
+     * acumuladores da propagação, ou, se não houver, a de menos candidatos.
+     */
+    private static int escolherCelula(long[] p, int o) {
+        long algum0 = 0;
+        long algum1 = 0;
+        long dois0 = 0;
+        long dois1 = 0;
+        long tres0 = 0;
+        long tres1 = 0;
+        for (int d = 0; d < TAMANHO; d++) {
+            long a = p[o + 2 * d];
+            long b = p[o + 2 * d + 1];
+            tres0 |= dois0 & a;
+            dois0 |= algum0 & a;
+            algum0 |= a;
+            tres1 |= dois1 & b;
+            dois1 |= algum1 & b;
+            algum1 |= b;
+        }
+        long pares0 = dois0 & ~tres0 & ~p[o + RESOLVIDAS];
+        if (pares0 != 0) {
+            return Long.numberOfTrailingZeros(pares0);
+        }
+        long pares1 = dois1 & ~tres1 & ~p[o + RESOLVIDAS + 1];
+        if (pares1 != 0) {
+            return Long.SIZE + Long.numberOfTrailingZeros(pares1);
+        }
+
+        int melhor = -1;
+        int menor = TAMANHO + 1;
+        for (int c = 0; c < CELULAS; c++) {
+            if ((p[o + RESOLVIDAS + (c >>> 6)] & (1L << c)) == 0) {
+                int quantidade = Integer.bitCount(candidatos(p, o, c));
+                if (quantidade < menor) {
+                    melhor = c;
+                    menor = quantidade;
+                }
+            }
+        }
+        return melhor;
+    }
+
+    /**
+     * @return A máscara dos valores possíveis na célula (bit d para o valor d + 1).
+     */
+    private static int candidatos(long[] p, int o, int celula) {
+        int w = o + (celula >>> 6);
+        long bit = 1L << celula;
+        int mascara = 0;
+        for (int d = 0; d < TAMANHO; d++) {
+            if ((p[w + 2 * d] & bit) != 0) {
+                mascara |= 1 << d;
+            }
+        }
+        return mascara;
+    }
+
+    private static int valorDe(long[] p, int o, int celula) {
+        return Integer.numberOfTrailingZeros(candidatos(p, o, celula)) + 1;
+    }
+}
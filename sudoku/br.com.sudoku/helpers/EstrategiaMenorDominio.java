@@ -0,0 +1,72 @@
+package helpers;
+
+import enums.EstadoResolvedor;
+import matriz.Regras;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Estratégia do {@link ResolvedorIterativo}: escolhe sempre a célula com menos candidatos.
+ * <p>
+ * A versão aleatória tenta os candidatos em ordem sorteada (uma semente diferente a cada
+ * busca). Em puzzles difíceis o tempo da busca varia muito com a ordem dos valores, então
+ * rodar a versão ordenada e a aleatória lado a lado corta os casos de azar.
+ */
+public class EstrategiaMenorDominio implements EstrategiaResolucao {
+    private final AtomicLong sementes;
+
+    public EstrategiaMenorDominio() {
+        this.sementes = null;
+    }
+
+    private EstrategiaMenorDominio(long semente) {
+        this.sementes = new AtomicLong(semente);
+    }
+
+    /**
+     * @param semente A semente da primeira busca; as seguintes usam sementes derivadas dela.
+     */
+    public static EstrategiaMenorDominio aleatoria(long semente) {
+        return new EstrategiaMenorDominio(semente);
+    }
+
+    @Override
+    public String getNome() {
+        return sementes == null ? "menor-dominio" : "menor-dominio-aleatoria";
+    }
+
+    @Override
+    public ResultadoResolucao resolver(int[] valores, Regras regras, int limite, OpcoesResolucao opcoes) {
+        return resolver(valores, regras, limite, opcoes.iniciar());
+    }
+
+    /**
+     * Resolve com um orçamento já iniciado, para continuar uma verificação que começou antes
+     * da busca (a propagação do {@link OraculoSolubilidade}, por exemplo).
+     */
+    ResultadoResolucao resolver(int[] valores, Regras regras, int limite, Orcamento orcamento) {
+        Random aleatorio = sementes != null ? new Random(sementes.getAndIncrement()) : null;
+        ResolvedorIterativo motor = new ResolvedorIterativo(valores, regras, aleatorio);
+
+        int[] primeira = null;
+        EstadoResolvedor estado = motor.getEstado();
+        while (estado != EstadoResolvedor.ESGOTADO && motor.getSolucoesEncontradas() < limite) {
+            estado = EstadoResolvedor.EM_ANDAMENTO;
+            while (estado == EstadoResolvedor.EM_ANDAMENTO && orcamento.visitar()) {
+                estado = motor.passo(1);
+            }
+            if (estado != EstadoResolvedor.SOLUCAO_ENCONTRADA) {
+                break;
+            }
+            if (primeira == null) {
+                primeira = motor.getGrade();
+            }
+        }
+
+        if (primeira != null) {
+            System.arraycopy(primeira, 0, valores, 0, valores.length);
+        }
+        return new ResultadoResolucao(orcamento.getStatus(), motor.getSolucoesEncontradas(), orcamento.getNos());
+    }
+}
@@ -0,0 +1,39 @@
+package helpers;
+
+import matriz.Regras;
+
+/**
+ * Algoritmo de busca usado pelo {@link ResolvedorPortfolio}.
+ * <p>
+ * Cada estratégia recebe a sua própria cópia do tabuleiro, então várias podem rodar ao mesmo
+ * tempo sobre o mesmo puzzle. As implementações devem respeitar os limites das
+ * {@link OpcoesResolucao}, inclusive a interrupção da thread, que é como o portfólio
+ * cancela as estratégias perdedoras.
+ */
+public interface EstrategiaResolucao {
+
+    /**
+     * @return Um nome curto, usado nas estatísticas do portfólio.
+     */
+    String getNome();
+
+    /**
+     * @return false se a estratégia não sabe tratar as restrições informadas.
+     */
+    default boolean suporta(Regras regras) {
+        return true;
+    }
+
+    /**
+     * Procura soluções até o limite.
+     *
+     * @param valores Os valores das células, linha a linha (0 para vazias). Pertence à estratégia:
+     *                se alguma solução for encontrada, a primeira é escrita nele.
+     * @param regras  As restrições do tabuleiro.
+     * @param limite  A quantidade de soluções a partir da qual a busca pode parar
+     *                (1 para resolver, 2 para verificar solução única).
+     * @param opcoes  Os limites da busca.
+     * @return O resultado com o número de soluções encontradas.
+     */
+    ResultadoResolucao resolver(int[] valores, Regras regras, int limite, OpcoesResolucao opcoes);
+}
@@ -0,0 +1,116 @@
+package helpers;
+
+import matriz.Regras;
+
+/**
+ * Backtracking simples: preenche as células vazias na ordem de leitura, tentando os valores
+ * em ordem crescente.
+ * <p>
+ * Não gasta tempo escolhendo a célula com menos candidatos, então ganha nos tabuleiros quase
+ * resolvidos, em que qualquer ordem chega rápido à solução. Não trata gaiolas do Killer Sudoku.
+ */
+public class EstrategiaSequencial implements EstrategiaResolucao {
+
+    @Override
+    public String getNome() {
+        return "sequencial";
+    }
+
+    @Override
+    public boolean suporta(Regras regras) {
+        return !regras.temGaiolas();
+    }
+
+    @Override
+    public ResultadoResolucao resolver(int[] valores, Regras regras, int limite, OpcoesResolucao opcoes) {
+        Orcamento orcamento = opcoes.iniciar();
+        int tamanho = regras.getTamanho();
+        int celulas = tamanho * tamanho;
+
+        int[][] unidadesDe = new int[celulas][];
+        int[] usados = new int[regras.getQuantidadeUnidades()];
+        int vazias = 0;
+        int[] ordem = new int[celulas];
+        for (int c = 0; c < celulas; c++) {
+            unidadesDe[c] = regras.unidadesDaCelula(c);
+            int valor = valores[c];
+            if (valor == 0) {
+                ordem[vazias++] = c;
+                continue;
+            }
+            int bit = 1 << (valor - 1);
+            for (int u : unidadesDe[c]) {
+                if ((usados[u] & bit) != 0) {
+                    // pista repetida: não existe solução
+                    return new ResultadoResolucao(orcamento.getStatus(), 0, 0);
+                }
+                usados[u] |= bit;
+            }
+        }
+
+        int[] grade = valores.clone();
+        int[] primeira = null;
+        int solucoes = 0;
+        int profundidade = 0;
+
+        while (profundidade >= 0 && solucoes < limite) {
+            if (profundidade == vazias) {
+                solucoes++;
+                if (primeira == null) {
+                    primeira = grade.clone();
+                }
+                profundidade--;
+                continue;
+            }
+            if (!orcamento.visitar()) {
+                break;
+            }
+
+            int celula = ordem[profundidade];
+            int atual = grade[celula];
+            if (atual != 0) {
+                liberar(unidadesDe[celula], usados, atual);
+            }
+
+            int proximo = 0;
+            for (int valor = atual + 1; valor <= tamanho; valor++) {
+                if (livre(unidadesDe[celula], usados, 1 << (valor - 1))) {
+                    proximo = valor;
+                    break;
+                }
+            }
+
+            grade[celula] = proximo;
+            if (proximo == 0) {
+                profundidade--;
+            } else {
+                int bit = 1 << (proximo - 1);
+                for (int u : unidadesDe[celula]) {
+                    usados[u] |= bit;
+                }
+                profundidade++;
+            }
+        }
+
+        if (primeira != null) {
+            System.arraycopy(primeira, 0, valores, 0, celulas);
+        }
+        return new ResultadoResolucao(orcamento.getStatus(), solucoes, orcamento.getNos());
+    }
+
+    private static boolean livre(int[] unidades, int[] usados, int bit) {
+        for (int u : unidades) {
+            if ((usados[u] & bit) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void liberar(int[] unidades, int[] usados, int valor) {
+        int bit = ~(1 << (valor - 1));
+        for (int u : unidades) {
+            usados[u] &= bit;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package helpers;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Utilitários para executar tarefas demoradas (geração e resolução) fora da thread chamadora.
+ * <p>
+ * As tarefas são expostas como {@link CompletableFuture}. Ao contrário do
+ * {@code CompletableFuture} comum, cancelar o futuro interrompe a thread que está
+ * executando a tarefa, e o gerador e o resolvedor verificam essa interrupção.
+ */
+public final class ExecutorHelper {
+    // uma thread virtual por tarefa: bloquear aqui não prende threads da plataforma
+    private static final ExecutorService PADRAO = Executors.newVirtualThreadPerTaskExecutor();
+
+    private ExecutorHelper() {
+    }
+
+    public static ExecutorService padrao() {
+        return PADRAO;
+    }
+
+    public static <T> CompletableFuture<T> submeter(Callable<T> tarefa, Executor executor) {
+        return submeter(tarefa, Function.identity(), executor);
+    }
+
+    /**
+     * Executa uma tarefa cancelável.
+     *
+     * @param tarefa   O cálculo demorado.
+     * @param aplicar  Ação executada com o resultado, somente se o futuro não tiver sido cancelado.
+     *                 Cancelamento e aplicação são mutuamente exclusivos. O valor devolvido
+     *                 por ela conclui o futuro.
+     * @param executor O executor onde a tarefa roda.
+     * @return O futuro com o valor devolvido por {@code aplicar}.
+     */
+    public static <T, R> CompletableFuture<R> submeter(Callable<T> tarefa, Function<T, R> aplicar, Executor executor) {
+        TarefaCancelavel<T, R> futuro = new TarefaCancelavel<>();
+        executor.execute(() -> futuro.executar(tarefa, aplicar));
+        return futuro;
+    }
+
+    /**
+     * Lança {@link CancellationException} se a thread atual foi interrompida.
+     * A marca de interrupção é mantida para quem estiver acima na pilha.
+     */
+    public static void verificarInterrupcao() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Tarefa interrompida");
+        }
+    }
+
+    private static final class TarefaCancelavel<T, R> extends CompletableFuture<R> {
+        private Thread executando;
+
+        void executar(Callable<T> tarefa, Function<T, R> aplicar) {
+            synchronized (this) {
+                if (isDone()) {
+                    return;
+                }
+                executando = Thread.currentThread();
+            }
+
+            try {
+                T resultado = tarefa.call();
+                synchronized (this) {
+                    if (!isDone()) {
+                        complete(aplicar.apply(resultado));
+                    }
+                }
+            } catch (Throwable e) {
+                completeExceptionally(e);
+            } finally {
+                synchronized (this) {
+                    executando = null;
+                }
+                // não deixa a marca de interrupção vazar para a próxima tarefa do executor
+                Thread.interrupted();
+            }
+        }
+
+        @Override
+        public synchronized boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelado = super.cancel(mayInterruptIfRunning);
+            if (cancelado && executando != null) {
+                executando.interrupt();
+            }
+            return cancelado;
+        }
+    }
+}
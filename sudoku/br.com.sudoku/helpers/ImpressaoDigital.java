@@ -0,0 +1,85 @@
+package helpers;
+
+/**
+ * Impressão digital de 128 bits de um tabuleiro de Sudoku.
+ * <p>
+ * É calculada a partir do vetor de valores do tabuleiro (0 para células vazias).
+ * Quando aplicada sobre a forma canônica (ver {@link CanonizadorHelper}), dois
+ * tabuleiros equivalentes por simetria geram a mesma impressão.
+ */
+public final class ImpressaoDigital {
+    private final long alto;
+    private final long baixo;
+
+    public ImpressaoDigital(long alto, long baixo) {
+        this.alto = alto;
+        this.baixo = baixo;
+    }
+
+    /**
+     * Calcula a impressão digital de um vetor de valores, sem canonizar.
+     *
+     * @param valores Os valores das células, linha a linha.
+     * @return A impressão digital correspondente.
+     */
+    public static ImpressaoDigital de(int[] valores) {
+        long h1 = 0x9E3779B97F4A7C15L ^ valores.length;
+        long h2 = 0xC2B2AE3D27D4EB4FL ^ ((long) valores.length << 32);
+        long bloco = 0;
+        int bits = 0;
+
+        // empacota 4 bits por célula (5 para tabuleiros maiores) e mistura a cada 64 bits
+        int largura = valores.length > 81 ? 5 : 4;
+        for (int valor : valores) {
+            bloco |= ((long) valor) << bits;
+            bits += largura;
+            if (bits > 64 - largura) {
+                h1 = misturar(h1 ^ bloco);
+                h2 = misturar(h2 + bloco * 0xFF51AFD7ED558CCDL);
+                bloco = 0;
+                bits = 0;
+            }
+        }
+        h1 = misturar(h1 ^ bloco);
+        h2 = misturar(h2 + bloco * 0xFF51AFD7ED558CCDL);
+
+        return new ImpressaoDigital(h1, h2 ^ h1);
+    }
+
+    public long getAlto() {
+        return alto;
+    }
+
+    public long getBaixo() {
+        return baixo;
+    }
+
+    /**
+     * Finalizador do MurmurHash3 (fmix64).
+     */
+    private static long misturar(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof ImpressaoDigital outra)) return false;
+        return alto == outra.alto && baixo == outra.baixo;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (baixo ^ (baixo >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", alto, baixo);
+    }
+}
@@ -0,0 +1,453 @@
+package helpers;
+
+import enums.EstadoResolvedor;
+import matriz.Celula;
+import matriz.Regras;
+import matriz.Tabuleiro;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Lote de muitos tabuleiros das mesmas regras, guardados em vetores primitivos contíguos.
+ * <p>
+ * Um {@link Tabuleiro} é um grafo de listas e células, centenas de objetos por puzzle; para
+ * trabalhos em massa (resolver, contar soluções, validar e gravar milhões de puzzles) o lote
+ * guarda tudo em dois vetores:
+ * <ul>
+ *     <li>{@code byte[] valores}: as células do tabuleiro {@code b} ocupam as posições
+ *     {@code b * celulas} a {@code (b + 1) * celulas - 1}, linha a linha (0 para vazias);</li>
+ *     <li>{@code long[] pistas}: um bit por célula que faz parte do puzzle, com
+ *     {@code ceil(celulas / 64)} palavras por tabuleiro.</li>
+ * </ul>
+ * As operações percorrem os vetores com um único motor recarregado a cada puzzle, então não
+ * criam objetos por tabuleiro além do controle de orçamento: no Sudoku clássico 9x9 a busca da
+ * {@link EstrategiaBitboard}, nas variantes o {@link ResolvedorIterativo}
+ * ({@link ResolvedorIterativo#carregar}). Cada tabuleiro fica contíguo, o que favorece o resolvedor; a validação
+ * transpõe o lote para o layout por célula do {@link ValidadorLoteHelper}.
+ * <p>
+ * Os métodos com intervalo ({@code inicio}, {@code fim}) podem ser chamados por várias threads
+ * sobre intervalos disjuntos; adicionar tabuleiros não é seguro para várias threads.
+ */
+public class LoteTabuleiros {
+    // resultado de um tabuleiro cujo orçamento acabou antes da resposta
+    public static final int SEM_RESPOSTA = -1;
+    private static final int CAPACIDADE_INICIAL = 64;
+
+    private final Regras regras;
+    private final int tamanho;
+    private final int celulas;
+    private final int palavrasPistas;
+    private final boolean bitboard;
+    private byte[] valores;
+    private long[] pistas;
+    private int quantidade;
+
+    public LoteTabuleiros(Regras regras) {
+        this(regras, CAPACIDADE_INICIAL);
+    }
+
+    /**
+     * @param regras     As restrições de todos os tabuleiros do lote.
+     * @param capacidade Quantos tabuleiros reservar; o lote cresce se passar disso.
+     */
+    public LoteTabuleiros(Regras regras, int capacidade) {
+        if (capacidade <= 0) {
+            throw new IllegalArgumentException("A capacidade deve ser positiva: " + capacidade);
+        }
+        if ((long) capacidade * regras.getTamanho() * regras.getTamanho() > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Capacidade grande demais: " + capacidade);
+        }
+        this.regras = regras;
+        this.tamanho = regras.getTamanho();
+        this.celulas = tamanho * tamanho;
+        this.palavrasPistas = (celulas + Long.SIZE - 1) / Long.SIZE;
+        this.bitboard = new EstrategiaBitboard().suporta(regras);
+        this.valores = new byte[capacidade * celulas];
+        this.pistas = new long[capacidade * palavrasPistas];
+    }
+
+    /**
+     * Acrescenta um puzzle; as células preenchidas são as pistas.
+     *
+     * @param grade Os valores, linha a linha (0 para vazias).
+     * @return O índice do tabuleiro no lote.
+     */
+    public int adicionar(int[] grade) {
+        if (grade.length != celulas) {
+            throw new IllegalArgumentException("Quantidade de valores inválida: " + grade.length);
+        }
+        int b = reservar();
+        int base = b * celulas;
+        for (int c = 0; c < celulas; c++) {
+            int valor = grade[c];
+            if (valor < 0 || valor > tamanho) {
+                quantidade--;
+                throw new IllegalArgumentException("Valor inválido na célula " + c + ": " + valor);
+            }
+            valores[base + c] = (byte) valor;
+            if (valor != 0) {
+                marcarPista(b, c);
+            }
+        }
+        return b;
+    }
+
+    /**
+     * Acrescenta o estado de um tabuleiro; as células fixas são as pistas.
+     *
+     * @return O índice do tabuleiro no lote.
+     */
+    public int adicionar(Tabuleiro tabuleiro) {
+        if (tabuleiro.getTamanho() != tamanho) {
+            throw new IllegalArgumentException("Tabuleiro de tamanho " + tabuleiro.getTamanho()
+                    + " em um lote de tamanho " + tamanho);
+        }
+        int b = reservar();
+        int base = b * celulas;
+        for (int c = 0; c < celulas; c++) {
+            Celula celula = tabuleiro.getCelula(c / tamanho, c % tamanho);
+            valores[base + c] = (byte) (int) celula.getValor().orElse(0);
+            if (celula.isFixo()) {
+                marcarPista(b, c);
+            }
+        }
+        return b;
+    }
+
+    /**
+     * Acrescenta um puzzle no formato de uma linha de texto: um caractere por célula, linha a
+     * linha, com '.' ou '0' nas vazias e letras a partir de 10 ('A' = 10).
+     *
+     * @return O índice do tabuleiro no lote.
+     */
+    public int adicionarTexto(CharSequence linha) {
+        if (linha.length() != celulas) {
+            throw new IllegalArgumentException("A linha deve ter " + celulas + " caracteres: " + linha.length());
+        }
+        int b = reservar();
+        int base = b * celulas;
+        for (int c = 0; c < celulas; c++) {
+            int valor = lerSimbolo(linha.charAt(c));
+            if (valor < 0 || valor > tamanho) {
+                quantidade--;
+                throw new IllegalArgumentException("Caractere inválido na posição " + c + ": " + linha.charAt(c));
+            }
+            valores[base + c] = (byte) valor;
+            if (valor != 0) {
+                marcarPista(b, c);
+            }
+        }
+        return b;
+    }
+
+    private int reservar() {
+        if ((quantidade + 1) * celulas > valores.length) {
+            int capacidade = Math.max(CAPACIDADE_INICIAL, 2 * valores.length / celulas);
+            valores = Arrays.copyOf(valores, capacidade * celulas);
+            pistas = Arrays.copyOf(pistas, capacidade * palavrasPistas);
+        }
+        int b = quantidade++;
+        Arrays.fill(valores, b * celulas, (b + 1) * celulas, (byte) 0);
+        Arrays.fill(pistas, b * palavrasPistas, (b + 1) * palavrasPistas, 0L);
+        return b;
+    }
+
+    private void marcarPista(int b, int celula) {
+        pistas[b * palavrasPistas + celula / Long.SIZE] |= 1L << celula;
+    }
+
+    /**
+     * Esvazia o lote, mantendo os vetores para os próximos tabuleiros.
+     */
+    public void limpar() {
+        quantidade = 0;
+    }
+
+    /**
+     * Resolve todos os tabuleiros, escrevendo cada solução no lugar do puzzle.
+     *
+     * @return Para cada tabuleiro, 1 se foi resolvido, 0 se não tem solução ou
+     *         {@link #SEM_RESPOSTA} se o orçamento acabou.
+     */
+    public int[] resolver(OpcoesResolucao opcoes) {
+        int[] resultado = new int[quantidade];
+        resolver(0, quantidade, opcoes, resultado);
+        return resultado;
+    }
+
+    /**
+     * Resolve os tabuleiros de {@code inicio} (inclusive) a {@code fim} (exclusive).
+     *
+     * @param resultado Recebe, na posição de cada tabuleiro, 1, 0 ou {@link #SEM_RESPOSTA}.
+     * @return Quantos tabuleiros foram resolvidos.
+     */
+    public int resolver(int inicio, int fim, OpcoesResolucao opcoes, int[] resultado) {
+        verificarIntervalo(inicio, fim);
+        if (bitboard) {
+            return resolverBitboard(inicio, fim, opcoes, resultado);
+        }
+        ResolvedorIterativo motor = new ResolvedorIterativo(new int[celulas], regras);
+        int resolvidos = 0;
+        for (int b = inicio; b < fim; b++) {
+            Orcamento orcamento = opcoes.iniciar();
+            motor.carregar(valores, b * celulas);
+            EstadoResolvedor estado = avancarAteParar(motor, orcamento);
+            if (estado == EstadoResolvedor.SOLUCAO_ENCONTRADA) {
+                motor.copiarGrade(valores, b * celulas);
+                resultado[b] = 1;
+                resolvidos++;
+            } else {
+                resultado[b] = orcamento.isEsgotado() ? SEM_RESPOSTA : 0;
+            }
+        }
+        return resolvidos;
+    }
+
+    private int resolverBitboard(int inicio, int fim, OpcoesResolucao opcoes, int[] resultado) {
+        EstrategiaBitboard.Busca busca = new EstrategiaBitboard.Busca();
+        int resolvidos = 0;
+        for (int b = inicio; b < fim; b++) {
+            Orcamento orcamento = opcoes.iniciar();
+            int base = b * celulas;
+            if (busca.carregar(valores, base) && busca.buscar(1, orcamento) > 0) {
+                busca.escreverPrimeira(valores, base);
+                resultado[b] = 1;
+                resolvidos++;
+            } else {
+                resultado[b] = orcamento.isEsgotado() ? SEM_RESPOSTA : 0;
+            }
+        }
+        return resolvidos;
+    }
+
+    /**
+     * Conta as soluções de todos os tabuleiros até o limite, sem alterá-los.
+     *
+     * @param limite A quantidade de soluções a partir da qual a contagem de um tabuleiro para
+     *               (2 para verificar solução única).
+     * @return Para cada tabuleiro, o número de soluções (no máximo o limite) ou
+     *         {@link #SEM_RESPOSTA} se o orçamento acabou antes.
+     */
+    public int[] contarSolucoes(int limite, OpcoesResolucao opcoes) {
+        int[] resultado = new int[quantidade];
+        contarSolucoes(0, quantidade, limite, opcoes, resultado);
+        return resultado;
+    }
+
+    /**
+     * Conta as soluções dos tabuleiros de {@code inicio} (inclusive) a {@code fim} (exclusive).
+     *
+     * @param resultado Recebe, na posição de cada tabuleiro, o número de soluções ou
+     *                  {@link #SEM_RESPOSTA}.
+     */
+    public void contarSolucoes(int inicio, int fim, int limite, OpcoesResolucao opcoes, int[] resultado) {
+        verificarIntervalo(inicio, fim);
+        if (bitboard) {
+            contarBitboard(inicio, fim, limite, opcoes, resultado);
+            return;
+        }
+        ResolvedorIterativo motor = new ResolvedorIterativo(new int[celulas], regras);
+        for (int b = inicio; b < fim; b++) {
+            Orcamento orcamento = opcoes.iniciar();
+            motor.carregar(valores, b * celulas);
+            EstadoResolvedor estado;
+            do {
+                estado = avancarAteParar(motor, orcamento);
+            } while (estado == EstadoResolvedor.SOLUCAO_ENCONTRADA && motor.getSolucoesEncontradas() < limite);
+            resultado[b] = orcamento.isEsgotado() ? SEM_RESPOSTA : Math.min(limite, motor.getSolucoesEncontradas());
+        }
+    }
+
+    private void contarBitboard(int inicio, int fim, int limite, OpcoesResolucao opcoes, int[] resultado) {
+        EstrategiaBitboard.Busca busca = new EstrategiaBitboard.Busca();
+        for (int b = inicio; b < fim; b++) {
+            Orcamento orcamento = opcoes.iniciar();
+            int solucoes = busca.carregar(valores, b * celulas) ? busca.buscar(limite, orcamento) : 0;
+            resultado[b] = orcamento.isEsgotado() ? SEM_RESPOSTA : Math.min(limite, solucoes);
+        }
+    }
+
+    private static EstadoResolvedor avancarAteParar(ResolvedorIterativo motor, Orcamento orcamento) {
+        EstadoResolvedor estado = motor.getEstado();
+        if (estado == EstadoResolvedor.SOLUCAO_ENCONTRADA) {
+            estado = EstadoResolvedor.EM_ANDAMENTO;
+        }
+        while (estado == EstadoResolvedor.EM_ANDAMENTO && orcamento.visitar()) {
+            estado = motor.passo(1);
+        }
+        return estado;
+    }
+
+    /**
+     * Valida os tabuleiros como soluções completas, com o {@link ValidadorLoteHelper}
+     * (SIMD quando disponível). Só para o Sudoku clássico 9x9.
+     */
+    public ResultadoValidacaoLote validar() {
+        if (!regras.isClassico() || tamanho != ValidadorLoteHelper.TAMANHO) {
+            throw new IllegalArgumentException("Validação em lote só aceita o Sudoku clássico 9x9");
+        }
+        // transpõe para o layout por célula: a mesma célula de todos os tabuleiros fica contígua
+        byte[] porCelula = new byte[celulas * quantidade];
+        for (int b = 0; b < quantidade; b++) {
+            int base = b * celulas;
+            for (int c = 0; c < celulas; c++) {
+                porCelula[c * quantidade + b] = valores[base + c];
+            }
+        }
+        return new ValidadorLoteHelper().validar(porCelula, quantidade);
+    }
+
+    public int getQuantidade() {
+        return quantidade;
+    }
+
+    public Regras getRegras() {
+        return regras;
+    }
+
+    public int getValor(int tabuleiro, int celula) {
+        verificarIndice(tabuleiro);
+        return valores[tabuleiro * celulas + celula];
+    }
+
+    public boolean isPista(int tabuleiro, int celula) {
+        verificarIndice(tabuleiro);
+        return (pistas[tabuleiro * palavrasPistas + celula / Long.SIZE] & (1L << celula)) != 0;
+    }
+
+    /**
+     * Copia os valores de um tabuleiro para um vetor já alocado (tamanho * tamanho posições).
+     */
+    public void copiarValores(int tabuleiro, int[] destino) {
+        verificarIndice(tabuleiro);
+        int base = tabuleiro * celulas;
+        for (int c = 0; c < celulas; c++) {
+            destino[c] = valores[base + c];
+        }
+    }
+
+    /**
+     * Monta um {@link Tabuleiro} com os valores de um tabuleiro do lote; as pistas ficam fixas.
+     */
+    public Tabuleiro paraTabuleiro(int tabuleiro) {
+        verificarIndice(tabuleiro);
+        Tabuleiro resultado = new Tabuleiro(tamanho, regras);
+        for (int c = 0; c < celulas; c++) {
+            int valor = valores[tabuleiro * celulas + c];
+            if (valor != 0) {
+                resultado.setCelula(c / tamanho, c % tamanho, new Celula(valor, isPista(tabuleiro, c)));
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Escreve os tabuleiros no formato de {@link #adicionarTexto}, um por linha ('.' nas vazias),
+     * montando as linhas direto em um buffer de bytes.
+     */
+    public void escreverTexto(OutputStream saida) throws IOException {
+        int porBloco = Math.max(1, 64 * 1024 / (celulas + 1));
+        byte[] buffer = new byte[porBloco * (celulas + 1)];
+        for (int inicio = 0; inicio < quantidade; inicio += porBloco) {
+            int fim = Math.min(quantidade, inicio + porBloco);
+            int usados = 0;
+            for (int b = inicio; b < fim; b++) {
+                int base = b * celulas;
+                for (int c = 0; c < celulas; c++) {
+                    buffer[usados++] = escreverSimbolo(valores[base + c]);
+                }
+                buffer[usados++] = '\n';
+            }
+            saida.write(buffer, 0, usados);
+        }
+        saida.flush();
+    }
+
+    /**
+     * Serializa o lote: tamanho, quantidade, regras (vazias no clássico), valores e pistas,
+     * copiados direto dos vetores.
+     */
+    public byte[] paraBytes() {
+        byte[] textoRegras = regras.isClassico() ? new byte[0] : regras.paraTexto().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(3 * Integer.BYTES + textoRegras.length
+                + quantidade * celulas + quantidade * palavrasPistas * Long.BYTES);
+        buffer.putInt(tamanho).putInt(quantidade).putInt(textoRegras.length).put(textoRegras);
+        buffer.put(valores, 0, quantidade * celulas);
+        buffer.asLongBuffer().put(pistas, 0, quantidade * palavrasPistas);
+        return buffer.array();
+    }
+
+    /**
+     * Lê um lote gravado por {@link #paraBytes()}.
+     *
+     * @throws IllegalArgumentException se os dados forem inválidos.
+     */
+    public static LoteTabuleiros deBytes(byte[] dados) {
+        ByteBuffer buffer = ByteBuffer.wrap(dados);
+        if (buffer.remaining() < 3 * Integer.BYTES) {
+            throw new IllegalArgumentException("Lote incompleto");
+        }
+        int tamanho = buffer.getInt();
+        int quantidade = buffer.getInt();
+        int bytesRegras = buffer.getInt();
+        if (tamanho <= 0 || tamanho > 25 || quantidade < 0 || bytesRegras < 0 || bytesRegras > buffer.remaining()) {
+            throw new IllegalArgumentException("Lote inválido");
+        }
+        // confere o tamanho dos dados, em long, antes de alocar: um cabeçalho corrompido não
+        // pode estourar a conta da capacidade nem pedir vetores maiores que a entrada
+        int celulas = tamanho * tamanho;
+        long esperado = (long) quantidade * celulas
+                + (long) quantidade * ((celulas + Long.SIZE - 1) / Long.SIZE) * Long.BYTES;
+        if (buffer.remaining() - bytesRegras != esperado) {
+            throw new IllegalArgumentException("Lote inválido");
+        }
+        byte[] textoRegras = new byte[bytesRegras];
+        buffer.get(textoRegras);
+        Regras regras = bytesRegras == 0 ? Regras.classico(tamanho)
+                : Regras.deTexto(tamanho, new String(textoRegras, StandardCharsets.UTF_8));
+
+        LoteTabuleiros lote = new LoteTabuleiros(regras, Math.max(1, quantidade));
+        buffer.get(lote.valores, 0, quantidade * lote.celulas);
+        buffer.asLongBuffer().get(lote.pistas, 0, quantidade * lote.palavrasPistas);
+        for (int i = 0; i < quantidade * lote.celulas; i++) {
+            if (lote.valores[i] < 0 || lote.valores[i] > tamanho) {
+                throw new IllegalArgumentException("Valor inválido no lote: " + lote.valores[i]);
+            }
+        }
+        lote.quantidade = quantidade;
+        return lote;
+    }
+
+    private void verificarIndice(int tabuleiro) {
+        if (tabuleiro < 0 || tabuleiro >= quantidade) {
+            throw new IndexOutOfBoundsException("Tabuleiro fora do lote: " + tabuleiro);
+        }
+    }
+
+    private void verificarIntervalo(int inicio, int fim) {
+        if (inicio < 0 || fim > quantidade || inicio > fim) {
+            throw new IndexOutOfBoundsException("Intervalo fora do lote: " + inicio + " a " + fim);
+        }
+    }
+
+    private static int lerSimbolo(char simbolo) {
+        if (simbolo == '.' || simbolo == '0') {
+            return 0;
+        }
+        if (simbolo >= '1' && simbolo <= '9') {
+            return simbolo - '0';
+        }
+        if (simbolo >= 'A' && simbolo <= 'P') {
+            return simbolo - 'A' + 10;
+        }
+        return -1;
+    }
+
+    private static byte escreverSimbolo(int valor) {
+        return (byte) (valor == 0 ? '.' : valor < 10 ? '0' + valor : 'A' + valor - 10);
+    }
+}
@@ -0,0 +1,78 @@
+package helpers;
+
+import java.time.Duration;
+
+/**
+ * Limites de uma busca do resolvedor.
+ * <p>
+ * Uma busca pode ser limitada por um prazo (tempo de relógio), por um número máximo de nós
+ * visitados e pela marca de interrupção da thread, verificada de forma cooperativa.
+ * As instâncias são imutáveis: os métodos {@code com...} devolvem uma nova cópia.
+ *
+ * <pre>
+ *     OpcoesResolucao opcoes = OpcoesResolucao.semLimites()
+ *             .comPrazo(Duration.ofMillis(200))
+ *             .comMaximoNos(1_000_000);
+ * </pre>
+ */
+public final class OpcoesResolucao {
+    private static final OpcoesResolucao SEM_LIMITES = new OpcoesResolucao(null, Long.MAX_VALUE, true);
+
+    private final Duration prazo;
+    private final long maximoNos;
+    private final boolean respeitarInterrupcao;
+
+    private OpcoesResolucao(Duration prazo, long maximoNos, boolean respeitarInterrupcao) {
+        this.prazo = prazo;
+        this.maximoNos = maximoNos;
+        this.respeitarInterrupcao = respeitarInterrupcao;
+    }
+
+    public static OpcoesResolucao semLimites() {
+        return SEM_LIMITES;
+    }
+
+    /**
+     * @param prazo O tempo máximo de cada busca, contado a partir do início dela.
+     */
+    public OpcoesResolucao comPrazo(Duration prazo) {
+        return new OpcoesResolucao(prazo, maximoNos, respeitarInterrupcao);
+    }
+
+    /**
+     * @param maximoNos O número máximo de nós (tentativas de valor) de cada busca.
+     */
+    public OpcoesResolucao comMaximoNos(long maximoNos) {
+        if (maximoNos <= 0) {
+            throw new IllegalArgumentException("O número máximo de nós deve ser positivo: " + maximoNos);
+        }
+        return new OpcoesResolucao(prazo, maximoNos, respeitarInterrupcao);
+    }
+
+    /**
+     * @param respeitarInterrupcao false para ignorar a marca de interrupção da thread.
+     */
+    public OpcoesResolucao comInterrupcao(boolean respeitarInterrupcao) {
+        return new OpcoesResolucao(prazo, maximoNos, respeitarInterrupcao);
+    }
+
+    public Duration getPrazo() {
+        return prazo;
+    }
+
+    public long getMaximoNos() {
+        return maximoNos;
+    }
+
+    public boolean isRespeitarInterrupcao() {
+        return respeitarInterrupcao;
+    }
+
+    /**
+     * Cria o controle de orçamento de uma busca que começa agora.
+     */
+    Orcamento iniciar() {
+        long limiteNanos = prazo != null ? System.nanoTime() + prazo.toNanos() : Long.MAX_VALUE;
+        return new Orcamento(limiteNanos, maximoNos, respeitarInterrupcao);
+    }
+}
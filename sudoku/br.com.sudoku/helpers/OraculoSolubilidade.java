@@ -0,0 +1,149 @@
+package helpers;
+
+import enums.EstadoSolubilidade;
+import enums.StatusResolucao;
+import matriz.Regras;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Verifica, depois de cada jogada, se o tabuleiro ainda tem solução.
+ * <p>
+ * Uma jogada pode respeitar linha, coluna e região e mesmo assim deixar o puzzle sem solução.
+ * A verificação rápida primeiro propaga as deduções lógicas do {@link AvaliadorDificuldade}
+ * (que já detectam a maioria dos becos sem saída e resolvem a maioria dos tabuleiros) e só
+ * então faz uma busca; as duas etapas dividem um orçamento curto, abaixo de um milissegundo por
+ * padrão (cada passo de dedução conta como um nó e consulta o relógio).
+ * Se o orçamento acabar, a resposta é {@link EstadoSolubilidade#INDETERMINADO} e
+ * {@link #verificarEmSegundoPlano} termina a verificação sem prender o jogador.
+ * <p>
+ * Pode ser compartilhado por várias threads: cada verificação usa o seu próprio estado.
+ */
+public class OraculoSolubilidade {
+    private static final Duration ORCAMENTO_PADRAO = Duration.ofNanos(500_000);
+
+    private final OpcoesResolucao opcoesRapidas;
+    private final Executor executor;
+
+    public OraculoSolubilidade() {
+        this(OpcoesResolucao.semLimites().comPrazo(ORCAMENTO_PADRAO), ExecutorHelper.padrao());
+    }
+
+    /**
+     * @param opcoesRapidas Os limites da busca da verificação rápida.
+     * @param executor      O executor das verificações em segundo plano.
+     */
+    public OraculoSolubilidade(OpcoesResolucao opcoesRapidas, Executor executor) {
+        this.opcoesRapidas = opcoesRapidas;
+        this.executor = executor;
+    }
+
+    /**
+     * Verificação rápida, dentro do orçamento.
+     *
+     * @param valores Os valores atuais das células, linha a linha (0 para vazias). Não são alterados.
+     * @param regras  As restrições do tabuleiro.
+     * @return SOLUVEL, SEM_SOLUCAO ou INDETERMINADO se o orçamento acabou.
+     */
+    public EstadoSolubilidade verificar(int[] valores, Regras regras) {
+        return verificar(valores, regras, opcoesRapidas);
+    }
+
+    /**
+     * Verificação completa em segundo plano, sem o orçamento da verificação rápida.
+     *
+     * @return Um futuro com SOLUVEL ou SEM_SOLUCAO. Cancelá-lo interrompe a busca.
+     */
+    public CompletableFuture<EstadoSolubilidade> verificarEmSegundoPlano(int[] valores, Regras regras) {
+        int[] copia = valores.clone();
+        return ExecutorHelper.submeter(() -> {
+            EstadoSolubilidade estado = verificar(copia, regras, OpcoesResolucao.semLimites());
+            ExecutorHelper.verificarInterrupcao();
+            return estado;
+        }, executor);
+    }
+
+    /**
+     * Verifica o tabuleiro com os limites informados.
+     */
+    public EstadoSolubilidade verificar(int[] valores, Regras regras, OpcoesResolucao opcoes) {
+        // a propagação e a busca dividem o mesmo orçamento
+        Orcamento orcamento = opcoes.iniciar();
+        AvaliadorDificuldade avaliador = new AvaliadorDificuldade();
+        ResultadoAvaliacao avaliacao = avaliador.avaliar(valores, regras, orcamento);
+        if (orcamento.isEsgotado()) {
+            return EstadoSolubilidade.INDETERMINADO;
+        }
+        if (avaliacao.isContradicao()) {
+            return EstadoSolubilidade.SEM_SOLUCAO;
+        }
+        if (avaliacao.isResolvidoPorLogica() && !regras.temGaiolas()) {
+            return EstadoSolubilidade.SOLUVEL;
+        }
+
+        // a lógica parou (ou há somas de gaiolas a conferir): busca a partir do que ela deduziu
+        int[] propagada = avaliador.getGradePropagada();
+        ResultadoResolucao resultado = new EstrategiaMenorDominio().resolver(propagada, regras, 1, orcamento);
+        if (resultado.isResolvido()) {
+            return EstadoSolubilidade.SOLUVEL;
+        }
+        return resultado.getStatus() == StatusResolucao.CONCLUIDA
+                ? EstadoSolubilidade.SEM_SOLUCAO
+                : EstadoSolubilidade.INDETERMINADO;
+    }
+
+    /**
+     * Encontra a primeira jogada a partir da qual o tabuleiro ficou sem solução.
+     * <p>
+     * Considera só os valores que ainda estão no tabuleiro: o estado {@code k} tem as pistas
+     * e os valores colocados pelas jogadas {@code 0..k}. Acrescentar valores nunca cria
+     * soluções, então os estados ficam sem solução a partir de um ponto, e esse ponto é achado
+     * por busca binária com O(log n) verificações.
+     *
+     * @param valores         Os valores atuais das células.
+     * @param jogadaDaCelula  Para cada célula, o índice da jogada que colocou o valor atual,
+     *                        ou -1 para pistas, células vazias e valores sem jogada conhecida.
+     * @param quantidade      O número de jogadas aplicadas.
+     * @param regras          As restrições do tabuleiro.
+     * @param opcoes          Os limites de cada verificação.
+     * @return O índice da jogada, ou -1 se o tabuleiro tem solução, se já não tinha antes das
+     *         jogadas ou se alguma verificação não terminou.
+     */
+    public int encontrarPrimeiraCausa(int[] valores, int[] jogadaDaCelula, int quantidade, Regras regras,
+                                      OpcoesResolucao opcoes) {
+        EstadoSolubilidade depois = verificar(estadoAte(valores, jogadaDaCelula, quantidade - 1), regras, opcoes);
+        if (depois != EstadoSolubilidade.SEM_SOLUCAO
+                || verificar(estadoAte(valores, jogadaDaCelula, -1), regras, opcoes) != EstadoSolubilidade.SOLUVEL) {
+            return -1;
+        }
+
+        // estado(inicio - 1) tem solução e estado(fim) não tem
+        int inicio = 0;
+        int fim = quantidade - 1;
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            EstadoSolubilidade estado = verificar(estadoAte(valores, jogadaDaCelula, meio), regras, opcoes);
+            if (estado == EstadoSolubilidade.INDETERMINADO) {
+                return -1;
+            }
+            if (estado == EstadoSolubilidade.SEM_SOLUCAO) {
+                fim = meio;
+            } else {
+                inicio = meio + 1;
+            }
+        }
+        return inicio;
+    }
+
+    private static int[] estadoAte(int[] valores, int[] jogadaDaCelula, int ultimaJogada) {
+        int[] estado = new int[valores.length];
+        for (int c = 0; c < valores.length; c++) {
+            if (jogadaDaCelula[c] <= ultimaJogada) {
+                estado[c] = valores[c];
+            }
+        }
+        return estado;
+    }
+}
@@ -0,0 +1,83 @@
+package helpers;
+
+import enums.StatusResolucao;
+
+/**
+ * Controle do orçamento de uma única busca.
+ * <p>
+ * Conta os nós visitados e, a cada {@value #INTERVALO_VERIFICACAO} nós, consulta o relógio
+ * e a marca de interrupção da thread, para que a verificação não pese no laço da busca.
+ */
+final class Orcamento {
+    private static final int INTERVALO_VERIFICACAO = 256;
+
+    private final long limiteNanos;
+    private final long maximoNos;
+    private final boolean respeitarInterrupcao;
+    private long nos;
+    private StatusResolucao parada;
+
+    Orcamento(long limiteNanos, long maximoNos, boolean respeitarInterrupcao) {
+        this.limiteNanos = limiteNanos;
+        this.maximoNos = maximoNos;
+        this.respeitarInterrupcao = respeitarInterrupcao;
+        this.parada = verificar();
+    }
+
+    /**
+     * Registra a visita a um nó da busca.
+     *
+     * @return true se a busca pode continuar, false se deve parar.
+     */
+    boolean visitar() {
+        if (parada != null) {
+            return false;
+        }
+        nos++;
+        if (nos > maximoNos) {
+            parada = StatusResolucao.ORCAMENTO_ESGOTADO;
+            return false;
+        }
+        if ((nos & (INTERVALO_VERIFICACAO - 1)) == 0) {
+            parada = verificar();
+        }
+        return parada == null;
+    }
+
+    /**
+     * Registra um passo caro (uma rodada inteira de deduções, por exemplo). Como são poucos
+     * passos por busca, consulta o relógio e a interrupção a cada chamada.
+     *
+     * @return true se a busca pode continuar, false se deve parar.
+     */
+    boolean visitarPasso() {
+        if (parada != null) {
+            return false;
+        }
+        nos++;
+        parada = nos > maximoNos ? StatusResolucao.ORCAMENTO_ESGOTADO : verificar();
+        return parada == null;
+    }
+
+    private StatusResolucao verificar() {
+        if (respeitarInterrupcao && Thread.currentThread().isInterrupted()) {
+            return StatusResolucao.INTERROMPIDA;
+        }
+        if (limiteNanos != Long.MAX_VALUE && System.nanoTime() - limiteNanos > 0) {
+            return StatusResolucao.ORCAMENTO_ESGOTADO;
+        }
+        return null;
+    }
+
+    boolean isEsgotado() {
+        return parada != null;
+    }
+
+    StatusResolucao getStatus() {
+        return parada != null ? parada : StatusResolucao.CONCLUIDA;
+    }
+
+    long getNos() {
+        return nos;
+    }
+}
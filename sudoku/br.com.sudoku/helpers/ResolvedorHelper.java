@@ -1,34 +1,163 @@
 package helpers;
 
+import enums.EstadoResolvedor;
+import matriz.Celula;
 import matriz.Posicao;
+import matriz.Regras;
 import matriz.Tabuleiro;
 
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Classe responsável por resolver o tabuleiro de Sudoku.
- * Utiliza o algoritmo de backtracking para encontrar soluções.
+ * Utiliza o algoritmo de backtracking para encontrar soluções, executado pelo
+ * {@link ResolvedorIterativo} (pilha explícita, sem recursão).
+ * <p>
+ * {@link #resolver(Tabuleiro, OpcoesResolucao)} e {@link #contarSolucoes(Tabuleiro, int, OpcoesResolucao)}
+ * passam pela {@link EstrategiaResolucao} do resolvedor quando ela suporta as regras do tabuleiro;
+ * a padrão é a {@link EstrategiaBitboard}, que trata o Sudoku clássico 9x9. As outras regras, a
+ * contagem com tabela de transposição e o stream de soluções usam o {@link ResolvedorIterativo}.
+ * <p>
+ * As buscas podem ser limitadas com {@link OpcoesResolucao} (prazo, número máximo de nós e
+ * interrupção da thread). Os métodos que devolvem {@link ResultadoResolucao} informam se a
+ * busca terminou, esgotou o orçamento ou foi interrompida.
  */
 public class ResolvedorHelper {
     private final ValidadorHelper validador;
+    private final OpcoesResolucao opcoesPadrao;
+    private final EstrategiaResolucao estrategia;
 
     public ResolvedorHelper() {
+        this(OpcoesResolucao.semLimites());
+    }
+
+    /**
+     * @param opcoesPadrao Os limites usados pelos métodos que não recebem opções.
+     */
+    public ResolvedorHelper(OpcoesResolucao opcoesPadrao) {
+        this(opcoesPadrao, new EstrategiaBitboard());
+    }
+
+    /**
+     * @param opcoesPadrao Os limites usados pelos métodos que não recebem opções.
+     * @param estrategia   A estratégia usada nos tabuleiros que ela suporta, ou null para
+     *                     usar sempre o {@link ResolvedorIterativo}.
+     */
+    public ResolvedorHelper(OpcoesResolucao opcoesPadrao, EstrategiaResolucao estrategia) {
         // fazendo 9x9
         this.validador = new ValidadorHelper(9);
+        this.opcoesPadrao = opcoesPadrao;
+        this.estrategia = estrategia;
     }
 
     public boolean resolver(Tabuleiro tabuleiro) {
-        return resolverBacktracking(tabuleiro);
+        return resolver(tabuleiro, opcoesPadrao).isResolvido();
     }
 
+    /**
+     * Resolve o tabuleiro respeitando os limites informados.
+     * Se a busca não encontrar solução, o tabuleiro volta ao estado original.
+     *
+     * @param tabuleiro O tabuleiro a ser resolvido (é preenchido com a solução).
+     * @param opcoes    Os limites da busca.
+     * @return O resultado da busca.
+     */
+    public ResultadoResolucao resolver(Tabuleiro tabuleiro, OpcoesResolucao opcoes) {
+        if (usarEstrategia(tabuleiro)) {
+            return resolverComEstrategia(tabuleiro, 1, opcoes, true);
+        }
+        Orcamento orcamento = opcoes.iniciar();
+        ResolvedorIterativo motor = new ResolvedorIterativo(tabuleiro);
+
+        boolean resolvido = avancarAteParar(motor, orcamento) == EstadoResolvedor.SOLUCAO_ENCONTRADA;
+        if (resolvido) {
+            motor.preencher(tabuleiro);
+        }
+        return new ResultadoResolucao(orcamento.getStatus(), resolvido ? 1 : 0, orcamento.getNos());
+    }
+
+    /**
+     * Verifica se o tabuleiro tem exatamente uma solução.
+     * Se a busca não terminar dentro dos limites padrão, a resposta é false.
+     */
     public boolean temSolucaoUnica(Tabuleiro tabuleiro) {
-        return contarSolucoes(tabuleiro) == 1;
+        ResultadoResolucao resultado = contarSolucoes(tabuleiro, 2, opcoesPadrao);
+        return resultado.isConcluida() && resultado.getSolucoes() == 1;
     }
 
     public int contarSolucoes(Tabuleiro tabuleiro) {
-        return contarSolucoesRecursivo(tabuleiro.copiar(), 2);
+        return contarSolucoes(tabuleiro, 2, opcoesPadrao).getSolucoes();
+    }
+
+    /**
+     * Conta as soluções do tabuleiro até um limite, respeitando os limites da busca.
+     *
+     * @param tabuleiro O tabuleiro a ser verificado (não é alterado).
+     * @param limite    A quantidade de soluções a partir da qual a contagem pode parar.
+     * @param opcoes    Os limites da busca.
+     * @return O resultado com o número de soluções encontradas.
+     */
+    public ResultadoResolucao contarSolucoes(Tabuleiro tabuleiro, int limite, OpcoesResolucao opcoes) {
+        if (usarEstrategia(tabuleiro)) {
+            return resolverComEstrategia(tabuleiro, limite, opcoes, false);
+        }
+        Orcamento orcamento = opcoes.iniciar();
+        ResolvedorIterativo motor = new ResolvedorIterativo(tabuleiro);
+
+        EstadoResolvedor estado;
+        do {
+            estado = avancarAteParar(motor, orcamento);
+            // se já tem o número limite de soluções, pode parar
+        } while (estado == EstadoResolvedor.SOLUCAO_ENCONTRADA && motor.getSolucoesEncontradas() < limite);
+
+        return new ResultadoResolucao(orcamento.getStatus(), motor.getSolucoesEncontradas(), orcamento.getNos());
+    }
+
+    /**
+     * Conta as soluções do tabuleiro usando uma tabela de transposição.
+     * <p>
+     * Tabuleiros parciais já contados, nesta busca ou em buscas anteriores com a mesma tabela,
+     * não são explorados de novo. Útil para verificações seguidas sobre tabuleiros parecidos,
+     * como as da geração.
+     *
+     * @param tabuleiro O tabuleiro a ser verificado (não é alterado).
+     * @param limite    A quantidade de soluções a partir da qual a contagem pode parar.
+     * @param opcoes    Os limites da busca.
+     * @param tabela    A tabela compartilhada entre as buscas.
+     * @return O resultado com o número de soluções encontradas.
+     */
+    public ResultadoResolucao contarSolucoes(Tabuleiro tabuleiro, int limite, OpcoesResolucao opcoes,
+                                             TabelaTransposicao tabela) {
+        Orcamento orcamento = opcoes.iniciar();
+        ResolvedorIterativo motor = new ResolvedorIterativo(tabuleiro);
+        if (motor.getEstado() == EstadoResolvedor.ESGOTADO) {
+            return new ResultadoResolucao(orcamento.getStatus(), 0, 0);
+        }
+
+        int solucoes = motor.contar(limite, tabela, orcamento);
+        return new ResultadoResolucao(orcamento.getStatus(), Math.min(solucoes, limite), orcamento.getNos());
+    }
+
+    /**
+     * Obtém as soluções do tabuleiro como um stream preguiçoso.
+     * <p>
+     * As soluções são calculadas sob demanda; use {@code limit} ou {@code findAny} para
+     * não explorar a árvore inteira. O stream pode ser paralelizado com {@code parallel()}:
+     * a árvore de busca é dividida entre as tarefas.
+     *
+     * <pre>
+     *     List&lt;int[]&gt; primeiras = resolvedor.solucoes(tabuleiro).limit(10).toList();
+     * </pre>
+     *
+     * @param tabuleiro O tabuleiro a ser resolvido (não é alterado).
+     * @return Um stream com cada solução em um vetor de valores, linha a linha.
+     */
+    public Stream<int[]> solucoes(Tabuleiro tabuleiro) {
+        return StreamSupport.stream(new SolucoesSpliterator(new ResolvedorIterativo(tabuleiro)), false);
     }
 
     /**
@@ -56,6 +185,7 @@ public class ResolvedorHelper {
      * @param linha     A linha da célula.
      * @param coluna    A coluna da célula.
      * @return Um conjunto de valores possíveis para a célula.
+     * @see #calcularCandidatos(Tabuleiro) para todas as células de uma vez.
      */
     public Set<Integer> obterValoresPossiveis(Tabuleiro tabuleiro, int linha, int coluna) {
         Set<Integer> valores = new HashSet<>();
@@ -71,70 +201,100 @@ public class ResolvedorHelper {
     }
 
     /**
-     * Verifica se o tabuleiro está completo.
+     * Calcula os candidatos de todas as células em uma única passada.
+     * <p>
+     * Primeiro monta uma máscara de valores usados por linha, coluna, região e unidade extra,
+     * depois cada célula vazia recebe os valores que nenhuma das suas unidades usa (e, no
+     * Killer Sudoku, que ainda completam a soma da gaiola). São O(células) operações de bits,
+     * em vez de uma validação de linha, coluna e quadrante para cada valor de cada célula.
      *
      * @param tabuleiro O tabuleiro a ser verificado.
-     * @return true se o tabuleiro estiver completo, false caso contrário.
+     * @return A máscara de candidatos de cada célula, linha a linha (bit {@code valor - 1});
+     *         0 para as células preenchidas.
      */
-    private boolean resolverBacktracking(Tabuleiro tabuleiro) {
-        Optional<Posicao> posicaoVazia = encontrarProximaCelulaVazia(tabuleiro);
-        if (posicaoVazia.isEmpty()) {
-            // tabuleiro completo
-            return true;
-        }
-
-        int linha = posicaoVazia.get().getLinha();
-        int coluna = posicaoVazia.get().getColuna();
-
-        for (int valor = 1; valor <= tabuleiro.getTamanho(); valor++) {
-            if (validador.validarPosicao(tabuleiro, linha, coluna, valor)) {
-                tabuleiro.getCelula(linha, coluna).setValor(valor);
+    public int[] calcularCandidatos(Tabuleiro tabuleiro) {
+        Regras regras = tabuleiro.getRegras();
+        int tamanho = tabuleiro.getTamanho();
+        int[] valores = tabuleiro.paraVetor();
+        int[] regiaoDe = regras.getRegiaoDe();
+        int[][] extras = regras.temUnidadesExtras() ? regras.getUnidadesExtras() : null;
 
-                if (resolverBacktracking(tabuleiro)) {
-                    return true;
+        // máscaras de valores usados: linhas, colunas, regiões e extras, pelo id da unidade
+        int[] usados = new int[regras.getQuantidadeUnidades()];
+        for (int c = 0; c < valores.length; c++) {
+            if (valores[c] == 0) {
+                continue;
+            }
+            int bit = 1 << (valores[c] - 1);
+            usados[c / tamanho] |= bit;
+            usados[tamanho + c % tamanho] |= bit;
+            usados[2 * tamanho + regiaoDe[c]] |= bit;
+            if (extras != null) {
+                for (int u : extras[c]) {
+                    usados[u] |= bit;
                 }
+            }
+        }
 
-                // backtracking
-                tabuleiro.getCelula(linha, coluna).setValor(null);
+        int todos = (1 << tamanho) - 1;
+        int[] candidatos = new int[valores.length];
+        for (int c = 0; c < valores.length; c++) {
+            if (valores[c] != 0) {
+                continue;
+            }
+            int mascara = todos & ~(usados[c / tamanho] | usados[tamanho + c % tamanho]
+                    | usados[2 * tamanho + regiaoDe[c]]);
+            if (extras != null) {
+                for (int u : extras[c]) {
+                    mascara &= ~usados[u];
+                }
+                int gaiola = regras.getGaiolaDaCelula(c);
+                if (gaiola >= 0) {
+                    mascara &= regras.candidatosGaiola(gaiola, usados[regras.getUnidadeGaiola(gaiola)]);
+                }
             }
+            candidatos[c] = mascara;
         }
+        return candidatos;
+    }
 
-        return false;
+    private boolean usarEstrategia(Tabuleiro tabuleiro) {
+        return estrategia != null && estrategia.suporta(tabuleiro.getRegras());
     }
 
     /**
-     * Conta o número de soluções possíveis para o tabuleiro.
-     *
-     * @param tabuleiro O tabuleiro a ser verificado.
-     * @return O número de soluções possíveis.
+     * Busca com a estratégia sobre os valores do tabuleiro e, se pedido, preenche as células
+     * vazias com a primeira solução.
      */
-    private int contarSolucoesRecursivo(Tabuleiro tabuleiro, int limite) {
-        Optional<Posicao> posicaoVazia = encontrarProximaCelulaVazia(tabuleiro);
-        if (posicaoVazia.isEmpty()) {
-            // 1 solução encontrada
-            return 1;
-        }
-
-        int linha = posicaoVazia.get().getLinha();
-        int coluna = posicaoVazia.get().getColuna();
-        int contagem = 0;
-
-        for (int valor = 1; valor <= tabuleiro.getTamanho(); valor++) {
-            if (validador.validarPosicao(tabuleiro, linha, coluna, valor)) {
-                tabuleiro.getCelula(linha, coluna).setValor(valor);
-
-                contagem += contarSolucoesRecursivo(tabuleiro, limite - contagem);
-
-                // backtracking
-                tabuleiro.getCelula(linha, coluna).setValor(null);
-
-                // se já tem o número limite de soluções, pode parar
-                if (contagem >= limite) {
-                    break;
+    private ResultadoResolucao resolverComEstrategia(Tabuleiro tabuleiro, int limite, OpcoesResolucao opcoes,
+                                                     boolean preencher) {
+        int[] valores = tabuleiro.paraVetor();
+        ResultadoResolucao resultado = estrategia.resolver(valores, tabuleiro.getRegras(), limite, opcoes);
+        if (preencher && resultado.isResolvido()) {
+            int tamanho = tabuleiro.getTamanho();
+            for (int c = 0; c < valores.length; c++) {
+                Celula celula = tabuleiro.getCelula(c / tamanho, c % tamanho);
+                if (celula.isEmpty()) {
+                    celula.setValor(valores[c]);
                 }
             }
         }
+        return resultado;
+    }
 
-        return contagem;
+    /**
+     * Avança o resolvedor até a próxima solução, até esgotar a árvore ou até o orçamento acabar.
+     *
+     * @return O estado do resolvedor ao parar.
+     */
+    private EstadoResolvedor avancarAteParar(ResolvedorIterativo motor, Orcamento orcamento) {
+        EstadoResolvedor estado = motor.getEstado();
+        if (estado == EstadoResolvedor.SOLUCAO_ENCONTRADA) {
+            estado = EstadoResolvedor.EM_ANDAMENTO;
+        }
+        while (estado == EstadoResolvedor.EM_ANDAMENTO && orcamento.visitar()) {
+            estado = motor.passo(1);
+        }
+        return estado;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,719 @@
+package helpers;
+
+import enums.EstadoResolvedor;
+import matriz.Celula;
+import matriz.Regras;
+import matriz.Tabuleiro;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Resolvedor de Sudoku iterativo, que avança a busca aos poucos.
+ * <p>
+ * Em vez de recursão, a busca usa uma pilha explícita pré-alocada (uma posição por célula),
+ * então não há risco de estouro da pilha de chamadas e a busca pode ser pausada a qualquer
+ * momento: {@link #passo(int)} avança um número de nós e {@link #executarPor(Duration)}
+ * avança durante um intervalo de tempo. Isso permite dividir o tempo de CPU entre muitas
+ * buscas ou animar a resolução sem bloquear.
+ * <p>
+ * Cada unidade das {@link Regras} (linhas, colunas, regiões e as unidades extras das variantes)
+ * guarda uma máscara de bits dos valores usados (bit {@code v - 1} para o valor {@code v}), e a
+ * próxima célula é a que tem menos candidatos. Nas gaiolas do Killer Sudoku os candidatos
+ * também são limitados às combinações que ainda completam a soma.
+ * Todo o estado é serializável, inclusive no meio da busca.
+ * <p>
+ * A cada atribuição o resolvedor atualiza de forma incremental a chave Zobrist da grade
+ * (um XOR por valor colocado ou retirado), usada pela {@link TabelaTransposicao} na contagem
+ * de soluções.
+ */
+public class ResolvedorIterativo implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    // quantos nós avançar entre duas consultas ao relógio em executarPor
+    private static final int NOS_POR_FATIA = 256;
+    // um número aleatório por par (célula, valor), até 25x25
+    private static final long[] ZOBRIST = gerarZobrist(25);
+
+    private final int tamanho;
+    private final int celulas;
+    private final int todos;
+    private final Regras regras;
+    // ids das unidades de linha, coluna e região de cada célula
+    private final int[] linhaDe;
+    private final int[] colunaDe;
+    private final int[] regiaoDe;
+    // null no Sudoku clássico: o laço das unidades extras nem é executado
+    private final int[][] extrasDe;
+    private final int[] gaiolaDe;
+    private final Random aleatorio;
+
+    private final int[] grade;
+    private final int[] unidades;
+
+    // pilha explícita: célula escolhida e candidatos ainda não tentados em cada nível
+    private final int[] pilhaCelula;
+    private final int[] pilhaCandidatos;
+    private int profundidade;
+    private boolean escolherProxima;
+
+    private long chave;
+
+    private EstadoResolvedor estado;
+    private long nosVisitados;
+    private int solucoesEncontradas;
+
+    public ResolvedorIterativo(Tabuleiro tabuleiro) {
+        this(tabuleiro.paraVetor(), tabuleiro.getRegras());
+    }
+
+    /**
+     * Construtor a partir de um vetor de valores, com as regras do Sudoku clássico.
+     *
+     * @param valores Os valores das células, linha a linha (0 para células vazias).
+     * @param tamanho O tamanho do tabuleiro (deve ser um quadrado perfeito, até 25).
+     */
+    public ResolvedorIterativo(int[] valores, int tamanho) {
+        this(valores, Regras.classico(tamanho));
+    }
+
+    public ResolvedorIterativo(int[] valores, Regras regras) {
+        this(valores, regras, null);
+    }
+
+    /**
+     * Construtor a partir de um vetor de valores e das regras do tabuleiro.
+     *
+     * @param valores   Os valores das células, linha a linha (0 para células vazias).
+     * @param regras    As restrições do tabuleiro.
+     * @param aleatorio Se informado, os candidatos de cada célula são tentados em ordem
+     *                  aleatória (usado para gerar tabuleiros completos); senão, em ordem crescente.
+     */
+    public ResolvedorIterativo(int[] valores, Regras regras, Random aleatorio) {
+        int tamanho = regras.getTamanho();
+        if (valores.length != tamanho * tamanho) {
+            throw new IllegalArgumentException("Quantidade de valores inválida: " + valores.length);
+        }
+
+        this.tamanho = tamanho;
+        this.celulas = tamanho * tamanho;
+        this.todos = (1 << tamanho) - 1;
+        this.regras = regras;
+        this.linhaDe = new int[celulas];
+        this.colunaDe = new int[celulas];
+        this.regiaoDe = regras.getRegiaoDe();
+        for (int c = 0; c < celulas; c++) {
+            linhaDe[c] = c / tamanho;
+            colunaDe[c] = tamanho + c % tamanho;
+            regiaoDe[c] += 2 * tamanho;
+        }
+        this.extrasDe = regras.temUnidadesExtras() ? regras.getUnidadesExtras() : null;
+        this.gaiolaDe = regras.temGaiolas() ? regras.getGaiolaDe() : null;
+        this.aleatorio = aleatorio;
+
+        this.grade = new int[celulas];
+        this.unidades = new int[regras.getQuantidadeUnidades()];
+        this.pilhaCelula = new int[celulas];
+        this.pilhaCandidatos = new int[celulas];
+        this.profundidade = 0;
+        this.escolherProxima = true;
+        this.estado = EstadoResolvedor.EM_ANDAMENTO;
+
+        for (int c = 0; c < celulas; c++) {
+            int valor = valores[c];
+            if (valor == 0) {
+                continue;
+            }
+            if (valor < 0 || valor > tamanho || (candidatos(c) & bit(valor)) == 0) {
+                // valor fora do intervalo ou repetido: não existe solução
+                estado = EstadoResolvedor.ESGOTADO;
+                return;
+            }
+            atribuir(c, valor);
+        }
+    }
+
+    /**
+     * Construtor usado na divisão da busca: copia o caminho até o nível informado
+     * e assume os candidatos entregues para esse nível.
+     */
+    private ResolvedorIterativo(ResolvedorIterativo origem, int nivel, int candidatosNivel) {
+        this.tamanho = origem.tamanho;
+        this.celulas = origem.celulas;
+        this.todos = origem.todos;
+        this.regras = origem.regras;
+        this.linhaDe = origem.linhaDe;
+        this.colunaDe = origem.colunaDe;
+        this.regiaoDe = origem.regiaoDe;
+        this.extrasDe = origem.extrasDe;
+        this.gaiolaDe = origem.gaiolaDe;
+        this.aleatorio = origem.aleatorio;
+
+        this.grade = origem.grade.clone();
+        this.unidades = origem.unidades.clone();
+        this.chave = origem.chave;
+        this.pilhaCelula = origem.pilhaCelula.clone();
+        this.pilhaCandidatos = new int[celulas];
+
+        // desfaz as atribuições a partir do nível dividido
+        for (int d = origem.profundidade - 1; d >= nivel; d--) {
+            if (grade[pilhaCelula[d]] != 0) {
+                desatribuir(pilhaCelula[d]);
+            }
+        }
+
+        // os níveis de cima já não têm alternativas nesta parte da busca
+        this.pilhaCandidatos[nivel] = candidatosNivel;
+        this.profundidade = nivel + 1;
+        this.escolherProxima = false;
+        this.estado = EstadoResolvedor.EM_ANDAMENTO;
+    }
+
+    /**
+     * Divide a árvore de busca restante em duas partes independentes.
+     * <p>
+     * Procura o nível mais raso da pilha que ainda tem candidatos não tentados e entrega
+     * metade deles a um novo resolvedor. Este resolvedor deixa de explorar esses candidatos,
+     * então as duas partes juntas encontram exatamente as soluções que restavam.
+     *
+     * @return O resolvedor com a parte separada, ou null se não houver o que dividir.
+     */
+    public ResolvedorIterativo dividir() {
+        if (estado == EstadoResolvedor.ESGOTADO) {
+            return null;
+        }
+        if (escolherProxima) {
+            // ainda não escolheu a célula do próximo nível: escolhe agora para poder dividir
+            int celula = escolherCelula();
+            if (celula < 0) {
+                return null;
+            }
+            pilhaCelula[profundidade] = celula;
+            pilhaCandidatos[profundidade] = candidatos(celula);
+            profundidade++;
+            escolherProxima = false;
+        }
+
+        for (int nivel = 0; nivel < profundidade; nivel++) {
+            int restantes = pilhaCandidatos[nivel];
+            int quantidade = Integer.bitCount(restantes);
+            if (quantidade == 0 || (quantidade == 1 && grade[pilhaCelula[nivel]] == 0)) {
+                // nada a dividir neste nível (com um único candidato ainda não tentado, ele fica aqui)
+                continue;
+            }
+
+            // entrega os candidatos mais altos (metade, arredondando para cima)
+            int entregues = 0;
+            for (int i = 0; i < (quantidade + 1) / 2; i++) {
+                int maior = Integer.highestOneBit(restantes & ~entregues);
+                entregues |= maior;
+            }
+            pilhaCandidatos[nivel] = restantes & ~entregues;
+            return new ResolvedorIterativo(this, nivel, entregues);
+        }
+
+        return null;
+    }
+
+    /**
+     * Avança a busca por até {@code n} nós.
+     * Para antes se encontrar uma solução ou se a árvore acabar.
+     *
+     * @param n A quantidade máxima de nós a visitar.
+     * @return O estado do resolvedor depois dos passos.
+     */
+    public EstadoResolvedor passo(int n) {
+        if (estado == EstadoResolvedor.SOLUCAO_ENCONTRADA) {
+            // continuar depois de uma solução é procurar a próxima
+            estado = EstadoResolvedor.EM_ANDAMENTO;
+        }
+
+        for (int i = 0; i < n && estado == EstadoResolvedor.EM_ANDAMENTO; i++) {
+            avancar();
+        }
+        return estado;
+    }
+
+    /**
+     * Avança a busca durante, no máximo, o intervalo informado.
+     * Para antes se encontrar uma solução ou se a árvore acabar.
+     *
+     * @param duracao O tempo máximo de execução.
+     * @return O estado do resolvedor depois da execução.
+     */
+    public EstadoResolvedor executarPor(Duration duracao) {
+        long limite = System.nanoTime() + duracao.toNanos();
+        EstadoResolvedor atual = passo(NOS_POR_FATIA);
+        while (atual == EstadoResolvedor.EM_ANDAMENTO && System.nanoTime() - limite < 0) {
+            atual = passo(NOS_POR_FATIA);
+        }
+        return atual;
+    }
+
+    /**
+     * Executa a busca até a próxima solução ou até esgotar a árvore.
+     *
+     * @return true se encontrou uma solução.
+     */
+    public boolean resolver() {
+        EstadoResolvedor atual = passo(Integer.MAX_VALUE);
+        while (atual == EstadoResolvedor.EM_ANDAMENTO) {
+            atual = passo(Integer.MAX_VALUE);
+        }
+        return atual == EstadoResolvedor.SOLUCAO_ENCONTRADA;
+    }
+
+    /**
+     * Conta as soluções até o limite, consultando e alimentando a tabela de transposição.
+     * <p>
+     * Antes de expandir um tabuleiro parcial a contagem procura a chave dele na tabela; ao
+     * terminar a subárvore de um nível da pilha, guarda o número de soluções encontradas nela.
+     * Só subárvores exploradas por completo são guardadas, então as contagens da tabela são exatas.
+     * Consome o resolvedor: depois da contagem ele fica no estado {@link EstadoResolvedor#ESGOTADO}.
+     *
+     * @param limite    A quantidade de soluções a partir da qual a contagem pode parar.
+     * @param tabela    A tabela de transposição, ou null para contar sem ela.
+     * @param orcamento O controle dos limites da busca.
+     * @return O número de soluções encontradas (no máximo a partir do limite).
+     */
+    int contar(int limite, TabelaTransposicao tabela, Orcamento orcamento) {
+        if (estado != EstadoResolvedor.EM_ANDAMENTO || profundidade != 0 || !escolherProxima) {
+            throw new IllegalStateException("A contagem precisa de um resolvedor novo");
+        }
+
+        // chave, soluções e nós na entrada de cada nível, para guardar a subárvore ao sair dele
+        long[] pilhaChave = new long[celulas];
+        int[] pilhaSolucoes = new int[celulas];
+        long[] pilhaNos = new long[celulas];
+
+        boolean entrar = true;
+        while (solucoesEncontradas < limite) {
+            if (entrar) {
+                entrar = false;
+                if (!orcamento.visitar()) {
+                    break;
+                }
+                nosVisitados++;
+
+                int conhecidas = tabela != null ? tabela.buscar(chave) : -1;
+                if (conhecidas >= 0) {
+                    solucoesEncontradas += conhecidas;
+                    continue;
+                }
+
+                int celula = escolherCelula();
+                if (celula < 0) {
+                    solucoesEncontradas++;
+                    continue;
+                }
+                pilhaCelula[profundidade] = celula;
+                pilhaCandidatos[profundidade] = candidatos(celula);
+                pilhaChave[profundidade] = chave;
+                pilhaSolucoes[profundidade] = solucoesEncontradas;
+                pilhaNos[profundidade] = nosVisitados;
+                profundidade++;
+            }
+
+            if (profundidade == 0) {
+                break;
+            }
+
+            int topo = profundidade - 1;
+            int celula = pilhaCelula[topo];
+            if (grade[celula] != 0) {
+                desatribuir(celula);
+            }
+
+            int restantes = pilhaCandidatos[topo];
+            if (restantes == 0) {
+                // subárvore completa: a contagem dela é exata
+                profundidade--;
+                if (tabela != null) {
+                    tabela.guardar(pilhaChave[topo], solucoesEncontradas - pilhaSolucoes[topo],
+                            nosVisitados - pilhaNos[topo]);
+                }
+                continue;
+            }
+
+            int menor = restantes & -restantes;
+            pilhaCandidatos[topo] = restantes & ~menor;
+            atribuir(celula, Integer.numberOfTrailingZeros(menor) + 1);
+            entrar = true;
+        }
+
+        estado = EstadoResolvedor.ESGOTADO;
+        return solucoesEncontradas;
+    }
+
+    /**
+     * Procura uma solução em que a célula tenha um valor diferente do proibido.
+     * <p>
+     * Se o tabuleiro com o valor proibido na célula tinha solução única, o tabuleiro sem ele
+     * tem outra solução se, e somente se, existe uma solução com outro valor na célula: basta
+     * uma busca que começa pelos outros candidatos dela e para na primeira solução, em vez de
+     * contar até duas. Subárvores esgotadas entram na tabela com zero soluções, e qualquer
+     * contagem positiva encontrada nela já é uma solução alternativa.
+     * <p>
+     * Parte do estado inicial do resolvedor e volta a ele no fim, então o mesmo resolvedor
+     * serve para as verificações seguidas da geração ({@link #colocarPista}, {@link #retirarPista}).
+     *
+     * @param celula    A célula vazia a verificar.
+     * @param proibido  O valor conhecido da célula, que não é tentado.
+     * @param tabela    A tabela de transposição, ou null para buscar sem ela.
+     * @param orcamento O controle dos limites da busca.
+     * @return true se encontrou uma solução com outro valor; false se não existe ou se o orçamento acabou.
+     */
+    boolean buscarAlternativa(int celula, int proibido, TabelaTransposicao tabela, Orcamento orcamento) {
+        exigirEstadoInicial();
+        if (grade[celula] != 0) {
+            throw new IllegalArgumentException("A célula não está vazia: " + celula);
+        }
+
+        // chave e nós na entrada de cada nível, para guardar as subárvores sem solução
+        long[] pilhaChave = new long[celulas];
+        long[] pilhaNos = new long[celulas];
+
+        pilhaCelula[0] = celula;
+        pilhaCandidatos[0] = candidatos(celula) & ~bit(proibido);
+        pilhaChave[0] = chave;
+        pilhaNos[0] = nosVisitados;
+        profundidade = 1;
+
+        boolean encontrou = false;
+        boolean entrar = false;
+        while (!encontrou) {
+            if (entrar) {
+                entrar = false;
+                if (!orcamento.visitar()) {
+                    break;
+                }
+                nosVisitados++;
+
+                int conhecidas = tabela != null ? tabela.buscar(chave) : -1;
+                if (conhecidas > 0) {
+                    encontrou = true;
+                    continue;
+                }
+                if (conhecidas == 0) {
+                    continue;
+                }
+
+                int proxima = escolherCelula();
+                if (proxima < 0) {
+                    encontrou = true;
+                    continue;
+                }
+                pilhaCelula[profundidade] = proxima;
+                pilhaCandidatos[profundidade] = candidatos(proxima);
+                pilhaChave[profundidade] = chave;
+                pilhaNos[profundidade] = nosVisitados;
+                profundidade++;
+            }
+
+            if (profundidade == 0) {
+                break;
+            }
+
+            int topo = profundidade - 1;
+            int atual = pilhaCelula[topo];
+            if (grade[atual] != 0) {
+                desatribuir(atual);
+            }
+
+            int restantes = pilhaCandidatos[topo];
+            if (restantes == 0) {
+                // subárvore esgotada sem solução
+                profundidade--;
+                // o nível 0 não tentou o valor proibido: a posição dele tem a solução conhecida,
+                // e guardá-la como 0 faria outra busca com a mesma tabela podar uma alternativa
+                if (tabela != null && topo > 0) {
+                    tabela.guardar(pilhaChave[topo], 0, nosVisitados - pilhaNos[topo]);
+                }
+                continue;
+            }
+
+            int menor = restantes & -restantes;
+            pilhaCandidatos[topo] = restantes & ~menor;
+            atribuir(atual, Integer.numberOfTrailingZeros(menor) + 1);
+            entrar = true;
+        }
+
+        // volta ao estado inicial
+        while (profundidade > 0) {
+            profundidade--;
+            if (grade[pilhaCelula[profundidade]] != 0) {
+                desatribuir(pilhaCelula[profundidade]);
+            }
+        }
+        return encontrou;
+    }
+
+    /**
+     * Coloca um valor fixo em uma célula vazia, entre duas buscas.
+     *
+     * @return false se o valor não é candidato da célula (e nada muda).
+     */
+    boolean colocarPista(int celula, int valor) {
+        exigirEstadoInicial();
+        if (grade[celula] != 0 || valor < 1 || valor > tamanho || (candidatos(celula) & bit(valor)) == 0) {
+            return false;
+        }
+        atribuir(celula, valor);
+        return true;
+    }
+
+    /**
+     * Esvazia uma célula, entre duas buscas.
+     */
+    void retirarPista(int celula) {
+        exigirEstadoInicial();
+        if (grade[celula] != 0) {
+            desatribuir(celula);
+        }
+    }
+
+    /**
+     * Troca o puzzle do resolvedor por outro das mesmas regras, reaproveitando todos os vetores.
+     * Usado pelo {@link LoteTabuleiros} para resolver milhões de puzzles sem alocar por puzzle.
+     *
+     * @param valores Os valores, linha a linha (0 para vazias), a partir de {@code inicio}.
+     * @param inicio  A posição da primeira célula no vetor.
+     */
+    void carregar(byte[] valores, int inicio) {
+        Arrays.fill(grade, 0);
+        Arrays.fill(unidades, 0);
+        profundidade = 0;
+        escolherProxima = true;
+        chave = 0;
+        nosVisitados = 0;
+        solucoesEncontradas = 0;
+        estado = EstadoResolvedor.EM_ANDAMENTO;
+
+        for (int c = 0; c < celulas; c++) {
+            int valor = valores[inicio + c];
+            if (valor == 0) {
+                continue;
+            }
+            if (valor < 0 || valor > tamanho || (candidatos(c) & bit(valor)) == 0) {
+                estado = EstadoResolvedor.ESGOTADO;
+                return;
+            }
+            atribuir(c, valor);
+        }
+    }
+
+    /**
+     * Copia a grade atual para um vetor de bytes, a partir de {@code inicio}.
+     */
+    void copiarGrade(byte[] destino, int inicio) {
+        for (int c = 0; c < celulas; c++) {
+            destino[inicio + c] = (byte) grade[c];
+        }
+    }
+
+    private void exigirEstadoInicial() {
+        if (estado != EstadoResolvedor.EM_ANDAMENTO || profundidade != 0 || !escolherProxima) {
+            throw new IllegalStateException("O resolvedor precisa estar no estado inicial");
+        }
+    }
+
+    /**
+     * Visita um nó: escolhe a próxima célula, se for o caso, e tenta o próximo candidato
+     * do topo da pilha, desempilhando quando os candidatos acabam.
+     */
+    private void avancar() {
+        nosVisitados++;
+
+        if (escolherProxima) {
+            int celula = escolherCelula();
+            if (celula < 0) {
+                // nenhuma célula vazia: a grade atual é uma solução
+                solucoesEncontradas++;
+                escolherProxima = false;
+                estado = EstadoResolvedor.SOLUCAO_ENCONTRADA;
+                return;
+            }
+            pilhaCelula[profundidade] = celula;
+            pilhaCandidatos[profundidade] = candidatos(celula);
+            profundidade++;
+            escolherProxima = false;
+        }
+
+        if (profundidade == 0) {
+            estado = EstadoResolvedor.ESGOTADO;
+            return;
+        }
+
+        int topo = profundidade - 1;
+        int celula = pilhaCelula[topo];
+        if (grade[celula] != 0) {
+            desatribuir(celula);
+        }
+
+        int restantes = pilhaCandidatos[topo];
+        if (restantes == 0) {
+            // backtracking
+            profundidade--;
+            if (profundidade == 0) {
+                estado = EstadoResolvedor.ESGOTADO;
+            }
+            return;
+        }
+
+        int escolhido = aleatorio == null ? restantes & -restantes : sortearBit(restantes);
+        pilhaCandidatos[topo] = restantes & ~escolhido;
+        atribuir(celula, Integer.numberOfTrailingZeros(escolhido) + 1);
+        escolherProxima = true;
+    }
+
+    private int sortearBit(int mascara) {
+        for (int i = aleatorio.nextInt(Integer.bitCount(mascara)); i > 0; i--) {
+            mascara &= mascara - 1;
+        }
+        return mascara & -mascara;
+    }
+
+    /**
+     * Escolhe a célula vazia com menos candidatos.
+     *
+     * @return O índice da célula, ou -1 se não houver células vazias.
+     */
+    private int escolherCelula() {
+        int melhor = -1;
+        int menorQuantidade = Integer.MAX_VALUE;
+        for (int c = 0; c < celulas; c++) {
+            if (grade[c] != 0) {
+                continue;
+            }
+            int quantidade = Integer.bitCount(candidatos(c));
+            if (quantidade < menorQuantidade) {
+                melhor = c;
+                menorQuantidade = quantidade;
+                if (quantidade <= 1) {
+                    break;
+                }
+            }
+        }
+        return melhor;
+    }
+
+    private int candidatos(int celula) {
+        int usados = unidades[linhaDe[celula]] | unidades[colunaDe[celula]] | unidades[regiaoDe[celula]];
+        if (extrasDe != null) {
+            for (int u : extrasDe[celula]) {
+                usados |= unidades[u];
+            }
+        }
+
+        int resultado = todos & ~usados;
+        if (gaiolaDe != null && gaiolaDe[celula] >= 0) {
+            int gaiola = gaiolaDe[celula];
+            resultado &= regras.candidatosGaiola(gaiola, unidades[regras.getUnidadeGaiola(gaiola)]);
+        }
+        return resultado;
+    }
+
+    private void atribuir(int celula, int valor) {
+        int b = bit(valor);
+        grade[celula] = valor;
+        chave ^= ZOBRIST[celula * 25 + valor - 1];
+        unidades[linhaDe[celula]] |= b;
+        unidades[colunaDe[celula]] |= b;
+        unidades[regiaoDe[celula]] |= b;
+        if (extrasDe != null) {
+            for (int u : extrasDe[celula]) {
+                unidades[u] |= b;
+            }
+        }
+    }
+
+    private void desatribuir(int celula) {
+        int b = ~bit(grade[celula]);
+        chave ^= ZOBRIST[celula * 25 + grade[celula] - 1];
+        grade[celula] = 0;
+        unidades[linhaDe[celula]] &= b;
+        unidades[colunaDe[celula]] &= b;
+        unidades[regiaoDe[celula]] &= b;
+        if (extrasDe != null) {
+            for (int u : extrasDe[celula]) {
+                unidades[u] &= b;
+            }
+        }
+    }
+
+    private static long[] gerarZobrist(int tamanhoMaximo) {
+        // semente fixa: a mesma grade tem a mesma chave em todas as execuções
+        SplittableRandom aleatorio = new SplittableRandom(0x5EED_50D0_C0DEL);
+        long[] tabela = new long[tamanhoMaximo * tamanhoMaximo * tamanhoMaximo];
+        for (int i = 0; i < tabela.length; i++) {
+            tabela[i] = aleatorio.nextLong();
+        }
+        return tabela;
+    }
+
+    private static int bit(int valor) {
+        return 1 << (valor - 1);
+    }
+
+    public EstadoResolvedor getEstado() {
+        return estado;
+    }
+
+    public long getNosVisitados() {
+        return nosVisitados;
+    }
+
+    public int getSolucoesEncontradas() {
+        return solucoesEncontradas;
+    }
+
+    public int getProfundidade() {
+        return profundidade;
+    }
+
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Obtém a chave Zobrist da grade atual (XOR de um número por valor colocado).
+     */
+    public long getChave() {
+        return chave;
+    }
+
+    public Regras getRegras() {
+        return regras;
+    }
+
+    /**
+     * Obtém a grade no ponto atual da busca (útil para animar a resolução).
+     *
+     * @return Uma cópia dos valores atuais, linha a linha (0 para células vazias).
+     */
+    public int[] getGrade() {
+        return grade.clone();
+    }
+
+    /**
+     * Copia a solução encontrada para o tabuleiro, sem alterar as células fixas.
+     *
+     * @param tabuleiro O tabuleiro a ser preenchido.
+     */
+    public void preencher(Tabuleiro tabuleiro) {
+        if (estado != EstadoResolvedor.SOLUCAO_ENCONTRADA) {
+            throw new IllegalStateException("Nenhuma solução disponível: " + estado);
+        }
+        for (int c = 0; c < celulas; c++) {
+            Celula celula = tabuleiro.getCelula(c / tamanho, c % tamanho);
+            if (celula.isEmpty()) {
+                celula.setValor(grade[c]);
+            }
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package helpers;
+
+import enums.Dificuldade;
+import enums.StatusResolucao;
+import matriz.Celula;
+import matriz.Regras;
+import matriz.Tabuleiro;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resolvedor que disputa várias estratégias sobre o mesmo puzzle e fica com a primeira resposta.
+ * <p>
+ * Não dá para saber de antemão qual algoritmo será mais rápido em um puzzle: o backtracking
+ * simples ganha nos fáceis, a escolha da célula com menos candidatos ganha nos difíceis, e a
+ * ordem dos valores pode mudar o tempo em ordens de grandeza. O portfólio roda as estratégias
+ * ao mesmo tempo, cada uma sobre a sua cópia do tabuleiro, devolve o primeiro resultado
+ * conclusivo e interrompe as outras. Isso reduz a cauda das latências de dicas e verificações
+ * de solução única.
+ * <p>
+ * Cada pedido usa no máximo {@code threadsPorPedido} threads. Se houver mais estratégias que
+ * threads, as primeiras da ordem começam e as outras só entram quando uma termina sem resposta.
+ * A ordem é aprendida: para cada dificuldade (ou faixa de número de pistas, quando a dificuldade
+ * não é informada) o portfólio guarda a média móvel do tempo de cada estratégia e começa pelas
+ * mais rápidas. Estratégias ainda não medidas numa categoria vão primeiro, para serem medidas.
+ *
+ * <pre>
+ *     ResolvedorPortfolio portfolio = new ResolvedorPortfolio();
+ *     boolean unica = portfolio.temSolucaoUnica(tabuleiro, opcoes, Dificuldade.DIFICIL);
+ * </pre>
+ */
+public class ResolvedorPortfolio {
+    // peso de uma medição nova na média móvel dos tempos
+    private static final double PESO_MEDICAO = 0.2;
+    // largura das faixas de número de pistas
+    private static final int PISTAS_POR_FAIXA = 4;
+
+    private final List<EstrategiaResolucao> estrategias;
+    private final int threadsPorPedido;
+    private final Executor executor;
+    private final ConcurrentMap<String, Desempenho[]> historico = new ConcurrentHashMap<>();
+
+    /**
+     * Portfólio com os bitboards (só no clássico 9x9), o backtracking simples e a escolha por
+     * menor domínio, ordenada e aleatória, usando até três threads por pedido (limitado pelos
+     * processadores disponíveis).
+     */
+    public ResolvedorPortfolio() {
+        this(List.of(new EstrategiaBitboard(), new EstrategiaSequencial(), new EstrategiaMenorDominio(),
+                        EstrategiaMenorDominio.aleatoria(System.nanoTime())),
+                Math.min(3, Runtime.getRuntime().availableProcessors()), ExecutorHelper.padrao());
+    }
+
+    /**
+     * @param estrategias      As estratégias disputadas.
+     * @param threadsPorPedido O número máximo de estratégias rodando ao mesmo tempo em um pedido.
+     * @param executor         O executor onde as estratégias rodam.
+     */
+    public ResolvedorPortfolio(List<EstrategiaResolucao> estrategias, int threadsPorPedido, Executor executor) {
+        if (estrategias.isEmpty()) {
+            throw new IllegalArgumentException("O portfólio precisa de ao menos uma estratégia");
+        }
+        if (threadsPorPedido <= 0) {
+            throw new IllegalArgumentException("O número de threads deve ser positivo: " + threadsPorPedido);
+        }
+        this.estrategias = List.copyOf(estrategias);
+        this.threadsPorPedido = threadsPorPedido;
+        this.executor = executor;
+    }
+
+    public ResultadoResolucao resolver(Tabuleiro tabuleiro, OpcoesResolucao opcoes) {
+        return resolver(tabuleiro, opcoes, null);
+    }
+
+    /**
+     * Resolve o tabuleiro com a estratégia que terminar primeiro.
+     * Se a busca não encontrar solução, o tabuleiro não é alterado.
+     *
+     * @param tabuleiro   O tabuleiro a ser resolvido (é preenchido com a solução).
+     * @param opcoes      Os limites de cada estratégia.
+     * @param dificuldade A dificuldade do puzzle, usada para escolher a ordem das estratégias,
+     *                    ou null para usar o número de pistas.
+     * @return O resultado da estratégia vencedora.
+     */
+    public ResultadoResolucao resolver(Tabuleiro tabuleiro, OpcoesResolucao opcoes, Dificuldade dificuldade) {
+        int[] valores = tabuleiro.paraVetor();
+        Chegada chegada = disputar(valores, tabuleiro.getRegras(), 1, opcoes, dificuldade);
+
+        if (chegada.resultado.isResolvido()) {
+            int tamanho = tabuleiro.getTamanho();
+            for (int c = 0; c < valores.length; c++) {
+                Celula celula = tabuleiro.getCelula(c / tamanho, c % tamanho);
+                if (celula.isEmpty()) {
+                    celula.setValor(chegada.valores[c]);
+                }
+            }
+        }
+        return chegada.resultado;
+    }
+
+    /**
+     * Conta as soluções até o limite com a estratégia que terminar primeiro.
+     *
+     * @param tabuleiro   O tabuleiro a ser verificado (não é alterado).
+     * @param limite      A quantidade de soluções a partir da qual a contagem pode parar.
+     * @param opcoes      Os limites de cada estratégia.
+     * @param dificuldade A dificuldade do puzzle, ou null para usar o número de pistas.
+     * @return O resultado da estratégia vencedora.
+     */
+    public ResultadoResolucao contarSolucoes(Tabuleiro tabuleiro, int limite, OpcoesResolucao opcoes,
+                                             Dificuldade dificuldade) {
+        return disputar(tabuleiro.paraVetor(), tabuleiro.getRegras(), limite, opcoes, dificuldade).resultado;
+    }
+
+    /**
+     * Verifica se o tabuleiro tem exatamente uma solução.
+     * Se nenhuma estratégia terminar dentro dos limites, a resposta é false.
+     */
+    public boolean temSolucaoUnica(Tabuleiro tabuleiro, OpcoesResolucao opcoes, Dificuldade dificuldade) {
+        ResultadoResolucao resultado = contarSolucoes(tabuleiro, 2, opcoes, dificuldade);
+        return resultado.isConcluida() && resultado.getSolucoes() == 1;
+    }
+
+    /**
+     * Obtém a ordem em que as estratégias seriam tentadas em puzzles da dificuldade informada.
+     *
+     * @return Os nomes das estratégias, da primeira à última.
+     */
+    public List<String> getOrdem(Dificuldade dificuldade) {
+        List<String> nomes = new ArrayList<>();
+        for (int i : ordenar(desempenhos("D:" + dificuldade.name()), null)) {
+            nomes.add(estrategias.get(i).getNome());
+        }
+        return nomes;
+    }
+
+    /**
+     * @return Quantas disputas a estratégia venceu, somando todas as categorias.
+     */
+    public long getVitorias(String nomeEstrategia) {
+        long total = 0;
+        for (Desempenho[] porEstrategia : historico.values()) {
+            for (int i = 0; i < estrategias.size(); i++) {
+                if (estrategias.get(i).getNome().equals(nomeEstrategia)) {
+                    total += porEstrategia[i].getVitorias();
+                }
+            }
+        }
+        return total;
+    }
+
+    private Chegada disputar(int[] valores, Regras regras, int limite, OpcoesResolucao opcoes,
+                             Dificuldade dificuldade) {
+        Desempenho[] desempenhos = desempenhos(categoria(valores, dificuldade));
+        int[] ordem = ordenar(desempenhos, regras);
+        if (ordem.length == 0) {
+            throw new IllegalArgumentException("Nenhuma estratégia do portfólio suporta as regras: " + regras);
+        }
+
+        Corrida corrida = new Corrida(valores, regras, limite, opcoes, ordem, desempenhos);
+        int threads = Math.min(threadsPorPedido, ordem.length);
+        List<CompletableFuture<Void>> tarefas = new ArrayList<>(threads);
+        corrida.ativas.set(threads);
+        for (int i = 0; i < threads; i++) {
+            tarefas.add(ExecutorHelper.submeter(() -> {
+                corrida.correr();
+                return null;
+            }, executor));
+        }
+
+        try {
+            return corrida.vencedora.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Chegada(new ResultadoResolucao(StatusResolucao.INTERROMPIDA, 0, 0), valores);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha no portfólio de estratégias", e.getCause());
+        } finally {
+            // interrompe as estratégias que ainda estão rodando
+            for (CompletableFuture<Void> tarefa : tarefas) {
+                tarefa.cancel(true);
+            }
+        }
+    }
+
+    private static String categoria(int[] valores, Dificuldade dificuldade) {
+        if (dificuldade != null) {
+            return "D:" + dificuldade.name();
+        }
+        int pistas = 0;
+        for (int valor : valores) {
+            if (valor != 0) {
+                pistas++;
+            }
+        }
+        return "P:" + (pistas / PISTAS_POR_FAIXA) * PISTAS_POR_FAIXA;
+    }
+
+    private Desempenho[] desempenhos(String categoria) {
+        return historico.computeIfAbsent(categoria, c -> {
+            Desempenho[] novos = new Desempenho[estrategias.size()];
+            for (int i = 0; i < novos.length; i++) {
+                novos[i] = new Desempenho();
+            }
+            return novos;
+        });
+    }
+
+    /**
+     * Ordena as estratégias que suportam as regras: primeiro as nunca medidas, depois pela média dos tempos.
+     */
+    private int[] ordenar(Desempenho[] desempenhos, Regras regras) {
+        List<Integer> indices = new ArrayList<>();
+        double[] medias = new double[estrategias.size()];
+        for (int i = 0; i < estrategias.size(); i++) {
+            if (regras == null || estrategias.get(i).suporta(regras)) {
+                indices.add(i);
+                medias[i] = desempenhos[i].getMediaNanos();
+            }
+        }
+        // ordenação estável: empates mantêm a ordem de cadastro
+        indices.sort(Comparator.comparingDouble(i -> medias[i]));
+        return indices.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Disputa de um pedido: as threads pegam a próxima estratégia da ordem até alguma concluir.
+     */
+    private final class Corrida {
+        private final int[] valores;
+        private final Regras regras;
+        private final int limite;
+        private final OpcoesResolucao opcoes;
+        private final int[] ordem;
+        private final Desempenho[] desempenhos;
+        private final AtomicInteger proxima = new AtomicInteger();
+        private final AtomicInteger ativas = new AtomicInteger();
+        private final CompletableFuture<Chegada> vencedora = new CompletableFuture<>();
+        // melhor resultado sem conclusão, devolvido se nenhuma estratégia concluir
+        private Chegada melhorParcial;
+        private RuntimeException falha;
+
+        Corrida(int[] valores, Regras regras, int limite, OpcoesResolucao opcoes, int[] ordem,
+                Desempenho[] desempenhos) {
+            this.valores = valores;
+            this.regras = regras;
+            this.limite = limite;
+            this.opcoes = opcoes;
+            this.ordem = ordem;
+            this.desempenhos = desempenhos;
+        }
+
+        void correr() {
+            try {
+                int i;
+                while (!vencedora.isDone() && (i = proxima.getAndIncrement()) < ordem.length) {
+                    try {
+                        executar(ordem[i]);
+                    } catch (RuntimeException e) {
+                        // uma estratégia com defeito não derruba a disputa: as outras seguem
+                        synchronized (this) {
+                            if (falha == null) {
+                                falha = e;
+                            }
+                        }
+                    }
+                }
+            } finally {
+                if (ativas.decrementAndGet() == 0) {
+                    concluirSemVencedora();
+                }
+            }
+        }
+
+        private synchronized void concluirSemVencedora() {
+            if (melhorParcial != null) {
+                vencedora.complete(melhorParcial);
+            } else if (falha != null) {
+                vencedora.completeExceptionally(falha);
+            } else {
+                vencedora.complete(new Chegada(new ResultadoResolucao(StatusResolucao.INTERROMPIDA, 0, 0), valores));
+            }
+        }
+
+        private void executar(int indice) {
+            int[] copia = valores.clone();
+            long inicio = System.nanoTime();
+            ResultadoResolucao resultado = estrategias.get(indice).resolver(copia, regras, limite, opcoes);
+            long nanos = System.nanoTime() - inicio;
+
+            if (resultado.isConcluida()) {
+                boolean venceu = vencedora.complete(new Chegada(resultado, copia));
+                desempenhos[indice].registrar(nanos, venceu);
+                return;
+            }
+
+            // interrompida ou sem orçamento: o tempo real seria no mínimo o medido
+            desempenhos[indice].registrarLimiteInferior(nanos);
+            synchronized (this) {
+                if (melhorParcial == null || resultado.getSolucoes() > melhorParcial.resultado.getSolucoes()) {
+                    melhorParcial = new Chegada(resultado, copia);
+                }
+            }
+        }
+    }
+
+    /**
+     * Resultado de uma estratégia, com a cópia do tabuleiro onde a primeira solução foi escrita.
+     */
+    private static final class Chegada {
+        private final ResultadoResolucao resultado;
+        private final int[] valores;
+
+        Chegada(ResultadoResolucao resultado, int[] valores) {
+            this.resultado = resultado;
+            this.valores = valores;
+        }
+    }
+
+    /**
+     * Tempos de uma estratégia em uma categoria de puzzles.
+     */
+    private static final class Desempenho {
+        // média móvel exponencial; -1 enquanto a estratégia não foi medida
+        private double mediaNanos = -1;
+        private long vitorias;
+
+        synchronized void registrar(long nanos, boolean venceu) {
+            mediaNanos = mediaNanos < 0 ? nanos : mediaNanos + PESO_MEDICAO * (nanos - mediaNanos);
+            if (venceu) {
+                vitorias++;
+            }
+        }
+
+        /**
+         * Registra uma execução interrompida: só aumenta a média, nunca a diminui.
+         */
+        synchronized void registrarLimiteInferior(long nanos) {
+            if (nanos > mediaNanos) {
+                mediaNanos = mediaNanos < 0 ? nanos : mediaNanos + PESO_MEDICAO * (nanos - mediaNanos);
+            }
+        }
+
+        synchronized double getMediaNanos() {
+            return mediaNanos;
+        }
+
+        synchronized long getVitorias() {
+            return vitorias;
+        }
+    }
+}
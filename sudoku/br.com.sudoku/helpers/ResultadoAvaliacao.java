@@ -0,0 +1,85 @@
+package helpers;
+
+import enums.Dificuldade;
+import enums.TecnicaResolucao;
+
+import java.util.Optional;
+
+/**
+ * Resultado da avaliação de dificuldade de um puzzle.
+ * <p>
+ * Informa a técnica mais difícil que a resolução lógica precisou usar e uma pontuação
+ * (a soma dos pesos de cada técnica aplicada). Quando a técnica mais difícil é
+ * {@link TecnicaResolucao#TENTATIVA}, a lógica parou antes do fim: o puzzle exige tentativas
+ * ou não tem solução única.
+ */
+public class ResultadoAvaliacao {
+    private final TecnicaResolucao tecnicaMaisDificil;
+    private final int pontuacao;
+    private final int celulasResolvidas;
+    private final boolean contradicao;
+
+    public ResultadoAvaliacao(TecnicaResolucao tecnicaMaisDificil, int pontuacao, int celulasResolvidas) {
+        this(tecnicaMaisDificil, pontuacao, celulasResolvidas, false);
+    }
+
+    /**
+     * @param contradicao true se a lógica provou que o tabuleiro não tem solução.
+     */
+    public ResultadoAvaliacao(TecnicaResolucao tecnicaMaisDificil, int pontuacao, int celulasResolvidas,
+                              boolean contradicao) {
+        this.tecnicaMaisDificil = tecnicaMaisDificil;
+        this.pontuacao = pontuacao;
+        this.celulasResolvidas = celulasResolvidas;
+        this.contradicao = contradicao;
+    }
+
+    public TecnicaResolucao getTecnicaMaisDificil() {
+        return tecnicaMaisDificil;
+    }
+
+    public int getPontuacao() {
+        return pontuacao;
+    }
+
+    /**
+     * @return Quantas células vazias a lógica preencheu antes de terminar ou parar.
+     */
+    public int getCelulasResolvidas() {
+        return celulasResolvidas;
+    }
+
+    /**
+     * @return true se a lógica preencheu o tabuleiro inteiro. Como as técnicas só fazem
+     *         deduções válidas, isso prova que a solução é única.
+     */
+    public boolean isResolvidoPorLogica() {
+        return tecnicaMaisDificil != TecnicaResolucao.TENTATIVA;
+    }
+
+    /**
+     * @return true se a lógica chegou a uma contradição (célula sem candidatos, valor sem lugar
+     *         em uma unidade ou pistas repetidas): o tabuleiro não tem solução.
+     */
+    public boolean isContradicao() {
+        return contradicao;
+    }
+
+    /**
+     * @return O nível cuja faixa de técnicas contém a técnica mais difícil usada.
+     */
+    public Optional<Dificuldade> getDificuldade() {
+        for (Dificuldade dificuldade : Dificuldade.values()) {
+            if (dificuldade.aceita(tecnicaMaisDificil)) {
+                return Optional.of(dificuldade);
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ResultadoAvaliacao[tecnica=%s, pontuacao=%d, celulas=%d, contradicao=%b]",
+                tecnicaMaisDificil, pontuacao, celulasResolvidas, contradicao);
+    }
+}
@@ -0,0 +1,50 @@
+package helpers;
+
+import enums.StatusResolucao;
+
+/**
+ * Resultado de uma busca do resolvedor.
+ * <p>
+ * Informa como a busca terminou, quantas soluções foram encontradas até então e quantos
+ * nós foram visitados. Quando o status não é {@link StatusResolucao#CONCLUIDA}, o número de
+ * soluções é apenas um limite inferior.
+ */
+public class ResultadoResolucao {
+    private final StatusResolucao status;
+    private final int solucoes;
+    private final long nosVisitados;
+
+    public ResultadoResolucao(StatusResolucao status, int solucoes, long nosVisitados) {
+        this.status = status;
+        this.solucoes = solucoes;
+        this.nosVisitados = nosVisitados;
+    }
+
+    public StatusResolucao getStatus() {
+        return status;
+    }
+
+    public boolean isConcluida() {
+        return status == StatusResolucao.CONCLUIDA;
+    }
+
+    /**
+     * @return true se ao menos uma solução foi encontrada.
+     */
+    public boolean isResolvido() {
+        return solucoes > 0;
+    }
+
+    public int getSolucoes() {
+        return solucoes;
+    }
+
+    public long getNosVisitados() {
+        return nosVisitados;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ResultadoResolucao[status=%s, solucoes=%d, nos=%d]", status, solucoes, nosVisitados);
+    }
+}
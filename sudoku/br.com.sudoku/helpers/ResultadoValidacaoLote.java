@@ -0,0 +1,48 @@
+package helpers;
+
+/**
+ * Resultado da validação de um lote de tabuleiros 9x9 completos.
+ * <p>
+ * Para cada tabuleiro guarda um mapa de bits com as unidades em conflito:
+ * bits 0 a 8 são as linhas, 9 a 17 as colunas e 18 a 26 os quadrantes.
+ * Uma unidade está em conflito quando tem valor repetido ou célula vazia.
+ */
+public class ResultadoValidacaoLote {
+    public static final int BIT_LINHA = 0;
+    public static final int BIT_COLUNA = 9;
+    public static final int BIT_QUADRANTE = 18;
+
+    private final int[] mapaConflitos;
+
+    public ResultadoValidacaoLote(int[] mapaConflitos) {
+        this.mapaConflitos = mapaConflitos;
+    }
+
+    public int getQuantidade() {
+        return mapaConflitos.length;
+    }
+
+    public boolean isValido(int indice) {
+        return mapaConflitos[indice] == 0;
+    }
+
+    /**
+     * Obtém o mapa de unidades em conflito de um tabuleiro.
+     *
+     * @param indice O índice do tabuleiro no lote.
+     * @return O mapa de bits das unidades em conflito (0 se o tabuleiro é válido).
+     */
+    public int getMapaConflitos(int indice) {
+        return mapaConflitos[indice];
+    }
+
+    public int contarValidos() {
+        int validos = 0;
+        for (int mapa : mapaConflitos) {
+            if (mapa == 0) {
+                validos++;
+            }
+        }
+        return validos;
+    }
+}
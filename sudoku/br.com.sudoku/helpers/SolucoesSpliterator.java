@@ -0,0 +1,46 @@
+package helpers;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * {@link Spliterator} que percorre as soluções de um tabuleiro de forma preguiçosa.
+ * <p>
+ * Cada chamada a {@link #tryAdvance(Consumer)} avança o {@link ResolvedorIterativo} só até a
+ * próxima solução, então operações como {@code limit} e {@code findAny} param sem explorar o
+ * resto da árvore. Em streams paralelos, {@link #trySplit()} divide a árvore de busca entre
+ * as tarefas. Cada solução é entregue como um vetor novo de valores, linha a linha.
+ */
+public class SolucoesSpliterator implements Spliterator<int[]> {
+    private final ResolvedorIterativo motor;
+
+    public SolucoesSpliterator(ResolvedorIterativo motor) {
+        this.motor = motor;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super int[]> acao) {
+        if (!motor.resolver()) {
+            return false;
+        }
+        acao.accept(motor.getGrade());
+        return true;
+    }
+
+    @Override
+    public Spliterator<int[]> trySplit() {
+        ResolvedorIterativo parte = motor.dividir();
+        return parte != null ? new SolucoesSpliterator(parte) : null;
+    }
+
+    @Override
+    public long estimateSize() {
+        // o número de soluções só é conhecido depois de explorar a árvore
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return NONNULL | DISTINCT | IMMUTABLE;
+    }
+}
@@ -0,0 +1,208 @@
+package helpers;
+
+import enums.PoliticaDescarte;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tabela de transposição da contagem de soluções.
+ * <p>
+ * Guarda, pela chave Zobrist de um tabuleiro parcial, quantas soluções a subárvore dele tem.
+ * Assim a busca não explora de novo um tabuleiro parcial já contado, seja porque foi alcançado
+ * por outra ordem de atribuições, seja porque apareceu em uma verificação anterior (na geração,
+ * as verificações de solução única seguidas são sobre tabuleiros quase iguais).
+ * <p>
+ * A memória é limitada na construção: as entradas ficam em vetores primitivos divididos em
+ * faixas, cada uma com a sua trava, e cada chave só pode ocupar um grupo de
+ * {@value #POSICOES_POR_GRUPO} posições. Quando o grupo está cheio, a {@link PoliticaDescarte}
+ * escolhe a entrada descartada.
+ * <p>
+ * As chaves só fazem sentido para as mesmas {@link matriz.Regras}: compartilhe a tabela
+ * apenas entre buscas do mesmo tipo de tabuleiro.
+ */
+public final class TabelaTransposicao {
+    private static final int FAIXAS = 64;
+    private static final int POSICOES_POR_GRUPO = 4;
+    // chave (8) + soluções (4) + peso (8) por entrada
+    private static final int BYTES_POR_ENTRADA = 20;
+    private static final long BYTES_PADRAO = 1L << 20;
+    // subárvores menores que isso custam menos para refazer do que para guardar
+    private static final long NOS_MINIMOS = 8;
+
+    private final PoliticaDescarte politica;
+    private final Faixa[] faixas;
+    private final int grupos;
+    private final LongAdder consultas = new LongAdder();
+    private final LongAdder acertos = new LongAdder();
+
+    public TabelaTransposicao() {
+        this(BYTES_PADRAO, PoliticaDescarte.MENOR_SUBARVORE);
+    }
+
+    /**
+     * @param bytesMaximos A memória máxima ocupada pelas entradas.
+     * @param politica     Qual entrada descartar quando o grupo de uma chave estiver cheio.
+     */
+    public TabelaTransposicao(long bytesMaximos, PoliticaDescarte politica) {
+        long entradas = bytesMaximos / BYTES_POR_ENTRADA;
+        long porFaixa = entradas / FAIXAS / POSICOES_POR_GRUPO;
+        if (porFaixa < 1) {
+            throw new IllegalArgumentException("Memória insuficiente para a tabela: " + bytesMaximos);
+        }
+
+        // grupos por faixa em potência de 2, para indexar com máscara
+        this.grupos = Integer.highestOneBit((int) Math.min(porFaixa, 1 << 24));
+        this.politica = politica;
+        this.faixas = new Faixa[FAIXAS];
+        for (int i = 0; i < FAIXAS; i++) {
+            faixas[i] = new Faixa(grupos * POSICOES_POR_GRUPO);
+        }
+    }
+
+    /**
+     * Procura a contagem de soluções de um tabuleiro parcial.
+     *
+     * @param chave A chave Zobrist do tabuleiro.
+     * @return O número de soluções da subárvore, ou -1 se a chave não estiver na tabela.
+     */
+    public int buscar(long chave) {
+        consultas.increment();
+        Faixa faixa = faixas[faixa(chave)];
+        int inicio = inicioGrupo(chave);
+
+        faixa.trava.lock();
+        try {
+            for (int i = inicio; i < inicio + POSICOES_POR_GRUPO; i++) {
+                if (faixa.ocupadas[i] && faixa.chaves[i] == chave) {
+                    if (politica == PoliticaDescarte.MENOS_RECENTE) {
+                        faixa.pesos[i] = ++faixa.relogio;
+                    }
+                    acertos.increment();
+                    return faixa.solucoes[i];
+                }
+            }
+            return -1;
+        } finally {
+            faixa.trava.unlock();
+        }
+    }
+
+    /**
+     * Guarda a contagem de soluções de uma subárvore explorada por completo.
+     *
+     * @param chave    A chave Zobrist do tabuleiro na raiz da subárvore.
+     * @param solucoes O número de soluções da subárvore.
+     * @param nos      O número de nós visitados na subárvore (o trabalho que a entrada economiza).
+     */
+    public void guardar(long chave, int solucoes, long nos) {
+        if (nos < NOS_MINIMOS) {
+            return;
+        }
+
+        Faixa faixa = faixas[faixa(chave)];
+        int inicio = inicioGrupo(chave);
+
+        faixa.trava.lock();
+        try {
+            int escolhida = -1;
+            for (int i = inicio; i < inicio + POSICOES_POR_GRUPO; i++) {
+                if (!faixa.ocupadas[i] || faixa.chaves[i] == chave) {
+                    escolhida = i;
+                    break;
+                }
+            }
+            if (escolhida < 0) {
+                escolhida = escolherDescarte(faixa, inicio, nos);
+                if (escolhida < 0) {
+                    return;
+                }
+            }
+
+            faixa.ocupadas[escolhida] = true;
+            faixa.chaves[escolhida] = chave;
+            faixa.solucoes[escolhida] = solucoes;
+            faixa.pesos[escolhida] = switch (politica) {
+                case MENOR_SUBARVORE -> nos;
+                case MENOS_RECENTE, SUBSTITUIR_SEMPRE -> ++faixa.relogio;
+            };
+        } finally {
+            faixa.trava.unlock();
+        }
+    }
+
+    /**
+     * Escolhe a posição a ser descartada em um grupo cheio.
+     *
+     * @return A posição, ou -1 se a entrada nova vale menos que todas as do grupo.
+     */
+    private int escolherDescarte(Faixa faixa, int inicio, long nos) {
+        int menor = inicio;
+        for (int i = inicio + 1; i < inicio + POSICOES_POR_GRUPO; i++) {
+            if (faixa.pesos[i] < faixa.pesos[menor]) {
+                menor = i;
+            }
+        }
+        if (politica == PoliticaDescarte.MENOR_SUBARVORE && faixa.pesos[menor] > nos) {
+            return -1;
+        }
+        return menor;
+    }
+
+    public void limpar() {
+        for (Faixa faixa : faixas) {
+            faixa.trava.lock();
+            try {
+                Arrays.fill(faixa.ocupadas, false);
+                faixa.relogio = 0;
+            } finally {
+                faixa.trava.unlock();
+            }
+        }
+    }
+
+    public long getCapacidade() {
+        return (long) FAIXAS * grupos * POSICOES_POR_GRUPO;
+    }
+
+    public long getConsultas() {
+        return consultas.sum();
+    }
+
+    public long getAcertos() {
+        return acertos.sum();
+    }
+
+    public PoliticaDescarte getPolitica() {
+        return politica;
+    }
+
+    private static int faixa(long chave) {
+        return (int) (chave >>> 58);
+    }
+
+    private int inicioGrupo(long chave) {
+        return ((int) chave & (grupos - 1)) * POSICOES_POR_GRUPO;
+    }
+
+    /**
+     * Parte da tabela protegida por uma trava.
+     */
+    private static final class Faixa {
+        private final ReentrantLock trava = new ReentrantLock();
+        private final long[] chaves;
+        private final int[] solucoes;
+        // nós da subárvore ou instante do último uso, conforme a política
+        private final long[] pesos;
+        private final boolean[] ocupadas;
+        private long relogio;
+
+        Faixa(int posicoes) {
+            this.chaves = new long[posicoes];
+            this.solucoes = new int[posicoes];
+            this.pesos = new long[posicoes];
+            this.ocupadas = new boolean[posicoes];
+        }
+    }
+}
@@ -1,18 +1,21 @@
 package helpers;
 
 import matriz.Celula;
+import matriz.Regras;
 import matriz.Tabuleiro;
 
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.Optional;
-import java.util.Set;
 
 /**
  * Classe responsável por validar as regras do Sudoku.
  * <p>
  * Esta classe contém métodos para validar linhas, colunas e quadrantes de um tabuleiro de Sudoku.
  * Ela também verifica se o tabuleiro está completo e se há conflitos entre os valores.
+ * <p>
+ * A validação de posições e de conflitos segue as {@link Regras} do tabuleiro, usando as
+ * tabelas de vizinhos e de unidades já compiladas (variantes com diagonais, janelas,
+ * regiões irregulares e gaiolas com soma).
  */
 public class ValidadorHelper {
     private int tamanhoQuadrante;
@@ -52,9 +55,48 @@ public class ValidadorHelper {
             return false;
         }
 
-        return validarLinha(tabuleiro, linha, valor) &&
-                validarColuna(tabuleiro, coluna, valor) &&
-                validarQuadrante(tabuleiro, linha, coluna, valor);
+        Regras regras = tabuleiro.getRegras();
+        int tamanho = tabuleiro.getTamanho();
+        int indice = linha * tamanho + coluna;
+
+        for (int v = 0; v < regras.getQuantidadeVizinhos(indice); v++) {
+            int vizinho = regras.getVizinho(indice, v);
+            Optional<Integer> outro = tabuleiro.getCelula(vizinho / tamanho, vizinho % tamanho).getValor();
+            if (outro.isPresent() && outro.get().equals(valor)) {
+                return false;
+            }
+        }
+
+        if (regras.temGaiolas()) {
+            int gaiola = regras.getGaiolaDaCelula(indice);
+            return gaiola < 0 || validarSomaGaiola(tabuleiro, regras, gaiola, indice, valor);
+        }
+        return true;
+    }
+
+    /**
+     * Verifica se o valor cabe na soma da gaiola: não pode ultrapassá-la e,
+     * se for a última célula vazia, deve completá-la.
+     */
+    private boolean validarSomaGaiola(Tabuleiro tabuleiro, Regras regras, int gaiola, int indice, int valor) {
+        int tamanho = tabuleiro.getTamanho();
+        int unidade = regras.getUnidadeGaiola(gaiola);
+        int soma = valor;
+        boolean completa = true;
+        for (int i = 0; i < regras.getTamanhoUnidade(unidade); i++) {
+            int c = regras.getCelulaDaUnidade(unidade, i);
+            if (c == indice) {
+                continue;
+            }
+            Optional<Integer> outro = tabuleiro.getCelula(c / tamanho, c % tamanho).getValor();
+            if (outro.isPresent()) {
+                soma += outro.get();
+            } else {
+                completa = false;
+            }
+        }
+        int alvo = regras.getGaiola(gaiola).getSoma();
+        return completa ? soma == alvo : soma < alvo;
     }
 
     /**
@@ -86,28 +128,38 @@ public class ValidadorHelper {
      * @return true se há conflitos, false caso contrário
      */
     public boolean temConflito(Tabuleiro tabuleiro) {
-        int tamanho = tabuleiro.getTamanho();
-
-        // linhas
-        for (int i = 0; i < tamanho; i++) {
-            if (temValoresDuplicados(tabuleiro.getLinha(i))) {
-                return true;
+        Regras regras = tabuleiro.getRegras();
+        int[] valores = tabuleiro.paraVetor();
+
+        // linhas, colunas, regiões e unidades das variantes
+        for (int u = 0; u < regras.getQuantidadeUnidades(); u++) {
+            int vistos = 0;
+            for (int i = 0; i < regras.getTamanhoUnidade(u); i++) {
+                int c = regras.getCelulaDaUnidade(u, i);
+                if (valores[c] == 0) {
+                    continue;
+                }
+                int bit = 1 << valores[c];
+                if ((vistos & bit) != 0) {
+                    return true;
+                }
+                vistos |= bit;
             }
         }
 
-        // colunas
-        for (int j = 0; j < tamanho; j++) {
-            if (temValoresDuplicados(tabuleiro.getColuna(j))) {
-                return true;
+        // gaiolas: soma ultrapassada ou, se completa, diferente da definida
+        for (int g = 0; g < regras.getQuantidadeGaiolas(); g++) {
+            int unidade = regras.getUnidadeGaiola(g);
+            int soma = 0;
+            boolean completa = true;
+            for (int i = 0; i < regras.getTamanhoUnidade(unidade); i++) {
+                int c = regras.getCelulaDaUnidade(unidade, i);
+                soma += valores[c];
+                completa &= valores[c] != 0;
             }
-        }
-
-        // ou quadrantes
-        for (int i = 0; i < tamanho; i += tamanhoQuadrante) {
-            for (int j = 0; j < tamanho; j += tamanhoQuadrante) {
-                if (temValoresDuplicados(tabuleiro.getQuadrante(i, j))) {
-                    return true;
-                }
+            int alvo = regras.getGaiola(g).getSoma();
+            if (completa ? soma != alvo : soma >= alvo) {
+                return true;
             }
         }
 
@@ -132,24 +184,4 @@ public class ValidadorHelper {
                 .filter(Optional::isPresent)
                 .noneMatch(v -> v.get().equals(valor));
     }
-
-    /**
-     * Verifica se há valores duplicados na coleção de células.
-     *
-     * @param celulas a coleção de células
-     * @return true se há valores duplicados, false caso contrário
-     */
-    private boolean temValoresDuplicados(Collection<Celula> celulas) {
-        Set<Integer> valores = new HashSet<>();
-        for (Celula celula : celulas) {
-            Optional<Integer> valor = celula.getValor();
-            if (valor.isPresent()) {
-                if (valores.contains(valor.get())) {
-                    return true;
-                }
-                valores.add(valor.get());
-            }
-        }
-        return false;
-    }
 }
@@ -0,0 +1,153 @@
+package helpers;
+
+import matriz.Tabuleiro;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Classe responsável por validar lotes de tabuleiros 9x9 completos.
+ * <p>
+ * Os tabuleiros ficam em layout de "estrutura de vetores": um único {@code byte[]} em que
+ * a célula {@code c} do tabuleiro {@code b} está em {@code valores[c * quantidade + b]}.
+ * Assim a mesma célula de vários tabuleiros fica contígua e cada unidade (linha, coluna
+ * ou quadrante) é verificada para muitos tabuleiros de uma vez.
+ * <p>
+ * O núcleo SIMD ({@link ValidadorLoteVetorial}) usa a Vector API diretamente, então a compilação
+ * precisa de {@code --add-modules jdk.incubator.vector} (no IntelliJ a opção está em
+ * {@code .idea/compiler.xml}). Na execução o módulo é opcional: com ele (executar com a mesma
+ * opção) a verificação usa instruções SIMD; sem ele a classe vetorial nem é carregada e a
+ * verificação usa o laço escalar, que produz o mesmo resultado.
+ */
+public class ValidadorLoteHelper {
+    static final int TAMANHO = 9;
+    static final int CELULAS = TAMANHO * TAMANHO;
+    static final int UNIDADES = 3 * TAMANHO;
+    // bits 1 a 9 ligados: todos os dígitos presentes na unidade
+    static final int UNIDADE_COMPLETA = 0x3FE;
+    // bit de um valor fora de 0 a 9: nunca faz parte da unidade completa
+    static final int VALOR_INVALIDO = 1 << 15;
+    static final int[][] CELULAS_UNIDADE = gerarUnidades();
+
+    private static final int BLOCO = 1024;
+    private static final boolean VETORIAL_DISPONIVEL =
+            ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private final boolean vetorial;
+
+    public ValidadorLoteHelper() {
+        this(true);
+    }
+
+    /**
+     * @param usarVetorial false para forçar o laço escalar mesmo com o módulo de vetores.
+     */
+    public ValidadorLoteHelper(boolean usarVetorial) {
+        this.vetorial = usarVetorial && VETORIAL_DISPONIVEL;
+    }
+
+    public boolean isVetorial() {
+        return vetorial;
+    }
+
+    public ResultadoValidacaoLote validar(List<Tabuleiro> tabuleiros) {
+        int[][] grades = new int[tabuleiros.size()][];
+        for (int i = 0; i < grades.length; i++) {
+            if (!tabuleiros.get(i).getRegras().isClassico()) {
+                // as unidades do lote são fixas; variantes usam o ValidadorHelper
+                throw new IllegalArgumentException("Validação em lote só aceita o Sudoku clássico");
+            }
+            grades[i] = tabuleiros.get(i).paraVetor();
+        }
+        return validar(empacotar(grades), grades.length);
+    }
+
+    /**
+     * Valida um lote de tabuleiros em layout de estrutura de vetores.
+     *
+     * @param valores    Os valores das células (0 a 9), com {@code valores[c * quantidade + b]}.
+     *                   Valores fora desse intervalo deixam a unidade em conflito.
+     * @param quantidade A quantidade de tabuleiros no lote.
+     * @return O resultado com o mapa de unidades em conflito de cada tabuleiro.
+     */
+    public ResultadoValidacaoLote validar(byte[] valores, int quantidade) {
+        if (valores.length < CELULAS * quantidade) {
+            throw new IllegalArgumentException("Vetor de valores menor que o lote: " + valores.length);
+        }
+
+        int[] conflitos = new int[quantidade];
+        int inicio = 0;
+        if (vetorial) {
+            inicio = ValidadorLoteVetorial.validar(valores, quantidade, conflitos);
+        }
+        validarEscalar(valores, quantidade, inicio, conflitos);
+        return new ResultadoValidacaoLote(conflitos);
+    }
+
+    /**
+     * Converte grades lineares (81 valores, linha a linha) para o layout do lote.
+     *
+     * @param grades As grades a serem empacotadas.
+     * @return O vetor em layout de estrutura de vetores.
+     */
+    public static byte[] empacotar(int[]... grades) {
+        int quantidade = grades.length;
+        byte[] valores = new byte[CELULAS * quantidade];
+        for (int b = 0; b < quantidade; b++) {
+            for (int c = 0; c < CELULAS; c++) {
+                valores[c * quantidade + b] = (byte) grades[b][c];
+            }
+        }
+        return valores;
+    }
+
+    /**
+     * Laço escalar: processa os tabuleiros em blocos para manter os acumuladores no cache.
+     */
+    static void validarEscalar(byte[] valores, int quantidade, int inicio, int[] conflitos) {
+        int[] vistos = new int[BLOCO];
+        int[] repetidos = new int[BLOCO];
+
+        for (int bloco = inicio; bloco < quantidade; bloco += BLOCO) {
+            int fim = Math.min(quantidade, bloco + BLOCO);
+            int largura = fim - bloco;
+
+            for (int u = 0; u < UNIDADES; u++) {
+                Arrays.fill(vistos, 0, largura, 0);
+                Arrays.fill(repetidos, 0, largura, 0);
+
+                for (int celula : CELULAS_UNIDADE[u]) {
+                    int base = celula * quantidade + bloco;
+                    for (int b = 0; b < largura; b++) {
+                        // sem a verificação o deslocamento daria a volta (valor + 32 igual ao valor)
+                        int valor = valores[base + b] & 0xFF;
+                        int bit = valor <= TAMANHO ? 1 << valor : VALOR_INVALIDO;
+                        repetidos[b] |= vistos[b] & bit;
+                        vistos[b] |= bit;
+                    }
+                }
+
+                for (int b = 0; b < largura; b++) {
+                    if (repetidos[b] != 0 || vistos[b] != UNIDADE_COMPLETA) {
+                        conflitos[bloco + b] |= 1 << u;
+                    }
+                }
+            }
+        }
+    }
+
+    private static int[][] gerarUnidades() {
+        int[][] unidades = new int[UNIDADES][TAMANHO];
+        for (int i = 0; i < TAMANHO; i++) {
+            for (int j = 0; j < TAMANHO; j++) {
+                unidades[ResultadoValidacaoLote.BIT_LINHA + i][j] = i * TAMANHO + j;
+                unidades[ResultadoValidacaoLote.BIT_COLUNA + i][j] = j * TAMANHO + i;
+
+                int linha = (i / 3) * 3 + j / 3;
+                int coluna = (i % 3) * 3 + j % 3;
+                unidades[ResultadoValidacaoLote.BIT_QUADRANTE + i][j] = linha * TAMANHO + coluna;
+            }
+        }
+        return unidades;
+    }
+}
@@ -0,0 +1,72 @@
+package helpers;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Núcleo SIMD do {@link ValidadorLoteHelper}.
+ * <p>
+ * Cada faixa do vetor é um tabuleiro: os valores são carregados como bytes, convertidos
+ * para short e transformados em bits ({@code 1 << valor}) para acumular os dígitos vistos
+ * e repetidos de cada unidade; valores fora de 0 a 9 viram
+ * {@link ValidadorLoteHelper#VALOR_INVALIDO}, como no laço escalar. Só é carregada quando o
+ * módulo de vetores está presente.
+ */
+final class ValidadorLoteVetorial {
+    private static final VectorSpecies<Short> ESPECIE = ShortVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Byte> ESPECIE_BYTE =
+            VectorSpecies.of(byte.class, VectorShape.forBitSize(ESPECIE.vectorBitSize() / 2));
+
+    private ValidadorLoteVetorial() {
+    }
+
+    /**
+     * Valida os tabuleiros que cabem em vetores completos.
+     *
+     * @return O índice do primeiro tabuleiro não processado (o resto fica para o laço escalar).
+     */
+    static int validar(byte[] valores, int quantidade, int[] conflitos) {
+        int faixas = ESPECIE.length();
+        int limite = quantidade - quantidade % faixas;
+        ShortVector um = ShortVector.broadcast(ESPECIE, (short) 1);
+        ShortVector zero = ShortVector.zero(ESPECIE);
+        ShortVector invalido = ShortVector.broadcast(ESPECIE, (short) ValidadorLoteHelper.VALOR_INVALIDO);
+
+        for (int b = 0; b < limite; b += faixas) {
+            for (int u = 0; u < ValidadorLoteHelper.UNIDADES; u++) {
+                ShortVector vistos = zero;
+                ShortVector repetidos = zero;
+
+                for (int celula : ValidadorLoteHelper.CELULAS_UNIDADE[u]) {
+                    ShortVector valor = (ShortVector) ByteVector
+                            .fromArray(ESPECIE_BYTE, valores, celula * quantidade + b)
+                            .convertShape(VectorOperators.B2S, ESPECIE, 0);
+                    // o deslocamento de short usa só 4 bits: valores fora de 0 a 9 (inclusive os
+                    // negativos, comparados sem sinal) recebem o bit inválido
+                    VectorMask<Short> fora =
+                            valor.compare(VectorOperators.UNSIGNED_GT, (short) ValidadorLoteHelper.TAMANHO);
+                    ShortVector bit = um.lanewise(VectorOperators.LSHL, valor).blend(invalido, fora);
+                    repetidos = repetidos.or(vistos.and(bit));
+                    vistos = vistos.or(bit);
+                }
+
+                VectorMask<Short> invalidos = repetidos.compare(VectorOperators.NE, (short) 0)
+                        .or(vistos.compare(VectorOperators.NE, (short) ValidadorLoteHelper.UNIDADE_COMPLETA));
+                if (invalidos.anyTrue()) {
+                    long bits = invalidos.toLong();
+                    while (bits != 0) {
+                        int faixa = Long.numberOfTrailingZeros(bits);
+                        conflitos[b + faixa] |= 1 << u;
+                        bits &= bits - 1;
+                    }
+                }
+            }
+        }
+
+        return limite;
+    }
+}
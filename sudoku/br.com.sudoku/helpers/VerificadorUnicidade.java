@@ -0,0 +1,101 @@
+package helpers;
+
+import enums.EstadoResolvedor;
+import enums.StatusResolucao;
+import matriz.Regras;
+
+/**
+ * Verifica remoções seguidas de números de um puzzle de solução única e conhecida.
+ * <p>
+ * Tirar de um puzzle de solução única o número {@code v} de uma célula só cria outra solução
+ * se existir uma solução com outro valor na célula (uma solução com {@code v} já era solução
+ * do puzzle anterior, portanto é a conhecida). Então cada remoção é verificada por uma busca
+ * que proíbe o valor original e para na primeira solução, em vez de contar até duas soluções
+ * do zero ({@link ResolvedorIterativo#buscarAlternativa}).
+ * <p>
+ * O mesmo resolvedor acompanha o puzzle entre as verificações: remover e devolver um número
+ * só atualiza as máscaras das unidades, sem recompilar as regras nem realocar a pilha.
+ * Não é seguro para várias threads; a tabela de transposição pode ser compartilhada.
+ */
+public class VerificadorUnicidade {
+    private final ResolvedorIterativo motor;
+    private final int[] solucao;
+    private final TabelaTransposicao tabela;
+    private long nosVisitados;
+
+    /**
+     * @param pistas  Os valores atuais do puzzle, linha a linha (0 para vazias). O puzzle precisa
+     *                ter solução única.
+     * @param solucao A solução do puzzle.
+     * @param regras  As restrições do tabuleiro.
+     * @param tabela  A tabela de transposição, ou null para buscar sem ela.
+     */
+    public VerificadorUnicidade(int[] pistas, int[] solucao, Regras regras, TabelaTransposicao tabela) {
+        if (pistas.length != solucao.length) {
+            throw new IllegalArgumentException("Pistas e solução de tamanhos diferentes");
+        }
+        for (int c = 0; c < pistas.length; c++) {
+            if (pistas[c] != 0 && pistas[c] != solucao[c]) {
+                throw new IllegalArgumentException("A pista da célula " + c + " não está na solução");
+            }
+        }
+        this.motor = new ResolvedorIterativo(pistas, regras);
+        if (motor.getEstado() == EstadoResolvedor.ESGOTADO) {
+            throw new IllegalArgumentException("As pistas não respeitam as regras");
+        }
+        this.solucao = solucao.clone();
+        this.tabela = tabela;
+    }
+
+    /**
+     * Remove o número de uma célula se o puzzle continuar com solução única.
+     *
+     * @param celula O índice da célula (linha * tamanho + coluna), que precisa estar preenchida.
+     * @param opcoes Os limites da busca.
+     * @return CONCLUIDA com 1 solução se o número foi removido; CONCLUIDA com 2 se a remoção
+     *         criaria outra solução; ou o motivo da parada, se o orçamento acabou. Nos dois
+     *         últimos casos o número continua no puzzle.
+     */
+    public ResultadoResolucao remover(int celula, OpcoesResolucao opcoes) {
+        Orcamento orcamento = opcoes.iniciar();
+        motor.retirarPista(celula);
+        long nosAntes = motor.getNosVisitados();
+        boolean outra = motor.buscarAlternativa(celula, solucao[celula], tabela, orcamento);
+        nosVisitados += motor.getNosVisitados() - nosAntes;
+
+        if (outra || orcamento.isEsgotado()) {
+            motor.colocarPista(celula, solucao[celula]);
+        }
+        StatusResolucao status = outra ? StatusResolucao.CONCLUIDA : orcamento.getStatus();
+        return new ResultadoResolucao(status, outra ? 2 : 1, orcamento.getNos());
+    }
+
+    /**
+     * Remove o número de uma célula sem buscar, quando a solução única já foi provada de outra
+     * forma (por exemplo, pela resolução lógica do {@link AvaliadorDificuldade}).
+     */
+    public void aceitarRemocao(int celula) {
+        motor.retirarPista(celula);
+    }
+
+    /**
+     * Devolve o número da solução a uma célula removida.
+     */
+    public void restaurar(int celula) {
+        motor.colocarPista(celula, solucao[celula]);
+    }
+
+    /**
+     * @return O puzzle atual, linha a linha (0 para vazias).
+     */
+    public int[] getPistas() {
+        return motor.getGrade();
+    }
+
+    /**
+     * @return Os nós visitados por todas as verificações.
+     */
+    public long getNosVisitados() {
+        return nosVisitados;
+    }
+}
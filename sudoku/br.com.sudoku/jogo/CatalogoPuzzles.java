@@ -0,0 +1,54 @@
+package jogo;
+
+import helpers.CanonizadorHelper;
+import helpers.ImpressaoDigital;
+import matriz.Tabuleiro;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Armazena quebra-cabeças de Sudoku sem duplicatas.
+ * <p>
+ * Os quebra-cabeças são indexados pela impressão digital da forma canônica, então
+ * duas versões do mesmo puzzle (transpostas, com linhas trocadas, dígitos renomeados...)
+ * ocupam uma única entrada. Pode ser usado por várias threads ao mesmo tempo.
+ */
+public class CatalogoPuzzles {
+    private final ConcurrentMap<ImpressaoDigital, int[]> puzzles;
+    private final CanonizadorHelper canonizador;
+
+    public CatalogoPuzzles() {
+        this.puzzles = new ConcurrentHashMap<>();
+        this.canonizador = new CanonizadorHelper();
+    }
+
+    /**
+     * Adiciona um quebra-cabeça ao catálogo.
+     *
+     * @param tabuleiro O tabuleiro com as pistas do quebra-cabeça.
+     * @return true se foi adicionado, false se um equivalente já existia.
+     */
+    public boolean adicionar(Tabuleiro tabuleiro) {
+        return adicionar(tabuleiro.paraVetor());
+    }
+
+    public boolean adicionar(int[] valores) {
+        ImpressaoDigital impressao = canonizador.calcularImpressao(valores);
+        return puzzles.putIfAbsent(impressao, valores.clone()) == null;
+    }
+
+    public boolean contem(Tabuleiro tabuleiro) {
+        return puzzles.containsKey(canonizador.calcularImpressao(tabuleiro));
+    }
+
+    public Optional<int[]> obter(ImpressaoDigital impressao) {
+        int[] valores = puzzles.get(impressao);
+        return valores != null ? Optional.of(valores.clone()) : Optional.empty();
+    }
+
+    public int tamanho() {
+        return puzzles.size();
+    }
+}
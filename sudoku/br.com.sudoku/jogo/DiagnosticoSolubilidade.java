@@ -0,0 +1,55 @@
+package jogo;
+
+import enums.EstadoSolubilidade;
+import matriz.Posicao;
+
+import java.util.Optional;
+
+/**
+ * Resultado de {@link Jogo#diagnosticarSolubilidade()}: se o tabuleiro ainda tem solução e,
+ * se não tiver, a primeira jogada do histórico que o deixou sem saída.
+ */
+public class DiagnosticoSolubilidade {
+    private final EstadoSolubilidade estado;
+    private final int indiceJogada;
+    private final Posicao posicao;
+    private final Integer valor;
+
+    DiagnosticoSolubilidade(EstadoSolubilidade estado, int indiceJogada, Posicao posicao, Integer valor) {
+        this.estado = estado;
+        this.indiceJogada = indiceJogada;
+        this.posicao = posicao;
+        this.valor = valor;
+    }
+
+    public EstadoSolubilidade getEstado() {
+        return estado;
+    }
+
+    /**
+     * @return O índice da jogada causadora no histórico (0 é a primeira jogada), ou -1.
+     */
+    public int getIndiceJogada() {
+        return indiceJogada;
+    }
+
+    /**
+     * @return A posição da jogada causadora, se ela foi encontrada.
+     */
+    public Optional<Posicao> getPosicao() {
+        return Optional.ofNullable(posicao);
+    }
+
+    /**
+     * @return O valor colocado pela jogada causadora, se ela foi encontrada.
+     */
+    public Optional<Integer> getValor() {
+        return Optional.ofNullable(valor);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DiagnosticoSolubilidade[estado=%s, jogada=%d, posição=%s, valor=%s]",
+                estado, indiceJogada, posicao, valor);
+    }
+}
@@ -0,0 +1,388 @@
+package jogo;
+
+import enums.Dificuldade;
+import matriz.Posicao;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Diário (write-ahead log) das jogadas de um jogo, para recuperação depois de uma queda.
+ * <p>
+ * Cada {@link Jogada} vira um registro binário de {@value #TAMANHO_REGISTRO} bytes
+ * (sequência, linha, coluna, valor anterior, valor novo e CRC32) acrescentado ao arquivo
+ * {@code diario.bin}. Os registros são acumulados em memória e uma thread de gravação os
+ * escreve em lote com um único {@code force} por lote (group commit): quem precisa da
+ * garantia de durabilidade espera com {@link #aguardarDuravel(long)}, sem um fsync por jogada.
+ * <p>
+ * O arquivo {@code snapshot.txt} guarda o estado completo do jogo ({@link Jogo#salvarJogo()})
+ * e a sequência da última jogada incluída nele. A recuperação carrega o snapshot e reaplica
+ * as jogadas posteriores do diário. A compactação grava um novo snapshot e esvazia o diário.
+ */
+public class DiarioJogadas implements Closeable {
+    static final int TAMANHO_REGISTRO = 16;
+    // bit ligado no byte da linha: o registro desfaz a última jogada
+    private static final int MARCA_DESFEITA = 0x80;
+    private static final String ARQUIVO_DIARIO = "diario.bin";
+    private static final String ARQUIVO_SNAPSHOT = "snapshot.txt";
+    private static final int INTERVALO_COMPACTACAO_PADRAO = 10_000;
+
+    private final Path diretorio;
+    private final FileChannel canal;
+    private final Object trava = new Object();
+    private final Thread gravador;
+    private final CRC32 crc = new CRC32();
+
+    // protegidos pela trava
+    private ByteBuffer acumulando;
+    private ByteBuffer gravando;
+    private long proximaSequencia;
+    private long sequenciaDuravel;
+    private boolean truncarPendente;
+    private boolean aberto;
+    // a thread de gravação terminou: nada mais fica durável
+    private boolean encerrado;
+    private IOException falha;
+
+    private long sequenciaSnapshot;
+    private int intervaloCompactacao;
+
+    private DiarioJogadas(Path diretorio, long ultimaSequencia, long tamanhoValido) throws IOException {
+        this.diretorio = diretorio;
+        this.canal = FileChannel.open(diretorio.resolve(ARQUIVO_DIARIO),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        // descarta um registro incompleto no fim (queda no meio da gravação)
+        this.canal.truncate(tamanhoValido);
+        this.canal.position(tamanhoValido);
+
+        this.acumulando = ByteBuffer.allocate(64 * TAMANHO_REGISTRO);
+        this.gravando = ByteBuffer.allocate(64 * TAMANHO_REGISTRO);
+        this.proximaSequencia = ultimaSequencia + 1;
+        this.sequenciaDuravel = ultimaSequencia;
+        this.sequenciaSnapshot = ultimaSequencia;
+        this.intervaloCompactacao = INTERVALO_COMPACTACAO_PADRAO;
+        this.aberto = true;
+
+        this.gravador = Thread.ofPlatform().daemon().name("diario-jogadas").start(this::gravarEmLote);
+    }
+
+    /**
+     * Começa um diário novo para o jogo, gravando o estado atual como snapshot inicial.
+     * O diário passa a receber as jogadas do jogo.
+     *
+     * @param diretorio O diretório onde ficam o snapshot e o diário.
+     * @param jogo      O jogo a ser registrado.
+     * @return O diário aberto.
+     */
+    public static DiarioJogadas criar(Path diretorio, Jogo jogo) throws IOException {
+        Files.createDirectories(diretorio);
+        gravarSnapshot(diretorio, 0, jogo.salvarJogo());
+
+        DiarioJogadas diario = new DiarioJogadas(diretorio, 0, 0);
+        jogo.setDiario(diario);
+        return diario;
+    }
+
+    /**
+     * Recupera um jogo a partir do último snapshot e das jogadas registradas depois dele.
+     * O diário continua aberto e ligado ao jogo recuperado.
+     *
+     * @param diretorio O diretório usado em {@link #criar(Path, Jogo)}.
+     * @return O jogo recuperado.
+     */
+    public static Jogo recuperar(Path diretorio) throws IOException {
+        String[] snapshot = Files.readString(diretorio.resolve(ARQUIVO_SNAPSHOT), StandardCharsets.UTF_8)
+                .split("\n", 2);
+        long sequenciaSnapshot = Long.parseLong(snapshot[0].trim());
+
+        Jogo jogo = new Jogo(Dificuldade.FACIL);
+        if (!jogo.restaurarEstado(snapshot[1].trim())) {
+            throw new IOException("Snapshot inválido em " + diretorio);
+        }
+
+        // reaplica os registros válidos posteriores ao snapshot
+        Path arquivo = diretorio.resolve(ARQUIVO_DIARIO);
+        byte[] dados = Files.exists(arquivo) ? Files.readAllBytes(arquivo) : new byte[0];
+        ByteBuffer leitura = ByteBuffer.wrap(dados);
+        CRC32 verificador = new CRC32();
+        long ultimaSequencia = sequenciaSnapshot;
+        long tamanhoValido = 0;
+
+        while (leitura.remaining() >= TAMANHO_REGISTRO) {
+            int inicio = leitura.position();
+            long sequencia = leitura.getLong();
+            int linha = leitura.get() & 0xFF;
+            int coluna = leitura.get();
+            int anterior = leitura.get();
+            int novo = leitura.get();
+            int crcGravado = leitura.getInt();
+
+            verificador.reset();
+            verificador.update(dados, inicio, TAMANHO_REGISTRO - 4);
+            if ((int) verificador.getValue() != crcGravado || sequencia <= 0) {
+                // registro corrompido: tudo daqui em diante é descartado
+                break;
+            }
+
+            if (sequencia > sequenciaSnapshot) {
+                boolean desfeita = (linha & MARCA_DESFEITA) != 0;
+                Jogada jogada = new Jogada(new Posicao(linha & ~MARCA_DESFEITA, coluna),
+                        anterior > 0 ? anterior : null, novo > 0 ? novo : null);
+                jogo.aplicarJogadaRecuperada(jogada, desfeita);
+            }
+            ultimaSequencia = Math.max(ultimaSequencia, sequencia);
+            tamanhoValido = leitura.position();
+        }
+
+        DiarioJogadas diario = new DiarioJogadas(diretorio, ultimaSequencia, tamanhoValido);
+        diario.sequenciaSnapshot = sequenciaSnapshot;
+        jogo.setDiario(diario);
+        return jogo;
+    }
+
+    /**
+     * Acrescenta uma jogada ao diário. Não espera a gravação em disco.
+     *
+     * @param jogada A jogada a ser registrada.
+     * @return A sequência do registro, para usar em {@link #aguardarDuravel(long)}.
+     */
+    public long registrar(Jogada jogada) {
+        return registrar(jogada, false);
+    }
+
+    /**
+     * Acrescenta uma jogada ao diário.
+     *
+     * @param jogada   A jogada feita ou desfeita.
+     * @param desfeita true se o registro desfaz a jogada (ela é retirada do histórico na recuperação).
+     * @return A sequência do registro.
+     */
+    public long registrar(Jogada jogada, boolean desfeita) {
+        Posicao posicao = jogada.getPosicao();
+        synchronized (trava) {
+            verificarAberto();
+            if (acumulando.remaining() < TAMANHO_REGISTRO) {
+                ByteBuffer maior = ByteBuffer.allocate(acumulando.capacity() * 2);
+                acumulando.flip();
+                maior.put(acumulando);
+                acumulando = maior;
+            }
+
+            long sequencia = proximaSequencia++;
+            int inicio = acumulando.position();
+            acumulando.putLong(sequencia)
+                    .put((byte) (posicao.getLinha() | (desfeita ? MARCA_DESFEITA : 0)))
+                    .put((byte) posicao.getColuna())
+                    .put((byte) valorOuZero(jogada.getValorAnterior()))
+                    .put((byte) valorOuZero(jogada.getValorNovo()));
+            crc.reset();
+            crc.update(acumulando.array(), inicio, TAMANHO_REGISTRO - 4);
+            acumulando.putInt((int) crc.getValue());
+
+            trava.notifyAll();
+            return sequencia;
+        }
+    }
+
+    /**
+     * Bloqueia até que o registro informado (e todos os anteriores) esteja gravado em disco.
+     * Um registro aceito antes de {@link #close()} fica durável mesmo que o diário seja fechado
+     * durante a espera: o fechamento grava os lotes pendentes antes de encerrar.
+     *
+     * @param sequencia A sequência devolvida por {@link #registrar(Jogada)}.
+     */
+    public void aguardarDuravel(long sequencia) throws IOException, InterruptedException {
+        synchronized (trava) {
+            while (sequenciaDuravel < sequencia) {
+                if (falha != null) {
+                    throw falha;
+                }
+                if (encerrado) {
+                    // só depois de a gravação terminar: antes disso o lote ainda pode chegar ao disco
+                    throw new IOException("Diário fechado");
+                }
+                trava.wait();
+            }
+        }
+    }
+
+    /**
+     * Grava um novo snapshot do jogo e esvazia o diário.
+     * Deve ser chamado pela thread que faz as jogadas, para que o snapshot
+     * inclua exatamente as jogadas já registradas (o {@link Jogo} só compacta nessa thread,
+     * inclusive depois de um novo jogo assíncrono).
+     *
+     * @param jogo O jogo ligado a este diário.
+     */
+    public void compactar(Jogo jogo) throws IOException {
+        long sequencia;
+        synchronized (trava) {
+            verificarAberto();
+            sequencia = proximaSequencia - 1;
+        }
+
+        // o snapshot fica durável antes de o diário ser esvaziado
+        gravarSnapshot(diretorio, sequencia, jogo.salvarEstado());
+
+        synchronized (trava) {
+            sequenciaSnapshot = sequencia;
+            // registros ainda em memória com sequência menor são ignorados na recuperação
+            truncarPendente = true;
+            trava.notifyAll();
+        }
+    }
+
+    boolean deveCompactar() {
+        synchronized (trava) {
+            return proximaSequencia - 1 - sequenciaSnapshot >= intervaloCompactacao;
+        }
+    }
+
+    /**
+     * Define a cada quantas jogadas o jogo grava um novo snapshot automaticamente.
+     */
+    public void setIntervaloCompactacao(int intervaloCompactacao) {
+        this.intervaloCompactacao = intervaloCompactacao;
+    }
+
+    /**
+     * Grava o que estiver pendente e fecha o diário. Novos registros são recusados na hora; os
+     * já aceitos são gravados antes de o canal ser fechado.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (trava) {
+            if (!aberto) {
+                return;
+            }
+            aberto = false;
+            trava.notifyAll();
+        }
+        try {
+            gravador.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        canal.close();
+        if (falha != null) {
+            throw falha;
+        }
+    }
+
+    /**
+     * Laço da thread de gravação: troca o buffer acumulado por um vazio, grava o lote
+     * inteiro com um único {@code force} e libera quem espera pela durabilidade.
+     */
+    private void gravarEmLote() {
+        try {
+            gravarAteFechar();
+        } finally {
+            synchronized (trava) {
+                encerrado = true;
+                trava.notifyAll();
+            }
+        }
+    }
+
+    private void gravarAteFechar() {
+        while (true) {
+            long ultimaDoLote;
+            boolean truncar;
+            synchronized (trava) {
+                while (acumulando.position() == 0 && !truncarPendente && aberto) {
+                    try {
+                        trava.wait();
+                    } catch (InterruptedException e) {
+                        aberto = false;
+                    }
+                }
+                if (acumulando.position() == 0 && !truncarPendente) {
+                    // fechado e sem nada pendente
+                    return;
+                }
+
+                ByteBuffer cheio = acumulando;
+                acumulando = gravando;
+                gravando = cheio;
+                ultimaDoLote = proximaSequencia - 1;
+                truncar = truncarPendente;
+                truncarPendente = false;
+            }
+
+            try {
+                if (truncar) {
+                    canal.truncate(0);
+                    canal.position(0);
+                }
+                gravando.flip();
+                while (gravando.hasRemaining()) {
+                    canal.write(gravando);
+                }
+                canal.force(false);
+            } catch (IOException e) {
+                synchronized (trava) {
+                    falha = e;
+                    aberto = false;
+                    trava.notifyAll();
+                }
+                return;
+            } finally {
+                gravando.clear();
+            }
+
+            synchronized (trava) {
+                sequenciaDuravel = ultimaDoLote;
+                trava.notifyAll();
+            }
+        }
+    }
+
+    private void verificarAberto() {
+        if (falha != null) {
+            throw new UncheckedIOException(falha);
+        }
+        if (!aberto) {
+            throw new IllegalStateException("Diário fechado");
+        }
+    }
+
+    private static void gravarSnapshot(Path diretorio, long sequencia, String dados) throws IOException {
+        Path temporario = diretorio.resolve(ARQUIVO_SNAPSHOT + ".tmp");
+        try (FileChannel saida = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            saida.write(ByteBuffer.wrap((sequencia + "\n" + dados).getBytes(StandardCharsets.UTF_8)));
+            saida.force(true);
+        }
+        Files.move(temporario, diretorio.resolve(ARQUIVO_SNAPSHOT),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        // a troca de nome só é durável com o diretório no disco: sem isso, uma queda de energia
+        // depois de truncar o diário pode deixar o snapshot antigo com as jogadas já descartadas
+        sincronizarDiretorio(diretorio);
+    }
+
+    private static void sincronizarDiretorio(Path diretorio) throws IOException {
+        FileChannel canal;
+        try {
+            canal = FileChannel.open(diretorio, StandardOpenOption.READ);
+        } catch (IOException e) {
+            // sistemas que não abrem diretórios (Windows) já gravam a troca de nome no disco
+            return;
+        }
+        try (canal) {
+            canal.force(true);
+        }
+    }
+
+    private static int valorOuZero(Integer valor) {
+        return valor != null ? valor : 0;
+    }
+}
@@ -0,0 +1,107 @@
+package jogo;
+
+import matriz.Regras;
+import matriz.Tabuleiro;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Cópia plana do tabuleiro de um {@link Jogo} para leitura por outras threads.
+ * <p>
+ * O {@link Tabuleiro} é um grafo de listas e células que só a thread do jogador altera; ler
+ * dele enquanto ela joga pode ver estados pela metade. O jogo publica aqui cada célula que muda,
+ * um {@code int} por célula ({@link InstantaneoTabuleiro}), com a escrita de um
+ * {@link StampedLock}. Os leitores copiam o vetor com uma leitura otimista, sem travar: se o
+ * carimbo continua válido depois da cópia, nenhuma publicação aconteceu no meio e a cópia é
+ * consistente; senão, tentam de novo. Só depois de {@value #TENTATIVAS_OTIMISTAS} tentativas
+ * perdidas um leitor usa a trava de leitura, que faria o jogador esperar; antes disso o jogador
+ * nunca espera por leitores, quantos forem.
+ */
+class EspelhoTabuleiro {
+    private static final int TENTATIVAS_OTIMISTAS = 64;
+
+    private final StampedLock trava = new StampedLock();
+    // trocados só com a trava de escrita
+    private Regras regras;
+    private int[] celulas;
+    private long versao;
+
+    /**
+     * Publica uma célula alterada.
+     */
+    void publicarCelula(Tabuleiro tabuleiro, int linha, int coluna) {
+        int palavra = InstantaneoTabuleiro.codificar(tabuleiro.getCelula(linha, coluna));
+        long carimbo = trava.writeLock();
+        try {
+            celulas[linha * tabuleiro.getTamanho() + coluna] = palavra;
+            versao++;
+        } finally {
+            trava.unlockWrite(carimbo);
+        }
+    }
+
+    /**
+     * Publica o tabuleiro inteiro (novo jogo, carregar, reiniciar, anotações em lote).
+     */
+    void publicarTabuleiro(Tabuleiro tabuleiro) {
+        int tamanho = tabuleiro.getTamanho();
+        int[] novas = new int[tamanho * tamanho];
+        for (int c = 0; c < novas.length; c++) {
+            novas[c] = InstantaneoTabuleiro.codificar(tabuleiro.getCelula(c / tamanho, c % tamanho));
+        }
+        long carimbo = trava.writeLock();
+        try {
+            regras = tabuleiro.getRegras();
+            celulas = novas;
+            versao++;
+        } finally {
+            trava.unlockWrite(carimbo);
+        }
+    }
+
+    /**
+     * Copia o estado publicado. Pode ser chamado de qualquer thread.
+     */
+    InstantaneoTabuleiro capturar() {
+        for (int tentativa = 0; tentativa < TENTATIVAS_OTIMISTAS; tentativa++) {
+            long carimbo = trava.tryOptimisticRead();
+            if (carimbo == 0) {
+                // publicação em andamento: cede o processador ao jogador em vez de girar
+                Thread.yield();
+                continue;
+            }
+            // o vetor é trocado inteiro em publicarTabuleiro: copia o que foi lido, com o tamanho dele
+            int[] origem = celulas;
+            Regras regrasLidas = regras;
+            long versaoLida = versao;
+            int[] copia = origem.clone();
+            if (trava.validate(carimbo)) {
+                return new InstantaneoTabuleiro(regrasLidas, copia, versaoLida);
+            }
+        }
+
+        long carimbo = trava.readLock();
+        try {
+            return new InstantaneoTabuleiro(regras, celulas.clone(), versao);
+        } finally {
+            trava.unlockRead(carimbo);
+        }
+    }
+
+    /**
+     * @return A versão publicada, para o leitor saber se vale a pena capturar de novo.
+     */
+    long getVersao() {
+        long carimbo = trava.tryOptimisticRead();
+        long versaoLida = versao;
+        if (trava.validate(carimbo)) {
+            return versaoLida;
+        }
+        carimbo = trava.readLock();
+        try {
+            return versao;
+        } finally {
+            trava.unlockRead(carimbo);
+        }
+    }
+}
@@ -1,13 +1,32 @@
 package jogo;
 
 import enums.Dificuldade;
+import enums.EstadoResolvedor;
+import enums.PoliticaDescarte;
+import enums.StatusResolucao;
+import enums.TecnicaResolucao;
+import helpers.AvaliadorDificuldade;
+import helpers.CanonizadorHelper;
+import helpers.ExecutorHelper;
+import helpers.ImpressaoDigital;
+import helpers.OpcoesResolucao;
 import helpers.ResolvedorHelper;
-import helpers.ValidadorHelper;
+import helpers.ResolvedorIterativo;
+import helpers.ResultadoAvaliacao;
+import helpers.ResultadoResolucao;
+import helpers.TabelaTransposicao;
+import helpers.VerificadorUnicidade;
 import matriz.Celula;
 import matriz.Posicao;
+import matriz.Regras;
 import matriz.Tabuleiro;
 
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
 
 /**
  * Classe responsável por gerar tabuleiros de Sudoku.
@@ -16,13 +35,87 @@ import java.util.*;
  * uma solução única.
  */
 public class Gerador {
+    // nós do resolvedor entre duas verificações de interrupção no preenchimento
+    private static final int NOS_POR_VERIFICACAO = 256;
+
     private Random random;
-    private ValidadorHelper validador;
+    private OpcoesResolucao opcoes;
+    private Regras regras;
+    private int paralelismo;
+    private long bytesTabela;
+    private PoliticaDescarte politicaDescarte;
+    private boolean avaliarDificuldade;
 
     public Gerador() {
-        this.random = new Random();
+        this(OpcoesResolucao.semLimites());
+    }
+
+    /**
+     * Construtor que limita cada verificação de solução única feita durante a geração.
+     * Uma verificação que esgota o orçamento é tratada como "solução não única",
+     * ou seja, o número não é removido.
+     *
+     * @param opcoes Os limites de cada busca do resolvedor.
+     */
+    public Gerador(OpcoesResolucao opcoes) {
         // tamanho aqu é 9x9
-        this.validador = new ValidadorHelper(9);
+        this(opcoes, Regras.classico(9));
+    }
+
+    /**
+     * Construtor para gerar tabuleiros de uma variante do Sudoku.
+     *
+     * @param opcoes Os limites de cada busca do resolvedor.
+     * @param regras As restrições dos tabuleiros gerados. Pedidos de outro tamanho usam as regras clássicas.
+     */
+    public Gerador(OpcoesResolucao opcoes, Regras regras) {
+        this.random = new Random();
+        this.opcoes = opcoes;
+        this.regras = regras;
+        // remoção sequencial por padrão: a especulativa aplica só uma remoção por rodada
+        this.paralelismo = 1;
+        // sem tabela por padrão: a busca de uma solução alternativa para na primeira solução e
+        // quase não revisita subárvores, então as consultas custam mais do que economizam
+        this.bytesTabela = 0;
+        this.politicaDescarte = PoliticaDescarte.MENOR_SUBARVORE;
+    }
+
+    /**
+     * Configura a tabela de transposição compartilhada pelas verificações de solução única
+     * de cada remoção de números (uma tabela nova por tabuleiro gerado; desligada por padrão).
+     *
+     * @param bytesMaximos A memória máxima da tabela, ou 0 para não usar tabela.
+     * @param politica     Qual entrada descartar quando a tabela estiver cheia.
+     */
+    public void configurarTabelaTransposicao(long bytesMaximos, PoliticaDescarte politica) {
+        this.bytesTabela = bytesMaximos;
+        this.politicaDescarte = politica;
+    }
+
+    /**
+     * Define quantas verificações de solução única {@link #gerarTabuleiro} executa ao mesmo tempo.
+     * O padrão é 1, a remoção sequencial. Com mais de uma, cada rodada aplica só a primeira
+     * remoção aceita e descarta o trabalho das outras verificações, então só compensa quando
+     * cada verificação é cara (tabuleiros maiores ou variantes difíceis de resolver) e há
+     * processadores sobrando.
+     *
+     * @param paralelismo A quantidade de verificações simultâneas.
+     */
+    public void setParalelismo(int paralelismo) {
+        if (paralelismo < 1) {
+            throw new IllegalArgumentException("O paralelismo deve ser positivo: " + paralelismo);
+        }
+        this.paralelismo = paralelismo;
+    }
+
+    /**
+     * Define se {@link #gerarTabuleiro} mira a faixa de técnicas da dificuldade
+     * ({@link #gerarTabuleiroAvaliado(int, Dificuldade)}) em vez de só remover a quantidade de números.
+     *
+     * @param avaliarDificuldade true para gerar puzzles avaliados.
+     */
+    public void setAvaliarDificuldade(boolean avaliarDificuldade) {
+        this.avaliarDificuldade = avaliarDificuldade;
     }
 
     /**
@@ -33,48 +126,149 @@ public class Gerador {
      * @return Um tabuleiro de Sudoku com a dificuldade especificada.
      */
     public Tabuleiro gerarTabuleiro(int tamanho, Dificuldade dificuldade) {
+        if (avaliarDificuldade) {
+            return gerarTabuleiroAvaliado(tamanho, dificuldade);
+        }
         Tabuleiro tabuleiro = gerarTabuleiroCompleto(tamanho);
         int quantidadeRemover = calcularQuantidadeRemover(dificuldade);
-        removerNumeros(tabuleiro, quantidadeRemover);
+        if (paralelismo > 1) {
+            removerNumerosEspeculativo(tabuleiro, quantidadeRemover, paralelismo, ExecutorHelper.padrao());
+        } else {
+            removerNumeros(tabuleiro, quantidadeRemover);
+        }
         return tabuleiro;
     }
 
+    /**
+     * Gera um tabuleiro cuja avaliação ({@link AvaliadorDificuldade}) cai na faixa de técnicas
+     * da dificuldade, tentando com novos tabuleiros completos até conseguir.
+     *
+     * @param tamanho     O tamanho do tabuleiro.
+     * @param dificuldade A dificuldade pedida.
+     * @return Um tabuleiro avaliado na faixa da dificuldade.
+     */
+    public Tabuleiro gerarTabuleiroAvaliado(int tamanho, Dificuldade dificuldade) {
+        Optional<Tabuleiro> tabuleiro;
+        do {
+            tabuleiro = gerarTabuleiroAvaliado(tamanho, dificuldade, Integer.MAX_VALUE);
+        } while (tabuleiro.isEmpty());
+        return tabuleiro.get();
+    }
+
+    /**
+     * Gera um tabuleiro avaliado na faixa de técnicas da dificuldade, com um limite de tentativas.
+     * <p>
+     * A avaliação é refeita a cada número removido. Como ela só cresce com as remoções, uma
+     * remoção que passa do topo da faixa nunca volta a caber nela: o número fica, como nas
+     * remoções que quebram a solução única. Enquanto a lógica resolve o puzzle, a solução
+     * única já está provada e a contagem de soluções nem é feita; ela só roda nas remoções que
+     * exigem tentativas. Um tabuleiro que fica sem números removíveis abaixo da faixa é
+     * abandonado na hora e a tentativa seguinte começa de um novo tabuleiro completo, que custa
+     * pouco para gerar.
+     *
+     * @param tamanho          O tamanho do tabuleiro.
+     * @param dificuldade      A dificuldade pedida.
+     * @param maximoTentativas Quantos tabuleiros completos tentar antes de desistir.
+     * @return O tabuleiro, ou Optional.empty() se nenhuma tentativa chegou à faixa.
+     */
+    public Optional<Tabuleiro> gerarTabuleiroAvaliado(int tamanho, Dificuldade dificuldade, int maximoTentativas) {
+        AvaliadorDificuldade avaliador = new AvaliadorDificuldade();
+        for (int tentativa = 0; tentativa < maximoTentativas; tentativa++) {
+            ExecutorHelper.verificarInterrupcao();
+            Tabuleiro tabuleiro = gerarTabuleiroCompleto(tamanho);
+            if (removerAteFaixa(tabuleiro, dificuldade, avaliador)) {
+                return Optional.of(tabuleiro);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Gera vários tabuleiros 9x9 distintos com a dificuldade especificada.
+     * Tabuleiros equivalentes por simetria (mesma forma canônica) são descartados.
+     *
+     * @param quantidade  A quantidade de tabuleiros distintos a gerar.
+     * @param dificuldade A dificuldade dos tabuleiros.
+     * @return Uma lista com os tabuleiros gerados, sem duplicatas.
+     */
+    public List<Tabuleiro> gerarLote(int quantidade, Dificuldade dificuldade) {
+        CanonizadorHelper canonizador = new CanonizadorHelper();
+        Set<ImpressaoDigital> vistos = new HashSet<>();
+        List<Tabuleiro> lote = new ArrayList<>(quantidade);
+        // as simetrias do Sudoku clássico não preservam as variantes: nelas só tabuleiros iguais são duplicatas
+        boolean usarSimetrias = regrasPara(9).isClassico();
+
+        while (lote.size() < quantidade) {
+            Tabuleiro tabuleiro = gerarTabuleiro(9, dificuldade);
+            ImpressaoDigital impressao = usarSimetrias
+                    ? canonizador.calcularImpressao(tabuleiro)
+                    : ImpressaoDigital.de(tabuleiro.paraVetor());
+            if (vistos.add(impressao)) {
+                lote.add(tabuleiro);
+            }
+        }
+
+        return lote;
+    }
+
+    /**
+     * Gera um tabuleiro completo aleatório que respeita as regras.
+     * O preenchimento usa o resolvedor com os candidatos em ordem aleatória.
+     *
+     * @param tamanho O tamanho do tabuleiro.
+     * @return O tabuleiro preenchido.
+     */
     public Tabuleiro gerarTabuleiroCompleto(int tamanho) {
-        Tabuleiro tabuleiro = new Tabuleiro(tamanho);
-        preencherRecursivamente(tabuleiro);
+        Tabuleiro tabuleiro = new Tabuleiro(tamanho, regrasPara(tamanho));
+        if (!preencher(tabuleiro)) {
+            throw new IllegalStateException("As regras não admitem nenhum tabuleiro completo: " + tabuleiro.getRegras());
+        }
         return tabuleiro;
     }
 
     /**
      * Remove números aleatórios do tabuleiro, garantindo que ele ainda tenha uma solução única.
+     * <p>
+     * Cada célula é testada no máximo uma vez: se a remoção dela deixa o tabuleiro com mais de
+     * uma solução, remover outros números não muda isso, então ela fica marcada como fixa.
+     * Quando não sobra nenhuma célula removível a remoção para, mesmo sem atingir a quantidade.
+     * <p>
+     * A solução é conhecida (é o tabuleiro completo), então cada remoção só procura uma solução
+     * com outro valor na célula ({@link VerificadorUnicidade}), com o mesmo resolvedor do
+     * começo ao fim.
      *
      * @param tabuleiro  O tabuleiro do qual os números serão removidos.
      * @param quantidade A quantidade de números a serem removidos.
+     * @return A quantidade de números efetivamente removidos (0 se o tabuleiro não tem solução única).
      */
-    public void removerNumeros(Tabuleiro tabuleiro, int quantidade) {
-        int tamanho = tabuleiro.getTamanho();
-        int total = tamanho * tamanho;
+    public int removerNumeros(Tabuleiro tabuleiro, int quantidade) {
         int removidos = 0;
 
-        ResolvedorHelper resolvedor = new ResolvedorHelper();
+        Optional<int[]> solucao = solucaoUnica(tabuleiro);
+        if (solucao.isEmpty()) {
+            return 0;
+        }
+        int tamanho = tabuleiro.getTamanho();
+        VerificadorUnicidade verificador = new VerificadorUnicidade(
+                tabuleiro.paraVetor(), solucao.get(), tabuleiro.getRegras(), criarTabela());
+        Deque<Posicao> pendentes = embaralharCandidatas(tabuleiro);
 
-        while (removidos < quantidade) {
-            Posicao posicao = encontrarCelulaAleatoria(tabuleiro);
-            int linha = posicao.getLinha();
-            int coluna = posicao.getColuna();
+        while (removidos < quantidade && !pendentes.isEmpty()) {
+            ExecutorHelper.verificarInterrupcao();
 
-            Celula celula = tabuleiro.getCelula(linha, coluna);
-            if (celula.isEmpty() || celula.isFixo()) {
-                continue;
-            }
+            Posicao posicao = pendentes.poll();
+            Celula celula = tabuleiro.getCelula(posicao.getLinha(), posicao.getColuna());
 
             Integer valorOriginal = celula.getValor().orElse(null);
             celula.setValor(null);
             celula.setFixo(false);
 
             // verificar se o tabuleiro ainda tem solução única
-            Tabuleiro copia = tabuleiro.copiar();
-            if (!resolvedor.temSolucaoUnica(copia)) {
+            ResultadoResolucao resultado = verificador.remover(posicao.getLinha() * tamanho + posicao.getColuna(), opcoes);
+            if (resultado.getStatus() == StatusResolucao.INTERROMPIDA) {
+                throw new CancellationException("Geração interrompida");
+            }
+            if (!resultado.isConcluida() || resultado.getSolucoes() != 1) {
                 // restaurar o valor se a remoção causou múltiplas soluções
                 celula.setValor(valorOriginal);
                 celula.setFixo(true);
@@ -83,76 +277,269 @@ public class Gerador {
 
             removidos++;
         }
-    }
 
-    public int calcularQuantidadeRemover(Dificuldade dificuldade) {
-        return dificuldade.getNumerosParaRemover();
+        return removidos;
     }
 
     /**
-     * Preenche o tabuleiro de Sudoku recursivamente.
+     * Remove números verificando várias candidatas ao mesmo tempo.
+     * <p>
+     * A cada rodada, até {@code paralelismo} células são testadas em paralelo, cada uma em uma
+     * cópia do tabuleiro. A primeira remoção aceita é aplicada e as outras verificações são
+     * canceladas. As células rejeitadas ficam fixas (a rejeição continua valendo depois de
+     * outras remoções), inclusive as que esgotaram o orçamento; as aceitas que não foram
+     * aplicadas e as canceladas voltam para a fila, porque precisam ser verificadas de novo
+     * sobre o tabuleiro atualizado. Cada rodada remove um número ou fixa ao menos uma célula,
+     * então a remoção termina mesmo com um orçamento que nenhuma verificação consegue cumprir.
      *
-     * @param tabuleiro O tabuleiro a ser preenchido.
-     * @return true se o tabuleiro foi preenchido com sucesso, false caso contrário.
+     * @param tabuleiro   O tabuleiro do qual os números serão removidos.
+     * @param quantidade  A quantidade de números a serem removidos.
+     * @param paralelismo Quantas verificações executar ao mesmo tempo.
+     * @param executor    O executor das verificações.
+     * @return A quantidade de números efetivamente removidos.
      */
-    private boolean preencherRecursivamente(Tabuleiro tabuleiro) {
-        Optional<Posicao> posicaoVazia = encontrarProximaCelulaVazia(tabuleiro);
-        if (posicaoVazia.isEmpty()) {
-            // tá completo
-            return true;
+    public int removerNumerosEspeculativo(Tabuleiro tabuleiro, int quantidade, int paralelismo, Executor executor) {
+        if (paralelismo <= 1) {
+            return removerNumeros(tabuleiro, quantidade);
         }
 
-        int linha = posicaoVazia.get().getLinha();
-        int coluna = posicaoVazia.get().getColuna();
-
-        List<Integer> valores = new ArrayList<>();
-        for (int i = 1; i <= tabuleiro.getTamanho(); i++) {
-            valores.add(i);
+        int removidos = 0;
+        Optional<int[]> solucao = solucaoUnica(tabuleiro);
+        if (solucao.isEmpty()) {
+            return 0;
         }
-        embaralharLista(valores);
+        int tamanho = tabuleiro.getTamanho();
+        Regras regrasTabuleiro = tabuleiro.getRegras();
+        TabelaTransposicao tabela = criarTabela();
+        Deque<Posicao> pendentes = embaralharCandidatas(tabuleiro);
+
+        while (removidos < quantidade && !pendentes.isEmpty()) {
+            ExecutorHelper.verificarInterrupcao();
 
-        for (Integer valor : valores) {
-            if (validador.validarPosicao(tabuleiro, linha, coluna, valor)) {
-                tabuleiro.getCelula(linha, coluna).setValor(valor);
+            // dispara uma verificação por candidata, cada uma com o seu resolvedor sobre o tabuleiro atual
+            int[] pistas = tabuleiro.paraVetor();
+            ExecutorCompletionService<Verificacao> conclusoes = new ExecutorCompletionService<>(executor);
+            Map<Future<Verificacao>, Posicao> emAndamento = new LinkedHashMap<>();
+            for (int i = 0; i < paralelismo && !pendentes.isEmpty(); i++) {
+                Posicao posicao = pendentes.poll();
+                int indice = posicao.getLinha() * tamanho + posicao.getColuna();
+                emAndamento.put(conclusoes.submit(() -> new Verificacao(posicao,
+                        new VerificadorUnicidade(pistas, solucao.get(), regrasTabuleiro, tabela).remover(indice, opcoes))),
+                        posicao);
+            }
 
-                if (preencherRecursivamente(tabuleiro)) {
-                    return true;
+            Posicao aceita = null;
+            try {
+                while (aceita == null && !emAndamento.isEmpty()) {
+                    Future<Verificacao> concluida = conclusoes.take();
+                    emAndamento.remove(concluida);
+                    Verificacao verificacao = obterVerificacao(concluida);
+                    if (verificacao.resultado.getStatus() == StatusResolucao.INTERROMPIDA) {
+                        throw new CancellationException("Geração interrompida");
+                    }
+                    if (verificacao.isUnica()) {
+                        aceita = verificacao.posicao;
+                    } else {
+                        // rejeitada: o número fica
+                        tabuleiro.getCelula(verificacao.posicao.getLinha(), verificacao.posicao.getColuna()).setFixo(true);
+                    }
                 }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Geração interrompida");
+            } finally {
+                emAndamento.keySet().forEach(futuro -> futuro.cancel(true));
+            }
 
-                // backtracking
-                tabuleiro.getCelula(linha, coluna).setValor(null);
+            // as verificações que sobraram: rejeições (e orçamentos esgotados, como na remoção
+            // sequencial) ainda valem; só as canceladas e as aceitas não aplicadas voltam para a fila
+            for (Map.Entry<Future<Verificacao>, Posicao> sobra : emAndamento.entrySet()) {
+                Future<Verificacao> futuro = sobra.getKey();
+                Posicao posicao = sobra.getValue();
+                if (futuro.isDone() && !futuro.isCancelled()) {
+                    Verificacao verificacao = obterVerificacao(futuro);
+                    if (!verificacao.isUnica()) {
+                        tabuleiro.getCelula(posicao.getLinha(), posicao.getColuna()).setFixo(true);
+                        continue;
+                    }
+                }
+                pendentes.addFirst(posicao);
+            }
+
+            if (aceita != null) {
+                Celula celula = tabuleiro.getCelula(aceita.getLinha(), aceita.getColuna());
+                celula.setValor(null);
+                celula.setFixo(false);
+                removidos++;
             }
         }
 
-        return false;
+        return removidos;
     }
 
-    private void embaralharLista(List<Integer> lista) {
-        Collections.shuffle(lista, random);
-    }
+    /**
+     * Remove números até a quantidade da dificuldade (e além dela, se ainda estiver abaixo
+     * da faixa), sem deixar a avaliação passar do topo da faixa.
+     *
+     * @return true se o tabuleiro terminou dentro da faixa.
+     */
+    private boolean removerAteFaixa(Tabuleiro tabuleiro, Dificuldade dificuldade, AvaliadorDificuldade avaliador) {
+        int quantidade = calcularQuantidadeRemover(dificuldade);
+        TecnicaResolucao maxima = dificuldade.getTecnicaMaxima();
 
-    private Posicao encontrarCelulaAleatoria(Tabuleiro tabuleiro) {
+        Optional<int[]> solucao = solucaoUnica(tabuleiro);
+        if (solucao.isEmpty()) {
+            return false;
+        }
         int tamanho = tabuleiro.getTamanho();
-        int linha = random.nextInt(tamanho);
-        int coluna = random.nextInt(tamanho);
-        return new Posicao(linha, coluna);
+        // criado só quando a lógica não basta (nunca, nas dificuldades fáceis)
+        VerificadorUnicidade verificador = null;
+        Deque<Posicao> pendentes = embaralharCandidatas(tabuleiro);
+        TecnicaResolucao atual = TecnicaResolucao.SIMPLES_NU;
+        int removidos = 0;
+
+        while (!pendentes.isEmpty() && (removidos < quantidade || !dificuldade.aceita(atual))) {
+            ExecutorHelper.verificarInterrupcao();
+
+            Posicao posicao = pendentes.poll();
+            Celula celula = tabuleiro.getCelula(posicao.getLinha(), posicao.getColuna());
+            Integer valorOriginal = celula.getValor().orElse(null);
+            celula.setValor(null);
+            celula.setFixo(false);
+
+            int indice = posicao.getLinha() * tamanho + posicao.getColuna();
+            ResultadoAvaliacao avaliacao = avaliador.avaliar(tabuleiro);
+            boolean aceita = avaliacao.getTecnicaMaisDificil().compareTo(maxima) <= 0;
+            if (aceita && avaliacao.isResolvidoPorLogica()) {
+                if (verificador != null) {
+                    verificador.aceitarRemocao(indice);
+                }
+            } else if (aceita) {
+                // a lógica não prova a solução única: procura uma solução com outro valor na célula
+                if (verificador == null) {
+                    int[] pistas = tabuleiro.paraVetor();
+                    pistas[indice] = solucao.get()[indice];
+                    verificador = new VerificadorUnicidade(pistas, solucao.get(), tabuleiro.getRegras(), criarTabela());
+                }
+                ResultadoResolucao resultado = verificador.remover(indice, opcoes);
+                if (resultado.getStatus() == StatusResolucao.INTERROMPIDA) {
+                    throw new CancellationException("Geração interrompida");
+                }
+                aceita = resultado.isConcluida() && resultado.getSolucoes() == 1;
+            }
+
+            if (!aceita) {
+                celula.setValor(valorOriginal);
+                celula.setFixo(true);
+                continue;
+            }
+            atual = avaliacao.getTecnicaMaisDificil();
+            removidos++;
+        }
+
+        return dificuldade.aceita(atual);
+    }
+
+    public int calcularQuantidadeRemover(Dificuldade dificuldade) {
+        return dificuldade.getNumerosParaRemover();
     }
 
     /**
-     * Encontra a próxima célula vazia no tabuleiro.
+     * Preenche o tabuleiro com uma solução aleatória.
      *
-     * @param tabuleiro O tabuleiro a ser verificado.
-     * @return A posição da próxima célula vazia, ou Optional.empty() se não houver células vazias.
+     * @param tabuleiro O tabuleiro a ser preenchido.
+     * @return true se o tabuleiro foi preenchido com sucesso, false caso contrário.
+     */
+    private boolean preencher(Tabuleiro tabuleiro) {
+        ResolvedorIterativo motor = new ResolvedorIterativo(tabuleiro.paraVetor(), tabuleiro.getRegras(), random);
+
+        EstadoResolvedor estado = EstadoResolvedor.EM_ANDAMENTO;
+        while (estado == EstadoResolvedor.EM_ANDAMENTO) {
+            ExecutorHelper.verificarInterrupcao();
+            estado = motor.passo(NOS_POR_VERIFICACAO);
+        }
+
+        if (estado != EstadoResolvedor.SOLUCAO_ENCONTRADA) {
+            return false;
+        }
+        motor.preencher(tabuleiro);
+        return true;
+    }
+
+    /**
+     * Obtém a solução do tabuleiro, se ela for única (para um tabuleiro completo, ele mesmo).
      */
-    private Optional<Posicao> encontrarProximaCelulaVazia(Tabuleiro tabuleiro) {
+    private Optional<int[]> solucaoUnica(Tabuleiro tabuleiro) {
+        int[] valores = tabuleiro.paraVetor();
+        if (Arrays.stream(valores).noneMatch(valor -> valor == 0)) {
+            return Optional.of(valores);
+        }
+
+        ResolvedorHelper resolvedor = new ResolvedorHelper(opcoes);
+        ResultadoResolucao resultado = resolvedor.contarSolucoes(tabuleiro, 2, opcoes);
+        if (resultado.getStatus() == StatusResolucao.INTERROMPIDA) {
+            throw new CancellationException("Geração interrompida");
+        }
+        if (!resultado.isConcluida() || resultado.getSolucoes() != 1) {
+            return Optional.empty();
+        }
+        return resolvedor.solucoes(tabuleiro).findFirst();
+    }
+
+    private TabelaTransposicao criarTabela() {
+        return bytesTabela > 0 ? new TabelaTransposicao(bytesTabela, politicaDescarte) : null;
+    }
+
+    private Regras regrasPara(int tamanho) {
+        return regras.getTamanho() == tamanho ? regras : Regras.classico(tamanho);
+    }
+
+    /**
+     * Lista, em ordem aleatória, as células preenchidas que ainda podem ser removidas.
+     */
+    private Deque<Posicao> embaralharCandidatas(Tabuleiro tabuleiro) {
         int tamanho = tabuleiro.getTamanho();
+        List<Posicao> candidatas = new ArrayList<>();
         for (int i = 0; i < tamanho; i++) {
             for (int j = 0; j < tamanho; j++) {
-                if (tabuleiro.getCelula(i, j).isEmpty()) {
-                    return Optional.of(new Posicao(i, j));
+                Celula celula = tabuleiro.getCelula(i, j);
+                if (!celula.isEmpty() && !celula.isFixo()) {
+                    candidatas.add(new Posicao(i, j));
                 }
             }
         }
-        return Optional.empty();
+        Collections.shuffle(candidatas, random);
+        return new ArrayDeque<>(candidatas);
+    }
+
+    private static Verificacao obterVerificacao(Future<Verificacao> futuro) {
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Geração interrompida");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Resultado da verificação de solução única de uma remoção candidata.
+     */
+    private static class Verificacao {
+        private final Posicao posicao;
+        private final ResultadoResolucao resultado;
+
+        Verificacao(Posicao posicao, ResultadoResolucao resultado) {
+            this.posicao = posicao;
+            this.resultado = resultado;
+        }
+
+        boolean isUnica() {
+            return resultado.isConcluida() && resultado.getSolucoes() == 1;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,216 @@
+package jogo;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Histórico compacto das jogadas de um jogo, com desfazer e refazer ilimitados.
+ * <p>
+ * Cada jogada ocupa um único {@code long} em um vetor que cresce por duplicação, em vez de um
+ * objeto {@link Jogada} com posição e data: sessões com milhares de edições não criam milhares
+ * de objetos. O registro guarda, do bit mais alto para o mais baixo:
+ * <pre>
+ *     [ intervalo em ms desde a jogada anterior: 44 ][ célula: 10 ][ anterior: 5 ][ novo: 5 ]
+ * </pre>
+ * Os valores 0 indicam célula vazia. O intervalo vem de um relógio monotônico.
+ * <p>
+ * O cursor separa as jogadas aplicadas das que foram desfeitas: desfazer e refazer só movem o
+ * cursor, e uma jogada nova descarta as desfeitas. Não é seguro para várias threads, como o
+ * resto do {@link Jogo}.
+ */
+public class HistoricoJogadas {
+    private static final int BITS_VALOR = 5;
+    private static final int BITS_CELULA = 10;
+    private static final int DESLOCAMENTO_CELULA = 2 * BITS_VALOR;
+    private static final int DESLOCAMENTO_INTERVALO = DESLOCAMENTO_CELULA + BITS_CELULA;
+    private static final long MASCARA_VALOR = (1L << BITS_VALOR) - 1;
+    private static final long MASCARA_CELULA = (1L << BITS_CELULA) - 1;
+    private static final long INTERVALO_MAXIMO = (1L << (64 - DESLOCAMENTO_INTERVALO)) - 1;
+    private static final int CAPACIDADE_INICIAL = 64;
+
+    private long[] registros;
+    // jogadas guardadas (aplicadas e desfeitas) e jogadas aplicadas
+    private int quantidade;
+    private int cursor;
+    private long ultimaJogadaNanos;
+
+    public HistoricoJogadas() {
+        this.registros = new long[CAPACIDADE_INICIAL];
+        this.ultimaJogadaNanos = System.nanoTime();
+    }
+
+    /**
+     * Registra uma jogada nova, descartando as jogadas desfeitas que ainda podiam ser refeitas.
+     *
+     * @param celula   O índice da célula (linha * tamanho + coluna), até 1023.
+     * @param anterior O valor anterior (0 para vazia), até 31.
+     * @param novo     O valor novo (0 para vazia), até 31.
+     */
+    public void registrar(int celula, int anterior, int novo) {
+        long agora = System.nanoTime();
+        long intervalo = Math.min(INTERVALO_MAXIMO, Math.max(0, (agora - ultimaJogadaNanos) / 1_000_000));
+        ultimaJogadaNanos = agora;
+
+        if (cursor == registros.length) {
+            registros = Arrays.copyOf(registros, registros.length * 2);
+        }
+        registros[cursor++] = codificar(celula, anterior, novo, intervalo);
+        quantidade = cursor;
+    }
+
+    public boolean podeDesfazer() {
+        return cursor > 0;
+    }
+
+    public boolean podeRefazer() {
+        return cursor < quantidade;
+    }
+
+    /**
+     * Volta o cursor uma jogada.
+     *
+     * @return O registro da jogada desfeita (ler com {@link #celula}, {@link #anterior} e {@link #novo}).
+     * @throws IllegalStateException se não houver jogada para desfazer.
+     */
+    public long desfazer() {
+        if (!podeDesfazer()) {
+            throw new IllegalStateException("Nenhuma jogada para desfazer");
+        }
+        return registros[--cursor];
+    }
+
+    /**
+     * Avança o cursor uma jogada.
+     *
+     * @return O registro da jogada refeita.
+     * @throws IllegalStateException se não houver jogada para refazer.
+     */
+    public long refazer() {
+        if (!podeRefazer()) {
+            throw new IllegalStateException("Nenhuma jogada para refazer");
+        }
+        return registros[cursor++];
+    }
+
+    /**
+     * @return O registro da próxima jogada a ser refeita, sem mover o cursor.
+     */
+    public long proximaRefazer() {
+        if (!podeRefazer()) {
+            throw new IllegalStateException("Nenhuma jogada para refazer");
+        }
+        return registros[cursor];
+    }
+
+    /**
+     * Obtém o registro de uma jogada aplicada.
+     *
+     * @param indice O índice da jogada, de 0 (a mais antiga) a {@link #getQuantidade()} - 1.
+     */
+    public long obter(int indice) {
+        if (indice < 0 || indice >= cursor) {
+            throw new IndexOutOfBoundsException("Jogada fora do histórico: " + indice);
+        }
+        return registros[indice];
+    }
+
+    /**
+     * @return O número de jogadas aplicadas (sem contar as desfeitas).
+     */
+    public int getQuantidade() {
+        return cursor;
+    }
+
+    /**
+     * @return O número de jogadas desfeitas que ainda podem ser refeitas.
+     */
+    public int getQuantidadeRefazer() {
+        return quantidade - cursor;
+    }
+
+    public void limpar() {
+        quantidade = 0;
+        cursor = 0;
+        ultimaJogadaNanos = System.nanoTime();
+        if (registros.length > CAPACIDADE_INICIAL) {
+            registros = new long[CAPACIDADE_INICIAL];
+        }
+    }
+
+    public static int celula(long registro) {
+        return (int) ((registro >>> DESLOCAMENTO_CELULA) & MASCARA_CELULA);
+    }
+
+    public static int anterior(long registro) {
+        return (int) ((registro >>> BITS_VALOR) & MASCARA_VALOR);
+    }
+
+    public static int novo(long registro) {
+        return (int) (registro & MASCARA_VALOR);
+    }
+
+    /**
+     * @return Os milissegundos entre a jogada e a anterior a ela.
+     */
+    public static long intervaloMillis(long registro) {
+        return registro >>> DESLOCAMENTO_INTERVALO;
+    }
+
+    /**
+     * Serializa o histórico: quantidade, cursor e os registros, sem cabeçalho por jogada.
+     */
+    public byte[] paraBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(2 * Integer.BYTES + quantidade * Long.BYTES);
+        buffer.putInt(quantidade).putInt(cursor);
+        for (int i = 0; i < quantidade; i++) {
+            buffer.putLong(registros[i]);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Lê um histórico gravado por {@link #paraBytes()}.
+     *
+     * @param tamanho O tamanho do tabuleiro do jogo, para rejeitar células e valores fora dele.
+     * @throws IllegalArgumentException se os dados forem inválidos.
+     */
+    public static HistoricoJogadas deBytes(byte[] dados, int tamanho) {
+        ByteBuffer buffer = ByteBuffer.wrap(dados);
+        if (buffer.remaining() < 2 * Integer.BYTES) {
+            throw new IllegalArgumentException("Histórico incompleto");
+        }
+        int quantidade = buffer.getInt();
+        int cursor = buffer.getInt();
+        // em long: uma quantidade forjada não pode dar a volta e passar pela comparação, e o
+        // tamanho dos dados limita a quantidade antes de qualquer alocação
+        if (quantidade < 0 || cursor < 0 || cursor > quantidade
+                || buffer.remaining() != (long) quantidade * Long.BYTES) {
+            throw new IllegalArgumentException("Histórico inválido");
+        }
+
+        HistoricoJogadas historico = new HistoricoJogadas();
+        historico.registros = new long[Math.max(CAPACIDADE_INICIAL, quantidade)];
+        int celulas = tamanho * tamanho;
+        for (int i = 0; i < quantidade; i++) {
+            long registro = buffer.getLong();
+            if (celula(registro) >= celulas || anterior(registro) > tamanho || novo(registro) > tamanho) {
+                throw new IllegalArgumentException("Jogada inválida no histórico: " + i);
+            }
+            historico.registros[i] = registro;
+        }
+        historico.quantidade = quantidade;
+        historico.cursor = cursor;
+        return historico;
+    }
+
+    private static long codificar(int celula, int anterior, int novo, long intervalo) {
+        if (celula < 0 || celula > MASCARA_CELULA) {
+            throw new IllegalArgumentException("Célula fora do intervalo: " + celula);
+        }
+        if (anterior < 0 || anterior > MASCARA_VALOR || novo < 0 || novo > MASCARA_VALOR) {
+            throw new IllegalArgumentException("Valor fora do intervalo: " + anterior + ", " + novo);
+        }
+        return (intervalo << DESLOCAMENTO_INTERVALO) | ((long) celula << DESLOCAMENTO_CELULA)
+                | ((long) anterior << BITS_VALOR) | novo;
+    }
+}
@@ -0,0 +1,112 @@
+package jogo;
+
+import matriz.Celula;
+import matriz.Regras;
+import matriz.Tabuleiro;
+
+import java.util.Set;
+
+/**
+ * Cópia imutável e consistente do tabuleiro de um {@link Jogo} em um instante.
+ * <p>
+ * Pode ser lida de qualquer thread: espectadores, renderizadores e gravação automática usam
+ * o instantâneo em vez do {@link Tabuleiro}, que só a thread do jogador pode tocar. Cada célula
+ * ocupa um {@code int}, no mesmo formato do {@link EspelhoTabuleiro}:
+ * <pre>
+ *     [ anotações: até 25 ][ fixa: 1 ][ valor: 5 ]
+ * </pre>
+ */
+public final class InstantaneoTabuleiro {
+    private static final int BITS_VALOR = 5;
+    private static final int MASCARA_VALOR = (1 << BITS_VALOR) - 1;
+    private static final int FIXA = 1 << BITS_VALOR;
+    private static final int DESLOCAMENTO_ANOTACOES = BITS_VALOR + 1;
+
+    private final Regras regras;
+    private final int tamanho;
+    private final int[] celulas;
+    private final long versao;
+
+    InstantaneoTabuleiro(Regras regras, int[] celulas, long versao) {
+        this.regras = regras;
+        this.tamanho = regras.getTamanho();
+        this.celulas = celulas;
+        this.versao = versao;
+    }
+
+    static int codificar(Celula celula) {
+        int valor = celula.getValor().orElse(0);
+        return valor | (celula.isFixo() ? FIXA : 0) | (celula.getAnotacoes() << DESLOCAMENTO_ANOTACOES);
+    }
+
+    public Regras getRegras() {
+        return regras;
+    }
+
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    /**
+     * @return O número de alterações publicadas até este instantâneo; cresce a cada jogada,
+     *         então um leitor sabe se o tabuleiro mudou desde o instantâneo anterior.
+     */
+    public long getVersao() {
+        return versao;
+    }
+
+    /**
+     * @return O valor da célula, ou 0 se estiver vazia.
+     */
+    public int getValor(int linha, int coluna) {
+        return celulas[indice(linha, coluna)] & MASCARA_VALOR;
+    }
+
+    public boolean isFixo(int linha, int coluna) {
+        return (celulas[indice(linha, coluna)] & FIXA) != 0;
+    }
+
+    /**
+     * @return A máscara das anotações da célula (bit v - 1 para o valor v).
+     */
+    public int getAnotacoes(int linha, int coluna) {
+        return celulas[indice(linha, coluna)] >>> DESLOCAMENTO_ANOTACOES;
+    }
+
+    public Set<Integer> getConjuntoAnotacoes(int linha, int coluna) {
+        return Celula.paraConjunto(getAnotacoes(linha, coluna));
+    }
+
+    /**
+     * @return Os valores linha a linha (0 para vazias), como {@link Tabuleiro#paraVetor()}.
+     */
+    public int[] paraVetor() {
+        int[] valores = new int[celulas.length];
+        for (int c = 0; c < celulas.length; c++) {
+            valores[c] = celulas[c] & MASCARA_VALOR;
+        }
+        return valores;
+    }
+
+    /**
+     * Monta um tabuleiro independente com os valores, as células fixas e as anotações.
+     */
+    public Tabuleiro paraTabuleiro() {
+        Tabuleiro tabuleiro = new Tabuleiro(tamanho, regras);
+        for (int c = 0; c < celulas.length; c++) {
+            int palavra = celulas[c];
+            int valor = palavra & MASCARA_VALOR;
+            Celula celula = new Celula(valor > 0 ? valor : null, (palavra & FIXA) != 0);
+            celula.setAnotacoes(palavra >>> DESLOCAMENTO_ANOTACOES);
+            tabuleiro.setCelula(c / tamanho, c % tamanho, celula);
+        }
+        return tabuleiro;
+    }
+
+    private int indice(int linha, int coluna) {
+        if (linha < 0 || linha >= tamanho || coluna < 0 || coluna >= tamanho) {
+            throw new IndexOutOfBoundsException("Célula fora do tabuleiro: " + linha + ", " + coluna);
+        }
+        return linha * tamanho + coluna;
+    }
+}
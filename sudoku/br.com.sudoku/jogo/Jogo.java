@@ -1,17 +1,34 @@
 package jogo;
 
 import enums.Dificuldade;
+import enums.EstadoSolubilidade;
+import enums.StatusResolucao;
+import helpers.CacheSolucoes;
+import helpers.ExecutorHelper;
+import helpers.OpcoesResolucao;
+import helpers.OraculoSolubilidade;
 import helpers.ResolvedorHelper;
+import helpers.ResolvedorPortfolio;
+import helpers.ResultadoResolucao;
 import matriz.Celula;
 import matriz.Posicao;
+import matriz.Regras;
 import matriz.Sudoku;
 import matriz.Tabuleiro;
+import placar.Placar;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.Optional;
-import java.util.Stack;
+import java.util.Set;
 import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
 
 
 /**
@@ -20,15 +37,46 @@ import java.util.Base64;
  * Esta classe gerencia o estado do jogo, incluindo o tabuleiro, dificuldade, tempo de início,
  * pontuação e histórico de jogadas. Ela também fornece métodos para iniciar um novo jogo,
  * fazer jogadas, desfazer jogadas, obter dicas, salvar e carregar jogos.
+ * <p>
+ * Não é seguro para várias threads: uma única thread (a do jogador) chama os métodos. Os métodos
+ * assíncronos calculam no executor e deixam a troca do jogo para essa thread; outras threads
+ * leem o tabuleiro por {@link #capturarInstantaneo()}.
  *
  * @author danilo-faria
  */
 public class Jogo {
+    // prefixo do campo opcional com as regras da variante no jogo salvo
+    private static final String PREFIXO_REGRAS = "R:";
+    // prefixo do campo opcional com o histórico de jogadas (desfazer/refazer) no jogo salvo
+    private static final String PREFIXO_HISTORICO = "H:";
+    // prefixo do campo opcional com as anotações do jogador no jogo salvo
+    private static final String PREFIXO_ANOTACOES = "A:";
+
     private Sudoku sudoku;
     private Dificuldade dificuldade;
+    private Regras regras;
     private LocalDateTime tempoInicio;
     private int pontuacao;
-    private Stack<Jogada> historicoJogadas;
+    private HistoricoJogadas historicoJogadas;
+    private Executor executor;
+    private OpcoesResolucao opcoesResolucao;
+    private DiarioJogadas diario;
+    private long ultimaSequenciaDiario = -1;
+    private CacheSolucoes cacheSolucoes;
+    private ResolvedorPortfolio portfolio;
+    private OraculoSolubilidade oraculo;
+    // resultado da última verificação de solubilidade, com a versão do tabuleiro verificado; a
+    // thread do jogador troca a referência a cada mudança, e a verificação em segundo plano só
+    // publica, atomicamente, se a versão ainda é a do tabuleiro que ela verificou
+    private final AtomicReference<Solubilidade> solubilidade = new AtomicReference<>(new Solubilidade(0, null));
+    // usados somente pela thread do jogador
+    private CompletableFuture<EstadoSolubilidade> verificacaoPendente;
+    private long versaoTabuleiro;
+    // troca do jogo inteiro preparada em segundo plano (novoJogoAsync, carregarJogoAsync), que só a
+    // thread do jogador aplica, na próxima chamada dela ao jogo
+    private final AtomicReference<Runnable> trocaPendente = new AtomicReference<>();
+    // cópia do tabuleiro para leitura por outras threads (espectadores, gravação automática)
+    private final EspelhoTabuleiro espelho = new EspelhoTabuleiro();
 
     /**
      * Construtor da classe Jogo.
@@ -36,24 +84,74 @@ public class Jogo {
      * @param dificuldade A dificuldade do jogo (FACIL, MEDIO, DIFICIL, EXTREMO).
      */
     public Jogo(Dificuldade dificuldade) {
-        this.sudoku = new Sudoku();
+        this(dificuldade, Regras.classico(9));
+    }
+
+    /**
+     * Construtor de um jogo de uma variante do Sudoku (X-Sudoku, Hyper, Jigsaw, Killer).
+     *
+     * @param dificuldade A dificuldade do jogo.
+     * @param regras      As restrições dos tabuleiros 9x9 gerados para o jogo.
+     */
+    public Jogo(Dificuldade dificuldade, Regras regras) {
+        this.regras = regras;
+        this.sudoku = new Sudoku(regras);
         this.dificuldade = dificuldade;
-        this.historicoJogadas = new Stack<>();
+        this.historicoJogadas = new HistoricoJogadas();
         this.tempoInicio = LocalDateTime.now();
         this.pontuacao = 0;
+        this.executor = ExecutorHelper.padrao();
+        this.opcoesResolucao = OpcoesResolucao.semLimites();
+        this.cacheSolucoes = CacheSolucoes.global();
+        espelho.publicarTabuleiro(sudoku.getTabuleiro());
     }
 
     /**
      * Inicia um novo jogo de Sudoku com a dificuldade especificada.
+     * Descarta um novo jogo ou carregamento assíncrono que ainda não foi aplicado.
+     *
+     * @throws java.util.concurrent.CancellationException se a thread for interrompida durante a
+     *         geração, inclusive se já estava interrompida na chamada. O jogo atual não muda e a
+     *         marca de interrupção é mantida.
      */
     public void novoJogo() {
-        Gerador gerador = new Gerador();
-        Tabuleiro tabuleiro = gerador.gerarTabuleiro(9, dificuldade);
-        sudoku = new Sudoku();
-        sudoku.carregarJogo(converterTabuleiroParaMatriz(tabuleiro));
-        tempoInicio = LocalDateTime.now();
-        pontuacao = 0;
-        historicoJogadas.clear();
+        trocaPendente.set(null);
+        aplicarNovoJogo(gerarNovoSudoku(dificuldade, regras, opcoesResolucao));
+    }
+
+    /**
+     * Inicia um novo jogo sem bloquear a thread chamadora.
+     * <p>
+     * A geração roda no executor, mas o jogo não é seguro para várias threads: o tabuleiro novo
+     * fica guardado e a thread do jogador faz a troca na próxima chamada dela ao jogo (por
+     * exemplo {@link #getTabuleiro()} ou {@link #fazerJogada}). Até lá, jogadas e instantâneos
+     * continuam no tabuleiro anterior. Se a geração for cancelada, nada é trocado.
+     *
+     * @return Um futuro concluído quando o novo tabuleiro estiver pronto. Cancelá-lo interrompe a geração.
+     */
+    public CompletableFuture<Void> novoJogoAsync() {
+        // lidos aqui, na thread do jogador, e não na thread do executor
+        Dificuldade dificuldadeAtual = dificuldade;
+        Regras regrasAtuais = regras;
+        OpcoesResolucao opcoes = opcoesResolucao;
+        return ExecutorHelper.submeter(() -> gerarNovoSudoku(dificuldadeAtual, regrasAtuais, opcoes), novo -> {
+            trocaPendente.set(() -> aplicarNovoJogo(novo));
+            return null;
+        }, executor);
+    }
+
+    /**
+     * Aplica a troca de jogo preparada em segundo plano, se houver. Chamado no início das
+     * operações públicas, feitas pela thread do jogador: assim o tabuleiro, o histórico e o
+     * diário só são trocados por ela, nunca por uma thread do executor.
+     */
+    private void aplicarTrocaPendente() {
+        if (trocaPendente.get() != null) {
+            Runnable troca = trocaPendente.getAndSet(null);
+            if (troca != null) {
+                troca.run();
+            }
+        }
     }
 
     /**
@@ -61,14 +159,20 @@ public class Jogo {
      *
      * @param linha A linha da célula onde a jogada será feita.
      * @param coluna A coluna da célula onde a jogada será feita.
-     * @param valor O valor a ser inserido na célula.
-     * @return true se a jogada foi bem-sucedida, false caso contrário.
+     * @param valor O valor a ser inserido na célula, de 1 ao tamanho do tabuleiro.
+     * @return true se a jogada foi bem-sucedida, false caso contrário (inclusive para um valor
+     *         nulo ou fora da faixa, que não altera o tabuleiro nem o histórico).
      */
     public boolean fazerJogada(int linha, int coluna, Integer valor) {
+        aplicarTrocaPendente();
         Tabuleiro tabuleiro = sudoku.getTabuleiro();
         if (!tabuleiro.isIndiceValido(linha, coluna)) {
             return false;
         }
+        // rejeita antes de alterar a célula: o histórico não codifica valores fora da faixa
+        if (valor == null || valor < 1 || valor > tabuleiro.getTamanho()) {
+            return false;
+        }
 
         Celula celula = tabuleiro.getCelula(linha, coluna);
         if (celula.isFixo()) {
@@ -78,46 +182,427 @@ public class Jogo {
         Integer valorAnterior = celula.getValor().orElse(null);
 
         if (sudoku.fazerJogada(linha, coluna, valor)) {
-            Jogada jogada = new Jogada(new Posicao(linha, coluna), valorAnterior, valor);
-            historicoJogadas.push(jogada);
+            historicoJogadas.registrar(linha * tabuleiro.getTamanho() + coluna, valorOuZero(valorAnterior), valor);
+            espelho.publicarCelula(tabuleiro, linha, coluna);
+            registrarNoDiario(linha, coluna, valorAnterior, valor, false);
+            verificarSolubilidade();
             return true;
         }
 
         return false;
     }
 
+    /**
+     * Apaga o valor de uma célula preenchida pelo jogador. Entra no histórico como uma jogada
+     * para a célula vazia, então pode ser desfeita e refeita.
+     *
+     * @param linha A linha da célula.
+     * @param coluna A coluna da célula.
+     * @return true se a célula foi apagada, false se ela é fixa, já está vazia ou não existe.
+     */
+    public boolean limparCelula(int linha, int coluna) {
+        aplicarTrocaPendente();
+        Tabuleiro tabuleiro = sudoku.getTabuleiro();
+        if (!tabuleiro.isIndiceValido(linha, coluna)) {
+            return false;
+        }
+
+        Celula celula = tabuleiro.getCelula(linha, coluna);
+        if (celula.isFixo() || celula.getValor().isEmpty()) {
+            return false;
+        }
+
+        Integer valorAnterior = celula.getValor().get();
+        celula.setValor(null);
+        historicoJogadas.registrar(linha * tabuleiro.getTamanho() + coluna, valorAnterior, 0);
+        espelho.publicarCelula(tabuleiro, linha, coluna);
+        registrarNoDiario(linha, coluna, valorAnterior, null, false);
+        verificarSolubilidade();
+        return true;
+    }
+
     /**
      * Desfaz a última jogada feita no tabuleiro de Sudoku.
      *
      * @return true se a jogada foi desfeita com sucesso, false caso contrário.
      */
     public boolean desfazerJogada() {
-        if (historicoJogadas.isEmpty()) {
+        aplicarTrocaPendente();
+        if (!historicoJogadas.podeDesfazer()) {
             return false;
         }
 
-        Jogada jogada = historicoJogadas.pop();
-        Posicao posicao = jogada.getPosicao();
-        Integer valorAnterior = jogada.getValorAnterior();
+        long registro = historicoJogadas.desfazer();
+        int tamanho = sudoku.getTabuleiro().getTamanho();
+        int linha = HistoricoJogadas.celula(registro) / tamanho;
+        int coluna = HistoricoJogadas.celula(registro) % tamanho;
+        Integer valorAnterior = valorOuNulo(HistoricoJogadas.anterior(registro));
+
+        sudoku.getTabuleiro().getCelula(linha, coluna).setValor(valorAnterior);
+        espelho.publicarCelula(sudoku.getTabuleiro(), linha, coluna);
 
+        registrarNoDiario(linha, coluna, valorAnterior, valorOuNulo(HistoricoJogadas.novo(registro)), true);
+        verificarSolubilidade();
+        return true;
+    }
+
+    /**
+     * Refaz a última jogada desfeita. Uma jogada nova descarta as jogadas que podiam ser refeitas.
+     *
+     * @return true se a jogada foi refeita, false se não havia jogada desfeita.
+     */
+    public boolean refazerJogada() {
+        aplicarTrocaPendente();
+        if (!historicoJogadas.podeRefazer()) {
+            return false;
+        }
+
+        long registro = historicoJogadas.refazer();
+        int tamanho = sudoku.getTabuleiro().getTamanho();
+        int linha = HistoricoJogadas.celula(registro) / tamanho;
+        int coluna = HistoricoJogadas.celula(registro) % tamanho;
+        Integer valorNovo = valorOuNulo(HistoricoJogadas.novo(registro));
+
+        sudoku.getTabuleiro().getCelula(linha, coluna).setValor(valorNovo);
+        espelho.publicarCelula(sudoku.getTabuleiro(), linha, coluna);
+
+        // no diário a jogada refeita é uma jogada comum; a recuperação reconhece que ela refaz
+        registrarNoDiario(linha, coluna, valorOuNulo(HistoricoJogadas.anterior(registro)), valorNovo, false);
+        verificarSolubilidade();
+        return true;
+    }
+
+    /**
+     * Liga a verificação de solubilidade depois de cada jogada, desfazer e refazer.
+     * A verificação rápida roda na hora; se o orçamento dela acabar, a verificação continua em
+     * segundo plano e {@link #getEstadoSolubilidade()} é atualizado quando ela terminar.
+     *
+     * @param oraculo O oráculo, que pode ser compartilhado entre os jogos, ou null para desligar.
+     */
+    public void setOraculo(OraculoSolubilidade oraculo) {
+        aplicarTrocaPendente();
+        this.oraculo = oraculo;
+        verificarSolubilidade();
+    }
+
+    /**
+     * Obtém o resultado da última verificação de solubilidade.
+     *
+     * @return SOLUVEL, SEM_SOLUCAO, INDETERMINADO enquanto a verificação em segundo plano não
+     *         termina, ou Optional.empty() se nenhum oráculo estiver ligado.
+     */
+    public Optional<EstadoSolubilidade> getEstadoSolubilidade() {
+        aplicarTrocaPendente();
+        return Optional.ofNullable(solubilidade.get().estado);
+    }
+
+    /**
+     * Verifica, sem limite de orçamento, se o tabuleiro ainda tem solução e, se não tiver,
+     * procura a primeira jogada do histórico que deixou o tabuleiro sem saída.
+     *
+     * @return O diagnóstico, com a jogada causadora quando ela for encontrada.
+     */
+    public DiagnosticoSolubilidade diagnosticarSolubilidade() {
+        aplicarTrocaPendente();
+        OraculoSolubilidade verificador = oraculo != null ? oraculo : new OraculoSolubilidade();
         Tabuleiro tabuleiro = sudoku.getTabuleiro();
-        Celula celula = tabuleiro.getCelula(posicao.getLinha(), posicao.getColuna());
-        celula.setValor(valorAnterior);
+        int[] valores = tabuleiro.paraVetor();
+        EstadoSolubilidade estado = verificador.verificar(valores, regras, opcoesResolucao);
+        if (estado != EstadoSolubilidade.SEM_SOLUCAO) {
+            return new DiagnosticoSolubilidade(estado, -1, null, null);
+        }
+
+        // jogada que colocou cada valor ainda presente no tabuleiro
+        int[] jogadaDaCelula = new int[valores.length];
+        Arrays.fill(jogadaDaCelula, -1);
+        int quantidade = historicoJogadas.getQuantidade();
+        for (int i = 0; i < quantidade; i++) {
+            long registro = historicoJogadas.obter(i);
+            int celula = HistoricoJogadas.celula(registro);
+            jogadaDaCelula[celula] = HistoricoJogadas.novo(registro) != 0 ? i : -1;
+        }
+
+        int indice = verificador.encontrarPrimeiraCausa(valores, jogadaDaCelula, quantidade, regras, opcoesResolucao);
+        if (indice < 0) {
+            return new DiagnosticoSolubilidade(estado, -1, null, null);
+        }
+        long registro = historicoJogadas.obter(indice);
+        int tamanho = tabuleiro.getTamanho();
+        int celula = HistoricoJogadas.celula(registro);
+        return new DiagnosticoSolubilidade(estado, indice, new Posicao(celula / tamanho, celula % tamanho),
+                HistoricoJogadas.novo(registro));
+    }
+
+    private void verificarSolubilidade() {
+        if (verificacaoPendente != null) {
+            verificacaoPendente.cancel(true);
+            verificacaoPendente = null;
+        }
+        long versao = ++versaoTabuleiro;
+        if (oraculo == null) {
+            solubilidade.set(new Solubilidade(versao, null));
+            return;
+        }
+
+        int[] valores = sudoku.getTabuleiro().paraVetor();
+        EstadoSolubilidade estado = oraculo.verificar(valores, regras);
+        solubilidade.set(new Solubilidade(versao, estado));
+        if (estado == EstadoSolubilidade.INDETERMINADO) {
+            CompletableFuture<EstadoSolubilidade> pendente = oraculo.verificarEmSegundoPlano(valores, regras);
+            verificacaoPendente = pendente;
+            // só publica se o tabuleiro não mudou desde o início da verificação; a comparação e a
+            // troca são um único compareAndSet, então uma jogada no meio não é sobrescrita
+            pendente.thenAccept(resultado -> solubilidade.updateAndGet(
+                    atual -> atual.versao == versao ? new Solubilidade(versao, resultado) : atual));
+        }
+    }
+
+    /**
+     * Reaplica uma jogada lida do diário, sem registrá-la de novo.
+     * Usado somente na recuperação.
+     */
+    void aplicarJogadaRecuperada(Jogada jogada, boolean desfeita) {
+        Posicao posicao = jogada.getPosicao();
+        Celula celula = sudoku.getTabuleiro().getCelula(posicao.getLinha(), posicao.getColuna());
+        if (desfeita) {
+            celula.setValor(jogada.getValorAnterior());
+            espelho.publicarCelula(sudoku.getTabuleiro(), posicao.getLinha(), posicao.getColuna());
+            if (historicoJogadas.podeDesfazer()) {
+                historicoJogadas.desfazer();
+            }
+            return;
+        }
+
+        celula.setValor(jogada.getValorNovo());
+        espelho.publicarCelula(sudoku.getTabuleiro(), posicao.getLinha(), posicao.getColuna());
+        int indice = posicao.getLinha() * sudoku.getTabuleiro().getTamanho() + posicao.getColuna();
+        int anterior = valorOuZero(jogada.getValorAnterior());
+        int novo = valorOuZero(jogada.getValorNovo());
+        if (historicoJogadas.podeRefazer() && refazMesmaJogada(historicoJogadas.proximaRefazer(), indice, anterior, novo)) {
+            historicoJogadas.refazer();
+        } else {
+            historicoJogadas.registrar(indice, anterior, novo);
+        }
+    }
 
+    private static boolean refazMesmaJogada(long registro, int celula, int anterior, int novo) {
+        return HistoricoJogadas.celula(registro) == celula && HistoricoJogadas.anterior(registro) == anterior
+                && HistoricoJogadas.novo(registro) == novo;
+    }
+
+    private static int valorOuZero(Integer valor) {
+        return valor != null ? valor : 0;
+    }
+
+    private static Integer valorOuNulo(int valor) {
+        return valor > 0 ? valor : null;
+    }
+
+    /**
+     * Restaura o estado de um snapshot do diário, sem registrar uma compactação.
+     *
+     * @return false se os dados forem inválidos.
+     */
+    boolean restaurarEstado(String dadosJogoBase64) {
+        Optional<EstadoSalvo> estado = lerEstadoSalvo(dadosJogoBase64);
+        if (estado.isEmpty()) {
+            return false;
+        }
+        DiarioJogadas atual = diario;
+        diario = null;
+        aplicarEstadoSalvo(estado.get());
+        diario = atual;
         return true;
     }
 
+    /**
+     * Liga o jogo a um diário de jogadas. A partir daí cada jogada e cada jogada desfeita
+     * é registrada, e trocas do tabuleiro inteiro (novo jogo, carregar, reiniciar)
+     * gravam um novo snapshot. Normalmente chamado por {@link DiarioJogadas#criar}.
+     *
+     * @param diario O diário, ou null para deixar de registrar.
+     */
+    public void setDiario(DiarioJogadas diario) {
+        this.diario = diario;
+        this.ultimaSequenciaDiario = -1;
+    }
+
+    public Optional<DiarioJogadas> getDiario() {
+        return Optional.ofNullable(diario);
+    }
+
+    /**
+     * Obtém a sequência do último registro que este jogo mandou para o diário. Para garantir que
+     * uma jogada está no disco, chame {@link DiarioJogadas#aguardarDuravel(long)} com ela logo
+     * depois de {@link #fazerJogada}, {@link #desfazerJogada()} ou {@link #refazerJogada()}.
+     *
+     * @return A sequência, ou -1 se nenhuma jogada foi registrada desde que o diário foi ligado.
+     */
+    public long getUltimaSequenciaDiario() {
+        aplicarTrocaPendente();
+        return ultimaSequenciaDiario;
+    }
+
+    private void registrarNoDiario(int linha, int coluna, Integer anterior, Integer novo, boolean desfeita) {
+        if (diario == null) {
+            return;
+        }
+        ultimaSequenciaDiario = diario.registrar(new Jogada(new Posicao(linha, coluna), anterior, novo), desfeita);
+        if (diario.deveCompactar()) {
+            compactarDiario();
+        }
+    }
+
+    // só na thread do jogador: o diário tem um único escritor, e as trocas feitas em segundo plano
+    // chegam aqui por aplicarTrocaPendente
+    private void compactarDiario() {
+        if (diario == null) {
+            return;
+        }
+        try {
+            diario.compactar(this);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Anota em cada célula vazia todos os valores que linha, coluna, região (e as restrições
+     * da variante) ainda permitem, substituindo as anotações anteriores dessas células.
+     *
+     * @return O número de células anotadas.
+     */
+    public int preencherAnotacoes() {
+        aplicarTrocaPendente();
+        Tabuleiro tabuleiro = sudoku.getTabuleiro();
+        int tamanho = tabuleiro.getTamanho();
+        int[] candidatos = new ResolvedorHelper().calcularCandidatos(tabuleiro);
+        int anotadas = 0;
+        for (int c = 0; c < candidatos.length; c++) {
+            Celula celula = tabuleiro.getCelula(c / tamanho, c % tamanho);
+            if (celula.isEmpty() && !celula.isFixo()) {
+                celula.setAnotacoes(candidatos[c]);
+                anotadas++;
+            }
+        }
+        espelho.publicarTabuleiro(tabuleiro);
+        return anotadas;
+    }
+
+    /**
+     * Liga ou desliga a anotação de um valor em uma célula.
+     *
+     * @return true se o valor ficou anotado; false se foi desanotado ou se a célula é fixa.
+     */
+    public boolean alternarAnotacao(int linha, int coluna, int valor) {
+        aplicarTrocaPendente();
+        Tabuleiro tabuleiro = sudoku.getTabuleiro();
+        if (valor < 1 || valor > tabuleiro.getTamanho()) {
+            throw new IllegalArgumentException("Valor inválido: " + valor);
+        }
+        Celula celula = tabuleiro.getCelula(linha, coluna);
+        if (celula.isFixo()) {
+            return false;
+        }
+        boolean anotado = celula.alternarAnotacao(valor);
+        espelho.publicarCelula(tabuleiro, linha, coluna);
+        return anotado;
+    }
+
+    /**
+     * Obtém os valores anotados em uma célula.
+     */
+    public Set<Integer> getAnotacoes(int linha, int coluna) {
+        aplicarTrocaPendente();
+        return Celula.paraConjunto(sudoku.getTabuleiro().getCelula(linha, coluna).getAnotacoes());
+    }
+
+    /**
+     * Apaga as anotações de todas as células.
+     */
+    public void limparAnotacoes() {
+        aplicarTrocaPendente();
+        Tabuleiro tabuleiro = sudoku.getTabuleiro();
+        for (int i = 0; i < tabuleiro.getTamanho(); i++) {
+            for (int j = 0; j < tabuleiro.getTamanho(); j++) {
+                tabuleiro.getCelula(i, j).limparAnotacoes();
+            }
+        }
+        espelho.publicarTabuleiro(tabuleiro);
+    }
+
     /**
      * Obtém uma dica para a próxima jogada.
      *
      * @return Uma posição sugerida para jogar, ou Optional.empty() se não houver dicas disponíveis.
      */
     public Optional<Posicao> obterDica() {
-        ResolvedorHelper resolvedor = new ResolvedorHelper();
-        Tabuleiro tabuleiroResolvido = sudoku.getTabuleiro().copiar();
+        aplicarTrocaPendente();
+        return calcularDica(sudoku.getTabuleiro(), opcoesResolucao).getPosicao();
+    }
 
-        if (resolvedor.resolver(tabuleiroResolvido)) {
-            Tabuleiro tabuleiroAtual = sudoku.getTabuleiro();
+    /**
+     * Obtém uma dica limitando o tempo e o esforço do resolvedor.
+     *
+     * @param opcoes Os limites da busca.
+     * @return Uma posição sugerida, ou Optional.empty() se não houver dica ou o orçamento acabar.
+     *         Use {@link #obterDicaDetalhada(OpcoesResolucao)} para distinguir os dois casos.
+     */
+    public Optional<Posicao> obterDica(OpcoesResolucao opcoes) {
+        aplicarTrocaPendente();
+        return calcularDica(sudoku.getTabuleiro(), opcoes).getPosicao();
+    }
+
+    /**
+     * Obtém uma dica informando como terminou a busca, para separar "não há dica" de
+     * "o orçamento acabou antes de achar uma".
+     *
+     * @param opcoes Os limites da busca.
+     * @return A posição sugerida, se houver, com o status da busca.
+     */
+    public ResultadoDica obterDicaDetalhada(OpcoesResolucao opcoes) {
+        aplicarTrocaPendente();
+        return calcularDica(sudoku.getTabuleiro(), opcoes);
+    }
+
+    /**
+     * Obtém uma dica sem bloquear a thread chamadora.
+     * A dica é calculada sobre uma cópia do tabuleiro feita no momento da chamada.
+     *
+     * @return Um futuro com a posição sugerida. Cancelá-lo interrompe o resolvedor.
+     */
+    public CompletableFuture<Optional<Posicao>> obterDicaAsync() {
+        aplicarTrocaPendente();
+        // lidos aqui, na thread do jogador, e não na thread do executor
+        Tabuleiro copia = sudoku.getTabuleiro().copiar();
+        OpcoesResolucao opcoes = opcoesResolucao;
+        CacheSolucoes cache = cacheSolucoes;
+        ResolvedorPortfolio portfolioAtual = portfolio;
+        Dificuldade dificuldadeAtual = dificuldade;
+        return ExecutorHelper.submeter(
+                () -> calcularDica(copia, opcoes, cache, portfolioAtual, dificuldadeAtual).getPosicao(), executor);
+    }
+
+    private ResultadoDica calcularDica(Tabuleiro tabuleiroAtual, OpcoesResolucao opcoes) {
+        return calcularDica(tabuleiroAtual, opcoes, cacheSolucoes, portfolio, dificuldade);
+    }
+
+    private static ResultadoDica calcularDica(Tabuleiro tabuleiroAtual, OpcoesResolucao opcoes,
+                                              CacheSolucoes cacheSolucoes, ResolvedorPortfolio portfolio,
+                                              Dificuldade dificuldade) {
+        // a solução do puzzle (só as pistas) costuma já estar no cache, resolvida por outra sessão
+        Optional<int[]> solucao = cacheSolucoes.obterSolucao(tabuleiroAtual, opcoes);
+        if (solucao.isPresent() && concordaComSolucao(tabuleiroAtual, solucao.get())) {
+            return new ResultadoDica(StatusResolucao.CONCLUIDA, encontrarPrimeiraVazia(tabuleiroAtual).orElse(null));
+        }
+
+        // jogadas que não batem com a solução do puzzle: resolve o tabuleiro como está
+        Tabuleiro tabuleiroResolvido = tabuleiroAtual.copiar();
+        ResultadoResolucao resultado = portfolio != null
+                ? portfolio.resolver(tabuleiroResolvido, opcoes, dificuldade)
+                : new ResolvedorHelper().resolver(tabuleiroResolvido, opcoes);
+
+        if (resultado.isResolvido()) {
             int tamanho = tabuleiroAtual.getTamanho();
 
             for (int i = 0; i < tamanho; i++) {
@@ -126,22 +611,74 @@ public class Jogo {
                     if (celulaAtual.isEmpty()) {
                         Integer valorCorreto = tabuleiroResolvido.getCelula(i, j).getValor().orElse(null);
                         if (valorCorreto != null) {
-                            return Optional.of(new Posicao(i, j));
+                            return new ResultadoDica(resultado.getStatus(), new Posicao(i, j));
                         }
                     }
                 }
             }
         }
 
+        return new ResultadoDica(resultado.getStatus(), null);
+    }
+
+    private static boolean concordaComSolucao(Tabuleiro tabuleiro, int[] solucao) {
+        int tamanho = tabuleiro.getTamanho();
+        for (int i = 0; i < tamanho; i++) {
+            for (int j = 0; j < tamanho; j++) {
+                Optional<Integer> valor = tabuleiro.getCelula(i, j).getValor();
+                if (valor.isPresent() && valor.get() != solucao[i * tamanho + j]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static Optional<Posicao> encontrarPrimeiraVazia(Tabuleiro tabuleiro) {
+        int tamanho = tabuleiro.getTamanho();
+        for (int i = 0; i < tamanho; i++) {
+            for (int j = 0; j < tamanho; j++) {
+                if (tabuleiro.getCelula(i, j).isEmpty()) {
+                    return Optional.of(new Posicao(i, j));
+                }
+            }
+        }
         return Optional.empty();
     }
 
+    /**
+     * Define o cache de soluções usado pelas dicas. Por padrão é o cache global do processo.
+     *
+     * @param cacheSolucoes O cache compartilhado entre os jogos.
+     */
+    public void setCacheSolucoes(CacheSolucoes cacheSolucoes) {
+        this.cacheSolucoes = cacheSolucoes;
+    }
+
+    /**
+     * Define um portfólio de estratégias para as dicas que o cache não responde (jogadas que
+     * não batem com a solução do puzzle). Sem portfólio, é usado o {@link ResolvedorHelper}.
+     *
+     * @param portfolio O portfólio, que pode ser compartilhado entre os jogos, ou null.
+     */
+    public void setResolvedorPortfolio(ResolvedorPortfolio portfolio) {
+        this.portfolio = portfolio;
+    }
+
     /**
      * Salva o estado atual do jogo em uma string codificada em Base64.
      *
      * @return A string codificada em Base64 representando o estado do jogo.
      */
     public String salvarJogo() {
+        aplicarTrocaPendente();
+        return salvarEstado();
+    }
+
+    /**
+     * Serializa o estado sem aplicar trocas pendentes. Usado pelo diário durante a própria troca.
+     */
+    String salvarEstado() {
         StringBuilder sb = new StringBuilder();
 
         // dificuldade
@@ -165,6 +702,23 @@ public class Jogo {
             }
         }
 
+        // regras da variante (jogos clássicos mantêm o formato original)
+        if (!tabuleiro.getRegras().isClassico()) {
+            sb.append(PREFIXO_REGRAS).append(tabuleiro.getRegras().paraTexto()).append(";");
+        }
+
+        // histórico de jogadas, para desfazer e refazer depois de carregar
+        if (historicoJogadas.podeDesfazer() || historicoJogadas.podeRefazer()) {
+            sb.append(PREFIXO_HISTORICO)
+                    .append(Base64.getEncoder().encodeToString(historicoJogadas.paraBytes())).append(";");
+        }
+
+        // anotações, só das células que têm alguma
+        byte[] anotacoes = anotacoesParaBytes(tabuleiro);
+        if (anotacoes.length > 0) {
+            sb.append(PREFIXO_ANOTACOES).append(Base64.getEncoder().encodeToString(anotacoes)).append(";");
+        }
+
         // joga para Base64 para facilitar armazenamento
         return Base64.getEncoder().encodeToString(sb.toString().getBytes());
     }
@@ -175,59 +729,66 @@ public class Jogo {
      * @param dadosJogoBase64 A string codificada em Base64 representando o estado do jogo.
      */
     public void carregarJogo(String dadosJogoBase64) {
-        try {
-            String dados = new String(Base64.getDecoder().decode(dadosJogoBase64));
-            String[] partes = dados.split(";");
-
-            int indice = 0;
-
-            // carrega dificuldade
-            this.dificuldade = Dificuldade.valueOf(partes[indice++]);
-
-            // carrega tempo de início
-            this.tempoInicio = LocalDateTime.parse(partes[indice++]);
-
-            // carrega pontuação
-            this.pontuacao = Integer.parseInt(partes[indice++]);
-
-            // cria novo tabuleiro
-            Tabuleiro tabuleiro = new Tabuleiro(9);
-            sudoku = new Sudoku();
-
-            // extrai as células
-            for (int i = 0; i < 9; i++) {
-                for (int j = 0; j < 9; j++) {
-                    if (indice >= partes.length) {
-                        break;
-                    }
-
-                    String[] dadosCelula = partes[indice++].split(",");
-                    int valor = Integer.parseInt(dadosCelula[0]);
-                    boolean fixo = "1".equals(dadosCelula[1]);
-
-                    Celula celula = new Celula(valor > 0 ? valor : null, fixo);
-                    tabuleiro.setCelula(i, j, celula);
-                }
-            }
-
-            // limpa histórico de jogadas ao carregar um jogo salvo
-            this.historicoJogadas.clear();
-
-            // carrega o tabuleiro no sudoku
-            sudoku.carregarJogo(converterTabuleiroParaMatriz(tabuleiro));
-
-        } catch (Exception e) {
+        trocaPendente.set(null);
+        Optional<EstadoSalvo> estado = lerEstadoSalvo(dadosJogoBase64);
+        if (estado.isPresent()) {
+            aplicarEstadoSalvo(estado.get());
+        } else {
             // se falhar, aí começa vazio
             novoJogo();
         }
     }
 
+    /**
+     * Carrega um jogo salvo sem bloquear a thread chamadora.
+     * Se os dados forem inválidos, um novo jogo é gerado, como em {@link #carregarJogo(String)}.
+     * Como em {@link #novoJogoAsync()}, a troca é feita pela thread do jogador, na próxima
+     * chamada dela ao jogo.
+     *
+     * @param dadosJogoBase64 A string codificada em Base64 representando o estado do jogo.
+     * @return Um futuro concluído quando o jogo estiver carregado. Cancelá-lo interrompe a geração.
+     */
+    public CompletableFuture<Void> carregarJogoAsync(String dadosJogoBase64) {
+        Dificuldade dificuldadeAtual = dificuldade;
+        Regras regrasAtuais = regras;
+        OpcoesResolucao opcoes = opcoesResolucao;
+        return ExecutorHelper.submeter(() -> {
+            Optional<EstadoSalvo> estado = lerEstadoSalvo(dadosJogoBase64);
+            return estado.orElseGet(() -> new EstadoSalvo(dificuldadeAtual,
+                    gerarNovoSudoku(dificuldadeAtual, regrasAtuais, opcoes)));
+        }, estado -> {
+            trocaPendente.set(() -> aplicarEstadoSalvo(estado));
+            return null;
+        }, executor);
+    }
+
+    /**
+     * Define o executor usado pelos métodos assíncronos.
+     * Por padrão é usado um executor com uma thread virtual por tarefa.
+     *
+     * @param executor O executor das tarefas de geração e resolução.
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Define os limites (prazo, número de nós) das buscas feitas pelo jogo:
+     * dicas e verificações de solução única durante a geração de novos jogos.
+     *
+     * @param opcoesResolucao Os limites de cada busca do resolvedor.
+     */
+    public void setOpcoesResolucao(OpcoesResolucao opcoesResolucao) {
+        this.opcoesResolucao = opcoesResolucao;
+    }
+
     /**
      * Obtém a dificuldade atual do jogo.
      *
      * @return A dificuldade atual do jogo.
      */
     public int calcularPontuacao() {
+        aplicarTrocaPendente();
         // chat GPT:
         // Fórmula para cálculo de pontuação baseada em:
         // - Dificuldade do jogo
@@ -248,7 +809,7 @@ public class Jogo {
         double fatorTempo = Math.max(0.1, 1.0 - (segundos / 3600.0)); // Máximo de 1 hora para pontuação ideal
 
         // Penalidade por desfazer jogadas
-        int penalidade = historicoJogadas.size() * 10;
+        int penalidade = historicoJogadas.getQuantidade() * 10;
 
         // Cálculo final
         this.pontuacao = (int) (pontuacaoBase * fatorTempo) - penalidade;
@@ -259,11 +820,26 @@ public class Jogo {
         return this.pontuacao;
     }
 
+    /**
+     * Calcula a pontuação atual e a registra no placar.
+     *
+     * @param placar  O placar que recebe a pontuação.
+     * @param jogador O identificador do jogador.
+     * @return A pontuação registrada.
+     */
+    public int registrarPontuacao(Placar placar, String jogador) {
+        int pontos = calcularPontuacao();
+        placar.registrar(jogador, dificuldade, pontos);
+        return pontos;
+    }
+
     public boolean isJogoCompleto() {
+        aplicarTrocaPendente();
         return sudoku.isCompleto();
     }
 
     public Duration getTempoDecorrido() {
+        aplicarTrocaPendente();
         return Duration.between(tempoInicio, LocalDateTime.now());
     }
 
@@ -271,6 +847,7 @@ public class Jogo {
      * Reinicia o jogo, mantendo a mesma dificuldade, mas reiniciando o tabuleiro.
      */
     public void reiniciar() {
+        aplicarTrocaPendente();
         // manter a mesma dificuldade, mas reiniciar o tabuleiro
         Tabuleiro tabuleiro = sudoku.getTabuleiro();
 
@@ -284,16 +861,20 @@ public class Jogo {
             }
         }
 
+        espelho.publicarTabuleiro(tabuleiro);
+
         // resetar histórico e tempo
-        historicoJogadas.clear();
+        historicoJogadas.limpar();
         tempoInicio = LocalDateTime.now();
         pontuacao = 0;
+        compactarDiario();
+        verificarSolubilidade();
     }
 
     /**
      * Reinicia o jogo, mantendo a mesma dificuldade, mas reiniciando o tabuleiro.
      */
-    private int[][] converterTabuleiroParaMatriz(Tabuleiro tabuleiro) {
+    private static int[][] converterTabuleiroParaMatriz(Tabuleiro tabuleiro) {
         // método auxiliar para converter um Tabuleiro em matriz de inteiros
         int tamanho = tabuleiro.getTamanho();
         int[][] matriz = new int[tamanho][tamanho];
@@ -308,7 +889,196 @@ public class Jogo {
         return matriz;
     }
 
+    private static Sudoku gerarNovoSudoku(Dificuldade dificuldade, Regras regras, OpcoesResolucao opcoesResolucao) {
+        Gerador gerador = new Gerador(opcoesResolucao, regras);
+        Tabuleiro tabuleiro = gerador.gerarTabuleiro(9, dificuldade);
+        Sudoku novo = new Sudoku(regras);
+        novo.carregarJogo(converterTabuleiroParaMatriz(tabuleiro));
+        return novo;
+    }
+
+    private void aplicarNovoJogo(Sudoku novo) {
+        sudoku = novo;
+        espelho.publicarTabuleiro(novo.getTabuleiro());
+        tempoInicio = LocalDateTime.now();
+        pontuacao = 0;
+        historicoJogadas.limpar();
+        compactarDiario();
+        verificarSolubilidade();
+    }
+
+    /**
+     * Lê o estado salvo sem alterar o jogo atual.
+     *
+     * @param dadosJogoBase64 A string codificada em Base64 representando o estado do jogo.
+     * @return O estado lido, ou Optional.empty() se os dados forem inválidos.
+     */
+    private static Optional<EstadoSalvo> lerEstadoSalvo(String dadosJogoBase64) {
+        try {
+            String dados = new String(Base64.getDecoder().decode(dadosJogoBase64));
+            String[] partes = dados.split(";");
+
+            int indice = 0;
+
+            // carrega dificuldade
+            Regras regrasSalvas = Regras.classico(9);
+            HistoricoJogadas historicoSalvo = new HistoricoJogadas();
+            byte[] anotacoesSalvas = new byte[0];
+            for (String parte : partes) {
+                if (parte.startsWith(PREFIXO_REGRAS)) {
+                    regrasSalvas = Regras.deTexto(9, parte.substring(PREFIXO_REGRAS.length()));
+                } else if (parte.startsWith(PREFIXO_HISTORICO)) {
+                    historicoSalvo = HistoricoJogadas.deBytes(
+                            Base64.getDecoder().decode(parte.substring(PREFIXO_HISTORICO.length())), 9);
+                } else if (parte.startsWith(PREFIXO_ANOTACOES)) {
+                    anotacoesSalvas = Base64.getDecoder().decode(parte.substring(PREFIXO_ANOTACOES.length()));
+                }
+            }
+            EstadoSalvo estado = new EstadoSalvo(Dificuldade.valueOf(partes[indice++]), new Sudoku(regrasSalvas));
+
+            // carrega tempo de início
+            estado.tempoInicio = LocalDateTime.parse(partes[indice++]);
+
+            // carrega pontuação
+            estado.pontuacao = Integer.parseInt(partes[indice++]);
+
+            // cria novo tabuleiro
+            Tabuleiro tabuleiro = new Tabuleiro(9, regrasSalvas);
+
+            // extrai as células
+            for (int i = 0; i < 9; i++) {
+                for (int j = 0; j < 9; j++) {
+                    if (indice >= partes.length || isCampoOpcional(partes[indice])) {
+                        break;
+                    }
+
+                    String[] dadosCelula = partes[indice++].split(",");
+                    int valor = Integer.parseInt(dadosCelula[0]);
+                    boolean fixo = "1".equals(dadosCelula[1]);
+
+                    Celula celula = new Celula(valor > 0 ? valor : null, fixo);
+                    tabuleiro.setCelula(i, j, celula);
+                }
+            }
+
+            aplicarAnotacoes(tabuleiro, anotacoesSalvas);
+
+            // carrega o tabuleiro no sudoku, mantendo o que foi preenchido pelo jogador como editável
+            estado.sudoku.carregarJogo(tabuleiro);
+            estado.historico = historicoSalvo;
+            return Optional.of(estado);
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+    }
+
+    private static boolean isCampoOpcional(String parte) {
+        return parte.startsWith(PREFIXO_REGRAS) || parte.startsWith(PREFIXO_HISTORICO)
+                || parte.startsWith(PREFIXO_ANOTACOES);
+    }
+
+    /**
+     * Serializa as anotações como pares (célula, máscara), 6 bytes por célula anotada.
+     */
+    private static byte[] anotacoesParaBytes(Tabuleiro tabuleiro) {
+        int tamanho = tabuleiro.getTamanho();
+        ByteBuffer buffer = ByteBuffer.allocate(tamanho * tamanho * (Short.BYTES + Integer.BYTES));
+        for (int c = 0; c < tamanho * tamanho; c++) {
+            int anotacoes = tabuleiro.getCelula(c / tamanho, c % tamanho).getAnotacoes();
+            if (anotacoes != 0) {
+                buffer.putShort((short) c).putInt(anotacoes);
+            }
+        }
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    private static void aplicarAnotacoes(Tabuleiro tabuleiro, byte[] dados) {
+        int tamanho = tabuleiro.getTamanho();
+        ByteBuffer buffer = ByteBuffer.wrap(dados);
+        if (buffer.remaining() % (Short.BYTES + Integer.BYTES) != 0) {
+            throw new IllegalArgumentException("Anotações inválidas");
+        }
+        while (buffer.hasRemaining()) {
+            int celula = buffer.getShort();
+            int anotacoes = buffer.getInt();
+            tabuleiro.getCelula(celula / tamanho, celula % tamanho).setAnotacoes(anotacoes);
+        }
+    }
+
+    private void aplicarEstadoSalvo(EstadoSalvo estado) {
+        this.dificuldade = estado.dificuldade;
+        this.tempoInicio = estado.tempoInicio;
+        this.pontuacao = estado.pontuacao;
+        this.sudoku = estado.sudoku;
+        this.regras = estado.sudoku.getRegras();
+        espelho.publicarTabuleiro(estado.sudoku.getTabuleiro());
+
+        // o histórico vem do jogo salvo (vazio em jogos salvos sem ele)
+        this.historicoJogadas = estado.historico;
+        compactarDiario();
+        verificarSolubilidade();
+    }
+
+    public Regras getRegras() {
+        aplicarTrocaPendente();
+        return regras;
+    }
+
+    /**
+     * Obtém o tabuleiro do jogo. Ele não é seguro para várias threads: só a thread que joga deve
+     * usá-lo; as outras leem com {@link #capturarInstantaneo()}.
+     */
     public Tabuleiro getTabuleiro() {
+        aplicarTrocaPendente();
         return sudoku.getTabuleiro();
     }
+
+    /**
+     * Captura uma cópia consistente do tabuleiro (valores, células fixas e anotações).
+     * Pode ser chamado de qualquer thread, ao mesmo tempo que o jogador joga, sem travá-lo:
+     * cada jogada é publicada em uma cópia plana do tabuleiro, lida com leitura otimista.
+     * Alterações feitas direto no {@link #getTabuleiro()} não são publicadas.
+     */
+    public InstantaneoTabuleiro capturarInstantaneo() {
+        return espelho.capturar();
+    }
+
+    /**
+     * Obtém a versão do último instantâneo publicado, sem copiar o tabuleiro. Pode ser chamado
+     * de qualquer thread; um espectador só precisa capturar de novo quando a versão muda.
+     */
+    public long getVersaoInstantaneo() {
+        return espelho.getVersao();
+    }
+
+    /**
+     * Veredito de solubilidade de uma versão do tabuleiro. Imutável, para ser trocado inteiro.
+     */
+    private static final class Solubilidade {
+        private final long versao;
+        private final EstadoSolubilidade estado;
+
+        Solubilidade(long versao, EstadoSolubilidade estado) {
+            this.versao = versao;
+            this.estado = estado;
+        }
+    }
+
+    /**
+     * Estado lido de um jogo salvo, ainda não aplicado ao jogo.
+     */
+    private static class EstadoSalvo {
+        private final Dificuldade dificuldade;
+        private final Sudoku sudoku;
+        private LocalDateTime tempoInicio;
+        private int pontuacao;
+        private HistoricoJogadas historico = new HistoricoJogadas();
+
+        EstadoSalvo(Dificuldade dificuldade, Sudoku sudoku) {
+            this.dificuldade = dificuldade;
+            this.sudoku = sudoku;
+            this.tempoInicio = LocalDateTime.now();
+            this.pontuacao = 0;
+        }
+    }
 }
\ No newline at end of file
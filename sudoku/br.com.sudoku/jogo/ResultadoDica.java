@@ -0,0 +1,43 @@
+package jogo;
+
+import enums.StatusResolucao;
+import matriz.Posicao;
+
+import java.util.Optional;
+
+/**
+ * Resultado de {@link Jogo#obterDicaDetalhada(helpers.OpcoesResolucao)}: a posição sugerida,
+ * se houver, e como terminou a busca que a calculou.
+ * <p>
+ * Sem posição e com status {@link StatusResolucao#CONCLUIDA}, o tabuleiro não tem dica
+ * (está completo ou não tem solução); com outro status, a busca parou antes de decidir.
+ */
+public class ResultadoDica {
+    private final StatusResolucao status;
+    private final Posicao posicao;
+
+    ResultadoDica(StatusResolucao status, Posicao posicao) {
+        this.status = status;
+        this.posicao = posicao;
+    }
+
+    public StatusResolucao getStatus() {
+        return status;
+    }
+
+    public boolean isConcluida() {
+        return status == StatusResolucao.CONCLUIDA;
+    }
+
+    /**
+     * @return A posição sugerida para jogar, se a busca encontrou uma.
+     */
+    public Optional<Posicao> getPosicao() {
+        return Optional.ofNullable(posicao);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ResultadoDica[status=%s, posição=%s]", status, posicao);
+    }
+}
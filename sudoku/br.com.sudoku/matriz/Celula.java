@@ -8,12 +8,18 @@ import java.util.Set;
  * Classe que representa uma célula de um Sudoku.
  * Cada célula pode conter um valor entre 1 e 9 ou estar vazia (null).
  * A célula também pode ser fixa (não pode ser alterada) ou não fixa.
- * Além disso, a célula mantém um conjunto de valores permitidos.
+ * Além disso, a célula mantém um conjunto de valores permitidos e as anotações do jogador.
+ * <p>
+ * Os dois conjuntos são máscaras de bits (bit {@code valor - 1}), em um {@code int} cada,
+ * em vez de conjuntos de objetos: anotar o tabuleiro inteiro não custa memória a mais.
  */
 public class Celula {
+    private static final int TODOS_OS_VALORES = (1 << 9) - 1;
+
     private Integer valor;
     private boolean fixo;
-    private Set<Integer> valoresPermitidos;
+    private int valoresPermitidos;
+    private int anotacoes;
 
     /**
      * Construtor padrão da classe Celula.
@@ -22,7 +28,6 @@ public class Celula {
     public Celula() {
         this.valor = null;
         this.fixo = false;
-        this.valoresPermitidos = new HashSet<>();
         inicializarValoresPermitidos();
     }
 
@@ -35,7 +40,6 @@ public class Celula {
     public Celula(Integer valor, boolean fixo) {
         this.valor = valor;
         this.fixo = fixo;
-        this.valoresPermitidos = new HashSet<>();
         if (valor == null) {
             inicializarValoresPermitidos();
         }
@@ -45,6 +49,13 @@ public class Celula {
         return Optional.ofNullable(valor);
     }
 
+    /**
+     * O valor sem {@link Optional}, para os laços que percorrem o tabuleiro inteiro.
+     */
+    int valorOuZero() {
+        return valor != null ? valor : 0;
+    }
+
     public void setValor(Integer valor) {
         if (!fixo) {
             this.valor = valor;
@@ -61,20 +72,20 @@ public class Celula {
     }
 
     public Set<Integer> getValoresPermitidos() {
-        return new HashSet<>(valoresPermitidos);
+        return paraConjunto(valoresPermitidos);
     }
 
     public void adicionarValorPermitido(Integer valor) {
-        valoresPermitidos.add(valor);
+        valoresPermitidos |= bit(valor);
     }
 
     public void removerValorPermitido(Integer valor) {
         // remove valor permitido para facilitar quando ja esta em uso
-        valoresPermitidos.remove(valor);
+        valoresPermitidos &= ~bit(valor);
     }
 
     public void limparValoresPermitidos() {
-        valoresPermitidos.clear();
+        valoresPermitidos = 0;
     }
 
     /**
@@ -82,15 +93,68 @@ public class Celula {
      * Neste momento, todos os valores de 1 a 9 são permitidos.
      */
     public void inicializarValoresPermitidos() {
-        limparValoresPermitidos();
         // nesse momento todos os valores sao permitidos ainda
-        for (int i = 1; i <= 9; i++) {
-            valoresPermitidos.add(i);
-        }
+        valoresPermitidos = TODOS_OS_VALORES;
     }
 
     public boolean isValorPermitido(Integer valor) {
-        return valoresPermitidos.contains(valor);
+        return valor != null && valor >= 1 && valor <= 32 && (valoresPermitidos & bit(valor)) != 0;
+    }
+
+    /**
+     * Obtém as anotações (marcas a lápis) do jogador.
+     *
+     * @return A máscara das anotações: o bit {@code valor - 1} ligado para cada valor anotado.
+     */
+    public int getAnotacoes() {
+        return anotacoes;
+    }
+
+    /**
+     * Substitui as anotações. Células fixas não têm anotações.
+     *
+     * @param mascara A máscara das anotações (bit {@code valor - 1} para cada valor).
+     */
+    public void setAnotacoes(int mascara) {
+        if (!fixo) {
+            this.anotacoes = mascara;
+        }
+    }
+
+    public boolean temAnotacao(int valor) {
+        return valor >= 1 && valor <= 32 && (anotacoes & bit(valor)) != 0;
+    }
+
+    /**
+     * Liga ou desliga a anotação de um valor.
+     *
+     * @return true se o valor ficou anotado.
+     */
+    public boolean alternarAnotacao(int valor) {
+        setAnotacoes(anotacoes ^ bit(valor));
+        return temAnotacao(valor);
+    }
+
+    public void limparAnotacoes() {
+        anotacoes = 0;
+    }
+
+    /**
+     * Converte uma máscara de valores (bit {@code valor - 1}) no conjunto dos valores.
+     */
+    public static Set<Integer> paraConjunto(int mascara) {
+        Set<Integer> valores = new HashSet<>();
+        for (int resto = mascara; resto != 0; resto &= resto - 1) {
+            valores.add(Integer.numberOfTrailingZeros(resto) + 1);
+        }
+        return valores;
+    }
+
+    private static int bit(int valor) {
+        if (valor < 1 || valor > 32) {
+            throw new IllegalArgumentException("Valor fora do intervalo: " + valor);
+        }
+        return 1 << (valor - 1);
     }
 
     public boolean isEmpty() {
@@ -100,6 +164,7 @@ public class Celula {
     public void reset() {
         if (!fixo) {
             valor = null;
+            anotacoes = 0;
             inicializarValoresPermitidos();
         }
     }
@@ -107,7 +172,8 @@ public class Celula {
     @Override
     public Celula clone() {
         Celula clone = new Celula(this.valor, this.fixo);
-        clone.valoresPermitidos = new HashSet<>(this.valoresPermitidos);
+        clone.valoresPermitidos = this.valoresPermitidos;
+        clone.anotacoes = this.anotacoes;
         return clone;
     }
 
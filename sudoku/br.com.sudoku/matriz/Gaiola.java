@@ -0,0 +1,55 @@
+package matriz;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Representa uma gaiola do Killer Sudoku: um grupo de células cujos valores
+ * não se repetem e somam um valor definido.
+ * As células são identificadas pelo índice linear {@code linha * tamanho + coluna}.
+ */
+public final class Gaiola implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final int soma;
+    private final int[] celulas;
+
+    /**
+     * Construtor da classe Gaiola.
+     *
+     * @param soma     A soma dos valores das células da gaiola.
+     * @param celulas  Os índices lineares das células da gaiola.
+     */
+    public Gaiola(int soma, int... celulas) {
+        if (celulas.length == 0) {
+            throw new IllegalArgumentException("Gaiola sem células");
+        }
+        this.soma = soma;
+        this.celulas = celulas.clone();
+        Arrays.sort(this.celulas);
+        for (int i = 1; i < this.celulas.length; i++) {
+            if (this.celulas[i] == this.celulas[i - 1]) {
+                throw new IllegalArgumentException("Célula repetida na gaiola: " + this.celulas[i]);
+            }
+        }
+    }
+
+    public int getSoma() {
+        return soma;
+    }
+
+    public int[] getCelulas() {
+        return celulas.clone();
+    }
+
+    public int getTamanho() {
+        return celulas.length;
+    }
+
+    @Override
+    public String toString() {
+        return "Gaiola[soma=" + soma + ", celulas=" + Arrays.toString(celulas) + "]";
+    }
+}
@@ -0,0 +1,505 @@
+package matriz;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Conjunto de restrições de um tabuleiro: o Sudoku clássico e suas variantes.
+ * <p>
+ * Além de linhas, colunas e quadrantes, as variantes acrescentam unidades (grupos de
+ * células sem valores repetidos) ou regras:
+ * <ul>
+ *     <li>{@link #comDiagonais()}: as duas diagonais principais (X-Sudoku);</li>
+ *     <li>{@link #comJanelas()}: as janelas internas do Hyper Sudoku (Windoku);</li>
+ *     <li>{@link #comRegioes(int[])}: regiões irregulares no lugar dos quadrantes (Jigsaw);</li>
+ *     <li>{@link #comGaiola(Gaiola)}: gaiolas com soma (Killer Sudoku).</li>
+ * </ul>
+ * As regras são imutáveis e compiladas na construção em tabelas de unidades por célula,
+ * de vizinhos e de combinações de soma, usadas diretamente pelo resolvedor, pelo gerador
+ * e pelo validador. As três primeiras unidades de cada célula são sempre linha, coluna e
+ * região, então o Sudoku clássico não paga nada pelas variantes.
+ * <p>
+ * Ids das unidades: linhas de {@code 0} a {@code n - 1}, colunas de {@code n} a {@code 2n - 1},
+ * regiões de {@code 2n} a {@code 3n - 1} e, em seguida, as unidades extras.
+ */
+public final class Regras implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    // gaiolas usam tabelas indexadas por máscara de valores (2^tamanho posições)
+    private static final int TAMANHO_MAXIMO_GAIOLAS = 9;
+    private static final Map<Integer, Regras> CLASSICAS = new ConcurrentHashMap<>();
+
+    private final int tamanho;
+    private final int[] regioes;
+    private final boolean diagonais;
+    private final boolean janelas;
+    // array em vez de lista: o campo é serializado junto com as regras
+    private final Gaiola[] gaiolas;
+
+    // tabelas compiladas
+    private final int[][] unidades;
+    private final int[] regiaoDe;
+    private final int[][] unidadesExtras;
+    private final boolean temExtras;
+    private final int[][] vizinhos;
+    private final int[] gaiolaDe;
+    private final int[] unidadeGaiola;
+    private final int[] somaMascara;
+    private final int[][] combinacoes;
+    private final int somaMaxima;
+
+    private Regras(int tamanho, int[] regioes, boolean diagonais, boolean janelas, Gaiola[] gaiolas) {
+        int tamanhoQuadrante = (int) Math.sqrt(tamanho);
+        if (tamanho < 1 || tamanho > 25 || tamanhoQuadrante * tamanhoQuadrante != tamanho) {
+            throw new IllegalArgumentException("Tamanho de tabuleiro não suportado: " + tamanho);
+        }
+        if (gaiolas.length > 0 && tamanho > TAMANHO_MAXIMO_GAIOLAS) {
+            throw new IllegalArgumentException("Gaiolas só são suportadas até " + TAMANHO_MAXIMO_GAIOLAS
+                    + "x" + TAMANHO_MAXIMO_GAIOLAS);
+        }
+
+        this.tamanho = tamanho;
+        this.regioes = regioes;
+        this.diagonais = diagonais;
+        this.janelas = janelas;
+        this.gaiolas = gaiolas;
+
+        int celulas = tamanho * tamanho;
+        this.regiaoDe = new int[celulas];
+        for (int c = 0; c < celulas; c++) {
+            int linha = c / tamanho;
+            int coluna = c % tamanho;
+            regiaoDe[c] = regioes != null
+                    ? regioes[c]
+                    : (linha / tamanhoQuadrante) * tamanhoQuadrante + coluna / tamanhoQuadrante;
+        }
+
+        // linhas, colunas e regiões
+        List<int[]> lista = new ArrayList<>();
+        for (int i = 0; i < tamanho; i++) {
+            int[] linha = new int[tamanho];
+            for (int j = 0; j < tamanho; j++) {
+                linha[j] = i * tamanho + j;
+            }
+            lista.add(linha);
+        }
+        for (int j = 0; j < tamanho; j++) {
+            int[] coluna = new int[tamanho];
+            for (int i = 0; i < tamanho; i++) {
+                coluna[i] = i * tamanho + j;
+            }
+            lista.add(coluna);
+        }
+        int[][] porRegiao = new int[tamanho][tamanho];
+        int[] preenchidas = new int[tamanho];
+        for (int c = 0; c < celulas; c++) {
+            porRegiao[regiaoDe[c]][preenchidas[regiaoDe[c]]++] = c;
+        }
+        lista.addAll(Arrays.asList(porRegiao));
+
+        // unidades extras
+        if (diagonais) {
+            int[] principal = new int[tamanho];
+            int[] secundaria = new int[tamanho];
+            for (int i = 0; i < tamanho; i++) {
+                principal[i] = i * tamanho + i;
+                secundaria[i] = i * tamanho + (tamanho - 1 - i);
+            }
+            lista.add(principal);
+            lista.add(secundaria);
+        }
+        if (janelas) {
+            // janelas do tamanho de um quadrante, começando uma célula depois de cada quadrante
+            for (int bl = 0; bl < tamanhoQuadrante - 1; bl++) {
+                for (int bc = 0; bc < tamanhoQuadrante - 1; bc++) {
+                    int[] janela = new int[tamanho];
+                    int k = 0;
+                    for (int i = 0; i < tamanhoQuadrante; i++) {
+                        for (int j = 0; j < tamanhoQuadrante; j++) {
+                            int linha = bl * (tamanhoQuadrante + 1) + 1 + i;
+                            int coluna = bc * (tamanhoQuadrante + 1) + 1 + j;
+                            janela[k++] = linha * tamanho + coluna;
+                        }
+                    }
+                    lista.add(janela);
+                }
+            }
+        }
+
+        this.gaiolaDe = new int[celulas];
+        Arrays.fill(gaiolaDe, -1);
+        this.unidadeGaiola = new int[gaiolas.length];
+        for (int g = 0; g < gaiolas.length; g++) {
+            int[] celulasGaiola = gaiolas[g].getCelulas();
+            for (int c : celulasGaiola) {
+                if (c < 0 || c >= celulas) {
+                    throw new IllegalArgumentException("Célula fora do tabuleiro: " + c);
+                }
+                if (gaiolaDe[c] >= 0) {
+                    throw new IllegalArgumentException("Célula em mais de uma gaiola: " + c);
+                }
+                gaiolaDe[c] = g;
+            }
+            unidadeGaiola[g] = lista.size();
+            lista.add(celulasGaiola);
+        }
+
+        this.unidades = lista.toArray(new int[0][]);
+
+        // unidades extras e vizinhos de cada célula
+        List<List<Integer>> extrasPorCelula = new ArrayList<>(celulas);
+        for (int c = 0; c < celulas; c++) {
+            extrasPorCelula.add(new ArrayList<>());
+        }
+        for (int u = 3 * tamanho; u < unidades.length; u++) {
+            for (int c : unidades[u]) {
+                extrasPorCelula.get(c).add(u);
+            }
+        }
+
+        this.unidadesExtras = new int[celulas][];
+        this.vizinhos = new int[celulas][];
+        boolean algumaExtra = false;
+        for (int c = 0; c < celulas; c++) {
+            unidadesExtras[c] = extrasPorCelula.get(c).stream().mapToInt(Integer::intValue).toArray();
+            algumaExtra |= unidadesExtras[c].length > 0;
+
+            TreeSet<Integer> pares = new TreeSet<>();
+            for (int u : unidadesDaCelula(c)) {
+                for (int outra : unidades[u]) {
+                    pares.add(outra);
+                }
+            }
+            pares.remove(c);
+            vizinhos[c] = pares.stream().mapToInt(Integer::intValue).toArray();
+        }
+        this.temExtras = algumaExtra;
+
+        // combinações de valores distintos por quantidade e soma, para as gaiolas
+        this.somaMaxima = tamanho * (tamanho + 1) / 2;
+        if (gaiolas.length == 0) {
+            this.somaMascara = null;
+            this.combinacoes = null;
+        } else {
+            this.somaMascara = new int[1 << tamanho];
+            List<List<Integer>> porChave = new ArrayList<>();
+            for (int i = 0; i < (tamanho + 1) * (somaMaxima + 1); i++) {
+                porChave.add(new ArrayList<>());
+            }
+            for (int mascara = 1; mascara < somaMascara.length; mascara++) {
+                int menor = Integer.numberOfTrailingZeros(mascara);
+                somaMascara[mascara] = somaMascara[mascara & (mascara - 1)] + menor + 1;
+                porChave.get(chave(Integer.bitCount(mascara), somaMascara[mascara])).add(mascara);
+            }
+            this.combinacoes = new int[porChave.size()][];
+            for (int i = 0; i < combinacoes.length; i++) {
+                combinacoes[i] = porChave.get(i).stream().mapToInt(Integer::intValue).toArray();
+            }
+
+            for (Gaiola gaiola : gaiolas) {
+                if (gaiola.getTamanho() > tamanho || gaiola.getSoma() > somaMaxima
+                        || combinacoes[chave(gaiola.getTamanho(), gaiola.getSoma())].length == 0) {
+                    throw new IllegalArgumentException("Gaiola impossível: " + gaiola);
+                }
+            }
+        }
+    }
+
+    /**
+     * Obtém as regras do Sudoku clássico (linhas, colunas e quadrantes).
+     *
+     * @param tamanho O tamanho do tabuleiro (um quadrado perfeito, até 25).
+     * @return As regras clássicas, compartilhadas entre os tabuleiros do mesmo tamanho.
+     */
+    public static Regras classico(int tamanho) {
+        return CLASSICAS.computeIfAbsent(tamanho,
+                t -> new Regras(t, null, false, false, new Gaiola[0]));
+    }
+
+    /**
+     * Acrescenta as duas diagonais principais como unidades (X-Sudoku).
+     */
+    public Regras comDiagonais() {
+        return new Regras(tamanho, regioes, true, janelas, gaiolas);
+    }
+
+    /**
+     * Acrescenta as janelas internas do Hyper Sudoku (no 9x9, os quatro blocos 3x3
+     * que começam nas linhas e colunas 1 e 5).
+     */
+    public Regras comJanelas() {
+        if (tamanho < 4) {
+            throw new IllegalArgumentException("Tabuleiro pequeno demais para janelas: " + tamanho);
+        }
+        return new Regras(tamanho, regioes, diagonais, true, gaiolas);
+    }
+
+    /**
+     * Troca os quadrantes por regiões irregulares (Jigsaw Sudoku).
+     *
+     * @param regioes A região de cada célula, linha a linha, de {@code 0} a {@code tamanho - 1}.
+     *                Cada região deve ter exatamente {@code tamanho} células.
+     */
+    public Regras comRegioes(int[] regioes) {
+        if (regioes.length != tamanho * tamanho) {
+            throw new IllegalArgumentException("Quantidade de regiões inválida: " + regioes.length);
+        }
+        int[] contagem = new int[tamanho];
+        for (int regiao : regioes) {
+            if (regiao < 0 || regiao >= tamanho) {
+                throw new IllegalArgumentException("Região inválida: " + regiao);
+            }
+            contagem[regiao]++;
+        }
+        for (int regiao = 0; regiao < tamanho; regiao++) {
+            if (contagem[regiao] != tamanho) {
+                throw new IllegalArgumentException("A região " + regiao + " tem " + contagem[regiao] + " células");
+            }
+        }
+        return new Regras(tamanho, regioes.clone(), diagonais, janelas, gaiolas);
+    }
+
+    /**
+     * Acrescenta uma gaiola do Killer Sudoku.
+     *
+     * @param gaiola A gaiola; suas células não podem pertencer a outra gaiola.
+     */
+    public Regras comGaiola(Gaiola gaiola) {
+        Gaiola[] novas = Arrays.copyOf(gaiolas, gaiolas.length + 1);
+        novas[gaiolas.length] = gaiola;
+        return new Regras(tamanho, regioes, diagonais, janelas, novas);
+    }
+
+    /**
+     * Calcula os valores permitidos para uma célula vazia de uma gaiola.
+     *
+     * @param gaiola  O índice da gaiola.
+     * @param usados  Máscara dos valores já colocados na gaiola (bit {@code v - 1} para o valor {@code v}).
+     * @return A máscara dos valores que ainda completam a soma com valores distintos.
+     */
+    public int candidatosGaiola(int gaiola, int usados) {
+        int restantes = gaiolas[gaiola].getTamanho() - Integer.bitCount(usados);
+        int soma = gaiolas[gaiola].getSoma() - somaMascara[usados];
+        if (restantes <= 0 || soma <= 0 || soma > somaMaxima) {
+            return 0;
+        }
+
+        int permitidos = 0;
+        for (int mascara : combinacoes[chave(restantes, soma)]) {
+            if ((mascara & usados) == 0) {
+                permitidos |= mascara;
+            }
+        }
+        return permitidos;
+    }
+
+    /**
+     * Obtém os ids de todas as unidades da célula: linha, coluna, região e as extras.
+     */
+    public int[] unidadesDaCelula(int celula) {
+        int[] extras = unidadesExtras[celula];
+        int[] todas = new int[3 + extras.length];
+        todas[0] = celula / tamanho;
+        todas[1] = tamanho + celula % tamanho;
+        todas[2] = 2 * tamanho + regiaoDe[celula];
+        System.arraycopy(extras, 0, todas, 3, extras.length);
+        return todas;
+    }
+
+    /**
+     * Obtém, para cada célula, os ids das unidades além de linha, coluna e região.
+     *
+     * @return Uma cópia da tabela, indexada pela célula.
+     */
+    public int[][] getUnidadesExtras() {
+        int[][] copia = new int[unidadesExtras.length][];
+        for (int c = 0; c < copia.length; c++) {
+            copia[c] = unidadesExtras[c].clone();
+        }
+        return copia;
+    }
+
+    /**
+     * Obtém as células de uma unidade.
+     */
+    public int[] getUnidade(int unidade) {
+        return unidades[unidade].clone();
+    }
+
+    /**
+     * Obtém a quantidade de células de uma unidade, para percorrê-la com
+     * {@link #getCelulaDaUnidade(int, int)} sem copiar a tabela.
+     */
+    public int getTamanhoUnidade(int unidade) {
+        return unidades[unidade].length;
+    }
+
+    public int getCelulaDaUnidade(int unidade, int posicao) {
+        return unidades[unidade][posicao];
+    }
+
+    public int getQuantidadeUnidades() {
+        return unidades.length;
+    }
+
+    /**
+     * Obtém as células que não podem ter o mesmo valor que a célula informada.
+     */
+    public int[] getVizinhos(int celula) {
+        return vizinhos[celula].clone();
+    }
+
+    /**
+     * Obtém a quantidade de vizinhos da célula, para percorrê-los com
+     * {@link #getVizinho(int, int)} sem copiar a tabela.
+     */
+    public int getQuantidadeVizinhos(int celula) {
+        return vizinhos[celula].length;
+    }
+
+    public int getVizinho(int celula, int posicao) {
+        return vizinhos[celula][posicao];
+    }
+
+    /**
+     * Obtém a região (quadrante ou região irregular) de cada célula.
+     */
+    public int[] getRegiaoDe() {
+        return regiaoDe.clone();
+    }
+
+    /**
+     * Obtém a gaiola de cada célula ({@code -1} para células fora de gaiolas).
+     */
+    public int[] getGaiolaDe() {
+        return gaiolaDe.clone();
+    }
+
+    public int getGaiolaDaCelula(int celula) {
+        return gaiolaDe[celula];
+    }
+
+    public int getUnidadeGaiola(int gaiola) {
+        return unidadeGaiola[gaiola];
+    }
+
+    public List<Gaiola> getGaiolas() {
+        return List.of(gaiolas);
+    }
+
+    public Gaiola getGaiola(int gaiola) {
+        return gaiolas[gaiola];
+    }
+
+    public int getQuantidadeGaiolas() {
+        return gaiolas.length;
+    }
+
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    public boolean temUnidadesExtras() {
+        return temExtras;
+    }
+
+    public boolean temGaiolas() {
+        return gaiolas.length > 0;
+    }
+
+    public boolean isClassico() {
+        return regioes == null && !diagonais && !janelas && gaiolas.length == 0;
+    }
+
+    /**
+     * Converte as regras em texto, para salvar junto com o jogo.
+     * O texto não contém {@code ';'} nem {@code ','}.
+     *
+     * @return As variantes separadas por {@code '|'}; vazio para o Sudoku clássico.
+     */
+    public String paraTexto() {
+        List<String> partes = new ArrayList<>();
+        if (diagonais) {
+            partes.add("X");
+        }
+        if (janelas) {
+            partes.add("H");
+        }
+        if (regioes != null) {
+            StringBuilder sb = new StringBuilder("R");
+            for (int regiao : regioes) {
+                sb.append(Character.forDigit(regiao, Character.MAX_RADIX));
+            }
+            partes.add(sb.toString());
+        }
+        for (Gaiola gaiola : gaiolas) {
+            StringBuilder sb = new StringBuilder("K").append(gaiola.getSoma());
+            for (int c : gaiola.getCelulas()) {
+                sb.append('.').append(c);
+            }
+            partes.add(sb.toString());
+        }
+        return String.join("|", partes);
+    }
+
+    /**
+     * Lê as regras geradas por {@link #paraTexto()}.
+     *
+     * @param tamanho O tamanho do tabuleiro.
+     * @param texto   O texto das regras.
+     * @return As regras lidas.
+     */
+    public static Regras deTexto(int tamanho, String texto) {
+        Regras regras = classico(tamanho);
+        if (texto.isEmpty()) {
+            return regras;
+        }
+
+        boolean diagonais = false;
+        boolean janelas = false;
+        int[] regioes = null;
+        List<Gaiola> gaiolas = new ArrayList<>();
+        for (String parte : texto.split("\\|")) {
+            switch (parte.charAt(0)) {
+                case 'X' -> diagonais = true;
+                case 'H' -> janelas = true;
+                case 'R' -> {
+                    regioes = new int[parte.length() - 1];
+                    for (int i = 0; i < regioes.length; i++) {
+                        regioes[i] = Character.digit(parte.charAt(i + 1), Character.MAX_RADIX);
+                    }
+                }
+                case 'K' -> {
+                    String[] numeros = parte.substring(1).split("\\.");
+                    int[] celulas = new int[numeros.length - 1];
+                    for (int i = 0; i < celulas.length; i++) {
+                        celulas[i] = Integer.parseInt(numeros[i + 1]);
+                    }
+                    gaiolas.add(new Gaiola(Integer.parseInt(numeros[0]), celulas));
+                }
+                default -> throw new IllegalArgumentException("Regra desconhecida: " + parte);
+            }
+        }
+
+        if (regioes != null) {
+            regras = regras.comRegioes(regioes);
+        }
+        return new Regras(tamanho, regras.regioes, diagonais, janelas, gaiolas.toArray(new Gaiola[0]));
+    }
+
+    private int chave(int quantidade, int soma) {
+        return quantidade * (somaMaxima + 1) + soma;
+    }
+
+    @Override
+    public String toString() {
+        return "Regras[tamanho=" + tamanho + ", " + (isClassico() ? "clássico" : paraTexto()) + "]";
+    }
+}
@@ -16,8 +16,17 @@ public class Sudoku {
      */
     public Sudoku() {
         // criando um tabuleiro padrão 9x9
-        this.tabuleiro = new Tabuleiro(9);
-        this.validador = new ValidadorHelper(9);
+        this(Regras.classico(9));
+    }
+
+    /**
+     * Construtor de um Sudoku com as regras de uma variante.
+     *
+     * @param regras As restrições do tabuleiro (diagonais, janelas, regiões, gaiolas).
+     */
+    public Sudoku(Regras regras) {
+        this.tabuleiro = new Tabuleiro(regras.getTamanho(), regras);
+        this.validador = new ValidadorHelper(regras.getTamanho());
     }
 
     public void inicializarJogo() {
@@ -36,6 +45,22 @@ public class Sudoku {
         }
     }
 
+    /**
+     * Carrega um tabuleiro mantendo quais células são fixas (dados do puzzle)
+     * e quais foram preenchidas pelo jogador.
+     *
+     * @param origem O tabuleiro a ser copiado.
+     */
+    public void carregarJogo(Tabuleiro origem) {
+        tabuleiro.limpar();
+        int tamanho = Math.min(tabuleiro.getTamanho(), origem.getTamanho());
+        for (int i = 0; i < tamanho; i++) {
+            for (int j = 0; j < tamanho; j++) {
+                tabuleiro.setCelula(i, j, origem.getCelula(i, j).clone());
+            }
+        }
+    }
+
     public boolean validarJogada(int linha, int coluna, int valor) {
         return validador.validarPosicao(tabuleiro, linha, coluna, valor);
     }
@@ -45,11 +70,11 @@ public class Sudoku {
      *
      * @param linha a linha onde a jogada será feita
      * @param coluna a coluna onde a jogada será feita
-     * @param valor o valor a ser inserido na célula
+     * @param valor o valor a ser inserido na célula, de 1 ao tamanho do tabuleiro
      * @return true se a jogada for válida, false caso contrário
      */
     public boolean fazerJogada(int linha, int coluna, int valor) {
-        if (!tabuleiro.isIndiceValido(linha, coluna)) {
+        if (!tabuleiro.isIndiceValido(linha, coluna) || valor < 1 || valor > tabuleiro.getTamanho()) {
             return false;
         }
 
@@ -70,6 +95,10 @@ public class Sudoku {
         return validador.validarTabuleiroCompleto(tabuleiro);
     }
 
+    public Regras getRegras() {
+        return tabuleiro.getRegras();
+    }
+
     public Tabuleiro getTabuleiro() {
         return tabuleiro;
     }
@@ -11,6 +11,7 @@ import java.util.stream.Collectors;
 public class Tabuleiro {
     private List<List<Celula>> grid;
     private int tamanho;
+    private Regras regras;
 
     /**
      * Construtor que inicializa o tabuleiro com o tamanho especificado.
@@ -18,7 +19,21 @@ public class Tabuleiro {
      * @param tamanho O tamanho do tabuleiro (deve ser um quadrado perfeito).
      */
     public Tabuleiro(int tamanho) {
+        this(tamanho, null);
+    }
+
+    /**
+     * Construtor de um tabuleiro de uma variante do Sudoku.
+     *
+     * @param tamanho O tamanho do tabuleiro.
+     * @param regras  As restrições do tabuleiro, ou null para o Sudoku clássico.
+     */
+    public Tabuleiro(int tamanho, Regras regras) {
+        if (regras != null && regras.getTamanho() != tamanho) {
+            throw new IllegalArgumentException("Regras para tamanho " + regras.getTamanho() + " em tabuleiro " + tamanho);
+        }
         this.tamanho = tamanho;
+        this.regras = regras;
         this.grid = new ArrayList<>(tamanho);
 
         // já cria a matriz no tamanho predefinido
@@ -58,6 +73,16 @@ public class Tabuleiro {
         return tamanho;
     }
 
+    /**
+     * Obtém as restrições do tabuleiro (clássicas, se nenhuma variante foi definida).
+     */
+    public Regras getRegras() {
+        if (regras == null) {
+            regras = Regras.classico(tamanho);
+        }
+        return regras;
+    }
+
     public List<List<Celula>> getGrid() {
         return grid;
     }
@@ -79,7 +104,7 @@ public class Tabuleiro {
      * @return Uma nova instância de Tabuleiro com os mesmos valores.
      */
     public Tabuleiro copiar() {
-        Tabuleiro copia = new Tabuleiro(tamanho);
+        Tabuleiro copia = new Tabuleiro(tamanho, regras);
         for (int i = 0; i < tamanho; i++) {
             for (int j = 0; j < tamanho; j++) {
                 copia.setCelula(i, j, this.getCelula(i, j).clone());
@@ -88,6 +113,33 @@ public class Tabuleiro {
         return copia;
     }
 
+    /**
+     * Converte o tabuleiro em um vetor linear de valores, linha a linha.
+     * Células vazias são representadas por 0.
+     *
+     * @return Um vetor com tamanho * tamanho posições.
+     */
+    public int[] paraVetor() {
+        int[] valores = new int[tamanho * tamanho];
+        copiarValores(valores);
+        return valores;
+    }
+
+    /**
+     * Copia os valores, linha a linha (0 para vazias), para um vetor já alocado.
+     * Serve para quem lê o tabuleiro a cada quadro ou a cada jogada sem alocar.
+     *
+     * @param destino Um vetor com pelo menos tamanho * tamanho posições.
+     */
+    public void copiarValores(int[] destino) {
+        for (int i = 0; i < tamanho; i++) {
+            List<Celula> linha = grid.get(i);
+            for (int j = 0; j < tamanho; j++) {
+                destino[i * tamanho + j] = linha.get(j).valorOuZero();
+            }
+        }
+    }
+
     public boolean isIndiceValido(int linha, int coluna) {
         // dentro do tamanho predefinido do tabuleiro
         return linha >= 0 && linha < tamanho && coluna >= 0 && coluna < tamanho;
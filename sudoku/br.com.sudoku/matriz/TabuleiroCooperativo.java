@@ -0,0 +1,411 @@
+package matriz;
+
+import enums.ResultadoJogadaCooperativa;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tabuleiro compartilhado por vários jogadores que jogam ao mesmo tempo (modo cooperativo),
+ * sem trava global.
+ * <p>
+ * {@link Sudoku#fazerJogada} verifica e depois escreve na {@link Celula}: duas threads podem
+ * passar pela verificação juntas e deixar o mesmo valor duas vezes na linha. Aqui o estado fica
+ * em palavras atômicas:
+ * <ul>
+ *     <li>um {@code int} por célula: {@code [ jogador: 16 ][ ... ][ revogada: 2 ][ apagando: 1 ]
+ *     [ pendente: 1 ][ fixa: 1 ][ valor: 5 ]};</li>
+ *     <li>um {@code long} por valor, com um bit por unidade (linhas, colunas, regiões e extras,
+ *     nos ids das {@link Regras}) em que o valor já está.</li>
+ * </ul>
+ * Uma jogada reserva a célula (CAS de vazia para pendente) e depois marca o valor em todas as
+ * unidades da célula com um único CAS na palavra do valor, que falha se alguma delas já tem o
+ * valor. Assim a verificação e a gravação das restrições são uma operação atômica só, e jogadas
+ * de valores diferentes nem disputam a mesma palavra.
+ * <p>
+ * Uma jogada está em andamento da reserva até a confirmação (a célula deixa de ser pendente).
+ * Entre jogadas em andamento ao mesmo tempo, o desempate não depende de qual CAS chegou
+ * primeiro: vence o menor id de jogador.
+ * <ul>
+ *     <li>jogadas na mesma célula: quem encontra a célula reservada por um id maior a revoga
+ *     (um CAS na palavra da célula) e fica com ela; quem encontra um id menor, ou a célula já
+ *     confirmada, recebe {@link ResultadoJogadaCooperativa#CELULA_OCUPADA};</li>
+ *     <li>jogadas do mesmo valor em células de uma mesma unidade: quem encontra o valor marcado
+ *     procura na unidade as células com o valor e revoga as jogadas em andamento de ids maiores;
+ *     quem encontra um id menor, uma jogada confirmada ou uma pista recebe
+ *     {@link ResultadoJogadaCooperativa#CONFLITO} e libera a célula.</li>
+ * </ul>
+ * A jogada revogada descobre isso no CAS da confirmação, desfaz as próprias marcas, libera a
+ * célula e recebe {@link ResultadoJogadaCooperativa#CELULA_OCUPADA} ou
+ * {@link ResultadoJogadaCooperativa#CONFLITO}, conforme o motivo. Quem revogou espera essa
+ * limpeza (cedendo o processador) e tenta de novo; como só se espera por ids maiores e quem é
+ * revogado desiste da própria espera, as esperas não formam ciclos. Uma jogada que chega depois
+ * de outra confirmada perde, qualquer que seja o id.
+ * <p>
+ * As palavras dos valores ficam a 64 bytes umas das outras, para que jogadas de valores
+ * diferentes não disputem a mesma linha de cache. Regras com gaiolas (Killer) não são aceitas:
+ * a soma depende de vários valores e não cabe em um CAS.
+ */
+public class TabuleiroCooperativo {
+    private static final int BITS_VALOR = 5;
+    private static final int MASCARA_VALOR = (1 << BITS_VALOR) - 1;
+    private static final int FIXA = 1 << BITS_VALOR;
+    private static final int PENDENTE = 1 << (BITS_VALOR + 1);
+    private static final int APAGANDO = 1 << (BITS_VALOR + 2);
+    // jogada em andamento revogada por um id menor, na mesma célula ou pelo valor
+    private static final int REVOGADA_CELULA = 1 << (BITS_VALOR + 3);
+    private static final int REVOGADA_VALOR = 1 << (BITS_VALOR + 4);
+    private static final int REVOGADA = REVOGADA_CELULA | REVOGADA_VALOR;
+    private static final int DESLOCAMENTO_JOGADOR = 16;
+    public static final int JOGADOR_MAXIMO = (1 << 16) - 1;
+    // 8 longs = 64 bytes entre as palavras de dois valores
+    private static final int ESPACAMENTO = 8;
+
+    private final Regras regras;
+    private final int tamanho;
+    private final AtomicIntegerArray celulas;
+    private final AtomicLongArray ocupacao;
+    // bits das unidades de cada célula
+    private final long[] unidadesDe;
+    private final LongAdder preenchidas = new LongAdder();
+
+    /**
+     * Cria um tabuleiro vazio.
+     *
+     * @throws IllegalArgumentException se as regras têm gaiolas ou mais de 64 unidades.
+     */
+    public TabuleiroCooperativo(Regras regras) {
+        this(new int[regras.getTamanho() * regras.getTamanho()], regras);
+    }
+
+    /**
+     * Cria um tabuleiro com as pistas de um puzzle, que ficam fixas.
+     *
+     * @param pistas Os valores linha a linha (0 para vazias).
+     * @throws IllegalArgumentException se as pistas se repetem em alguma unidade, ou se as regras
+     *                                  têm gaiolas ou mais de 64 unidades.
+     */
+    public TabuleiroCooperativo(int[] pistas, Regras regras) {
+        if (regras.temGaiolas()) {
+            throw new IllegalArgumentException("O tabuleiro cooperativo não aceita gaiolas com soma");
+        }
+        if (regras.getQuantidadeUnidades() > Long.SIZE) {
+            throw new IllegalArgumentException("Unidades demais para o tabuleiro cooperativo: "
+                    + regras.getQuantidadeUnidades());
+        }
+        this.regras = regras;
+        this.tamanho = regras.getTamanho();
+        int quantidade = tamanho * tamanho;
+        if (pistas.length != quantidade) {
+            throw new IllegalArgumentException("Quantidade de pistas inválida: " + pistas.length);
+        }
+
+        this.unidadesDe = new long[quantidade];
+        for (int c = 0; c < quantidade; c++) {
+            for (int unidade : regras.unidadesDaCelula(c)) {
+                unidadesDe[c] |= 1L << unidade;
+            }
+        }
+
+        this.celulas = new AtomicIntegerArray(quantidade);
+        this.ocupacao = new AtomicLongArray(tamanho * ESPACAMENTO);
+        for (int c = 0; c < quantidade; c++) {
+            int valor = pistas[c];
+            if (valor == 0) {
+                continue;
+            }
+            if (valor < 0 || valor > tamanho || !marcar(valor, unidadesDe[c])) {
+                throw new IllegalArgumentException("Pista inválida na célula " + c + ": " + valor);
+            }
+            celulas.set(c, valor | FIXA);
+            preenchidas.increment();
+        }
+    }
+
+    /**
+     * Cria um tabuleiro com os valores de um {@link Tabuleiro}; todos ficam fixos.
+     */
+    public static TabuleiroCooperativo de(Tabuleiro tabuleiro) {
+        return new TabuleiroCooperativo(tabuleiro.paraVetor(), tabuleiro.getRegras());
+    }
+
+    /**
+     * Coloca um valor em uma célula vazia, se nenhuma unidade da célula já o tiver.
+     * Pode ser chamado por várias threads ao mesmo tempo; entre jogadas conflitantes em
+     * andamento, vence o menor id de jogador.
+     *
+     * @param jogador O identificador do jogador, de 0 a {@link #JOGADOR_MAXIMO}.
+     * @return ACEITA, ou o motivo da recusa.
+     */
+    public ResultadoJogadaCooperativa jogar(int jogador, int linha, int coluna, int valor) {
+        if (jogador < 0 || jogador > JOGADOR_MAXIMO) {
+            throw new IllegalArgumentException("Jogador inválido: " + jogador);
+        }
+        if (!isIndiceValido(linha, coluna) || valor < 1 || valor > tamanho) {
+            return ResultadoJogadaCooperativa.INVALIDA;
+        }
+
+        int c = linha * tamanho + coluna;
+        int reservada = valor | PENDENTE | (jogador << DESLOCAMENTO_JOGADOR);
+        ResultadoJogadaCooperativa reserva = reservar(c, jogador, reservada);
+        if (reserva != ResultadoJogadaCooperativa.ACEITA) {
+            return reserva;
+        }
+
+        ResultadoJogadaCooperativa marcacao = marcar(c, jogador, reservada, valor);
+        if (marcacao != ResultadoJogadaCooperativa.ACEITA) {
+            // nada foi marcado; só o dono libera a célula, mesmo se ela foi revogada
+            celulas.set(c, 0);
+            return marcacao;
+        }
+        if (!celulas.compareAndSet(c, reservada, reservada & ~PENDENTE)) {
+            // revogada depois de marcar: desfaz as marcas antes de liberar a célula, para que quem
+            // procura o dono de uma marca sempre encontre o valor na célula
+            int revogada = celulas.get(c);
+            desmarcar(valor, unidadesDe[c]);
+            celulas.set(c, 0);
+            return motivo(revogada);
+        }
+        preenchidas.increment();
+        return ResultadoJogadaCooperativa.ACEITA;
+    }
+
+    /**
+     * Reserva a célula vazia, revogando a reserva em andamento de um jogador de id maior.
+     */
+    private ResultadoJogadaCooperativa reservar(int c, int jogador, int reservada) {
+        while (true) {
+            int atual = celulas.get(c);
+            if ((atual & FIXA) != 0) {
+                return ResultadoJogadaCooperativa.CELULA_FIXA;
+            }
+            if (atual == 0) {
+                if (celulas.compareAndSet(c, 0, reservada)) {
+                    return ResultadoJogadaCooperativa.ACEITA;
+                }
+                continue;
+            }
+            if ((atual & PENDENTE) == 0) {
+                // confirmada ou sendo apagada
+                return ResultadoJogadaCooperativa.CELULA_OCUPADA;
+            }
+            if ((atual & REVOGADA) == 0) {
+                if (jogadorDe(atual) <= jogador) {
+                    return ResultadoJogadaCooperativa.CELULA_OCUPADA;
+                }
+                if (!celulas.compareAndSet(c, atual, atual | REVOGADA_CELULA)) {
+                    continue;
+                }
+                atual |= REVOGADA_CELULA;
+            }
+            // o dono da jogada revogada libera a célula
+            while (celulas.get(c) == atual) {
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * Marca o valor nas unidades da célula reservada, revogando as jogadas em andamento de ids
+     * maiores que já o marcaram em alguma delas.
+     */
+    private ResultadoJogadaCooperativa marcar(int c, int jogador, int reservada, int valor) {
+        int indice = (valor - 1) * ESPACAMENTO;
+        long unidades = unidadesDe[c];
+        while (true) {
+            long atual = ocupacao.get(indice);
+            long disputadas = atual & unidades;
+            if (disputadas == 0) {
+                if (ocupacao.compareAndSet(indice, atual, atual | unidades)) {
+                    return ResultadoJogadaCooperativa.ACEITA;
+                }
+                continue;
+            }
+            int propria = celulas.get(c);
+            if (propria != reservada) {
+                // revogada enquanto esperava: desiste, para ninguém esperar em ciclo
+                return motivo(propria);
+            }
+            if (!revogarOcupantes(c, jogador, valor, disputadas)) {
+                return ResultadoJogadaCooperativa.CONFLITO;
+            }
+            // os donos das jogadas revogadas desfazem as marcas
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Revoga as jogadas em andamento de ids maiores que têm o valor nas unidades disputadas.
+     *
+     * @return false se alguma delas tem o valor confirmado, como pista ou de um id menor.
+     */
+    private boolean revogarOcupantes(int c, int jogador, int valor, long disputadas) {
+        for (long restantes = disputadas; restantes != 0; restantes &= restantes - 1) {
+            int unidade = Long.numberOfTrailingZeros(restantes);
+            for (int i = 0; i < regras.getTamanhoUnidade(unidade); i++) {
+                int outra = regras.getCelulaDaUnidade(unidade, i);
+                int palavra = celulas.get(outra);
+                if (outra == c || palavra == 0 || (palavra & MASCARA_VALOR) != valor) {
+                    continue;
+                }
+                if ((palavra & PENDENTE) == 0 || (palavra & APAGANDO) != 0) {
+                    return false;
+                }
+                if ((palavra & REVOGADA) != 0) {
+                    continue;
+                }
+                if (jogadorDe(palavra) <= jogador) {
+                    return false;
+                }
+                // se o CAS falhar, a próxima tentativa de marcar olha a célula de novo
+                celulas.compareAndSet(outra, palavra, palavra | REVOGADA_VALOR);
+            }
+        }
+        return true;
+    }
+
+    private static ResultadoJogadaCooperativa motivo(int revogada) {
+        return (revogada & REVOGADA_VALOR) != 0
+                ? ResultadoJogadaCooperativa.CONFLITO
+                : ResultadoJogadaCooperativa.CELULA_OCUPADA;
+    }
+
+    private static int jogadorDe(int palavra) {
+        return palavra >>> DESLOCAMENTO_JOGADOR;
+    }
+
+    /**
+     * Apaga o valor de uma célula preenchida por um jogador (qualquer um deles).
+     * Pode ser chamado por várias threads ao mesmo tempo.
+     *
+     * @return ACEITA, ou o motivo da recusa.
+     */
+    public ResultadoJogadaCooperativa apagar(int linha, int coluna) {
+        if (!isIndiceValido(linha, coluna)) {
+            return ResultadoJogadaCooperativa.INVALIDA;
+        }
+
+        int c = linha * tamanho + coluna;
+        int atual = celulas.get(c);
+        if ((atual & FIXA) != 0) {
+            return ResultadoJogadaCooperativa.CELULA_FIXA;
+        }
+        if (atual == 0) {
+            return ResultadoJogadaCooperativa.CELULA_VAZIA;
+        }
+        // a célula fica marcada até o valor sair das unidades: nesse meio tempo ninguém joga
+        // nela, e o valor não pode ser colocado de novo em outra célula da unidade e ficar duplicado
+        if ((atual & (PENDENTE | APAGANDO)) != 0 || !celulas.compareAndSet(c, atual, atual | APAGANDO)) {
+            return ResultadoJogadaCooperativa.CELULA_OCUPADA;
+        }
+
+        desmarcar(atual & MASCARA_VALOR, unidadesDe[c]);
+        celulas.set(c, 0);
+        preenchidas.decrement();
+        return ResultadoJogadaCooperativa.ACEITA;
+    }
+
+    /**
+     * Marca o valor nas unidades, se nenhuma delas já o tiver (usado para as pistas).
+     */
+    private boolean marcar(int valor, long unidades) {
+        int indice = (valor - 1) * ESPACAMENTO;
+        while (true) {
+            long atual = ocupacao.get(indice);
+            if ((atual & unidades) != 0) {
+                return false;
+            }
+            if (ocupacao.compareAndSet(indice, atual, atual | unidades)) {
+                return true;
+            }
+        }
+    }
+
+    private void desmarcar(int valor, long unidades) {
+        int indice = (valor - 1) * ESPACAMENTO;
+        while (true) {
+            long atual = ocupacao.get(indice);
+            if (ocupacao.compareAndSet(indice, atual, atual & ~unidades)) {
+                return;
+            }
+        }
+    }
+
+    public boolean isIndiceValido(int linha, int coluna) {
+        return linha >= 0 && linha < tamanho && coluna >= 0 && coluna < tamanho;
+    }
+
+    /**
+     * @return O valor da célula, ou 0 se estiver vazia (ou com uma jogada em andamento).
+     */
+    public int getValor(int linha, int coluna) {
+        int atual = celulas.get(linha * tamanho + coluna);
+        return (atual & (PENDENTE | APAGANDO)) != 0 ? 0 : atual & MASCARA_VALOR;
+    }
+
+    /**
+     * @return O jogador que preencheu a célula, ou -1 se ela está vazia ou é uma pista.
+     */
+    public int getJogador(int linha, int coluna) {
+        int atual = celulas.get(linha * tamanho + coluna);
+        if (atual == 0 || (atual & (FIXA | PENDENTE | APAGANDO)) != 0) {
+            return -1;
+        }
+        return jogadorDe(atual);
+    }
+
+    public boolean isFixo(int linha, int coluna) {
+        return (celulas.get(linha * tamanho + coluna) & FIXA) != 0;
+    }
+
+    /**
+     * @return O número de células preenchidas, pistas incluídas.
+     */
+    public int getPreenchidas() {
+        return (int) preenchidas.sum();
+    }
+
+    /**
+     * Como nenhuma unidade tem valores repetidos, o tabuleiro cheio está resolvido.
+     */
+    public boolean isCompleto() {
+        return getPreenchidas() == tamanho * tamanho;
+    }
+
+    /**
+     * Lê os valores linha a linha (0 para vazias). Cada célula é lida atomicamente, mas jogadas
+     * feitas durante a leitura podem aparecer em parte.
+     */
+    public int[] paraVetor() {
+        int[] valores = new int[tamanho * tamanho];
+        for (int c = 0; c < valores.length; c++) {
+            valores[c] = getValor(c / tamanho, c % tamanho);
+        }
+        return valores;
+    }
+
+    /**
+     * Copia o estado atual para um {@link Tabuleiro}, mantendo as pistas fixas.
+     */
+    public Tabuleiro paraTabuleiro() {
+        Tabuleiro tabuleiro = new Tabuleiro(tamanho, regras);
+        for (int i = 0; i < tamanho; i++) {
+            for (int j = 0; j < tamanho; j++) {
+                int valor = getValor(i, j);
+                if (valor > 0) {
+                    tabuleiro.setCelula(i, j, new Celula(valor, isFixo(i, j)));
+                }
+            }
+        }
+        return tabuleiro;
+    }
+
+    public Regras getRegras() {
+        return regras;
+    }
+
+    public int getTamanho() {
+        return tamanho;
+    }
+}
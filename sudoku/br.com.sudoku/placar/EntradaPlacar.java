@@ -0,0 +1,59 @@
+package placar;
+
+import java.time.Instant;
+import java.util.Comparator;
+
+/**
+ * Representa a melhor pontuação de um jogador em uma tabela do placar.
+ * A ordem é da maior pontuação para a menor; em caso de empate, quem pontuou primeiro fica na frente.
+ */
+public final class EntradaPlacar implements Comparable<EntradaPlacar> {
+    private static final Comparator<EntradaPlacar> ORDEM = Comparator
+            .comparingInt(EntradaPlacar::getPontuacao).reversed()
+            .thenComparing(EntradaPlacar::getInstante)
+            .thenComparing(EntradaPlacar::getJogador);
+
+    private final String jogador;
+    private final int pontuacao;
+    private final Instant instante;
+
+    public EntradaPlacar(String jogador, int pontuacao, Instant instante) {
+        this.jogador = jogador;
+        this.pontuacao = pontuacao;
+        this.instante = instante;
+    }
+
+    public String getJogador() {
+        return jogador;
+    }
+
+    public int getPontuacao() {
+        return pontuacao;
+    }
+
+    public Instant getInstante() {
+        return instante;
+    }
+
+    @Override
+    public int compareTo(EntradaPlacar outra) {
+        return ORDEM.compare(this, outra);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof EntradaPlacar outra)) return false;
+        return pontuacao == outra.pontuacao && jogador.equals(outra.jogador) && instante.equals(outra.instante);
+    }
+
+    @Override
+    public int hashCode() {
+        return jogador.hashCode() * 31 + pontuacao;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EntradaPlacar[jogador=%s, pontuacao=%d, instante=%s]", jogador, pontuacao, instante);
+    }
+}
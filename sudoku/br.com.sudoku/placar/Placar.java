@@ -0,0 +1,141 @@
+package placar;
+
+import enums.Dificuldade;
+import enums.JanelaPlacar;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Placar de pontuações dos jogos de Sudoku.
+ * <p>
+ * Recebe pontuações de muitas sessões ao mesmo tempo e mantém uma {@link TabelaPlacar}
+ * por dificuldade, janela ({@link JanelaPlacar}) e período. Cada registro entra nas três
+ * janelas do período atual. Para cada dificuldade e janela ficam guardados o período atual
+ * e o anterior; períodos mais antigos são descartados quando um novo começa.
+ *
+ * <pre>
+ *     Placar placar = new Placar();
+ *     placar.registrar("ana", Dificuldade.MEDIO, jogo.calcularPontuacao());
+ *     List&lt;EntradaPlacar&gt; melhores = placar.top(Dificuldade.MEDIO, JanelaPlacar.DIARIA, 10);
+ * </pre>
+ */
+public class Placar {
+    // maior pontuação possível em Jogo.calcularPontuacao (EXTREMO)
+    public static final int PONTUACAO_MAXIMA_PADRAO = 5000;
+
+    private final Clock relogio;
+    private final int pontuacaoMaxima;
+    private final ConcurrentMap<Chave, TabelaPlacar> tabelas;
+
+    public Placar() {
+        this(Clock.systemDefaultZone(), PONTUACAO_MAXIMA_PADRAO);
+    }
+
+    /**
+     * @param relogio         O relógio que define o dia e a semana atuais.
+     * @param pontuacaoMaxima A maior pontuação aceita.
+     */
+    public Placar(Clock relogio, int pontuacaoMaxima) {
+        this.relogio = relogio;
+        this.pontuacaoMaxima = pontuacaoMaxima;
+        this.tabelas = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Registra a pontuação de um jogador nas janelas diária, semanal e geral.
+     *
+     * @param jogador     O identificador do jogador.
+     * @param dificuldade A dificuldade do jogo.
+     * @param pontuacao   A pontuação obtida.
+     */
+    public void registrar(String jogador, Dificuldade dificuldade, int pontuacao) {
+        Instant agora = relogio.instant();
+        LocalDate hoje = LocalDate.now(relogio);
+        for (JanelaPlacar janela : JanelaPlacar.values()) {
+            tabelaParaRegistro(dificuldade, janela, hoje).registrar(jogador, pontuacao, agora);
+        }
+    }
+
+    /**
+     * Obtém as K melhores entradas do período atual.
+     *
+     * @param k A quantidade de entradas, zero ou mais.
+     * @return As entradas, da melhor para a pior; vazia se ninguém pontuou no período.
+     */
+    public List<EntradaPlacar> top(Dificuldade dificuldade, JanelaPlacar janela, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Quantidade de entradas negativa: " + k);
+        }
+        return tabela(dificuldade, janela, LocalDate.now(relogio)).map(tabela -> tabela.top(k)).orElse(List.of());
+    }
+
+    public OptionalInt posicao(String jogador, Dificuldade dificuldade, JanelaPlacar janela) {
+        Optional<TabelaPlacar> tabela = tabela(dificuldade, janela, LocalDate.now(relogio));
+        return tabela.isPresent() ? tabela.get().posicao(jogador) : OptionalInt.empty();
+    }
+
+    /**
+     * Obtém a tabela de um período específico (o atual ou o anterior). Consultas não criam
+     * tabelas nem descartam períodos: isso só acontece ao registrar.
+     *
+     * @param data Qualquer data dentro do período desejado.
+     * @return A tabela, ou vazio se ninguém pontuou no período (ou se ele já foi descartado).
+     */
+    public Optional<TabelaPlacar> tabela(Dificuldade dificuldade, JanelaPlacar janela, LocalDate data) {
+        return Optional.ofNullable(tabelas.get(new Chave(dificuldade, janela, janela.inicioPeriodo(data))));
+    }
+
+    private TabelaPlacar tabelaParaRegistro(Dificuldade dificuldade, JanelaPlacar janela, LocalDate data) {
+        Chave chave = new Chave(dificuldade, janela, janela.inicioPeriodo(data));
+        TabelaPlacar tabela = tabelas.get(chave);
+        if (tabela != null) {
+            return tabela;
+        }
+
+        tabela = tabelas.computeIfAbsent(chave, c -> new TabelaPlacar(pontuacaoMaxima));
+        descartarPeriodosAntigos(chave);
+        return tabela;
+    }
+
+    /**
+     * Remove os períodos anteriores ao anterior do período informado.
+     */
+    private void descartarPeriodosAntigos(Chave atual) {
+        LocalDate anterior = atual.janela.inicioPeriodo(atual.inicio.minusDays(1));
+        tabelas.keySet().removeIf(chave -> chave.dificuldade == atual.dificuldade
+                && chave.janela == atual.janela
+                && chave.inicio.isBefore(anterior));
+    }
+
+    private static final class Chave {
+        private final Dificuldade dificuldade;
+        private final JanelaPlacar janela;
+        private final LocalDate inicio;
+
+        Chave(Dificuldade dificuldade, JanelaPlacar janela, LocalDate inicio) {
+            this.dificuldade = dificuldade;
+            this.janela = janela;
+            this.inicio = inicio;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof Chave outra)) return false;
+            return dificuldade == outra.dificuldade && janela == outra.janela && inicio.equals(outra.inicio);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dificuldade, janela, inicio);
+        }
+    }
+}
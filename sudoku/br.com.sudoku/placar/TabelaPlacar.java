@@ -0,0 +1,120 @@
+package placar;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Tabela de classificação de uma dificuldade em um período.
+ * <p>
+ * Guarda só a melhor pontuação de cada jogador. Não há trava global:
+ * <ul>
+ *     <li>a troca da pontuação de um jogador é atômica por jogador ({@code ConcurrentHashMap.compute});</li>
+ *     <li>as entradas ficam ordenadas em uma skip list concorrente, para o top-K em O(log n + K);</li>
+ *     <li>uma árvore de Fenwick com contadores atômicos, indexada pela pontuação, responde
+ *     "quantos jogadores têm pontuação maior" em O(log P), onde P é a pontuação máxima.</li>
+ * </ul>
+ * Durante atualizações simultâneas as consultas podem refletir um instante intermediário,
+ * mas nunca travam quem está registrando pontuações.
+ */
+public class TabelaPlacar {
+    private final int pontuacaoMaxima;
+    private final ConcurrentMap<String, EntradaPlacar> melhores;
+    private final ConcurrentSkipListSet<EntradaPlacar> ordenadas;
+    // árvore de Fenwick (indexada a partir de 1) com a quantidade de jogadores por pontuação
+    private final AtomicLongArray contagem;
+
+    public TabelaPlacar(int pontuacaoMaxima) {
+        this.pontuacaoMaxima = pontuacaoMaxima;
+        this.melhores = new ConcurrentHashMap<>();
+        this.ordenadas = new ConcurrentSkipListSet<>();
+        this.contagem = new AtomicLongArray(pontuacaoMaxima + 2);
+    }
+
+    /**
+     * Registra uma pontuação, mantendo apenas a melhor de cada jogador.
+     *
+     * @return true se a pontuação passou a ser a melhor do jogador.
+     */
+    public boolean registrar(String jogador, int pontuacao, Instant instante) {
+        if (pontuacao < 0 || pontuacao > pontuacaoMaxima) {
+            throw new IllegalArgumentException("Pontuação fora do intervalo: " + pontuacao);
+        }
+
+        EntradaPlacar nova = new EntradaPlacar(jogador, pontuacao, instante);
+        EntradaPlacar resultado = melhores.compute(jogador, (chave, atual) -> {
+            if (atual != null && atual.getPontuacao() >= pontuacao) {
+                return atual;
+            }
+            // o compute é atômico por jogador, então a troca na lista e na contagem também é
+            if (atual != null) {
+                ordenadas.remove(atual);
+                somar(atual.getPontuacao(), -1);
+            }
+            ordenadas.add(nova);
+            somar(pontuacao, 1);
+            return nova;
+        });
+        return resultado == nova;
+    }
+
+    /**
+     * Obtém as K melhores entradas.
+     *
+     * @param k A quantidade de entradas, zero ou mais.
+     * @return As entradas, da melhor para a pior.
+     */
+    public List<EntradaPlacar> top(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Quantidade de entradas negativa: " + k);
+        }
+        List<EntradaPlacar> resultado = new ArrayList<>(Math.min(k, 64));
+        Iterator<EntradaPlacar> it = ordenadas.iterator();
+        while (resultado.size() < k && it.hasNext()) {
+            resultado.add(it.next());
+        }
+        return resultado;
+    }
+
+    /**
+     * Obtém a posição do jogador (1 para o primeiro). Jogadores empatados dividem a posição.
+     *
+     * @param jogador O identificador do jogador.
+     * @return A posição, ou vazio se o jogador não pontuou nesta tabela.
+     */
+    public OptionalInt posicao(String jogador) {
+        EntradaPlacar entrada = melhores.get(jogador);
+        if (entrada == null) {
+            return OptionalInt.empty();
+        }
+        long acima = somaAte(pontuacaoMaxima) - somaAte(entrada.getPontuacao());
+        return OptionalInt.of((int) acima + 1);
+    }
+
+    public int tamanho() {
+        return melhores.size();
+    }
+
+    private void somar(int pontuacao, long delta) {
+        for (int i = pontuacao + 1; i < contagem.length(); i += i & -i) {
+            contagem.addAndGet(i, delta);
+        }
+    }
+
+    /**
+     * Quantidade de jogadores com pontuação menor ou igual à informada.
+     */
+    private long somaAte(int pontuacao) {
+        long soma = 0;
+        for (int i = pontuacao + 1; i > 0; i -= i & -i) {
+            soma += contagem.get(i);
+        }
+        return soma;
+    }
+}
@@ -0,0 +1,184 @@
+package terminal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Lê teclas do terminal sem esperar pelo Enter.
+ * <p>
+ * Ao abrir, guarda a configuração do terminal ({@code stty -g}) e desliga o modo canônico e o
+ * eco ({@code stty -icanon -echo}); {@link #close()} devolve a configuração guardada, e um gancho
+ * de desligamento faz o mesmo se o processo terminar antes (Ctrl+C, {@link System#exit}). Sem um
+ * terminal (entrada redirecionada, Windows), as teclas chegam linha a linha, como antes.
+ * <p>
+ * {@link #ler()} só lê os bytes que já chegaram ({@link InputStream#available()}), sem bloquear;
+ * {@link #aguardar()} bloqueia até chegar algum byte. As setas chegam como {@code ESC [ A..D} e
+ * viram {@link #SETA_CIMA}, {@link #SETA_BAIXO}, {@link #SETA_DIREITA} e {@link #SETA_ESQUERDA};
+ * as demais teclas são devolvidas como o próprio byte.
+ */
+public final class EntradaTerminal implements AutoCloseable {
+    public static final int NENHUMA = -1;
+    public static final int ESC = 0x1B;
+    public static final int SETA_CIMA = 0x1_0000;
+    public static final int SETA_BAIXO = 0x1_0001;
+    public static final int SETA_DIREITA = 0x1_0002;
+    public static final int SETA_ESQUERDA = 0x1_0003;
+
+    private final InputStream entrada;
+    // configuração do terminal antes da abertura, ou null se o modo não foi trocado
+    private final String configuracaoOriginal;
+    // restaura o terminal se o processo terminar sem passar por close(), ou null
+    private Thread restauracao;
+    private final byte[] pendentes = new byte[64];
+    private int inicio;
+    private int fim;
+
+    private EntradaTerminal(InputStream entrada, String configuracaoOriginal) {
+        this.entrada = entrada;
+        this.configuracaoOriginal = configuracaoOriginal;
+        if (configuracaoOriginal != null) {
+            restauracao = new Thread(() -> stty(configuracaoOriginal), "restauracao-terminal");
+            Runtime.getRuntime().addShutdownHook(restauracao);
+        }
+    }
+
+    /**
+     * Abre a entrada padrão, trocando o terminal para o modo sem Enter e sem eco quando possível.
+     */
+    public static EntradaTerminal abrir() {
+        String original = stty("-g");
+        if (original != null && stty("-icanon", "-echo", "min", "1", "time", "0") == null) {
+            original = null;
+        }
+        return new EntradaTerminal(System.in, original);
+    }
+
+    /**
+     * Usa outra entrada, sem mexer no terminal (para reproduzir uma sequência de teclas).
+     */
+    public static EntradaTerminal de(InputStream entrada) {
+        return new EntradaTerminal(entrada, null);
+    }
+
+    /**
+     * @return true se o terminal está no modo sem Enter e sem eco.
+     */
+    public boolean isModoBruto() {
+        return configuracaoOriginal != null;
+    }
+
+    /**
+     * Lê a próxima tecla, se já houver uma.
+     *
+     * @return O byte da tecla, uma das setas, ou {@link #NENHUMA} se nada chegou.
+     */
+    public int ler() throws IOException {
+        completar();
+        if (inicio == fim) {
+            return NENHUMA;
+        }
+
+        int tecla = pendentes[inicio++] & 0xFF;
+        if (tecla == ESC && fim - inicio >= 2 && pendentes[inicio] == '[') {
+            int seta = switch (pendentes[inicio + 1]) {
+                case 'A' -> SETA_CIMA;
+                case 'B' -> SETA_BAIXO;
+                case 'C' -> SETA_DIREITA;
+                case 'D' -> SETA_ESQUERDA;
+                default -> NENHUMA;
+            };
+            if (seta != NENHUMA) {
+                inicio += 2;
+                return seta;
+            }
+        }
+        return tecla;
+    }
+
+    /**
+     * Bloqueia até chegar pelo menos um byte e o guarda, com os que chegaram junto, para o
+     * próximo {@link #ler()}. Volta na hora se já há uma tecla guardada.
+     *
+     * @return false se a entrada terminou.
+     */
+    public boolean aguardar() throws IOException {
+        completar();
+        if (inicio < fim) {
+            return true;
+        }
+        // completar() deixou o buffer vazio e na posição zero
+        int lidos = entrada.read(pendentes, 0, pendentes.length);
+        if (lidos <= 0) {
+            return false;
+        }
+        fim = lidos;
+        return true;
+    }
+
+    /**
+     * Move para o buffer os bytes que já chegaram, sem bloquear.
+     */
+    private void completar() throws IOException {
+        if (inicio == fim) {
+            inicio = 0;
+            fim = 0;
+        } else if (fim == pendentes.length) {
+            System.arraycopy(pendentes, inicio, pendentes, 0, fim - inicio);
+            fim -= inicio;
+            inicio = 0;
+        }
+
+        int disponiveis = entrada.available();
+        if (disponiveis > 0 && fim < pendentes.length) {
+            int lidos = entrada.read(pendentes, fim, Math.min(disponiveis, pendentes.length - fim));
+            if (lidos > 0) {
+                fim += lidos;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (restauracao == null) {
+            return;
+        }
+        try {
+            Runtime.getRuntime().removeShutdownHook(restauracao);
+        } catch (IllegalStateException e) {
+            // o processo já está terminando e o gancho vai restaurar o terminal
+            return;
+        }
+        restauracao = null;
+        stty(configuracaoOriginal);
+    }
+
+    /**
+     * Executa o {@code stty} sobre o terminal do processo.
+     *
+     * @return A saída do comando, ou null se ele falhou ou não há terminal.
+     */
+    private static String stty(String... argumentos) {
+        File terminal = new File("/dev/tty");
+        if (!terminal.exists()) {
+            return null;
+        }
+        String[] comando = new String[argumentos.length + 1];
+        comando[0] = "stty";
+        System.arraycopy(argumentos, 0, comando, 1, argumentos.length);
+        try {
+            Process processo = new ProcessBuilder(comando)
+                    .redirectInput(terminal)
+                    .redirectError(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            String saida = new String(processo.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+            return processo.waitFor() == 0 ? saida : null;
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package terminal;
+
+import enums.Dificuldade;
+import jogo.Jogo;
+import matriz.Posicao;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+
+/**
+ * Interface de terminal para um {@link Jogo}.
+ * <p>
+ * O laço lê as teclas que já chegaram ({@link EntradaTerminal}), aplica cada uma ao jogo e
+ * redesenha só as células que mudaram ({@link RenderizadorTabuleiro}). Sem tecla, bloqueia na
+ * leitura até a próxima chegar; o fim da entrada encerra o jogo.
+ * A linha de mensagem mostra quanto tempo o último quadro levou, do fim da tecla até a escrita.
+ * <p>
+ * Teclas: as setas movem a seleção; 1 a 9 jogam na célula selecionada; 0, espaço ou backspace
+ * apagam a célula selecionada; u desfaz; r refaz; d seleciona a célula da dica; n começa um
+ * novo jogo; q sai. O ESC sozinho é ignorado: ele também começa as sequências das setas.
+ *
+ * <pre>
+ *     java terminal.JogoTerminal dificuldade=DIFICIL
+ * </pre>
+ */
+public class JogoTerminal {
+    private static final String AJUDA =
+            "setas: mover  1-9: jogar  0: apagar  u/r: desfazer/refazer  d: dica  n: novo  q: sair";
+    private static final int BACKSPACE = 0x7F;
+
+    private final Jogo jogo;
+    private final EntradaTerminal entrada;
+    private final OutputStream saida;
+    private final RenderizadorTabuleiro renderizador;
+    private final int tamanho;
+    private final StringBuilder mensagem = new StringBuilder();
+    private String estado = AJUDA;
+    private int linha;
+    private int coluna;
+    private long ultimoQuadroNanos;
+
+    public JogoTerminal(Jogo jogo, EntradaTerminal entrada, OutputStream saida) {
+        this.jogo = jogo;
+        this.entrada = entrada;
+        this.saida = saida;
+        this.tamanho = jogo.getTabuleiro().getTamanho();
+        this.renderizador = new RenderizadorTabuleiro(tamanho);
+    }
+
+    /**
+     * Desenha o jogo e processa as teclas até o jogador sair.
+     */
+    public void executar() throws IOException {
+        atualizarMensagem();
+        renderizador.desenharCompleto(jogo.getTabuleiro(), linha, coluna, saida);
+        try {
+            while (true) {
+                int tecla = entrada.ler();
+                if (tecla == EntradaTerminal.NENHUMA) {
+                    if (!entrada.aguardar()) {
+                        return;
+                    }
+                    continue;
+                }
+                long inicio = System.nanoTime();
+                if (!processar(tecla)) {
+                    return;
+                }
+                quadro();
+                ultimoQuadroNanos = System.nanoTime() - inicio;
+            }
+        } finally {
+            renderizador.encerrar(saida);
+        }
+    }
+
+    /**
+     * Aplica uma tecla ao jogo.
+     *
+     * @return false se a tecla encerra o jogo.
+     */
+    boolean processar(int tecla) {
+        switch (tecla) {
+            case EntradaTerminal.SETA_CIMA -> linha = (linha + tamanho - 1) % tamanho;
+            case EntradaTerminal.SETA_BAIXO -> linha = (linha + 1) % tamanho;
+            case EntradaTerminal.SETA_ESQUERDA -> coluna = (coluna + tamanho - 1) % tamanho;
+            case EntradaTerminal.SETA_DIREITA -> coluna = (coluna + 1) % tamanho;
+            case 'u' -> estado = jogo.desfazerJogada() ? AJUDA : "Nenhuma jogada para desfazer";
+            case 'r' -> estado = jogo.refazerJogada() ? AJUDA : "Nenhuma jogada para refazer";
+            case '0', ' ', '\b', BACKSPACE -> apagar();
+            case 'd' -> selecionarDica();
+            case 'n' -> {
+                jogo.novoJogo();
+                estado = AJUDA;
+            }
+            case 'q' -> {
+                return false;
+            }
+            default -> {
+                if (tecla >= '1' && tecla <= '9' && tecla - '0' <= tamanho) {
+                    jogar(tecla - '0');
+                }
+            }
+        }
+        return true;
+    }
+
+    private void jogar(int valor) {
+        if (!jogo.fazerJogada(linha, coluna, valor)) {
+            estado = "Jogada inválida";
+        } else if (jogo.isJogoCompleto()) {
+            estado = "Parabéns! Pontuação: " + jogo.calcularPontuacao();
+        } else {
+            estado = AJUDA;
+        }
+    }
+
+    private void apagar() {
+        estado = jogo.limparCelula(linha, coluna) ? AJUDA : "Nada para apagar";
+    }
+
+    private void selecionarDica() {
+        Optional<Posicao> dica = jogo.obterDica();
+        if (dica.isPresent()) {
+            linha = dica.get().getLinha();
+            coluna = dica.get().getColuna();
+            estado = AJUDA;
+        } else {
+            estado = "Nenhuma dica disponível";
+        }
+    }
+
+    private void quadro() throws IOException {
+        atualizarMensagem();
+        renderizador.atualizar(jogo.getTabuleiro(), linha, coluna, saida);
+    }
+
+    private void atualizarMensagem() {
+        mensagem.setLength(0);
+        mensagem.append(estado).append("  [quadro: ").append(ultimoQuadroNanos / 1000).append(" µs]");
+        renderizador.setMensagem(mensagem);
+    }
+
+    /**
+     * Joga no terminal. Argumento opcional no formato chave=valor: dificuldade (FACIL, MEDIO,
+     * DIFICIL, EXTREMO).
+     */
+    public static void main(String[] args) throws IOException {
+        Dificuldade dificuldade = Dificuldade.MEDIO;
+        for (String argumento : args) {
+            int separador = argumento.indexOf('=');
+            if (separador < 0 || !argumento.substring(0, separador).equals("dificuldade")) {
+                throw new IllegalArgumentException("Argumento desconhecido: " + argumento);
+            }
+            dificuldade = Dificuldade.valueOf(argumento.substring(separador + 1));
+        }
+
+        Jogo jogo = new Jogo(dificuldade);
+        jogo.novoJogo();
+        // a saída padrão sem o PrintStream, que converte e descarrega a cada escrita
+        OutputStream saida = new FileOutputStream(FileDescriptor.out);
+        try (EntradaTerminal entrada = EntradaTerminal.abrir()) {
+            new JogoTerminal(jogo, entrada, saida).executar();
+        }
+    }
+}
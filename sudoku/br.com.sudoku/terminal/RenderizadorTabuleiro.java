@@ -0,0 +1,317 @@
+package terminal;
+
+import matriz.Tabuleiro;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Desenha tabuleiros em um terminal ANSI ou em um registro de texto, sem criar Strings por quadro.
+ * <p>
+ * No terminal, {@link #desenharCompleto} desenha a moldura e todas as células uma vez; depois,
+ * {@link #atualizar} compara cada célula com o quadro anterior (valor, fixa e selecionada,
+ * guardados em um {@code int} por célula) e só reescreve as que mudaram, posicionando o cursor
+ * com {@code ESC[linha;colunaH}. Uma jogada redesenha uma ou duas células, e não o tabuleiro.
+ * <p>
+ * Para registros, {@link #registrar} acrescenta o tabuleiro como uma linha de texto
+ * ({@code 53..7....}, com '.' nas vazias) e só escreve na saída quando o buffer enche;
+ * {@link #descarregar} escreve o resto. O que ainda estiver no buffer sai junto com o próximo
+ * quadro, antes dele.
+ * <p>
+ * Tudo passa pelo mesmo buffer de bytes, reaproveitado entre os quadros. Cada instância deve
+ * escrever em uma única saída, e não é segura para várias threads.
+ */
+public class RenderizadorTabuleiro {
+    private static final byte[] LIMPAR_TELA = ascii("\u001B[0m\u001B[2J\u001B[H");
+    private static final byte[] ESCONDER_CURSOR = ascii("\u001B[?25l");
+    private static final byte[] MOSTRAR_CURSOR = ascii("\u001B[?25h");
+    private static final byte[] LIMPAR_ATE_FIM_DA_LINHA = ascii("\u001B[K");
+    private static final byte[] ESTILO_NORMAL = ascii("\u001B[0m");
+    private static final byte[] ESTILO_FIXO = ascii("\u001B[1m");
+    private static final byte[] ESTILO_JOGADOR = ascii("\u001B[36m");
+    private static final byte[] ESTILO_SELECIONADO = ascii("\u001B[7m");
+
+    // estado de uma célula no quadro: [ selecionada: 1 ][ fixa: 1 ][ valor: 5 ]
+    private static final int FIXA = 1 << 5;
+    private static final int SELECIONADA = 1 << 6;
+    // força o redesenho da célula no próximo quadro
+    private static final int DESCONHECIDO = -1;
+    // o registro escreve na saída quando o buffer passa deste tamanho
+    private static final int LIMITE_REGISTRO = 64 * 1024;
+
+    private final int tamanho;
+    private final int lado;
+    private final int[] quadro;
+    private final int[] valores;
+    private byte[] buffer = new byte[4096];
+    private int usados;
+    private final StringBuilder mensagem = new StringBuilder();
+    private boolean mensagemAlterada;
+
+    /**
+     * @param tamanho O tamanho dos tabuleiros desenhados (9 para o clássico), um quadrado perfeito.
+     */
+    public RenderizadorTabuleiro(int tamanho) {
+        int lado = (int) Math.sqrt(tamanho);
+        if (tamanho <= 0 || lado * lado != tamanho) {
+            throw new IllegalArgumentException("O tamanho deve ser um quadrado perfeito: " + tamanho);
+        }
+        this.tamanho = tamanho;
+        this.lado = lado;
+        this.quadro = new int[tamanho * tamanho];
+        this.valores = new int[tamanho * tamanho];
+        Arrays.fill(quadro, DESCONHECIDO);
+    }
+
+    /**
+     * Limpa a tela e desenha a moldura, todas as células e a mensagem.
+     *
+     * @param linhaCursor  A linha da célula selecionada, ou -1 para nenhuma.
+     * @param colunaCursor A coluna da célula selecionada.
+     */
+    public void desenharCompleto(Tabuleiro tabuleiro, int linhaCursor, int colunaCursor, OutputStream saida)
+            throws IOException {
+        escrever(ESCONDER_CURSOR);
+        escrever(LIMPAR_TELA);
+        for (int i = 0; i <= tamanho; i++) {
+            if (i % lado == 0) {
+                posicionar(linhaTela(i) - 1, 1);
+                escreverBorda();
+            }
+            if (i < tamanho) {
+                posicionar(linhaTela(i), 1);
+                for (int j = 0; j < tamanho; j++) {
+                    if (j % lado == 0) {
+                        escrever((byte) '|');
+                        escrever((byte) ' ');
+                    }
+                    escrever((byte) ' ');
+                    escrever((byte) ' ');
+                }
+                escrever((byte) '|');
+            }
+        }
+        Arrays.fill(quadro, DESCONHECIDO);
+        mensagemAlterada = true;
+        redesenhar(tabuleiro, linhaCursor, colunaCursor);
+        descarregar(saida);
+    }
+
+    /**
+     * Redesenha só as células que mudaram desde o último quadro, e a mensagem, se mudou.
+     *
+     * @param linhaCursor  A linha da célula selecionada, ou -1 para nenhuma.
+     * @param colunaCursor A coluna da célula selecionada.
+     * @return Quantas células foram redesenhadas.
+     */
+    public int atualizar(Tabuleiro tabuleiro, int linhaCursor, int colunaCursor, OutputStream saida)
+            throws IOException {
+        int redesenhadas = redesenhar(tabuleiro, linhaCursor, colunaCursor);
+        if (usados > 0) {
+            descarregar(saida);
+        }
+        return redesenhadas;
+    }
+
+    /**
+     * Troca o texto mostrado abaixo do tabuleiro; ele é desenhado no próximo quadro, se mudou.
+     */
+    public void setMensagem(CharSequence texto) {
+        if (!mesmaMensagem(texto)) {
+            mensagem.setLength(0);
+            mensagem.append(texto);
+            mensagemAlterada = true;
+        }
+    }
+
+    private boolean mesmaMensagem(CharSequence texto) {
+        if (texto.length() != mensagem.length()) {
+            return false;
+        }
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) != mensagem.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Devolve o terminal ao estado normal: estilo padrão, cursor visível e abaixo do tabuleiro.
+     */
+    public void encerrar(OutputStream saida) throws IOException {
+        escrever(ESTILO_NORMAL);
+        posicionar(linhaMensagem() + 1, 1);
+        escrever(MOSTRAR_CURSOR);
+        descarregar(saida);
+    }
+
+    /**
+     * Acrescenta o tabuleiro ao registro como uma linha de texto, linha a linha ('.' nas vazias).
+     * Só escreve na saída quando o buffer enche; chame {@link #descarregar} ao terminar.
+     */
+    public void registrar(Tabuleiro tabuleiro, OutputStream saida) throws IOException {
+        verificarTamanho(tabuleiro);
+        tabuleiro.copiarValores(valores);
+        garantir(valores.length + 1);
+        for (int valor : valores) {
+            buffer[usados++] = valor == 0 ? (byte) '.' : simbolo(valor);
+        }
+        buffer[usados++] = '\n';
+        if (usados >= LIMITE_REGISTRO) {
+            descarregar(saida);
+        }
+    }
+
+    /**
+     * Escreve na saída o que está no buffer.
+     */
+    public void descarregar(OutputStream saida) throws IOException {
+        saida.write(buffer, 0, usados);
+        saida.flush();
+        usados = 0;
+    }
+
+    private int redesenhar(Tabuleiro tabuleiro, int linhaCursor, int colunaCursor) {
+        verificarTamanho(tabuleiro);
+        tabuleiro.copiarValores(valores);
+        int selecionada = linhaCursor >= 0 ? linhaCursor * tamanho + colunaCursor : -1;
+
+        int redesenhadas = 0;
+        for (int c = 0; c < valores.length; c++) {
+            int estado = valores[c];
+            if (tabuleiro.getCelula(c / tamanho, c % tamanho).isFixo()) {
+                estado |= FIXA;
+            }
+            if (c == selecionada) {
+                estado |= SELECIONADA;
+            }
+            if (estado != quadro[c]) {
+                quadro[c] = estado;
+                desenharCelula(c, estado);
+                redesenhadas++;
+            }
+        }
+
+        if (mensagemAlterada) {
+            posicionar(linhaMensagem(), 1);
+            escrever(ESTILO_NORMAL);
+            for (int i = 0; i < mensagem.length(); i++) {
+                escreverCaractere(mensagem.charAt(i));
+            }
+            escrever(LIMPAR_ATE_FIM_DA_LINHA);
+            mensagemAlterada = false;
+        }
+        return redesenhadas;
+    }
+
+    private void desenharCelula(int celula, int estado) {
+        int linha = celula / tamanho;
+        int coluna = celula % tamanho;
+        int valor = estado & (FIXA - 1);
+
+        posicionar(linhaTela(linha), colunaTela(coluna));
+        escrever(ESTILO_NORMAL);
+        escrever((estado & FIXA) != 0 ? ESTILO_FIXO : ESTILO_JOGADOR);
+        if ((estado & SELECIONADA) != 0) {
+            escrever(ESTILO_SELECIONADO);
+        }
+        escrever(valor == 0 ? (byte) '.' : simbolo(valor));
+        escrever(ESTILO_NORMAL);
+    }
+
+    private void escreverBorda() {
+        for (int j = 0; j < lado; j++) {
+            escrever((byte) '+');
+            for (int k = 0; k < 2 * lado + 1; k++) {
+                escrever((byte) '-');
+            }
+        }
+        escrever((byte) '+');
+    }
+
+    // a primeira linha da tela é a borda de cima; cada região de linhas ganha uma borda abaixo
+    private int linhaTela(int linha) {
+        return 2 + linha + linha / lado;
+    }
+
+    private int colunaTela(int coluna) {
+        return 3 + 2 * coluna + 2 * (coluna / lado);
+    }
+
+    private int linhaMensagem() {
+        return linhaTela(tamanho - 1) + 2;
+    }
+
+    private void verificarTamanho(Tabuleiro tabuleiro) {
+        if (tabuleiro.getTamanho() != tamanho) {
+            throw new IllegalArgumentException("Tabuleiro de tamanho " + tabuleiro.getTamanho()
+                    + " em um renderizador de tamanho " + tamanho);
+        }
+    }
+
+    /**
+     * Escreve {@code ESC[linha;colunaH}, com as coordenadas da tela a partir de 1.
+     */
+    private void posicionar(int linha, int coluna) {
+        escrever((byte) 0x1B);
+        escrever((byte) '[');
+        escreverNumero(linha);
+        escrever((byte) ';');
+        escreverNumero(coluna);
+        escrever((byte) 'H');
+    }
+
+    private void escreverNumero(int numero) {
+        if (numero >= 10) {
+            escreverNumero(numero / 10);
+        }
+        escrever((byte) ('0' + numero % 10));
+    }
+
+    /**
+     * Escreve um caractere em UTF-8 (as mensagens têm acentos); pares substitutos viram '?'.
+     */
+    private void escreverCaractere(char c) {
+        if (c < 0x80) {
+            escrever((byte) c);
+        } else if (c < 0x800) {
+            escrever((byte) (0xC0 | (c >> 6)));
+            escrever((byte) (0x80 | (c & 0x3F)));
+        } else if (Character.isSurrogate(c)) {
+            escrever((byte) '?');
+        } else {
+            escrever((byte) (0xE0 | (c >> 12)));
+            escrever((byte) (0x80 | ((c >> 6) & 0x3F)));
+            escrever((byte) (0x80 | (c & 0x3F)));
+        }
+    }
+
+    private void escrever(byte b) {
+        garantir(1);
+        buffer[usados++] = b;
+    }
+
+    private void escrever(byte[] bytes) {
+        garantir(bytes.length);
+        System.arraycopy(bytes, 0, buffer, usados, bytes.length);
+        usados += bytes.length;
+    }
+
+    private void garantir(int bytes) {
+        if (usados + bytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, usados + bytes));
+        }
+    }
+
+    // 1 a 9, e letras a partir de 10 nos tabuleiros 16x16 e 25x25
+    private static byte simbolo(int valor) {
+        return (byte) (valor < 10 ? '0' + valor : 'A' + valor - 10);
+    }
+
+    private static byte[] ascii(String texto) {
+        return texto.getBytes(StandardCharsets.US_ASCII);
+    }
+}